@@ -2,15 +2,21 @@ import boundary.ApplicantBoundary;
 import boundary.HDBManagerBoundary;
 import boundary.HDBOfficerBoundary;
 import boundary.LoginBoundary;
+import boundary.SessionServer;
 import control.*;
-import java.util.*;
+import java.io.IOException;
 import model.*;
 import repo.*;
+import util.Session;
 
 /**
  * Entry point of the BTO Management System application.
  * This class initializes repositories, loads CSV data, sets up controllers,
  * and starts the login loop for users (Applicants, HDB Officers, and HDB Managers).
+ * When the {@code bto.server.port} system property is set, users can also
+ * connect over TCP on that port and work at the same time as the console user.
+ * When {@code bto.applicants.offheap} is {@code true}, applicants are kept in an
+ * off-heap table and only become objects when they are used.
  */
 public class MainApp {
 
@@ -22,83 +28,95 @@ public class MainApp {
      * @param args Command-line arguments (not used).
      */
     public static void main(String[] args) {
-        ApplicantRepo  applicantRepo = new ApplicantRepo();
+        ApplicantRepo  applicantRepo = new ApplicantRepo(Boolean.getBoolean("bto.applicants.offheap"));
         HDBOfficerRepo officerRepo   = new HDBOfficerRepo();
         HDBManagerRepo managerRepo   = new HDBManagerRepo();
         BTOProjectRepo projectRepo   = new BTOProjectRepo(managerRepo, officerRepo);
 
-        List<IUserRepo<? extends User>> userRepos = Arrays.asList(applicantRepo, officerRepo, managerRepo);
+        // One directory across all roles; rejects an NRIC that appears under more than one role
+        UserDirectory userDirectory = new UserDirectory();
+        userDirectory.register(applicantRepo);
+        userDirectory.register(officerRepo);
+        userDirectory.register(managerRepo);
 
-        ApplicantBoundary applicantBoundary = new ApplicantBoundary(projectRepo);
-        HDBOfficerBoundary officerBoundary = new HDBOfficerBoundary(applicantRepo, projectRepo, officerRepo);
-        HDBManagerBoundary managerBoundary = new HDBManagerBoundary(projectRepo);
+        Journal journal = new Journal("data/Journal.csv", projectRepo, userDirectory);
+        Snapshot snapshot = new Snapshot("data/Snapshot.bin", applicantRepo, officerRepo, managerRepo, projectRepo);
 
-        LoginBoundary loginBoundary = new LoginBoundary();
-        LoginControl loginControl = new LoginControl(userRepos, applicantBoundary, officerBoundary, managerBoundary);
+        // Start from the binary snapshot unless the CSV files were edited after it was written
+        long replayFrom = -1;
+        if (snapshot.isNewerThan("data/ApplicantList.csv", "data/OfficerList.csv",
+                "data/ManagerList.csv", "data/ProjectList.csv")) {
+            replayFrom = snapshot.load(journal.getGeneration());
+        }
+        if (replayFrom < 0) {
+            applicantRepo.loadFromCSV("data/ApplicantList.csv");
+            officerRepo.loadFromCSV("data/OfficerList.csv");
+            managerRepo.loadFromCSV("data/ManagerList.csv");
+            projectRepo.loadFromCSV("data/ProjectList.csv");
+            // Officers are linked to their assigned projects while the project list is loaded
+            replayFrom = 0;
+        }
 
-        applicantRepo.loadFromCSV("data/ApplicantList.csv");
-        officerRepo.loadFromCSV("data/OfficerList.csv");
-        managerRepo.loadFromCSV("data/ManagerList.csv");
-        projectRepo.loadFromCSV("data/ProjectList.csv");
-
-        
-        for (HDBOfficer officer : officerRepo.getAllOfficers()){
-            if (officer != null){
-                for (BTOProject project: projectRepo.getProjects()){
-                    if (project != null){
-                        if (project.getOfficerAssignedAsString().contains(officer.getName())){
-                            officer.setAssignedProject(project);
-                            break;
-                        }
-                    }
-                }
-            }
+        // Applications, enquiries, bookings and registrations made since are rebuilt from the journal
+        journal.replay(replayFrom);
+        journal.open();
 
+        // Import new applicants or officers handed over as CSV files; the summary sits next to each file
+        String applicantImport = System.getProperty("bto.import.applicants");
+        if (applicantImport != null) {
+            applicantRepo.importCSV(applicantImport, applicantImport + ".summary.csv", "data/ApplicantList.csv");
+        }
+        String officerImport = System.getProperty("bto.import.officers");
+        if (officerImport != null) {
+            officerRepo.importCSV(officerImport, officerImport + ".summary.csv", "data/OfficerList.csv");
         }
 
+        // Snapshot in the background every 50 changes or 60 seconds, unless configured otherwise
+        Checkpointer checkpointer = new Checkpointer(snapshot, journal,
+                Integer.getInteger("bto.checkpoint.changes", 50), Long.getLong("bto.checkpoint.seconds", 60));
+        checkpointer.start();
+
         // applicantRepo.printAllApplicants(); //COMMENT
         // officerRepo.printAllOfficers(); //COMMENT
         // managerRepo.printAllManagers(); //COMMENT
         // projectRepo.printAllProjects(); //COMMENT 
         // DataInitializer.initializeProjects(projectRepo);
         
-        Scanner sc = new Scanner(System.in);
-        int choice = -1;
-
-        while (choice != 2) {
-            System.out.println("=== Welcome to BTO Management System ===");
-            System.out.println("1. Login");
-            System.out.println("2. Exit");
-            System.out.print("Enter choice: ");
+        // Serve network sessions alongside the console when a port is configured
+        int port = Integer.getInteger("bto.server.port", -1);
+        SessionServer server = null;
+        if (port >= 0) {
+            try {
+                server = new SessionServer(port, userDirectory, applicantRepo, projectRepo, officerRepo);
+                server.start();
+            } catch (IOException e) {
+                System.out.println("Failed to start session server: " + e.getMessage());
+            }
+        }
 
-            if (sc.hasNextInt()) {
-                choice = sc.nextInt();
-                sc.nextLine();
+        Session console = Session.console();
+        ApplicantBoundary applicantBoundary = new ApplicantBoundary(projectRepo, console);
+        HDBOfficerBoundary officerBoundary = new HDBOfficerBoundary(applicantRepo, projectRepo, officerRepo, console);
+        HDBManagerBoundary managerBoundary = new HDBManagerBoundary(projectRepo, console);
 
-                switch (choice) {
-                    case 1:
-                        loginBoundary.promptLogin(loginControl);
-                        break;
-                    case 2:
-                        System.out.println("Goodbye!");
-                        // applicantRepo.printAllApplicants(); //COMMENT
-                        applicantRepo.saveToCSV("data/ApplicantList.csv");
-                        officerRepo.saveToCSV("data/OfficerList.csv");
-                        managerRepo.saveToCSV("data/ManagerList.csv");
-                        projectRepo.saveToCSV("data/ProjectList.csv");
-                        
-                        break;
-                    default:
-                        System.out.println("Invalid option. Try again.");
-                }
-            } else {
-                System.out.println("Please enter a number.");
-                sc.next(); 
-            }
+        LoginBoundary loginBoundary = new LoginBoundary(console);
+        LoginControl loginControl = new LoginControl(userDirectory, applicantBoundary, officerBoundary, managerBoundary);
+        loginBoundary.showWelcomeMenu(loginControl);
 
-            System.out.println();
+        // Exiting the console menu stops the server before everything is saved
+        if (server != null) {
+            server.close();
+            System.out.println(server.getReport());
         }
-
-        sc.close();
+        checkpointer.close();
+        // applicantRepo.printAllApplicants(); //COMMENT
+        applicantRepo.saveToCSV("data/ApplicantList.csv");
+        officerRepo.saveToCSV("data/OfficerList.csv");
+        managerRepo.saveToCSV("data/ManagerList.csv");
+        projectRepo.saveToCSV("data/ProjectList.csv");
+        journal.compact();
+        snapshot.save(journal.getGeneration(), journal.size());
+        journal.close();
+        System.out.println(checkpointer.getReport());
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package boundary;
 
 import control.ApplicantControl;
+import java.io.PrintStream;
 import java.util.Scanner;
 import model.Applicant;
 import repo.BTOProjectRepo;
+import util.Session;
 
 /**
  * The {@code ApplicantBoundary} class handles the user interface
@@ -13,18 +15,25 @@ import repo.BTOProjectRepo;
  */
 public class ApplicantBoundary {
 
-    /** Scanner object for reading user input from the console. */
-    private static final Scanner sc = new Scanner(System.in);
+    /** Scanner reading the input of the session this boundary serves. */
+    private final Scanner sc;
+
+    /** Stream printing to the session this boundary serves. */
+    private final PrintStream out;
 
     /** Controller that handles all applicant-related operations. */
     private ApplicantControl controller = new ApplicantControl();
 
     /**
     * Constructs an ApplicantBoundary with the given BTOProjectRepo.
+    * Must be created on the thread serving the session.
     *
     * @param projectRepo the repository of BTO projects
+    * @param session     the session whose input and output this boundary uses
     */
-    public ApplicantBoundary(BTOProjectRepo projectRepo){
+    public ApplicantBoundary(BTOProjectRepo projectRepo, Session session){
+        this.sc = session.in();
+        this.out = session.out();
         this.controller.init(projectRepo);
     }
 
@@ -36,19 +45,19 @@ public class ApplicantBoundary {
      */
     public void showApplicantMenu(Applicant user) {
         int choice = -1;
-        System.out.println("\nWelcome, " + user.getName() + "! (Applicant)");
+        out.println("\nWelcome, " + user.getName() + "! (Applicant)");
 
         while (true) {
-            System.out.println("\n== Applicant Menu ==");
-            System.out.println("1. View Eligible Projects");
-            System.out.println("2. Apply for a Project");
-            System.out.println("3. View My Application");
-            System.out.println("4. Request Withdrawal");
-            System.out.println("5. Submit Enquiry");
-            System.out.println("6. View/Edit/Delete Enquiries");
-            System.out.println("7. Update Password");
-            System.out.println("8. Logout");
-            System.out.print("\nEnter your choice: ");
+            out.println("\n== Applicant Menu ==");
+            out.println("1. View Eligible Projects");
+            out.println("2. Apply for a Project");
+            out.println("3. View My Application");
+            out.println("4. Request Withdrawal");
+            out.println("5. Submit Enquiry");
+            out.println("6. View/Edit/Delete Enquiries");
+            out.println("7. Update Password");
+            out.println("8. Logout");
+            out.print("\nEnter your choice: ");
 
             if (sc.hasNextInt()) {
                 choice = sc.nextInt();
@@ -66,13 +75,13 @@ public class ApplicantBoundary {
                         return;
                     }
                     case 8 -> {
-                        System.out.println("Logging out...");
+                        out.println("Logging out...");
                         return;
                     }
-                    default -> System.out.println("Invalid choice. Try again.");
+                    default -> out.println("Invalid choice. Try again.");
                 }
             } else {
-                System.out.println("Please enter a valid number.");
+                out.println("Please enter a valid number.");
                 sc.nextLine();
             }
         }
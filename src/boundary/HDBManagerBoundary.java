@@ -1,9 +1,11 @@
 package boundary;
 
 import control.HDBManagerControl;
+import java.io.PrintStream;
 import java.util.Scanner;
 import model.HDBManager;
 import repo.BTOProjectRepo;
+import util.Session;
 
 /**
  * The {@code HDBManagerBoundary} class provides the user interface for HDB managers.
@@ -12,19 +14,26 @@ import repo.BTOProjectRepo;
  */
 public class HDBManagerBoundary {
 
-    /** Scanner object for reading user input from the console. */
-    private final Scanner sc = new Scanner(System.in);
+    /** Scanner reading the input of the session this boundary serves. */
+    private final Scanner sc;
+
+    /** Stream printing to the session this boundary serves. */
+    private final PrintStream out;
 
     /** Controller that manages the logic and operations for the HDB manager. */
     private HDBManagerControl controller = new HDBManagerControl();
 
     /**
      * Constructs a new {@code HDBManagerBoundary} and initializes the controller
-     * with the provided BTO project repository.
+     * with the provided BTO project repository. Must be created on the thread
+     * serving the session.
      *
      * @param projectRepo The repository containing BTO project data to be managed.
+     * @param session     The session whose input and output this boundary uses.
      */
-    public HDBManagerBoundary(BTOProjectRepo projectRepo){
+    public HDBManagerBoundary(BTOProjectRepo projectRepo, Session session){
+        this.sc = session.in();
+        this.out = session.out();
         this.controller.init(projectRepo);
     }
 
@@ -36,27 +45,28 @@ public class HDBManagerBoundary {
      */
     public void showManagerMenu(HDBManager user) {
         int choice = -1;
-        System.out.println("\nWelcome, " + user.getName() + "! (HDB Manager)");
+        out.println("\nWelcome, " + user.getName() + "! (HDB Manager)");
 
         while (true) {
-            System.out.println("\n== Manager Menu ==");
-            System.out.println("1. Create New Project");
-            System.out.println("2. Edit My Project");
-            System.out.println("3. Delete My Project");
-            System.out.println("4. Toggle Project Visibility");
-            System.out.println("5. View All Projects");
-            System.out.println("6. View My Projects Only");
-            System.out.println("7. View Officer Registrations");
-            System.out.println("8. Approve/Reject Officer Registration");
-            System.out.println("9. View Applications to My Project");
-            System.out.println("10. Approve/Reject Application");
-            System.out.println("11. Process Withdrawal Requests");
-            System.out.println("12. View All Enquiries");
-            System.out.println("13. Reply to Enquiries (My Project Only)");
-            System.out.println("14. Generate Reports (with Filters)");
-            System.out.println("15. Change Passsword");
-            System.out.println("16. Logout");
-            System.out.print("\nEnter your choice: ");
+            out.println("\n== Manager Menu ==");
+            out.println("1. Create New Project");
+            out.println("2. Edit My Project");
+            out.println("3. Delete My Project");
+            out.println("4. Toggle Project Visibility");
+            out.println("5. View All Projects");
+            out.println("6. View My Projects Only");
+            out.println("7. View Officer Registrations");
+            out.println("8. Approve/Reject Officer Registration");
+            out.println("9. View Applications to My Project");
+            out.println("10. Approve/Reject Application");
+            out.println("11. Ballot All Pending Applications");
+            out.println("12. Process Withdrawal Requests");
+            out.println("13. View All Enquiries");
+            out.println("14. Reply to Enquiries (My Project Only)");
+            out.println("15. Generate Reports (with Filters)");
+            out.println("16. Change Passsword");
+            out.println("17. Logout");
+            out.print("\nEnter your choice: ");
 
             if (sc.hasNextInt()) {
                 choice = sc.nextInt();
@@ -73,22 +83,23 @@ public class HDBManagerBoundary {
                     case 8 -> controller.handleUpdateRegistration(user);
                     case 9 -> controller.viewApplications(user);
                     case 10 -> controller.handleUpdateApplication(user);
-                    case 11 -> controller.handleProcessWithdrawal(user);
-                    case 12 -> controller.viewAllEnquiries();
-                    case 13 -> controller.replyToEnquiries(user);
-                    case 14 -> controller.generateReports(user);
-                    case 15 -> {
+                    case 11 -> controller.handleBallot(user);
+                    case 12 -> controller.handleProcessWithdrawal(user);
+                    case 13 -> controller.viewAllEnquiries();
+                    case 14 -> controller.replyToEnquiries(user);
+                    case 15 -> controller.generateReports(user);
+                    case 16 -> {
                         controller.changePassword(user);
                         return;
                     }
-                    case 16 -> {
-                        System.out.println("Logging out...");
+                    case 17 -> {
+                        out.println("Logging out...");
                         return;
                     }  
-                    default -> System.out.println("Invalid choice. Try again.");
+                    default -> out.println("Invalid choice. Try again.");
                 }
             } else {
-                System.out.println("Please enter a valid number.");
+                out.println("Please enter a valid number.");
                 sc.nextLine(); 
             }
         }
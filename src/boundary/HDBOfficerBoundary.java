@@ -1,11 +1,13 @@
 package boundary;
 
 import control.HDBOfficerControl;
+import java.io.PrintStream;
 import java.util.Scanner;
 import model.HDBOfficer;
 import repo.ApplicantRepo;
 import repo.BTOProjectRepo;
 import repo.HDBOfficerRepo;
+import util.Session;
 
 /**
  * The {@code HDBOfficerBoundary} class handles the user interface for HDB officers.
@@ -15,20 +17,29 @@ import repo.HDBOfficerRepo;
  */
 public class HDBOfficerBoundary {
 
-    /** Scanner object for reading user input from the console. */
-    private final Scanner sc = new Scanner(System.in);
+    /** Scanner reading the input of the session this boundary serves. */
+    private final Scanner sc;
+
+    /** Stream printing to the session this boundary serves. */
+    private final PrintStream out;
+
     /** Controller that manages logic and actions related to HDB officers. */
     private HDBOfficerControl controller = new HDBOfficerControl();
 
     /**
      * Constructs a new {@code HDBOfficerBoundary} and initializes the officer controller
      * with the necessary repositories for applicants, projects, and officers.
+     * Must be created on the thread serving the session.
      *
      * @param applicantRepo The repository managing applicant data.
      * @param projectRepo   The repository managing BTO project data.
      * @param officerRepo   The repository managing HDB officer data.
+     * @param session       The session whose input and output this boundary uses.
      */
-    public HDBOfficerBoundary(ApplicantRepo applicantRepo, BTOProjectRepo projectRepo, HDBOfficerRepo officerRepo){
+    public HDBOfficerBoundary(ApplicantRepo applicantRepo, BTOProjectRepo projectRepo, HDBOfficerRepo officerRepo,
+                              Session session){
+        this.sc = session.in();
+        this.out = session.out();
         this.controller.init(applicantRepo, projectRepo, officerRepo);
     }
 
@@ -40,25 +51,26 @@ public class HDBOfficerBoundary {
      */
     public void showOfficerMenu(HDBOfficer user) {
         int choice = -1;
-        System.out.println("\nWelcome, " + user.getName() + "! (HDB Officer)");
+        out.println("\nWelcome, " + user.getName() + "! (HDB Officer)");
 
         while (true) {
-            System.out.println("\n== Officer Menu ==");
-            System.out.println("1. View Eligible Projects (as Applicant)");
-            System.out.println("2. Apply for a Project (not handling)");
-            System.out.println("3. View My Application");
-            System.out.println("4. Request Withdrawal");
-            System.out.println("5. Submit Enquiry");
-            System.out.println("6. View/Edit/Delete Enquiries");
-            System.out.println("7. Register to Handle Project");
-            System.out.println("8. View My Registration Status");
-            System.out.println("9. View Project I’m Handling");
-            System.out.println("10. View/Reply to Enquiries (My Project Only)");
-            System.out.println("11. Book Flat for Applicant");
-            System.out.println("12. Generate Booking Receipt");
-            System.out.println("13. Update Password");
-            System.out.println("14. Logout");
-            System.out.print("\nEnter your choice: ");
+            out.println("\n== Officer Menu ==");
+            out.println("1. View Eligible Projects (as Applicant)");
+            out.println("2. Apply for a Project (not handling)");
+            out.println("3. View My Application");
+            out.println("4. Request Withdrawal");
+            out.println("5. Submit Enquiry");
+            out.println("6. View/Edit/Delete Enquiries");
+            out.println("7. Register to Handle Project");
+            out.println("8. View My Registration Status");
+            out.println("9. View Project I’m Handling");
+            out.println("10. View/Reply to Enquiries (My Project Only)");
+            out.println("11. Book Flat for Applicant");
+            out.println("12. Book Flats for a Queue of Applicants");
+            out.println("13. Generate Booking Receipt");
+            out.println("14. Update Password");
+            out.println("15. Logout");
+            out.print("\nEnter your choice: ");
 
             if (sc.hasNextInt()) {
                 choice = sc.nextInt();
@@ -76,19 +88,20 @@ public class HDBOfficerBoundary {
                     case 9 -> controller.viewProjectHandling(user);
                     case 10 -> controller.viewAndReplyEnquiries(user);
                     case 11 -> controller.handleFlatBooking(user);
-                    case 12 -> controller.generateBookingReceipt(user);
-                    case 13 -> {
+                    case 12 -> controller.handleBatchFlatBooking(user);
+                    case 13 -> controller.generateBookingReceipt(user);
+                    case 14 -> {
                         controller.updatePassword(user);
                         return;
                     }
-                    case 14 -> {
-                        System.out.println("Logging out...");
+                    case 15 -> {
+                        out.println("Logging out...");
                         return;
                     }
-                    default -> System.out.println("Invalid choice. Try again.");
+                    default -> out.println("Invalid choice. Try again.");
                 }
             } else {
-                System.out.println("Please enter a valid number.");
+                out.println("Please enter a valid number.");
                 sc.nextLine();
             }
         }
@@ -1,7 +1,9 @@
 package boundary;
 
 import control.LoginControl;
+import java.io.PrintStream;
 import java.util.*;
+import util.Session;
 
 /**
  * The {@code LoginBoundary} class provides the user interface for login operations.
@@ -9,14 +11,58 @@ import java.util.*;
  */
 public class LoginBoundary {
 
-    /** Scanner object for reading user input from the console. */
+    /** Scanner reading the input of the session this boundary serves. */
     private Scanner sc;
-    
+
+    /** Stream printing to the session this boundary serves. */
+    private PrintStream out;
+
     /**
-     * Constructs a {@code LoginBoundary} and initializes the input scanner.
+     * Constructs a {@code LoginBoundary} reading from and printing to a session.
+     *
+     * @param session The session whose input and output this boundary uses.
      */
-    public LoginBoundary() {
-        sc = new Scanner(System.in);
+    public LoginBoundary(Session session) {
+        sc = session.in();
+        out = session.out();
+    }
+
+    /**
+     * Shows the welcome menu until the user chooses to exit, letting them log in
+     * as many times as they like.
+     *
+     * @param loginControl The {@code LoginControl} that processes login logic.
+     */
+    public void showWelcomeMenu(LoginControl loginControl) {
+        int choice = -1;
+
+        while (choice != 2) {
+            out.println("=== Welcome to BTO Management System ===");
+            out.println("1. Login");
+            out.println("2. Exit");
+            out.print("Enter choice: ");
+
+            if (sc.hasNextInt()) {
+                choice = sc.nextInt();
+                sc.nextLine();
+
+                switch (choice) {
+                    case 1:
+                        promptLogin(loginControl);
+                        break;
+                    case 2:
+                        out.println("Goodbye!");
+                        break;
+                    default:
+                        out.println("Invalid option. Try again.");
+                }
+            } else {
+                out.println("Please enter a number.");
+                sc.next();
+            }
+
+            out.println();
+        }
     }
 
     /**
@@ -25,9 +71,9 @@ public class LoginBoundary {
      * @param loginControl The {@code LoginControl} that processes login logic.
      */
     public void promptLogin(LoginControl loginControl) {
-        System.out.print("Enter NRIC: ");
+        out.print("Enter NRIC: ");
         String nric = sc.nextLine().trim();
-        System.out.print("Enter password: ");
+        out.print("Enter password: ");
         String password = sc.nextLine().trim();
         loginControl.handleLogin(nric, password);
     }
@@ -0,0 +1,202 @@
+package boundary;
+
+import control.LoginControl;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import repo.ApplicantRepo;
+import repo.BTOProjectRepo;
+import repo.HDBOfficerRepo;
+import repo.UserDirectory;
+import util.Session;
+
+/**
+ * Lets several users work at once by accepting connections on a local TCP port
+ * and running the same login menu as the console for each of them.
+ *
+ * Every connection is served on its own thread with its own boundaries and
+ * controls, all sharing one set of repositories. Virtual threads are used when
+ * the Java runtime provides them, so thousands of mostly idle sessions cost
+ * little; older runtimes fall back to a pool of platform threads.
+ */
+public class SessionServer implements Closeable {
+
+    /** Number of pending connections queued before new ones are refused. */
+    private static final int BACKLOG = 1024;
+
+    /** Socket accepting new connections. */
+    private final ServerSocket serverSocket;
+
+    /** Threads running the sessions. */
+    private final ExecutorService sessions = newSessionExecutor();
+
+    /** Connections currently being served, closed when the server stops. */
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+
+    /** Number of sessions that have ended. */
+    private final AtomicInteger served = new AtomicInteger();
+
+    /** Directory used to log users in. */
+    private final UserDirectory userDirectory;
+
+    /** Repository of applicants, shared by all sessions. */
+    private final ApplicantRepo applicantRepo;
+
+    /** Repository of projects, shared by all sessions. */
+    private final BTOProjectRepo projectRepo;
+
+    /** Repository of officers, shared by all sessions. */
+    private final HDBOfficerRepo officerRepo;
+
+    /**
+     * Opens a server on a port of the loopback interface.
+     *
+     * @param port          The port to listen on, or 0 for any free port.
+     * @param userDirectory The directory used to log users in.
+     * @param applicantRepo The applicant repository.
+     * @param projectRepo   The project repository.
+     * @param officerRepo   The officer repository.
+     * @throws IOException if the port cannot be opened.
+     */
+    public SessionServer(int port, UserDirectory userDirectory, ApplicantRepo applicantRepo,
+                         BTOProjectRepo projectRepo, HDBOfficerRepo officerRepo) throws IOException {
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.userDirectory = userDirectory;
+        this.applicantRepo = applicantRepo;
+        this.projectRepo = projectRepo;
+        this.officerRepo = officerRepo;
+    }
+
+    /**
+     * Creates the executor that runs sessions: one virtual thread per session
+     * when the runtime supports it, otherwise a growing pool of daemon threads.
+     *
+     * @return The session executor.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The local port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts accepting connections in the background. From now on, output is
+     * printed to the session of the thread that prints it.
+     */
+    public void start() {
+        Session.routeSystemOut();
+        Thread acceptor = new Thread(this::acceptLoop, "session-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        System.out.println("Accepting sessions on port " + getPort());
+    }
+
+    /**
+     * Accepts connections until the server socket is closed.
+     */
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                open.add(socket);
+                try {
+                    sessions.execute(() -> serve(socket));
+                } catch (RejectedExecutionException e) {
+                    open.remove(socket);
+                    socket.close(); // the server is stopping
+                }
+            } catch (SocketException e) {
+                return; // server socket closed
+            } catch (IOException e) {
+                System.out.println("Failed to accept session: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs the login menu for one connection until the user exits or disconnects.
+     *
+     * @param socket The connection to serve.
+     */
+    private void serve(Socket socket) {
+        try (socket; Session session = new Session(socket.getInputStream(), socket.getOutputStream())) {
+            session.bind();
+            // Controls pick up the bound session's input when the boundaries create them
+            LoginControl loginControl = new LoginControl(userDirectory,
+                    new ApplicantBoundary(projectRepo, session),
+                    new HDBOfficerBoundary(applicantRepo, projectRepo, officerRepo, session),
+                    new HDBManagerBoundary(projectRepo, session));
+            new LoginBoundary(session).showWelcomeMenu(loginControl);
+        } catch (NoSuchElementException e) {
+            // The user disconnected, or the server closed the connection, while a prompt was waiting
+        } catch (IOException | RuntimeException e) {
+            Session.unbind();
+            System.out.println("Session ended by error: " + e);
+        } finally {
+            Session.unbind();
+            open.remove(socket);
+            served.incrementAndGet();
+        }
+    }
+
+    /**
+     * Describes the sessions served so far.
+     *
+     * @return The number of ended and active sessions.
+     */
+    public String getReport() {
+        return served.get() + " session(s) served, " + open.size() + " still open";
+    }
+
+    /**
+     * Stops accepting connections, disconnects every open session, and waits
+     * briefly for their threads to finish.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close session server: " + e.getMessage());
+        }
+        for (Socket socket : open) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed by its session
+            }
+        }
+        sessions.shutdown();
+        try {
+            sessions.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
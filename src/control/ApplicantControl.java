@@ -3,6 +3,7 @@ package control;
 import enums.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.stream.Collectors;
 import model.*;
@@ -21,8 +22,8 @@ public class ApplicantControl {
     /** Repository containing all BTO project data. Used for filtering and lookup. */
     private BTOProjectRepo projectRepo;
 
-    /** Scanner object for receiving user input. Shared across control methods. */
-    private final Scanner sc = new Scanner(System.in);
+    /** Scanner reading the input of the session this control was created for. Shared across control methods. */
+    private final Scanner sc = Session.current().in();
 
     /**
      * Initializes the control class by linking it to a BTO project repository.
@@ -41,44 +42,48 @@ public class ApplicantControl {
     * - Married applicants must be at least 21 years old
     * - Unmarried applicants must be at least 35 years old
     *
-    * The method filters out invisible projects and prints the names,
-    * available flat types, prices, and application periods of eligible ones.
+    * Only visible projects open for applications are listed, each with the
+    * flat types the applicant may apply for that still have units, their prices,
+    * and the application period.
     *
     * @param applicant The applicant whose eligibility is being evaluated.
     */
     public void viewEligibleProjects(Applicant applicant) {
-        List<BTOProject> allProjects = projectRepo.getProjects();
-        boolean found = false;
-
-        System.out.println("\n== Eligible BTO Projects ==");
-
-        for (BTOProject project : allProjects) {
-            if (!project.isVisible()) continue;
+        printEligibleProjects(projectRepo, applicant, null);
+    }
 
-            boolean isMarried = applicant.isMarried();
-            int age = applicant.getAge();
+    /**
+    * Prints the projects open to the applicant's category, looked up from the
+    * repository's cache, as a single block of text.
+    *
+    * @param repo      The repository to look the projects up in.
+    * @param applicant The applicant whose eligibility is being evaluated.
+    * @param excluded  A project to leave out, such as one the officer handles, or {@code null}.
+    */
+    protected void printEligibleProjects(BTOProjectRepo repo, Applicant applicant, BTOProject excluded) {
+        StringBuilder listing = new StringBuilder("\n== Eligible BTO Projects ==\n");
+        boolean found = false;
 
-            // Eligibility check
-            if ((isMarried && age >= 21) || (!isMarried && age >= 35)) {
-                found = true;
-                System.out.println("- " + project.getName() + " (" + project.getNeighborhood() + ")");
+        for (Map.Entry<BTOProject, List<FlatType>> entry : repo.getEligibleProjects(applicant.getCategory()).entrySet()) {
+            BTOProject project = entry.getKey();
+            if (project == excluded) continue;
 
-                // Show flats based on rules
-                if (isMarried) {
-                    System.out.println("  • 2-Room: " + project.getTwoRoomNo() + " units ($" + project.getTwoRoomPrice() + ")");
-                    System.out.println("  • 3-Room: " + project.getThreeRoomNo() + " units ($" + project.getThreeRoomPrice() + ")");
+            found = true;
+            listing.append("- ").append(project.getName()).append(" (").append(project.getNeighborhood()).append(")\n");
+            for (FlatType type : entry.getValue()) {
+                if (type == FlatType.TWOROOM) {
+                    listing.append("  • 2-Room: ").append(project.getTwoRoomNo()).append(" units ($").append(project.getTwoRoomPrice()).append(")\n");
                 } else {
-                    System.out.println("  • 2-Room: " + project.getTwoRoomNo() + " units ($" + project.getTwoRoomPrice() + ")");
+                    listing.append("  • 3-Room: ").append(project.getThreeRoomNo()).append(" units ($").append(project.getThreeRoomPrice()).append(")\n");
                 }
-
-                System.out.println("  • Application Period: " + project.getAppOpenDate() + " to " + project.getAppCloseDate());
-                System.out.println();
             }
+            listing.append("  • Application Period: ").append(project.getAppOpenDate()).append(" to ").append(project.getAppCloseDate()).append("\n\n");
         }
 
         if (!found) {
-            System.out.println("No eligible projects available at the moment.");
+            listing.append("No eligible projects available at the moment.\n");
         }
+        System.out.print(listing);
     }
 
 
@@ -1,7 +1,13 @@
 package control;
 
 import enums.ApplicationStatus;
+import enums.BallotPolicy;
 import enums.RegistrationStatus;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
@@ -19,8 +25,11 @@ public class HDBManagerControl {
     /** Repository containing all BTO project data accessible to the manager. */
     private BTOProjectRepo projectRepo;
 
-    /** Scanner for reading user input during manager interactions. */
-    private final Scanner sc = new Scanner(System.in);
+    /** Timestamp format in the names of ballot audit files. */
+    private static final DateTimeFormatter AUDIT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /** Scanner reading the input of the session this control was created for, during manager interactions. */
+    private final Scanner sc = Session.current().in();
 
     /**
      * Initializes the control class by linking it to a BTO project repository.
@@ -316,15 +325,12 @@ public class HDBManagerControl {
         }
 
         for (BTOProject project : projects){//view all projects
-            for (BTOApplication application : project.getApplications()){//for each project get all applications
-                if (application.getApplicationStatus() == ApplicationStatus.PENDING)//for each application check status is pending
-                    applications.add(application);//add pending applications to list
-            }
+            applications.addAll(project.getApplications(ApplicationStatus.PENDING));//pending applications, kept up to date by the project
         }
 
         System.out.println("=== Pending Applications ===");
         for (int i = 0; i < applications.size(); i++) {
-            System.out.println((i + 1) + ". " + applications.toString());
+            System.out.println((i + 1) + ". " + applications.get(i));
         }
 
         System.out.print("Enter the number of the application you want to approve/reject (0 to cancel): ");
@@ -355,16 +361,20 @@ public class HDBManagerControl {
 
         switch (action) {
             case "a" -> {
-                if (selected.getProject().hasFlatAvailable(selected.getFlatType())){
-                    manager.updateApplication(true, selected);
-                    selected.getProject().decrementFlatCount(selected.getFlatType());
+                try {
+                    if (!manager.approveApplication(selected))
+                        System.out.println("No flats available, approval failed. ");
+                } catch (IllegalStateException e) {
+                    System.out.println(e.getMessage());
                 }
-                else
-                    System.out.println("No flats available, approval failed. ");
             }
 
             case "r" -> {
-                manager.updateApplication(false, selected);
+                try {
+                    manager.rejectApplication(selected);
+                } catch (IllegalStateException e) {
+                    System.out.println(e.getMessage());
+                }
             }
 
             default -> System.out.println("Invalid choice. Operation cancelled.");
@@ -372,6 +382,83 @@ public class HDBManagerControl {
     }
 
 
+    /**
+     * Decides every pending application to the manager's projects in one ballot
+     * per project, approving applications as far as each project's flats go.
+     * The manager chooses a random ballot, whose seed is shown so it can be
+     * repeated, or first come, first served. A summary is printed per project,
+     * and every decision is written to an audit file.
+     *
+     * @param manager The manager running the ballot.
+     */
+    public void handleBallot(HDBManager manager) {
+        if (manager.getprojects().isEmpty()) {
+            System.out.println("No projects available.");
+            return;
+        }
+
+        System.out.print("Allocate by (R)andom ballot or (F)irst come, first served? ");
+        BallotPolicy policy;
+        switch (sc.nextLine().trim().toLowerCase()) {
+            case "r" -> policy = BallotPolicy.RANDOM;
+            case "f" -> policy = BallotPolicy.FIFO;
+            default -> {
+                System.out.println("Invalid choice. Operation cancelled.");
+                return;
+            }
+        }
+
+        long seed = 0;
+        if (policy == BallotPolicy.RANDOM) {
+            System.out.print("Enter the ballot seed (blank for a new one): ");
+            String input = sc.nextLine().trim();
+            try {
+                seed = input.isEmpty() ? System.nanoTime() : Long.parseLong(input);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid seed.");
+                return;
+            }
+        }
+
+        List<Ballot> ballots = manager.ballotApplications(policy, seed);
+        System.out.println("=== Ballot Results (" + policy + (policy == BallotPolicy.RANDOM ? ", seed " + seed : "")
+                + ") ===");
+        for (Ballot ballot : ballots) {
+            System.out.println(ballot);
+        }
+
+        String auditFile = "data/BallotAudit-" + LocalDateTime.now().format(AUDIT_TIME) + ".csv";
+        try {
+            writeBallotAudit(auditFile, ballots);
+            System.out.println("Decisions written to " + auditFile);
+        } catch (IOException e) {
+            System.out.println("Failed to write ballot audit: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes every decision of a set of ballots to a CSV file, one row per
+     * application in ballot order.
+     *
+     * @param fileName The file to write.
+     * @param ballots  The ballots.
+     * @throws IOException if the file cannot be written.
+     */
+    private static void writeBallotAudit(String fileName, List<Ballot> ballots) throws IOException {
+        StringBuilder text = new StringBuilder(Journal.format("Project", "Policy", "Seed", "Rank", "NRIC",
+                "FlatType", "Result"));
+        for (Ballot ballot : ballots) {
+            for (Ballot.Entry entry : ballot.getEntries()) {
+                BTOApplication application = entry.getApplication();
+                text.append(Journal.format(ballot.getProject().getName(), ballot.getPolicy().name(),
+                        String.valueOf(ballot.getSeed()), String.valueOf(entry.getRank()),
+                        application.getApplicant().getNric(), application.getFlatType().name(),
+                        entry.getResult() != null ? entry.getResult().name() : "DECIDED_ELSEWHERE"));
+            }
+        }
+        AtomicFile.write(Path.of(fileName), text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Processes withdrawal requests submitted by applicants for the manager's projects.
      * The manager may approve or reject each request.
@@ -388,11 +475,7 @@ public class HDBManagerControl {
 
         List<BTOApplication> withdrawals = new ArrayList<>();
         for(BTOProject project : manager.getprojects()){//for each project
-            for(BTOApplication application : project.getApplications()){//for each project application
-                if(application.hasRequestedWithdraw()){//if application requested for withdrawal
-                    withdrawals.add(application);
-                }
-            }
+            withdrawals.addAll(project.getWithdrawalRequests());//applications that requested withdrawal
         }
 
         System.out.println("=== Pending Withdrawals ===");
@@ -427,11 +510,16 @@ public class HDBManagerControl {
         String action = sc.nextLine().trim().toLowerCase();
 
         switch (action) {
-            case "a" -> {
-                selected.approveWithdraw();
-            }
-            case "r" -> {
-                selected.rejectWithdraw();
+            case "a", "r" -> {
+                // Another manager may have decided on it since the list was shown
+                synchronized (selected) {
+                    if (!selected.hasRequestedWithdraw())
+                        System.out.println("This withdrawal has already been processed.");
+                    else if (action.equals("a"))
+                        selected.approveWithdraw();
+                    else
+                        selected.rejectWithdraw();
+                }
             }
             default -> System.out.println("Invalid choice. Operation cancelled.");
         }
@@ -446,6 +534,7 @@ public class HDBManagerControl {
         // Show enquiries across all projects
         System.out.println("=== List of All Enquiries ===");
         for (BTOProject project : projectRepo.getProjects()){
+            System.out.println("--- " + project.getName() + " (" + project.getUnrepliedEnquiryCount() + " awaiting reply) ---");
             for (Enquiry enquiry : project.getEnquiries()){
                 System.out.println(enquiry.toString());
             }
@@ -455,52 +544,21 @@ public class HDBManagerControl {
 
     /**
      * Allows the manager to reply to pending enquiries related to their own projects.
-     * Only unreplied enquiries can be selected and responded to.
+     * Only unreplied enquiries are listed, a page at a time and oldest first, and can be responded to.
      *
      * @param manager The manager replying to their project's enquiries.
      */
     public void replyToEnquiries(HDBManager manager) {
         // Allow manager to reply only to enquiries on their own projects
-        List<BTOProject> projects = manager.getprojects();
-        List<Enquiry> enquiries = new ArrayList<>();
-
-        if (projects.isEmpty()){
+        if (manager.getprojects().isEmpty()){
             System.out.println("You are not managing any projects");
             return;
         }
 
-        for (BTOProject project : projects){//view all projects
-            for (Enquiry enquiry : project.getEnquiries()){//for each project get all enquiries
-                if (!enquiry.isReplied())//for each enquiry filter non replied enquiries
-                    enquiries.add(enquiry);//add enquiry to list
-            }
-        }
-
-        System.out.println("=== Pending Enquiries ===");
-        for (int i = 0; i < enquiries.size(); i++) {
-            System.out.println((i + 1) + ". " + enquiries.toString());
-        }
-
-        System.out.print("Enter the number of the enquiries you want to reply to (0 to cancel): ");
-        int choice;
-        try {
-            choice = Integer.parseInt(sc.nextLine());
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input.");
-            return;
-        }
-
-        if (choice == 0) {
-            System.out.println("Operation cancelled.");
+        Enquiry selected = EnquiryPager.choose(manager::getUnrepliedEnquiries, manager::getUnrepliedEnquiryCount);
+        if (selected == null) {
             return;
         }
-
-        if (choice < 0 || choice > enquiries.size()) {
-            System.out.println("Invalid enquiry number.");
-            return;
-        }
-
-        Enquiry selected = enquiries.get(choice -1);
         System.out.println("\nSelected enquiry:");
         System.out.println(selected);
 
@@ -2,12 +2,19 @@ package control;
 
 
 import enums.*;
-import java.time.LocalDate;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import model.*;
 import repo.*;
+import util.AtomicFile;
+import util.EnquiryPager;
+import util.Session;
 
 /**
  * Control class for handling all business logic specific to HDB Officers.
@@ -26,8 +33,11 @@ public class HDBOfficerControl extends ApplicantControl{
     /** Repository for managing officer-specific data and persistence. */
     private HDBOfficerRepo hdbOfficerRepo;
 
-    /** Scanner for reading user input in officer-specific workflows. */
-    private final Scanner sc = new Scanner(System.in);
+    /** Time stamp in the names of receipt files. */
+    private static final DateTimeFormatter RECEIPT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /** Scanner reading the input of the session this control was created for, in officer-specific workflows. */
+    private final Scanner sc = Session.current().in();
 
     /**
      * Initializes the officer control with access to the applicant, project, and officer repositories.
@@ -46,49 +56,13 @@ public class HDBOfficerControl extends ApplicantControl{
 
     /**
      * Displays a list of BTO projects the officer is eligible to apply for.
-     * Filters out projects the officer is already managing and only shows visible ones.
-     * Eligibility is based on marital status and age.
+     * Filters out the project the officer is handling and only shows visible ones
+     * open for applications. Eligibility is based on marital status and age.
      *
      * @param officer The HDB officer viewing eligible projects.
      */
     public void viewEligibleProjects(HDBOfficer officer) {
-        List<BTOProject> allProjects = projectRepo.getProjects();
-        boolean found = false;
-
-        System.out.println("\n== Eligible BTO Projects ==");
-
-        for (BTOProject project : allProjects) {
-            if (!project.isVisible()) continue;
-
-            if (officer.isHandlingProject() && project.getName().equalsIgnoreCase(officer.getAssignedProjectName())){
-                continue;
-            }
-            
-
-            boolean isMarried = officer.isMarried();
-            int age = officer.getAge();
-
-            // Eligibility check
-            if ((isMarried && age >= 21) || (!isMarried && age >= 35)) {
-                found = true;
-                System.out.println("- " + project.getName() + " (" + project.getNeighborhood() + ")");
-
-                // Show flats based on rules
-                if (isMarried) {
-                    System.out.println("  • 2-Room: " + project.getTwoRoomNo() + " units ($" + project.getTwoRoomPrice() + ")");
-                    System.out.println("  • 3-Room: " + project.getThreeRoomNo() + " units ($" + project.getThreeRoomPrice() + ")");
-                } else {
-                    System.out.println("  • 2-Room: " + project.getTwoRoomNo() + " units ($" + project.getTwoRoomPrice() + ")");
-                }
-
-                System.out.println("  • Application Period: " + project.getAppOpenDate() + " to " + project.getAppCloseDate());
-                System.out.println();
-            }
-        }
-
-        if (!found) {
-            System.out.println("No eligible projects available at the moment.");
-        }        
+        printEligibleProjects(projectRepo, officer, officer.getProject());
     }
 
 
@@ -247,12 +221,7 @@ public class HDBOfficerControl extends ApplicantControl{
         }
 
         // 5. Check for overlapping application periods
-
-        OfficerRegistration reg = officer.getRegistration();
-        if (reg != null && reg.getStatus() != RegistrationStatus.REJECTED && 
-            datesOverlap(project.getAppOpenDate(), project.getAppCloseDate(),
-                reg.getProject().getAppOpenDate(), reg.getProject().getAppCloseDate())) {
-
+        if (!officer.isEligibleForRegistration(project)) {
             System.out.println("You already have an officer registration that overlaps with this project's application period.");
             return;
         }
@@ -321,8 +290,8 @@ public class HDBOfficerControl extends ApplicantControl{
 
 
     /**
-     * Displays all enquiries submitted for the project the officer is managing,
-     * and allows the officer to reply to one that hasn't been responded to yet.
+     * Pages through the enquiries awaiting a reply for the project the officer is
+     * managing, oldest first, and allows the officer to reply to one of them.
      *
      * Validates officer assignment, enquiry selection, and reply input.
      *
@@ -335,48 +304,13 @@ public class HDBOfficerControl extends ApplicantControl{
         }
 
         BTOProject project = officer.getProject();
-        List<Enquiry> enquiries = project.getEnquiries();
-
-        if (enquiries.isEmpty()) {
-            System.out.println("📭 No enquiries have been submitted for this project.");
-            return;
-        }
-
         System.out.println("=== Enquiries for Project: " + project.getName() + " ===");
 
-        // Show all enquiries
-        for (int i = 0; i < enquiries.size(); i++) {
-            Enquiry e = enquiries.get(i);
-            System.out.println("\n[" + (i + 1) + "]");
-            System.out.println("From     : " + e.getApplicant().getName());
-            System.out.println("Message  : " + e.getMessage());
-            System.out.println("Status   : " + (e.isReplied() ? "Replied" : "Not Replied"));
-            if (e.isReplied()) {
-                System.out.println("Reply    : " + e.getReply());
-            }
-        }
-
-        System.out.print("\nEnter the enquiry number to reply to (0 to cancel): ");
-        int choice;
-        try {
-            choice = Integer.parseInt(sc.nextLine().trim());
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input.");
-            return;
-        }
-
-        if (choice == 0) {
-            System.out.println("Operation cancelled.");
+        Enquiry selected = EnquiryPager.choose(project::getUnrepliedEnquiries, project::getUnrepliedEnquiryCount);
+        if (selected == null) {
             return;
         }
 
-        if (choice < 1 || choice > enquiries.size()) {
-            System.out.println("Invalid enquiry number.");
-            return;
-        }
-
-        Enquiry selected = enquiries.get(choice - 1);
-
         if (selected.isReplied()) {
             System.out.println("This enquiry has already been replied to.");
             return;
@@ -439,15 +373,70 @@ public class HDBOfficerControl extends ApplicantControl{
             return;
         }
 
-        FlatType type = app.getFlatType();
+        // Proceed with booking
+        user.bookFlat(applicant);  // call the alreadu existing method
+    }
+
+
+    /**
+     * Books flats for a queue of applicants to the officer's project in one go.
+     * The officer enters the NRICs, several to a line separated by commas or
+     * spaces, and ends the list with a blank line. Each NRIC is checked as in
+     * {@link #handleFlatBooking(HDBOfficer)}; the outcome of every NRIC is
+     * printed as a table, and the receipts of the flats booked are written to
+     * a file together.
+     *
+     * @param user The officer performing the bookings.
+     */
+    public void handleBatchFlatBooking(HDBOfficer user) {
+        if (!user.isHandlingProject()) {
+            System.out.println("You are not currently assigned to any project.");
+            return;
+        }
+
+        System.out.println("Enter the NRICs of the applicants, separated by commas or spaces; end with a blank line:");
+        List<String> nrics = new ArrayList<>();
+        while (sc.hasNextLine()) {
+            String line = sc.nextLine().trim();
+            if (line.isEmpty()) {
+                break;
+            }
+            for (String nric : line.split("[,\\s]+")) {
+                if (!nric.isEmpty()) {
+                    nrics.add(nric);
+                }
+            }
+        }
+        if (nrics.isEmpty()) {
+            System.out.println("No NRICs entered.");
+            return;
+        }
 
-        if (!user.getProject().hasFlatAvailable(type)) {
-            System.out.println("No more flats available for the selected flat type.");
+        BatchBooking batch = user.bookFlats(nrics, this::findApplicant);
+        System.out.print("=== Booking Outcomes ===" + System.lineSeparator() + batch.outcomeTable());
+        System.out.println(batch);
+        if (batch.getBookedCount() == 0) {
             return;
         }
 
-        // Proceed with booking
-        user.bookFlat(applicant);  // call the alreadu existing method
+        String receiptFile = "data/Receipts-" + LocalDateTime.now().format(RECEIPT_TIME) + ".txt";
+        try {
+            AtomicFile.write(Path.of(receiptFile), batch.receipts().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Receipts written to " + receiptFile);
+        } catch (IOException e) {
+            System.out.println("Failed to write receipts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the applicant or officer with an NRIC.
+     *
+     * @param nric The NRIC.
+     * @return The applicant, or {@code null} if no applicant or officer has the NRIC.
+     */
+    private Applicant findApplicant(Nric nric) {
+        Applicant applicant = applicantRepo.getUser(nric.toString());
+        return applicant != null ? applicant : hdbOfficerRepo.getUser(nric.toString());
     }
 
 
@@ -494,18 +483,4 @@ public class HDBOfficerControl extends ApplicantControl{
         // Everything is valid — print the receipt
         user.generateBookingReceipt(applicant);
     }
-
-    /**
-     * Utility method to check if two date ranges overlap.
-     * Used to ensure no conflicting officer registrations across projects.
-     *
-     * @param start1 Start date of the first range.
-     * @param end1   End date of the first range.
-     * @param start2 Start date of the second range.
-     * @param end2   End date of the second range.
-     * @return True if the ranges overlap, false otherwise.
-     */
-    private boolean datesOverlap(LocalDate start1, LocalDate end1, LocalDate start2, LocalDate end2) {
-        return !(end1.isBefore(start2) || end2.isBefore(start1));
-    }
 }
\ No newline at end of file
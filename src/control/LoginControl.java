@@ -1,7 +1,6 @@
 package control;
 
 import boundary.*;
-import java.util.*;
 import model.Applicant;
 import model.HDBManager;
 import model.HDBOfficer;
@@ -15,10 +14,10 @@ import repo.*;
 public class LoginControl {
 
     /**
-     * A list of user repositories containing various types of users
-     * (e.g., applicants, officers, managers) that implement {@link IUserRepo}.
+     * The cross-role directory of all users (applicants, officers, managers),
+     * fed by every {@link IUserRepo}.
      */
-    private List<IUserRepo<? extends User>> userRepos;
+    private UserDirectory userDirectory;
 
     /**
      * The boundary class responsible for handling user interactions and UI logic
@@ -39,19 +38,19 @@ public class LoginControl {
     private HDBManagerBoundary managerBoundary;
    
     /**
-     * Constructs a new {@code LoginControl} instance with the specified user repositories
+     * Constructs a new {@code LoginControl} instance with the specified user directory
      * and UI boundaries for each user type.
      *
-     * @param userRepos          A list of repositories managing different user types (applicant, officer, manager).
+     * @param userDirectory      The directory of users across all roles (applicant, officer, manager).
      * @param applicantBoundary  The boundary handler for applicant-related interactions.
      * @param officerBoundary    The boundary handler for officer-related interactions.
      * @param managerBoundary    The boundary handler for manager-related interactions.
      */
-    public LoginControl(List<IUserRepo<? extends User>> userRepos, 
+    public LoginControl(UserDirectory userDirectory, 
                         ApplicantBoundary applicantBoundary, 
                         HDBOfficerBoundary officerBoundary, 
                         HDBManagerBoundary managerBoundary) {
-        this.userRepos = userRepos;
+        this.userDirectory = userDirectory;
         this.applicantBoundary = applicantBoundary;
         this.officerBoundary = officerBoundary;
         this.managerBoundary = managerBoundary;
@@ -59,23 +58,16 @@ public class LoginControl {
 
     /**
      * Attempts to log in a user by matching NRIC and password against
-     * each user repository.
+     * the user directory.
      *
      * @param nric     The NRIC of the user attempting to log in.
      * @param password The password provided by the user.
-     * @return The authenticated User object if login is successful, null otherwise.
+     * @return The directory entry of the authenticated user if login is successful, null otherwise.
      */
-    private User login(String nric, String password) {
-        User user;
-        for (IUserRepo<? extends User> userRepo : userRepos) {
-            user = userRepo.getUser(nric);
-            if (user != null) {
-                if (user.checkPassword(password))
-                    return user;
-                else
-                    return null;
-            }
-        }
+    private UserDirectory.Entry login(String nric, String password) {
+        UserDirectory.Entry entry = userDirectory.lookup(nric);
+        if (entry != null && entry.getUser().checkPassword(password))
+            return entry;
         return null;
     }
 
@@ -87,18 +79,17 @@ public class LoginControl {
      * @param password The password entered by the user.
      */
     public void handleLogin(String nric, String password) {
-        User user = login(nric, password);
-        if (user == null) {
+        UserDirectory.Entry entry = login(nric, password);
+        if (entry == null) {
             System.out.println("Invalid NRIC or password.");
             return;
         }
         System.out.println("Login successful!");
-        if (user instanceof HDBOfficer officer) {
-            officerBoundary.showOfficerMenu(officer);
-        } else if (user instanceof Applicant applicant) {
-            applicantBoundary.showApplicantMenu(applicant);
-        } else if (user instanceof HDBManager manager) {
-            managerBoundary.showManagerMenu(manager);
+        User user = entry.getUser();
+        switch (entry.getRole()) {
+            case OFFICER -> officerBoundary.showOfficerMenu((HDBOfficer) user);
+            case APPLICANT -> applicantBoundary.showApplicantMenu((Applicant) user);
+            case MANAGER -> managerBoundary.showManagerMenu((HDBManager) user);
         }
     }
 }
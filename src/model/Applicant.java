@@ -1,7 +1,8 @@
 package model;
 
-import java.util.ArrayList;
+import enums.ApplicantCategory;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents an applicant user in the BTO system. 
@@ -26,7 +27,36 @@ public class Applicant extends User {
      */
     public Applicant(String name, String nric, int age, boolean isMarried, String password) {
         super(name, nric, age, isMarried,password);
-        this.enquiries = new ArrayList<>();
+        this.enquiries = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Constructs an {@code Applicant} without the format checks.
+     *
+     * @param name The applicant's name.
+     * @param nric The applicant's NRIC.
+     * @param age The applicant's age.
+     * @param isMarried The marital status of the applicant.
+     * @param password The applicant's password.
+     */
+    protected Applicant(String name, Nric nric, int age, boolean isMarried, String password) {
+        super(name, nric, age, isMarried, password);
+        this.enquiries = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Recreates an applicant from previously validated data, such as a snapshot,
+     * without repeating the format checks.
+     *
+     * @param name The applicant's name.
+     * @param nric The applicant's NRIC.
+     * @param age The applicant's age.
+     * @param isMarried The marital status of the applicant.
+     * @param password The applicant's password.
+     * @return The applicant.
+     */
+    public static Applicant restore(String name, Nric nric, int age, boolean isMarried, String password) {
+        return new Applicant(name, nric, age, isMarried, password);
     }
 
     /**
@@ -38,6 +68,20 @@ public class Applicant extends User {
         return this.application;
     }
 
+    /**
+     * Returns the category deciding which projects and flat types the applicant
+     * may apply for: singles aged 35 or above, married applicants aged 21 or above,
+     * or neither.
+     *
+     * @return The applicant's {@code ApplicantCategory}.
+     */
+    public ApplicantCategory getCategory() {
+        if (isMarried()) {
+            return getAge() >= 21 ? ApplicantCategory.MARRIED : ApplicantCategory.INELIGIBLE;
+        }
+        return getAge() >= 35 ? ApplicantCategory.SINGLE : ApplicantCategory.INELIGIBLE;
+    }
+
     /**
      * Returns the list of enquiries submitted by the applicant.
      *
@@ -133,7 +177,8 @@ public class Applicant extends User {
         }
 
         enquiries.remove(index);
-        enquiry.getProject().getEnquiries().remove(enquiry);  // also remove from project
+        enquiry.getProject().removeEnquiry(enquiry);  // also remove from project
+        ChangeRecorder.record("DELETE_ENQUIRY", String.valueOf(enquiry.getId()));
         System.out.println("Enquiry deleted successfully.");
     }
 
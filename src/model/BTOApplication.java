@@ -1,6 +1,11 @@
 package model;
 
 import enums.*;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents an application submitted by an applicant for a BTO project.
@@ -19,13 +24,28 @@ public class BTOApplication {
     private FlatType flatType;
 
     /** The current status of the application. */
-    private ApplicationStatus status;
+    private volatile ApplicationStatus status;
 
     /** Whether the applicant has requested to withdraw the application. */
-    private boolean wantWithdraw;
+    private volatile boolean wantWithdraw;
 
     /** The flat booking associated with this application, if booked. */
-    private FlatBooking flatBooking;
+    private volatile FlatBooking flatBooking;
+
+    /** Source of {@link #sequence} numbers. */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /** Order in which applications were created, breaking ties between equal ballot ranks. */
+    private final long sequence = SEQUENCE.incrementAndGet();
+
+    /** Position in the project's last ballot, from 1, or 0 if never balloted. Changed only through the project. */
+    private volatile int ballotRank;
+
+    /** The status when a withdrawal was requested, or {@code null} if none was. */
+    private volatile ApplicationStatus withdrawnFrom;
+
+    /** Notable events in the life of the application, such as a promotion from the waitlist, oldest first. */
+    private final List<String> history = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a new BTOApplication.
@@ -41,6 +61,44 @@ public class BTOApplication {
         this.status = ApplicationStatus.PENDING;  // CHANGE IT BACK TO PENDING REMEMBER
         this.wantWithdraw = false;
         this.applicant.setApplication(this);
+        // Recorded once the project lists it; see BTOProject#addApplication
+    }
+
+    /**
+     * Recreates an application saved in an earlier session, with its status and
+     * withdrawal request, without reporting it as a new change. The application
+     * becomes the applicant's current one.
+     *
+     * @param applicant The applicant who submitted the application.
+     * @param project The BTO project applied to.
+     * @param flatType The type of flat requested.
+     * @param status The saved application status.
+     * @param wantWithdraw Whether a withdrawal had been requested.
+     * @return The application.
+     */
+    public static BTOApplication restore(Applicant applicant, BTOProject project, FlatType flatType,
+                                         ApplicationStatus status, boolean wantWithdraw) {
+        BTOApplication application = new BTOApplication(applicant, project, flatType, status, wantWithdraw);
+        applicant.setApplication(application);
+        return application;
+    }
+
+    /**
+     * Constructs an application with the given state.
+     *
+     * @param applicant The applicant submitting the application.
+     * @param project The BTO project being applied to.
+     * @param flatType The type of flat requested.
+     * @param status The application status.
+     * @param wantWithdraw Whether a withdrawal has been requested.
+     */
+    private BTOApplication(Applicant applicant, BTOProject project, FlatType flatType,
+                           ApplicationStatus status, boolean wantWithdraw) {
+        this.applicant = applicant;
+        this.project = project;
+        this.flatType = flatType;
+        this.status = status;
+        this.wantWithdraw = wantWithdraw;
     }
 
 
@@ -103,6 +161,81 @@ public class BTOApplication {
         return this.flatBooking;
     }
 
+    /**
+     * Returns the position of the application in its project's last ballot.
+     *
+     * @return The rank, from 1, or 0 if the application was never balloted.
+     */
+    public int getBallotRank() {
+        return ballotRank;
+    }
+
+    /**
+     * Sets the ballot rank; called by the project, which keeps its waitlists ordered by rank.
+     *
+     * @param ballotRank The rank, from 1.
+     */
+    void setBallotRank(int ballotRank) {
+        this.ballotRank = ballotRank;
+    }
+
+    /**
+     * Returns the order in which the application was created, relative to the others.
+     *
+     * @return The creation sequence number.
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the status the application had when its withdrawal was requested.
+     *
+     * @return The status, or {@code null} if no withdrawal was requested in this or a saved session.
+     */
+    public ApplicationStatus getWithdrawnFrom() {
+        return withdrawnFrom;
+    }
+
+    /**
+     * Sets the status the application had when its withdrawal was requested,
+     * when restoring an application saved in an earlier session.
+     *
+     * @param withdrawnFrom The status, or {@code null}.
+     */
+    public void restoreWithdrawnFrom(ApplicationStatus withdrawnFrom) {
+        this.withdrawnFrom = withdrawnFrom;
+    }
+
+    /**
+     * Returns the notable events in the life of the application, oldest first.
+     *
+     * @return An unmodifiable view of the history.
+     */
+    public List<String> getHistory() {
+        return Collections.unmodifiableList(history);
+    }
+
+    /**
+     * Adds an event to the history without recording it, for events recorded
+     * as part of a larger record and when restoring a saved history.
+     *
+     * @param entry The event, starting with its date and time.
+     */
+    public void addHistory(String entry) {
+        history.add(entry);
+    }
+
+    /**
+     * Sets the position of the application in a ballot without recording it,
+     * for ballots and when replaying or restoring them.
+     *
+     * @param rank The rank, from 1.
+     */
+    public void restoreRank(int rank) {
+        project.changeRank(this, rank);
+    }
+
     /**
      * Updates the application status.
      *
@@ -110,31 +243,95 @@ public class BTOApplication {
      */
     public void setStatus(ApplicationStatus applicationStatus){
         this.status = applicationStatus;
+        project.applicationChanged(this);
+        ChangeRecorder.record("STATUS", applicant.getNric(), project.getName(), applicationStatus.name());
         System.out.println("Status changed successfully");
     }
 
     /**
-     * Marks this application as having a withdrawal request.
+     * Sets the status without recording it, for a change that is recorded as
+     * part of a larger record, such as a ballot, and when replaying that record.
+     *
+     * @param applicationStatus The new status.
+     */
+    public void restoreStatus(ApplicationStatus applicationStatus) {
+        this.status = applicationStatus;
+        project.applicationChanged(this);
+    }
+
+    /**
+     * Marks this application as having a withdrawal request. Like the
+     * approvals, it holds the application's lock, so the status it is withdrawn
+     * from cannot change meanwhile.
      */
-    public void withdraw() {
+    public synchronized void withdraw() {
+        this.withdrawnFrom = this.status;
         this.wantWithdraw = true;
         this.status = ApplicationStatus.WITHDRAWN;
+        project.applicationChanged(this);
+        ChangeRecorder.record("WITHDRAW", applicant.getNric(), project.getName());
         System.out.println("Withdrawal request submitted successfully.");
     }
 
     /**
-     * Approves withdrawal request
+     * Approves withdrawal request. The one flat taken when the application was
+     * approved, whether booked since or not, is returned to the project, which
+     * offers it to the next application on its waitlist. The request is closed so that it cannot
+     * be approved twice, even by two managers at once.
      */
-    public void approveWithdraw() {
-        this.status = ApplicationStatus.WITHDRAWN;
+    public synchronized void approveWithdraw() {
+        FlatType returned = closeWithdraw();
+        ChangeRecorder.record("APPROVE_WITHDRAW", applicant.getNric(), project.getName());
+        if (returned != null) {
+            project.returnFlat(returned);
+        }
         System.out.println("Withdrawal request submitted successfully.");
     }
 
     /**
-     * Cancels a previous withdrawal request.
+     * Approves the withdrawal request when replaying it, returning the flat to
+     * the project without recording the change or promoting anyone; later
+     * records say who was promoted.
+     */
+    public synchronized void restoreWithdrawApproval() {
+        FlatType returned = closeWithdraw();
+        if (returned != null) {
+            project.releaseFlat(returned);
+        }
+    }
+
+    /**
+     * Closes the withdrawal request and works out which flat it frees.
+     *
+     * @return The type of flat to return to the project, or {@code null} if none.
+     */
+    private FlatType closeWithdraw() {
+        boolean pending = this.wantWithdraw;
+        this.status = ApplicationStatus.WITHDRAWN;
+        this.wantWithdraw = false;
+        project.applicationChanged(this);
+        if (!pending) {
+            return null;
+        }
+        // An approved application holds one flat from the moment it is approved, and booking uses that flat
+        if (flatBooking != null) {
+            return flatBooking.getFlatType();
+        }
+        return withdrawnFrom == ApplicationStatus.SUCCESSFUL ? flatType : null;
+    }
+
+    /**
+     * Cancels a previous withdrawal request. The application returns to the
+     * status it was withdrawn from, so an approved application keeps its flat
+     * and can still book it.
      */
-    public void rejectWithdraw() {
+    public synchronized void rejectWithdraw() {
+        if (this.wantWithdraw && this.withdrawnFrom != null) {
+            this.status = this.withdrawnFrom;
+        }
         this.wantWithdraw = false;
+        project.applicationChanged(this);
+        ChangeRecorder.record("REJECT_WITHDRAW", applicant.getNric(), project.getName());
         System.out.println("Withdrawal request rejected successfully.");
     }
 
@@ -144,7 +341,30 @@ public class BTOApplication {
      * @param flatType The type of flat to book.
      */
     public void createFlatBooking(FlatType flatType) {
-        this.flatBooking = new FlatBooking(flatType, this);  
+        createFlatBooking(flatType, LocalDateTime.now());
+    }
+
+    /**
+     * Creates a flat booking with a known booking date, used when restoring
+     * bookings made in an earlier session.
+     *
+     * @param flatType    The type of flat to book.
+     * @param bookingDate The date and time the booking was made.
+     */
+    public void createFlatBooking(FlatType flatType, LocalDateTime bookingDate) {
+        this.flatBooking = new FlatBooking(flatType, this, bookingDate);
+        ChangeRecorder.record("BOOK", applicant.getNric(), project.getName(), flatType.name(), bookingDate.toString());
+    }
+
+    /**
+     * Creates a flat booking without recording it, for a booking that is
+     * recorded as part of a batch, and when replaying that batch.
+     *
+     * @param flatType    The type of flat to book.
+     * @param bookingDate The date and time the booking was made.
+     */
+    public void restoreFlatBooking(FlatType flatType, LocalDateTime bookingDate) {
+        this.flatBooking = new FlatBooking(flatType, this, bookingDate);
     }
 
     /**
@@ -154,17 +374,21 @@ public class BTOApplication {
      */
     @Override
     public String toString() {
+        StringBuilder history = new StringBuilder();
+        for (String entry : this.history) {
+            history.append("History             : ").append(entry).append('\n');
+        }
         return """
             Applicant Name      : %s
             Project Name        : %s
             Flat Type           : %s
             Application Status  : %s
             Withdrawal Status   : %s
-            
+            %s
             ------------------------------------------
             """.formatted(
                 applicant.getName(), project.getName(), flatType.toString().toLowerCase(), 
-                status.toString().toLowerCase(), wantWithdraw ? "Submitted" : "None"
+                status.toString().toLowerCase(), wantWithdraw ? "Submitted" : "None", history
             );
     }
 }
\ No newline at end of file
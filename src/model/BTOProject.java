@@ -1,9 +1,23 @@
 package model;
 
+import enums.ApplicationStatus;
 import enums.FlatType;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -12,17 +26,20 @@ import java.util.stream.Collectors;
  */
 public class BTOProject {
 
+    /**
+     * Incremented whenever any project's visibility, application dates, or flat
+     * counts change, so cached project listings know when to refresh.
+     */
+    private static final AtomicLong LISTING_VERSION = new AtomicLong();
+
     /** Name of the project. */
     private String name;
 
     /** Neighborhood where the project is located. */
     private String neighborhood;
 
-    /** Number of available 2-room flats. */
-    private int twoRoomNo;
-
-    /** Number of available 3-room flats. */
-    private int threeRoomNo;
+    /** Number of available flats of each type. */
+    private final FlatInventory inventory = new FlatInventory();
 
     /** Price of 2-room flats. */
     private int twoRoomPrice;
@@ -51,12 +68,53 @@ public class BTOProject {
     /** String containing names of assigned officers. */
     private String officerAssignedAsString;
 
+    /**
+     * Cached comma-separated names of registered officers, rebuilt lazily
+     * after a registration is added; {@code null} when stale.
+     */
+    private String registeredOfficerNames;
+
+    /** Whether a field saved to the CSV files has changed since the project was last saved. */
+    private volatile boolean dirty;
+
     /** List of applications submitted to this project. */
     private List<BTOApplication> applications;
 
+    /**
+     * The same applications grouped by status, each group in submission order,
+     * so that finding the pending ones does not scan every application ever made.
+     * Guarded by itself, together with {@link #withdrawalRequests}.
+     */
+    private final Map<ApplicationStatus, Set<BTOApplication>> applicationsByStatus = new EnumMap<>(ApplicationStatus.class);
+
+    /** Applications whose withdrawal request awaits a decision, in the order they were added. */
+    private final Set<BTOApplication> withdrawalRequests = new LinkedHashSet<>();
+
+    /** Waitlist order: by ballot rank, unballoted applications last, then by submission. */
+    private static final Comparator<BTOApplication> BY_RANK = Comparator
+            .comparingInt((BTOApplication a) -> a.getBallotRank() == 0 ? Integer.MAX_VALUE : a.getBallotRank())
+            .thenComparingLong(BTOApplication::getSequence);
+
+    /**
+     * Per flat type, the applications that are offered a flat of that type when
+     * one is returned: pending ones, and those a ballot left unsuccessful.
+     * Guarded by {@link #applicationsByStatus}. An application's rank only
+     * changes through {@link #changeRank}, which takes it out first.
+     */
+    private final Map<FlatType, NavigableSet<BTOApplication>> waitlists = new EnumMap<>(FlatType.class);
+
     /** List of enquiries submitted for this project. */
     private List<Enquiry> enquiries;
 
+    /**
+     * The enquiries still awaiting a reply, oldest first, so officers and managers
+     * can page through the open ones without scanning every enquiry ever made.
+     */
+    private final NavigableSet<Enquiry> unrepliedEnquiries = new ConcurrentSkipListSet<>(Enquiry.BY_TIMESTAMP);
+
+    /** Number of enquiries awaiting a reply, kept alongside the set since counting it is slow. */
+    private final AtomicInteger unrepliedCount = new AtomicInteger();
+
     /** List of officer registrations for handling this project. */
     private List<OfficerRegistration> officerRegistrations;
 
@@ -83,8 +141,8 @@ public class BTOProject {
                       LocalDate appopenDate, LocalDate appcloseDate, int noAvailableOffice, HDBManager hdbManager, String officerAsString) {
         this.name = name;
         this.neighborhood = neighborhood;
-        this.twoRoomNo = twoRoomNo;
-        this.threeRoomNo = threeRoomNo;
+        this.inventory.set(FlatType.TWOROOM, twoRoomNo);
+        this.inventory.set(FlatType.THREEROOM, threeRoomNo);
         this.twoRoomPrice = twoRoomPrice;
         this.threeRoomPrice = threeRoomPrice;
         this.visible = true;
@@ -93,10 +151,17 @@ public class BTOProject {
         this.noAvailableOffice = noAvailableOffice;
         this.hdbManager = hdbManager;
         this.hdbManagerName  = this.hdbManager.getName();
-        this.applications = new ArrayList<>();
-        this.enquiries = new ArrayList<>();
-        this.officerRegistrations = new ArrayList<>();
-        this.bookings = new ArrayList<>();
+        // Copy-on-write, so one session can iterate while another adds
+        this.applications = new CopyOnWriteArrayList<>();
+        this.enquiries = new CopyOnWriteArrayList<>();
+        this.officerRegistrations = new CopyOnWriteArrayList<>();
+        this.bookings = new CopyOnWriteArrayList<>();
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            applicationsByStatus.put(status, new LinkedHashSet<>());
+        }
+        for (FlatType flatType : FlatType.values()) {
+            waitlists.put(flatType, new TreeSet<>(BY_RANK));
+        }
 
         this.officerAssignedAsString = officerAsString;
         if (officerAsString.isEmpty()) {
@@ -126,7 +191,7 @@ public class BTOProject {
      *
      * @return the number of 2-room flats
      */
-    public int getTwoRoomNo() { return twoRoomNo; }
+    public int getTwoRoomNo() { return inventory.available(FlatType.TWOROOM); }
 
 
     /**
@@ -134,7 +199,7 @@ public class BTOProject {
      *
      * @return the number of 3-room flats
      */
-    public int getThreeRoomNo() { return threeRoomNo; }
+    public int getThreeRoomNo() { return inventory.available(FlatType.THREEROOM); }
 
 
     /**
@@ -188,14 +253,57 @@ public class BTOProject {
      *
      * @return a list of {@code BTOApplication} instances
      */
-    public List<BTOApplication> getApplications() { return applications; }
+    public List<BTOApplication> getApplications() { return Collections.unmodifiableList(applications); }
+
+    /**
+     * Returns the applications that currently have a status, in submission order.
+     *
+     * @param status the status to look for
+     * @return a snapshot of the matching applications
+     */
+    public List<BTOApplication> getApplications(ApplicationStatus status) {
+        synchronized (applicationsByStatus) {
+            return List.copyOf(applicationsByStatus.get(status));
+        }
+    }
+
+    /**
+     * Returns the applications whose withdrawal request awaits a decision.
+     *
+     * @return a snapshot of the applications, in the order they were added
+     */
+    public List<BTOApplication> getWithdrawalRequests() {
+        synchronized (applicationsByStatus) {
+            return List.copyOf(withdrawalRequests);
+        }
+    }
 
     /**
      * Returns the list of enquiries submitted by applicants for this project.
+     * Use {@link #addEnquiry} and {@link #removeEnquiry} to change it.
+     *
+     * @return a read-only view of the {@code Enquiry} instances
+     */
+    public List<Enquiry> getEnquiries() { return Collections.unmodifiableList(enquiries); }
+
+    /**
+     * Returns a page of the enquiries awaiting a reply, oldest first.
      *
-     * @return a list of {@code Enquiry} instances
+     * @param after the last enquiry of the previous page, or {@code null} for the first page
+     * @param limit the maximum number of enquiries to return
+     * @return up to {@code limit} unreplied enquiries made after {@code after}
      */
-    public List<Enquiry> getEnquiries() { return enquiries; }
+    public List<Enquiry> getUnrepliedEnquiries(Enquiry after, int limit) {
+        NavigableSet<Enquiry> rest = after == null ? unrepliedEnquiries : unrepliedEnquiries.tailSet(after, false);
+        return rest.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the number of enquiries awaiting a reply.
+     *
+     * @return the number of unreplied enquiries
+     */
+    public int getUnrepliedEnquiryCount() { return unrepliedCount.get(); }
 
     /**
      * Returns the list of officer registrations for this project.
@@ -211,16 +319,27 @@ public class BTOProject {
      */
     public String getHDBManagerName() { return hdbManagerName; }
 
+    /**
+     * Returns the HDB manager responsible for this project.
+     *
+     * @return the manager
+     */
+    public HDBManager getHDBManager() { return hdbManager; }
+
     /**
      * Returns a comma-separated string of officer names assigned to this project.
+     * The string is cached and only rebuilt after the registrations change.
      *
      * @return a string of assigned officer names
      */
     public String getOfficerAssignedAsString() {
-        return officerRegistrations.stream()
-                .map(r -> r.getOfficer().getName())
-                .distinct()
-                .collect(Collectors.joining(","));
+        if (registeredOfficerNames == null) {
+            registeredOfficerNames = officerRegistrations.stream()
+                    .map(r -> r.getOfficer().getName())
+                    .distinct()
+                    .collect(Collectors.joining(","));
+        }
+        return registeredOfficerNames;
     }
 
     /**
@@ -230,84 +349,252 @@ public class BTOProject {
      */
     public List<FlatBooking> getBookings() { return bookings; }
 
+    /**
+     * Sets the name of the project.
+     * Projects held by a repository should be renamed through
+     * {@code BTOProjectRepo.renameProject} so its name index stays in sync.
+     *
+     * @param name the new name
+     */
+    public void setName(String name) {
+        String oldName = this.name;
+        this.name = name;
+        this.dirty = true;
+        ChangeRecorder.record("RENAME", oldName, name);
+    }
+
     /**
      * Sets the neighborhood of the project.
      * @param neighborhood the new neighborhood
      */
-    public void setNeighborhood(String neighborhood) { this.neighborhood = neighborhood; }
+    public void setNeighborhood(String neighborhood) {
+        this.neighborhood = neighborhood;
+        this.dirty = true;
+    }
 
     /**
      * Sets the number of 2-room flats available in the project.
      *
      * @param twoRoomNo the number of 2-room flats
      */
-    public void setTwoRoomNo(int twoRoomNo) { this.twoRoomNo = twoRoomNo; }
+    public void setTwoRoomNo(int twoRoomNo) {
+        inventory.set(FlatType.TWOROOM, twoRoomNo);
+        recordInventory();
+    }
 
     /**
      * Sets the number of 3-room flats available in the project.
      *
      * @param threeRoomNo the number of 3-room flats
      */
-    public void setThreeRoomNo(int threeRoomNo) { this.threeRoomNo = threeRoomNo; }
+    public void setThreeRoomNo(int threeRoomNo) {
+        inventory.set(FlatType.THREEROOM, threeRoomNo);
+        recordInventory();
+    }
 
     /**
      * Sets the price for a 2-room flat.
      *
      * @param twoRoomPrice the price of a 2-room flat
      */
-    public void setTwoRoomPrice(int twoRoomPrice) { this.twoRoomPrice = twoRoomPrice; }
+    public void setTwoRoomPrice(int twoRoomPrice) {
+        this.twoRoomPrice = twoRoomPrice;
+        this.dirty = true;
+    }
 
     /**
      * Sets the price for a 3-room flat.
      *
      * @param threeRoomPrice the price of a 3-room flat
      */
-    public void setThreeRoomPrice(int threeRoomPrice) { this.threeRoomPrice = threeRoomPrice; }
+    public void setThreeRoomPrice(int threeRoomPrice) {
+        this.threeRoomPrice = threeRoomPrice;
+        this.dirty = true;
+    }
 
     /**
      * Sets the date when the application period opens.
      *
      * @param appOpenDate the application open date
      */
-    public void setAppOpenDate(LocalDate appOpenDate) { this.appOpenDate = appOpenDate; }
+    public void setAppOpenDate(LocalDate appOpenDate) {
+        this.appOpenDate = appOpenDate;
+        this.dirty = true;
+        periodChanged();
+    }
 
     /**
      * Sets the date when the application period closes.
      *
      * @param appCloseDate the application close date
      */
-    public void setAppCloseDate(LocalDate appCloseDate) { this.appCloseDate = appCloseDate; }
+    public void setAppCloseDate(LocalDate appCloseDate) {
+        this.appCloseDate = appCloseDate;
+        this.dirty = true;
+        periodChanged();
+    }
+
+    /**
+     * Moves the project to its new application period in the indexes of its
+     * manager and of the officers registered for it, and marks cached listings as stale.
+     */
+    private void periodChanged() {
+        LISTING_VERSION.incrementAndGet();
+        hdbManager.projectPeriodChanged(this);
+        for (OfficerRegistration reg : officerRegistrations) {
+            reg.getOfficer().registrationChanged(reg);
+        }
+    }
 
     /**
      * Sets the number of officer registration slots available.
      *
      * @param noAvailableOffice the number of available officer slots
      */
-    public void setNoAvailableOffice(int noAvailableOffice) { this.noAvailableOffice = noAvailableOffice; }
+    public void setNoAvailableOffice(int noAvailableOffice) {
+        this.noAvailableOffice = noAvailableOffice;
+        recordInventory();
+    }
 
     /**
      * Sets the visibility status of the project for applicants.
      *
      * @param visibility {@code true} to make the project visible, {@code false} to hide it
      */
-    public void setVisible(boolean visibility) { this.visible = visibility; }
+    public void setVisible(boolean visibility) {
+        this.visible = visibility;
+        LISTING_VERSION.incrementAndGet();
+    }
 
     
     /**
-     * Adds a new enquiry to the project.
+     * Adds a new enquiry to the project and records it as a change.
      * @param e the enquiry to add
      */
     public void addEnquiry(Enquiry e) {
-        this.enquiries.add(e);
+        restoreEnquiry(e);
+        // Only recorded once linked, so a checkpoint taken on this record includes the enquiry
+        ChangeRecorder.record("ENQUIRY", String.valueOf(e.getId()), e.getApplicant().getNric(), name,
+                e.getTimestamp().toString(), e.getMessage());
         System.out.println("Enquiry successfully added");
     }
 
+    /**
+     * Adds an enquiry loaded from saved data to the project, without announcing it.
+     * @param e the enquiry to add
+     */
+    public void restoreEnquiry(Enquiry e) {
+        // Listed as open before it becomes visible, so a reply can always find it there
+        if (!e.isReplied() && unrepliedEnquiries.add(e)) {
+            unrepliedCount.incrementAndGet();
+        }
+        this.enquiries.add(e);
+    }
+
+    /**
+     * Removes an enquiry from the project, for example when its applicant deletes it.
+     * @param e the enquiry to remove
+     */
+    public void removeEnquiry(Enquiry e) {
+        this.enquiries.remove(e);
+        enquiryReplied(e);
+    }
+
+    /**
+     * Takes an enquiry off the list of those awaiting a reply. Called when it is
+     * replied to; does nothing if it was not on the list.
+     * @param e the enquiry that no longer awaits a reply
+     */
+    void enquiryReplied(Enquiry e) {
+        if (unrepliedEnquiries.remove(e)) {
+            unrepliedCount.decrementAndGet();
+        }
+    }
+
     /**
      * Adds a new application to the project.
      * @param a the application to add
      */
     public void addApplications(BTOApplication a) {
         applications.add(a);
+        synchronized (applicationsByStatus) {
+            file(a);
+        }
+    }
+
+    /**
+     * Moves an application of this project to the group of its current status,
+     * and into or out of the withdrawal requests. Called whenever either changes.
+     * Applications made for the project but never added to it are ignored.
+     * @param application the application that changed
+     */
+    void applicationChanged(BTOApplication application) {
+        synchronized (applicationsByStatus) {
+            boolean tracked = false;
+            for (Set<BTOApplication> group : applicationsByStatus.values()) {
+                tracked |= group.remove(application);
+            }
+            withdrawalRequests.remove(application);
+            waitlists.get(application.getFlatType()).remove(application);
+            if (tracked) {
+                file(application);
+            }
+        }
+    }
+
+    /**
+     * Changes the ballot rank of an application, moving it within its waitlist.
+     * @param application the application
+     * @param rank the new rank, from 1
+     */
+    void changeRank(BTOApplication application, int rank) {
+        synchronized (applicationsByStatus) {
+            boolean listed = waitlists.get(application.getFlatType()).remove(application);
+            application.setBallotRank(rank);
+            if (listed) {
+                waitlists.get(application.getFlatType()).add(application);
+            }
+        }
+    }
+
+    /**
+     * Returns the applications waiting for a flat of a type to be returned, in
+     * the order they would be offered one.
+     * @param flatType the type of flat
+     * @return a snapshot of the waitlist
+     */
+    public List<BTOApplication> getWaitlist(FlatType flatType) {
+        synchronized (applicationsByStatus) {
+            return List.copyOf(waitlists.get(flatType));
+        }
+    }
+
+    /**
+     * Adds an application to the group of its status, and to the withdrawal
+     * requests if it has one. The caller holds the lock on the groups.
+     * @param application the application to file
+     */
+    private void file(BTOApplication application) {
+        ApplicationStatus status = application.getApplicationStatus();
+        applicationsByStatus.get(status).add(application);
+        if (application.hasRequestedWithdraw()) {
+            withdrawalRequests.add(application);
+        }
+        if (isWaiting(application)) {
+            waitlists.get(application.getFlatType()).add(application);
+        }
+    }
+
+    /**
+     * Checks whether an application should be offered a returned flat: it is
+     * pending, or a ballot left it unsuccessful, and no withdrawal is requested.
+     * @param application the application
+     * @return true if the application belongs on its waitlist
+     */
+    private static boolean isWaiting(BTOApplication application) {
+        ApplicationStatus status = application.getApplicationStatus();
+        return !application.hasRequestedWithdraw() && (status == ApplicationStatus.PENDING
+                || (status == ApplicationStatus.UNSUCCESSSFUL && application.getBallotRank() > 0));
     }
 
     /**
@@ -319,6 +606,9 @@ public class BTOProject {
                 .anyMatch(r -> r.getOfficer().equals(reg.getOfficer()));
         if (!exists) {
             officerRegistrations.add(reg);
+            reg.getOfficer().registrationChanged(reg);
+            registeredOfficerNames = null;
+            dirty = true;
         }
     }
 
@@ -332,8 +622,17 @@ public class BTOProject {
     /** Toggles the visibility status of the project. */
     public void toggleVisibility() {
         this.visible = !this.visible;
+        LISTING_VERSION.incrementAndGet();
     }
 
+    /**
+     * Returns a number that changes whenever any project's visibility, application
+     * dates, or flat counts change.
+     *
+     * @return the current listing version
+     */
+    public static long getListingVersion() { return LISTING_VERSION.get(); }
+
     /**
      * Checks whether the project is currently active.
      * @return true if the current date is within the application period
@@ -350,25 +649,89 @@ public class BTOProject {
      * @return true if available
      */
     public boolean hasFlatAvailable(FlatType flatType) {
-        return switch (flatType) {
-            case TWOROOM -> twoRoomNo > 0;
-            case THREEROOM -> threeRoomNo > 0;
-        };
+        return inventory.available(flatType) > 0;
     }
 
     /**
-     * Decreases the count of the specified flat type by one.
+     * Takes one flat of the specified type if any is left, in a single atomic step,
+     * so concurrent bookings can never take more flats than exist.
      * @param flatType the type of flat
+     * @return true if a flat was taken, false if none was available
      */
-    public void decrementFlatCount(FlatType flatType) {
-        switch (flatType) {
-            case TWOROOM -> this.twoRoomNo--;
-            case THREEROOM -> this.threeRoomNo--;
+    public boolean tryReserveFlat(FlatType flatType) {
+        if (!inventory.tryReserve(flatType)) {
+            return false;
+        }
+        recordInventory();
+        return true;
+    }
+
+    /**
+     * Takes one flat of the specified type if any is left, without recording the
+     * new count. The caller records it with the rest of its change through
+     * {@link #recordBallot(List)}.
+     * @param flatType the type of flat
+     * @return true if a flat was taken, false if none was available
+     */
+    boolean takeFlatUnrecorded(FlatType flatType) {
+        return inventory.tryReserve(flatType);
+    }
+
+    /**
+     * Returns one flat of the specified type to the project, for example after a withdrawal.
+     * @param flatType the type of flat
+     */
+    public void releaseFlat(FlatType flatType) {
+        inventory.release(flatType);
+        recordInventory();
+    }
+
+    /**
+     * Returns one flat of the specified type to the project and offers it to
+     * the first application on the waitlist for that type, which is approved
+     * if the flat is still free. Applications whose applicant has since applied
+     * elsewhere are dropped from the waitlist on the way.
+     * @param flatType the type of flat
+     * @return the application promoted, or null if none was
+     */
+    public BTOApplication returnFlat(FlatType flatType) {
+        releaseFlat(flatType);
+        while (true) {
+            BTOApplication next;
+            synchronized (applicationsByStatus) {
+                next = waitlists.get(flatType).pollFirst();
+            }
+            if (next == null) {
+                return null;
+            }
+            // As in the manager's menu, the application cannot be decided twice at once
+            synchronized (next) {
+                ApplicationStatus status = next.getApplicationStatus();
+                if (next.getApplicant().getApplication() != next || next.hasRequestedWithdraw()
+                        || (status != ApplicationStatus.PENDING && status != ApplicationStatus.UNSUCCESSSFUL)) {
+                    continue;
+                }
+                if (!inventory.tryReserve(flatType)) {
+                    applicationChanged(next); // taken meanwhile; keep its place for the next flat
+                    return null;
+                }
+                String entry = LocalDateTime.now().withNano(0) + " Promoted from the waitlist"
+                        + (next.getBallotRank() > 0 ? " at ballot rank " + next.getBallotRank() : "")
+                        + " when a " + (flatType == FlatType.TWOROOM ? "2-room" : "3-room") + " flat was returned";
+                next.restoreStatus(ApplicationStatus.SUCCESSFUL);
+                next.addHistory(entry);
+                dirty = true;
+                LISTING_VERSION.incrementAndGet();
+                ChangeRecorder.record(inventory, () -> new String[] {"PROMOTE", next.getApplicant().getNric(), name,
+                        entry, String.valueOf(getTwoRoomNo()), String.valueOf(getThreeRoomNo()),
+                        String.valueOf(noAvailableOffice)});
+                return next;
+            }
         }
     }
 
     /**
-     * Adds an application to the project if it's not null.
+     * Adds a new application to the project if it's not null, and records it as a change.
      * @param application the application to add
      */
     public void addApplication(BTOApplication application) {
@@ -377,12 +740,87 @@ public class BTOProject {
             return;
         }
         this.applications.add(application);
+        synchronized (applicationsByStatus) {
+            file(application);
+        }
+        // Only recorded once linked, so a checkpoint taken on this record includes the application
+        ChangeRecorder.record("APPLY", application.getApplicant().getNric(), name, application.getFlatType().name());
         System.out.println("Application added to project: " + this.name);
     }
 
     /** Decreases the number of available officer slots by one. */
     public void decrementAvailableOffice() {
         this.noAvailableOffice--;
+        recordInventory();
+    }
+
+    /**
+     * Checks whether a field saved to the CSV files has changed since the project was last saved.
+     *
+     * @return true if the project needs saving
+     */
+    public boolean isDirty() { return dirty; }
+
+    /** Marks the project as saved. */
+    public void markClean() { this.dirty = false; }
+
+    /**
+     * Marks the flat and officer slot counts as changed and reports them as an
+     * absolute record, so that replaying it is safe even on top of data that
+     * already reflects it. The counts are read and queued under the inventory's
+     * lock, so concurrent bookings are recorded in the order the counts changed.
+     */
+    private void recordInventory() {
+        dirty = true;
+        LISTING_VERSION.incrementAndGet();
+        ChangeRecorder.record(inventory, () -> new String[] {"INVENTORY", name, String.valueOf(getTwoRoomNo()),
+                String.valueOf(getThreeRoomNo()), String.valueOf(noAvailableOffice)});
+    }
+
+    /**
+     * Records the decisions of a ballot together with the flat and officer slot
+     * counts as a single record, so that the ballot is replayed whole or not at all.
+     * Like {@link #recordInventory()}, the counts are read and queued under the
+     * inventory's lock.
+     *
+     * @param decisions the NRIC, new status, and rank of each decided application, in turn
+     */
+    void recordBallot(List<String> decisions) {
+        dirty = true;
+        LISTING_VERSION.incrementAndGet();
+        ChangeRecorder.record(inventory, () -> {
+            List<String> fields = new ArrayList<>(decisions.size() + 5);
+            fields.add("BALLOT");
+            fields.add(name);
+            fields.add(String.valueOf(getTwoRoomNo()));
+            fields.add(String.valueOf(getThreeRoomNo()));
+            fields.add(String.valueOf(noAvailableOffice));
+            fields.addAll(decisions);
+            return fields.toArray(new String[0]);
+        });
+    }
+
+    /**
+     * Records a batch of flat bookings together with the flat and officer slot
+     * counts as a single record, so that the batch is replayed whole or not at
+     * all. Like {@link #recordInventory()}, the counts are read and queued under
+     * the inventory's lock.
+     *
+     * @param bookings the NRIC, flat type, and booking date of each booking, in turn
+     */
+    void recordBookings(List<String> bookings) {
+        dirty = true;
+        LISTING_VERSION.incrementAndGet();
+        ChangeRecorder.record(inventory, () -> {
+            List<String> fields = new ArrayList<>(bookings.size() + 5);
+            fields.add("BOOKINGS");
+            fields.add(name);
+            fields.add(String.valueOf(getTwoRoomNo()));
+            fields.add(String.valueOf(getThreeRoomNo()));
+            fields.add(String.valueOf(noAvailableOffice));
+            fields.addAll(bookings);
+            return fields.toArray(new String[0]);
+        });
     }
 
     /**
@@ -413,8 +851,8 @@ public class BTOProject {
             """.formatted(
                 name,
                 neighborhood,
-                twoRoomNo, twoRoomPrice,
-                threeRoomNo, threeRoomPrice,
+                getTwoRoomNo(), twoRoomPrice,
+                getThreeRoomNo(), threeRoomPrice,
                 appOpenDate, appCloseDate,
                 visible ? "Visible" : "Hidden",
                 hdbManagerName,
@@ -0,0 +1,218 @@
+package model;
+
+import enums.ApplicationStatus;
+import enums.BallotPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A ballot that allocates the unsold flats of one project to its pending
+ * applications at once, instead of a manager approving them one by one.
+ *
+ * The pending applications are ranked by the {@link BallotPolicy}: in a
+ * random order drawn from a seed, so that a ballot can be repeated for an
+ * audit, or in submission order. Going down the ranking, each application is
+ * approved if a flat of its type is left, and is otherwise unsuccessful, as if
+ * the manager had decided each in turn. Unsuccessful applications keep their
+ * rank and wait, in rank order, for a flat returned to the project; see
+ * {@link BTOProject#returnFlat}. All decisions and the resulting flat
+ * counts are then recorded as one change, so a ballot is never half applied
+ * after a restart. An application decided by someone else while the ballot
+ * runs keeps that decision.
+ */
+public final class Ballot {
+
+    /**
+     * The outcome of one application in a ballot.
+     */
+    public static final class Entry {
+
+        /** Position in the ballot, from 1. */
+        private final int rank;
+
+        /** The application. */
+        private final BTOApplication application;
+
+        /** The new status, or {@code null} if the application was decided elsewhere first. */
+        private final ApplicationStatus result;
+
+        /**
+         * Constructs the outcome of an application.
+         *
+         * @param rank        Position in the ballot, from 1.
+         * @param application The application.
+         * @param result      The new status, or {@code null}.
+         */
+        Entry(int rank, BTOApplication application, ApplicationStatus result) {
+            this.rank = rank;
+            this.application = application;
+            this.result = result;
+        }
+
+        /**
+         * Returns the position of the application in the ballot.
+         *
+         * @return The rank, from 1.
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        /**
+         * Returns the application.
+         *
+         * @return The application.
+         */
+        public BTOApplication getApplication() {
+            return application;
+        }
+
+        /**
+         * Returns the status the ballot gave the application.
+         *
+         * @return {@code SUCCESSFUL} or {@code UNSUCCESSSFUL}, or {@code null}
+         *         if the application was decided elsewhere while the ballot ran.
+         */
+        public ApplicationStatus getResult() {
+            return result;
+        }
+    }
+
+    /** The project balloted. */
+    private final BTOProject project;
+
+    /** How the applications were ranked. */
+    private final BallotPolicy policy;
+
+    /** The seed the random order was drawn from. */
+    private final long seed;
+
+    /** The outcome of each application, in ballot order. */
+    private final List<Entry> entries;
+
+    /**
+     * Constructs the result of a ballot.
+     *
+     * @param project The project.
+     * @param policy  How the applications were ranked.
+     * @param seed    The seed.
+     * @param entries The outcomes, in ballot order.
+     */
+    private Ballot(BTOProject project, BallotPolicy policy, long seed, List<Entry> entries) {
+        this.project = project;
+        this.policy = policy;
+        this.seed = seed;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Ballots the pending applications of a project and applies the result.
+     *
+     * @param project The project.
+     * @param policy  How to rank the applications.
+     * @param seed    The seed of the random order; each project draws its own
+     *                order from it, and it is ignored for {@code FIFO}.
+     * @return The result.
+     */
+    public static Ballot run(BTOProject project, BallotPolicy policy, long seed) {
+        List<BTOApplication> ranked = new ArrayList<>(project.getApplications(ApplicationStatus.PENDING));
+        if (policy == BallotPolicy.RANDOM) {
+            Collections.shuffle(ranked, new Random(seed ^ project.getName().hashCode()));
+        }
+
+        List<Entry> entries = new ArrayList<>(ranked.size());
+        List<String> decisions = new ArrayList<>(ranked.size() * 3);
+        for (BTOApplication application : ranked) {
+            int rank = entries.size() + 1;
+            ApplicationStatus result = null;
+            // Another manager may approve or reject it meanwhile, as in the one-by-one menu
+            synchronized (application) {
+                if (application.getApplicationStatus() == ApplicationStatus.PENDING) {
+                    result = project.takeFlatUnrecorded(application.getFlatType())
+                            ? ApplicationStatus.SUCCESSFUL : ApplicationStatus.UNSUCCESSSFUL;
+                    application.restoreRank(rank);
+                    application.restoreStatus(result);
+                    decisions.add(application.getApplicant().getNric());
+                    decisions.add(result.name());
+                    decisions.add(String.valueOf(rank));
+                }
+            }
+            entries.add(new Entry(rank, application, result));
+        }
+        if (!decisions.isEmpty()) {
+            project.recordBallot(decisions);
+        }
+        return new Ballot(project, policy, seed, entries);
+    }
+
+    /**
+     * Returns the project balloted.
+     *
+     * @return The project.
+     */
+    public BTOProject getProject() {
+        return project;
+    }
+
+    /**
+     * Returns how the applications were ranked.
+     *
+     * @return The policy.
+     */
+    public BallotPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the seed the ballot was drawn from.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the outcome of each application, in ballot order.
+     *
+     * @return The outcomes.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Counts the applications that ended with a given status.
+     *
+     * @param result The status, or {@code null} for applications decided elsewhere.
+     * @return The number of applications.
+     */
+    public int count(ApplicationStatus result) {
+        int count = 0;
+        for (Entry entry : entries) {
+            if (entry.result == result) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a one-line summary of the ballot.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        String summary = project.getName() + ": " + count(ApplicationStatus.SUCCESSFUL) + " approved, "
+                + count(ApplicationStatus.UNSUCCESSSFUL) + " unsuccessful";
+        int skipped = count(null);
+        if (skipped > 0) {
+            summary += ", " + skipped + " decided elsewhere";
+        }
+        summary += " (" + project.getTwoRoomNo() + " 2-room and " + project.getThreeRoomNo() + " 3-room flats left)";
+        return summary;
+    }
+}
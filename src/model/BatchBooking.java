@@ -0,0 +1,278 @@
+package model;
+
+import enums.ApplicationStatus;
+import enums.FlatType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Flat bookings made by an officer for a queue of applicants at once,
+ * instead of one applicant per prompt.
+ *
+ * Every NRIC in the queue is looked up and checked, and the bookings are made
+ * in queue order. As in the one-by-one menu, each booking uses the flat held
+ * for the application since it was approved, so the project's flat counts do
+ * not change. All bookings are recorded as one change, so a batch is never
+ * half applied after a restart. An application changed by someone else while
+ * the batch runs, such as a booking by another officer, keeps that change.
+ */
+public final class BatchBooking {
+
+    /** Outcome of a booking that was made. */
+    public static final String BOOKED = "Booked";
+
+    /**
+     * The outcome of one NRIC in a batch.
+     */
+    public static final class Entry {
+
+        /** The NRIC as given. */
+        private final String nric;
+
+        /** The applicant, or {@code null} if none was found. */
+        private final Applicant applicant;
+
+        /** {@link #BOOKED}, or why no flat was booked. */
+        private final String outcome;
+
+        /**
+         * Constructs the outcome of an NRIC.
+         *
+         * @param nric      The NRIC as given.
+         * @param applicant The applicant, or {@code null}.
+         * @param outcome   {@link #BOOKED}, or why no flat was booked.
+         */
+        Entry(String nric, Applicant applicant, String outcome) {
+            this.nric = nric;
+            this.applicant = applicant;
+            this.outcome = outcome;
+        }
+
+        /**
+         * Returns the NRIC as it was given.
+         *
+         * @return The NRIC.
+         */
+        public String getNric() {
+            return nric;
+        }
+
+        /**
+         * Returns the applicant the NRIC belongs to.
+         *
+         * @return The applicant, or {@code null} if none was found.
+         */
+        public Applicant getApplicant() {
+            return applicant;
+        }
+
+        /**
+         * Returns the outcome of the booking.
+         *
+         * @return {@link #BOOKED}, or why no flat was booked.
+         */
+        public String getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Checks whether a flat was booked.
+         *
+         * @return {@code true} if a flat was booked for the applicant.
+         */
+        public boolean isBooked() {
+            return BOOKED.equals(outcome);
+        }
+    }
+
+    /** The officer who made the bookings. */
+    private final HDBOfficer officer;
+
+    /** The outcome of each NRIC, in queue order. */
+    private final List<Entry> entries;
+
+    /**
+     * Constructs the result of a batch.
+     *
+     * @param officer The officer.
+     * @param entries The outcomes, in queue order.
+     */
+    private BatchBooking(HDBOfficer officer, List<Entry> entries) {
+        this.officer = officer;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Books flats for a queue of applicants to the officer's project.
+     *
+     * @param officer The officer, who must be handling a project.
+     * @param nrics   The NRICs, in queue order, as typed.
+     * @param lookup  Finds the applicant with an NRIC, or returns {@code null}.
+     * @return The result.
+     * @throws IllegalStateException if the officer is not handling a project.
+     */
+    public static BatchBooking run(HDBOfficer officer, List<String> nrics, Function<Nric, Applicant> lookup) {
+        BTOProject project = officer.getProject();
+        if (project == null) {
+            throw new IllegalStateException("You are not currently assigned to any project.");
+        }
+
+        String[] outcomes = new String[nrics.size()];
+        Applicant[] applicants = new Applicant[nrics.size()];
+        Map<Nric, Integer> firstRow = new HashMap<>();
+        for (int i = 0; i < nrics.size(); i++) {
+            Nric nric = Nric.tryParse(nrics.get(i));
+            if (nric == null) {
+                outcomes[i] = UserValidator.INVALID_NRIC;
+                continue;
+            }
+            Integer earlier = firstRow.putIfAbsent(nric, i + 1);
+            if (earlier != null) {
+                outcomes[i] = "Already listed at position " + earlier + ".";
+                continue;
+            }
+            Applicant applicant = lookup.apply(nric);
+            applicants[i] = applicant;
+            outcomes[i] = check(applicant, project);
+        }
+
+        LocalDateTime bookingDate = LocalDateTime.now();
+        List<String> bookings = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>(nrics.size());
+        for (int i = 0; i < nrics.size(); i++) {
+            Applicant applicant = applicants[i];
+            if (outcomes[i] == null) {
+                BTOApplication app = applicant.getApplication();
+                // Two officers booking for the same applicant must not both book its flat
+                synchronized (app) {
+                    FlatType type = app.getFlatType();
+                    outcomes[i] = check(applicant, project);
+                    if (outcomes[i] == null) {
+                        app.restoreFlatBooking(type, bookingDate);
+                        app.restoreStatus(ApplicationStatus.BOOKED);
+                        bookings.add(applicant.getNric());
+                        bookings.add(type.name());
+                        bookings.add(bookingDate.toString());
+                        outcomes[i] = BOOKED;
+                    }
+                }
+            }
+            entries.add(new Entry(nrics.get(i), applicant, outcomes[i]));
+        }
+
+        if (!bookings.isEmpty()) {
+            project.recordBookings(bookings);
+        }
+        return new BatchBooking(officer, entries);
+    }
+
+    /**
+     * Checks whether a flat can be booked for an applicant, as the officer's
+     * one-by-one menu does.
+     *
+     * @param applicant The applicant, or {@code null} if none was found.
+     * @param project   The officer's project.
+     * @return {@code null} if a flat can be booked, otherwise why not.
+     */
+    private static String check(Applicant applicant, BTOProject project) {
+        if (applicant == null) {
+            return "Applicant not found.";
+        }
+        BTOApplication app = applicant.getApplication();
+        if (app == null) {
+            return "This applicant has not applied for any project.";
+        }
+        if (app.getProject() != project) {
+            return "This applicant did not apply to your assigned project.";
+        }
+        if (app.getFlatBooking() != null) {
+            return "Applicant has already booked a flat.";
+        }
+        if (app.getApplicationStatus() != ApplicationStatus.SUCCESSFUL) {
+            return "The application is not marked as SUCCESSFUL.";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the officer who made the bookings.
+     *
+     * @return The officer.
+     */
+    public HDBOfficer getOfficer() {
+        return officer;
+    }
+
+    /**
+     * Returns the outcome of each NRIC, in queue order.
+     *
+     * @return The outcomes.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Counts the flats booked.
+     *
+     * @return The number of bookings made.
+     */
+    public int getBookedCount() {
+        int count = 0;
+        for (Entry entry : entries) {
+            if (entry.isBooked()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the outcome of each NRIC as a table, one line per NRIC.
+     *
+     * @return The table.
+     */
+    public String outcomeTable() {
+        StringBuilder table = new StringBuilder(String.format("%-4s %-10s %s%n", "No.", "NRIC", "Outcome"));
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            table.append(String.format("%-4d %-10s %s%n", i + 1, entry.getNric(), entry.getOutcome()));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Returns the booking receipt of every flat booked, in queue order.
+     *
+     * @return The receipts, separated by blank lines.
+     */
+    public String receipts() {
+        StringBuilder receipts = new StringBuilder();
+        for (Entry entry : entries) {
+            if (entry.isBooked()) {
+                if (receipts.length() > 0) {
+                    receipts.append(System.lineSeparator());
+                }
+                receipts.append(officer.bookingReceipt(entry.getApplicant()));
+            }
+        }
+        return receipts.toString();
+    }
+
+    /**
+     * Returns a one-line summary of the batch.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        BTOProject project = officer.getProject();
+        return project.getName() + ": " + getBookedCount() + " of " + entries.size() + " flats booked ("
+                + project.getTwoRoomNo() + " 2-room and " + project.getThreeRoomNo() + " 3-room flats left)";
+    }
+}
@@ -0,0 +1,81 @@
+package model;
+
+import java.util.function.Supplier;
+
+/**
+ * Central hook through which model classes report changes to state that is
+ * not kept in the CSV files: applications, enquiries, flat bookings, officer
+ * registrations, and project inventory.
+ *
+ * Each change is reported as a record whose first field names the change
+ * (for example {@code STATUS}) and whose remaining fields identify the objects
+ * involved by NRIC, project name, or enquiry id. By default changes are
+ * discarded; the application installs a sink (the journal) after startup.
+ */
+public final class ChangeRecorder {
+
+    /**
+     * Receiver of change records. Queuing a record and waiting for it to be
+     * stored are separate steps, so that a caller can fix a record's position
+     * under a lock without holding the lock while the record is stored.
+     */
+    public interface Sink {
+
+        /**
+         * Queues a record behind every record queued before it.
+         *
+         * @param fields The record type followed by its fields.
+         * @return An action that waits until the record has been stored.
+         */
+        Runnable enqueue(String[] fields);
+    }
+
+    /** The current receiver of change records, or {@code null} if changes are not recorded. */
+    private static volatile Sink sink;
+
+    /** Not instantiable. */
+    private ChangeRecorder() {}
+
+    /**
+     * Installs the receiver of change records.
+     *
+     * @param newSink The receiver, or {@code null} to stop recording changes.
+     */
+    public static void setSink(Sink newSink) {
+        sink = newSink;
+    }
+
+    /**
+     * Reports a change to the installed sink, if any.
+     *
+     * @param fields The record type followed by its fields.
+     */
+    static void record(String... fields) {
+        Sink current = sink;
+        if (current != null) {
+            current.enqueue(fields).run();
+        }
+    }
+
+    /**
+     * Reports a change whose fields describe current state, such as a flat
+     * count. The fields are read and queued while holding a lock, so that when
+     * two sessions change the same object, their records are stored in the
+     * same order as their changes; waiting for the record to be stored happens
+     * after the lock is released.
+     *
+     * @param lock   The lock guarding the order of records about the object.
+     * @param fields Supplies the record type followed by its fields.
+     */
+    static void record(Object lock, Supplier<String[]> fields) {
+        Sink current = sink;
+        if (current == null) {
+            return;
+        }
+        Runnable stored;
+        synchronized (lock) {
+            stored = current.enqueue(fields.get());
+        }
+        stored.run();
+    }
+}
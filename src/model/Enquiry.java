@@ -1,6 +1,8 @@
 package model;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents an enquiry submitted by an applicant regarding a specific BTO project.
@@ -8,6 +10,16 @@ import java.time.LocalDateTime;
  */
 public class Enquiry {
 
+    /** Orders enquiries oldest first, breaking ties between enquiries made at the same moment by id. */
+    public static final Comparator<Enquiry> BY_TIMESTAMP =
+            Comparator.comparing(Enquiry::getTimestamp).thenComparingInt(Enquiry::getId);
+
+    /** Source of unique enquiry ids. */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    /** Unique id of this enquiry, used to refer to it in the journal. */
+    private final int id;
+
     /** The applicant who submitted the enquiry. */
     private Applicant applicant;
 
@@ -18,13 +30,13 @@ public class Enquiry {
     private String message;
 
     /** The reply to the enquiry, if any. */
-    private String reply;
+    private volatile String reply;
 
-    /** The timestamp when the enquiry was created. */
-    private LocalDateTime timestamp;
+    /** The timestamp when the enquiry was created. Never changes, as enquiries are ordered by it. */
+    private final LocalDateTime timestamp;
 
     /** Flag indicating whether the enquiry has been replied to. */
-    private boolean isReplied;
+    private volatile boolean isReplied;
 
     /**
      * Constructs an Enquiry object with the specified applicant, project, and message.
@@ -35,12 +47,38 @@ public class Enquiry {
      * @param message The message content of the enquiry
      */
     public Enquiry(Applicant applicant, BTOProject project, String message) {
+        this(NEXT_ID.getAndIncrement(), applicant, project, message, LocalDateTime.now());
+        // Recorded once the project lists it; see BTOProject#addEnquiry
+    }
+
+    /**
+     * Reconstructs an enquiry created in an earlier session, keeping its id and timestamp.
+     * Ids handed out to new enquiries afterwards are guaranteed not to clash with it.
+     *
+     * @param id The id of the enquiry
+     * @param applicant The applicant who submitted the enquiry
+     * @param project The BTO project related to the enquiry
+     * @param message The message content of the enquiry
+     * @param timestamp When the enquiry was originally created
+     */
+    public Enquiry(int id, Applicant applicant, BTOProject project, String message, LocalDateTime timestamp) {
+        this.id = id;
         this.applicant = applicant;
         this.project = project;
         this.message = message;
         this.reply = null;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = timestamp;
         this.isReplied = false;
+        NEXT_ID.accumulateAndGet(id + 1, Math::max);
+    }
+
+    /**
+     * Returns the unique id of the enquiry.
+     *
+     * @return the enquiry id
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -104,16 +142,20 @@ public class Enquiry {
      */
     public void setMessage(String message) {
         this.message = message;
+        ChangeRecorder.record("EDIT_ENQUIRY", String.valueOf(id), message);
     }
 
     /**
-     * Sets the reply for the enquiry and marks it as replied.
+     * Sets the reply for the enquiry and marks it as replied, taking it off
+     * the project's list of enquiries awaiting a reply.
      *
      * @param reply The reply message
      */
     public void setReply(String reply) {
         this.reply = reply;
         this.isReplied = true;
+        project.enquiryReplied(this);
+        ChangeRecorder.record("REPLY", String.valueOf(id), reply);
     }
 
     /**
@@ -32,9 +32,20 @@ public class FlatBooking {
      * @param application The application related to this booking.
      */
     public FlatBooking(FlatType flatType, BTOApplication application) {
+        this(flatType, application, LocalDateTime.now());
+    }
+
+    /**
+     * Constructs a FlatBooking made at the given time and links it to the associated project.
+     *
+     * @param flatType The type of flat booked.
+     * @param application The application related to this booking.
+     * @param bookingDate The date and time the booking was made.
+     */
+    public FlatBooking(FlatType flatType, BTOApplication application, LocalDateTime bookingDate) {
         this.flatType = flatType;
         this.project = application.getProject();
-        this.bookingDate = LocalDateTime.now();
+        this.bookingDate = bookingDate;
         this.isResolved = false;
         this.application = application;
         project.addBooking(this);
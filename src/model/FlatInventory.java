@@ -0,0 +1,66 @@
+package model;
+
+import enums.FlatType;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Number of unsold flats of each type in a project, safe to update from
+ * several sessions at once without locking.
+ *
+ * Counts are kept in an atomic array indexed by {@link FlatType} ordinal.
+ * Taking a flat is a single compare-and-set that fails instead of going
+ * below zero, so two officers booking the last flat cannot both succeed.
+ */
+public class FlatInventory {
+
+    /** Unsold units, indexed by flat type ordinal. */
+    private final AtomicIntegerArray units = new AtomicIntegerArray(FlatType.values().length);
+
+    /**
+     * Returns the number of unsold flats of a type.
+     *
+     * @param flatType The flat type.
+     * @return The number of units available.
+     */
+    public int available(FlatType flatType) {
+        return units.get(flatType.ordinal());
+    }
+
+    /**
+     * Sets the number of unsold flats of a type.
+     *
+     * @param flatType The flat type.
+     * @param count    The number of units available.
+     */
+    public void set(FlatType flatType, int count) {
+        units.set(flatType.ordinal(), count);
+    }
+
+    /**
+     * Takes one flat of a type if any is left.
+     *
+     * @param flatType The flat type.
+     * @return {@code true} if a flat was taken, {@code false} if none was available.
+     */
+    public boolean tryReserve(FlatType flatType) {
+        int index = flatType.ordinal();
+        int current = units.get(index);
+        while (current > 0) {
+            int witnessed = units.compareAndExchange(index, current, current - 1);
+            if (witnessed == current) {
+                return true;
+            }
+            current = witnessed;
+        }
+        return false;
+    }
+
+    /**
+     * Returns one flat of a type to the inventory, for example after a withdrawal.
+     *
+     * @param flatType The flat type.
+     */
+    public void release(FlatType flatType) {
+        units.incrementAndGet(flatType.ordinal());
+    }
+}
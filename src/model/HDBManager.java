@@ -1,8 +1,10 @@
  package model;
 
 import enums.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -15,6 +17,9 @@ public class HDBManager extends User{
     /** List of BTO projects created and managed by this manager. */
     private List<BTOProject> projects;
 
+    /** The same projects indexed by application period, to find overlapping ones quickly. */
+    private final PeriodIndex<BTOProject> projectPeriods = new PeriodIndex<>();
+
     /** Report object that stores booking information and supports filtering. */
     private Report report;
 
@@ -31,10 +36,40 @@ public class HDBManager extends User{
      */
     public HDBManager(String name, String nric, int age, boolean isMarried, String password) {
         super(name, nric, age, isMarried, password);
-        projects = new ArrayList<>();
+        projects = new CopyOnWriteArrayList<>();
         report = new Report(this);
     }
 
+    /**
+     * Constructs a new HDBManager without the format checks.
+     *
+     * @param name      Manager's name.
+     * @param nric      Manager's NRIC.
+     * @param age       Manager's age.
+     * @param isMarried Marital status.
+     * @param password  Login password.
+     */
+    private HDBManager(String name, Nric nric, int age, boolean isMarried, String password) {
+        super(name, nric, age, isMarried, password);
+        projects = new CopyOnWriteArrayList<>();
+        report = new Report(this);
+    }
+
+    /**
+     * Recreates a manager from previously validated data, such as a snapshot,
+     * without repeating the format checks.
+     *
+     * @param name      Manager's name.
+     * @param nric      Manager's NRIC.
+     * @param age       Manager's age.
+     * @param isMarried Marital status.
+     * @param password  Login password.
+     * @return The manager.
+     */
+    public static HDBManager restore(String name, Nric nric, int age, boolean isMarried, String password) {
+        return new HDBManager(name, nric, age, isMarried, password);
+    }
+
 
     /**
      * Prompts user for input and creates a new HDBManager instance.
@@ -59,6 +94,37 @@ public class HDBManager extends User{
      */
     public List<BTOProject> getprojects() { return this.projects; }
 
+    /**
+     * Returns a page of the enquiries awaiting a reply across all managed projects,
+     * oldest first. Each project contributes at most one page of its own, so the
+     * cost depends on the page size rather than on the number of enquiries.
+     *
+     * @param after The last enquiry of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of enquiries to return.
+     * @return Up to {@code limit} unreplied enquiries made after {@code after}.
+     */
+    public List<Enquiry> getUnrepliedEnquiries(Enquiry after, int limit) {
+        List<Enquiry> page = new ArrayList<>();
+        for (BTOProject project : projects) {
+            page.addAll(project.getUnrepliedEnquiries(after, limit));
+        }
+        page.sort(Enquiry.BY_TIMESTAMP);
+        return page.size() > limit ? new ArrayList<>(page.subList(0, limit)) : page;
+    }
+
+    /**
+     * Returns the number of enquiries awaiting a reply across all managed projects.
+     *
+     * @return The number of unreplied enquiries.
+     */
+    public int getUnrepliedEnquiryCount() {
+        int count = 0;
+        for (BTOProject project : projects) {
+            count += project.getUnrepliedEnquiryCount();
+        }
+        return count;
+    }
+
     /**
      * Checks if this manager has a report object initialized.
      *
@@ -75,6 +141,41 @@ public class HDBManager extends User{
      */
     public void addProject(BTOProject p){
         projects.add(p);
+        projectPeriods.put(p, p.getAppOpenDate(), p.getAppCloseDate());
+    }
+
+    /**
+     * Removes a project from the manager's list, for example when it is deleted.
+     *
+     * @param p The BTO project to remove.
+     */
+    public void removeProject(BTOProject p){
+        projects.remove(p);
+        projectPeriods.remove(p);
+    }
+
+    /**
+     * Re-indexes a managed project after its application period changed.
+     *
+     * @param p The BTO project whose dates changed.
+     */
+    void projectPeriodChanged(BTOProject p){
+        if (projectPeriods.contains(p)) {
+            projectPeriods.put(p, p.getAppOpenDate(), p.getAppCloseDate());
+        }
+    }
+
+    /**
+     * Checks whether the manager already runs a project whose application period
+     * overlaps the given one, in O(log n + k) time for k overlapping projects.
+     *
+     * @param openDate  First day of the period.
+     * @param closeDate Last day of the period.
+     * @param ignored   A project to leave out of the check, such as the one being edited, or {@code null}.
+     * @return True if another managed project overlaps the period.
+     */
+    public boolean hasProjectDuring(LocalDate openDate, LocalDate closeDate, BTOProject ignored){
+        return projectPeriods.overlaps(openDate, closeDate, p -> p == ignored);
     }
 
 
@@ -101,18 +202,68 @@ public class HDBManager extends User{
     }
 
     /**
-     * Updates the status of a BTO application.
+     * Updates the status of a pending BTO application. Approving it takes a
+     * flat of its type from the project, which is held for the application.
      *
      * @param approved True to approve, false to reject.
      * @param a        The application to update.
+     * @return {@code false} if it was to be approved but no flat of its type is left.
+     * @throws IllegalStateException if the application has already been processed.
      */
-    public void updateApplication(boolean approved, BTOApplication a){
-        if(approved)
-            a.setStatus(ApplicationStatus.SUCCESSFUL);
-        else
-            a.setStatus(ApplicationStatus.UNSUCCESSSFUL);
+    private boolean updateApplication(boolean approved, BTOApplication a){
+        // Another manager may have processed it since the list was shown
+        synchronized (a) {
+            if (a.getApplicationStatus() != ApplicationStatus.PENDING)
+                throw new IllegalStateException("This application has already been processed.");
+            if (approved) {
+                if (!a.getProject().tryReserveFlat(a.getFlatType()))
+                    return false;
+                a.setStatus(ApplicationStatus.SUCCESSFUL);
+            }
+            else
+                a.setStatus(ApplicationStatus.UNSUCCESSSFUL);
+            return true;
+        }
     }
 
+    /**
+     * Approves a pending application if a flat of its type is left, taking
+     * that flat from the project and holding it for the application until it
+     * is booked or withdrawn.
+     *
+     * @param a The application to approve.
+     * @return {@code true} if approved, {@code false} if no flat of its type is left.
+     * @throws IllegalStateException if the application has already been processed.
+     */
+    public boolean approveApplication(BTOApplication a) {
+        return updateApplication(true, a);
+    }
+
+    /**
+     * Rejects a pending application.
+     *
+     * @param a The application to reject.
+     * @throws IllegalStateException if the application has already been processed.
+     */
+    public void rejectApplication(BTOApplication a) {
+        updateApplication(false, a);
+    }
+
+
+    /**
+     * Ballots the pending applications of every project managed by this user,
+     * approving them as far as each project's flats go. Projects are balloted
+     * in parallel; see {@link Ballot}.
+     *
+     * @param policy How to rank each project's applications.
+     * @param seed   The seed of the random order, ignored for {@code FIFO}.
+     * @return The result of each project's ballot, in the order of the projects.
+     */
+    public List<Ballot> ballotApplications(BallotPolicy policy, long seed) {
+        return List.copyOf(projects).parallelStream()
+                .map(project -> Ballot.run(project, policy, seed))
+                .collect(Collectors.toList());
+    }
 
     /**
      * Displays a list of all projects managed by this user.
@@ -2,6 +2,7 @@ package model;
 
 import enums.*;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * Represents an HDB Officer who is both an applicant and a project handler.
@@ -16,6 +17,12 @@ public class HDBOfficer extends Applicant {
     /** The officer's registration for handling a project. */
     private OfficerRegistration registration;
 
+    /**
+     * Every registration of the officer that is pending or approved, indexed by the
+     * application period of its project, to find overlapping ones quickly.
+     */
+    private final PeriodIndex<OfficerRegistration> registrationPeriods = new PeriodIndex<>();
+
 
     /**
      * Constructs an HDBOfficer with the given personal details.
@@ -30,6 +37,34 @@ public class HDBOfficer extends Applicant {
         super(name, nric, age, isMarried, password);
     }
 
+    /**
+     * Recreates an officer from previously validated data, such as a snapshot,
+     * without repeating the format checks.
+     *
+     * @param name      Officer's name.
+     * @param nric      Officer's NRIC.
+     * @param age       Officer's age.
+     * @param isMarried Officer's marital status.
+     * @param password  Login password.
+     * @return The officer.
+     */
+    public static HDBOfficer restore(String name, Nric nric, int age, boolean isMarried, String password) {
+        return new HDBOfficer(name, nric, age, isMarried, password);
+    }
+
+    /**
+     * Constructs an HDBOfficer without the format checks.
+     *
+     * @param name      Officer's name.
+     * @param nric      Officer's NRIC.
+     * @param age       Officer's age.
+     * @param isMarried Officer's marital status.
+     * @param password  Login password.
+     */
+    private HDBOfficer(String name, Nric nric, int age, boolean isMarried, String password) {
+        super(name, nric, age, isMarried, password);
+    }
+
     /**
      * Prompts user for input and creates an HDBOfficer instance.
      *
@@ -110,33 +145,44 @@ public class HDBOfficer extends Applicant {
     }
 
     /**
-     * Books a flat for the given applicant, ensuring flat availability and eligibility.
+     * Books a flat for the given applicant, ensuring eligibility. The flat is
+     * the one held for the application since it was approved, so no further
+     * flat is taken from the project.
      *
      * @param applicant The applicant booking the flat.
      */
     public void bookFlat(Applicant applicant) {
         BTOApplication app = applicant.getApplication();
 
-        if (!app.getApplicationStatus().equals(ApplicationStatus.SUCCESSFUL)) {
-            throw new IllegalStateException("Applicant is not eligible to book a flat.");
-        }
-
-        if (app.getFlatBooking() != null) {
-            throw new IllegalStateException("Applicant has already booked a flat.");
-        }
+        // Two officers booking for the same applicant must not both book its flat
+        synchronized (app) {
+            if (!app.getApplicationStatus().equals(ApplicationStatus.SUCCESSFUL)) {
+                throw new IllegalStateException("Applicant is not eligible to book a flat.");
+            }
 
-        FlatType flatType = app.getFlatType();
+            if (app.getFlatBooking() != null) {
+                throw new IllegalStateException("Applicant has already booked a flat.");
+            }
 
-        if (!assignedProject.hasFlatAvailable(flatType)) {
-            throw new IllegalStateException("No more flats of selected type available.");
+            app.createFlatBooking(app.getFlatType());
+            app.setStatus(ApplicationStatus.BOOKED);
         }
-
-        assignedProject.decrementFlatCount(flatType);
-        app.createFlatBooking(flatType);
-        app.setStatus(ApplicationStatus.BOOKED);
         System.out.println("Flat booked successfully.");
     }
 
+    /**
+     * Books flats for a queue of applicants to the officer's project at once;
+     * see {@link BatchBooking}.
+     *
+     * @param nrics  The NRICs of the applicants, in queue order, as typed.
+     * @param lookup Finds the applicant with an NRIC, or returns {@code null}.
+     * @return The outcome of each NRIC.
+     * @throws IllegalStateException if the officer is not handling a project.
+     */
+    public BatchBooking bookFlats(List<String> nrics, Function<Nric, Applicant> lookup) {
+        return BatchBooking.run(this, nrics, lookup);
+    }
+
     /**
      * Submits a registration for the officer to a specific project.
      *
@@ -169,7 +215,7 @@ public class HDBOfficer extends Applicant {
      * @param reply   The reply message.
      */
     public void replyToEnquiry(Enquiry enquiry, String reply) {
-        if (assignedProject != null && assignedProject.getEnquiries().contains(enquiry)) {
+        if (assignedProject != null && enquiry.getProject() == assignedProject) {
             enquiry.setReply(reply);
             System.out.println("Reply submitted.");
         } else {
@@ -190,14 +236,26 @@ public class HDBOfficer extends Applicant {
             return;
         }
 
-        System.out.println("=== Booking Receipt ===");
-        System.out.println("Name: " + applicant.getName());
-        System.out.println("NRIC: " + applicant.getNric());
-        System.out.println("Age: " + applicant.getAge());
-        System.out.println("Marital Status: " + (applicant.isMarried() ? "Married" : "Single"));
-        System.out.println("Flat Type: " + app.getFlatType());
-        System.out.println("Project: " + assignedProject.getName());
-        System.out.println("Date Booked: " + app.getFlatBooking().getBookingDate());
+        System.out.print(bookingReceipt(applicant));
+    }
+
+    /**
+     * Returns the flat booking receipt of an applicant who has booked a flat.
+     *
+     * @param applicant The applicant who booked the flat.
+     * @return The receipt, one detail per line.
+     */
+    String bookingReceipt(Applicant applicant) {
+        BTOApplication app = applicant.getApplication();
+        String newline = System.lineSeparator();
+        return "=== Booking Receipt ===" + newline
+                + "Name: " + applicant.getName() + newline
+                + "NRIC: " + applicant.getNric() + newline
+                + "Age: " + applicant.getAge() + newline
+                + "Marital Status: " + (applicant.isMarried() ? "Married" : "Single") + newline
+                + "Flat Type: " + app.getFlatType() + newline
+                + "Project: " + assignedProject.getName() + newline
+                + "Date Booked: " + app.getFlatBooking().getBookingDate() + newline;
     }
 
 
@@ -205,30 +263,36 @@ public class HDBOfficer extends Applicant {
     // OTHER MISC FUNCTIONS
     /**
      * Validates whether the officer is eligible to register for the given project.
-     * Ensures no overlap with other project registrations or existing applications.
+     * Ensures no overlap with other pending or approved registrations, or existing applications.
      *
      * @param targetProject The project the officer wants to register for.
-     * @param allProjects   List of all existing projects.
      * @return True if eligible, false otherwise.
      */
-    public boolean isEligibleForRegistration(BTOProject targetProject, List<BTOProject> allProjects) {
+    public boolean isEligibleForRegistration(BTOProject targetProject) {
         // Officer cannot register for a project they've already applied for
         if (this.getApplication() != null && this.getApplication().getProject().equals(targetProject)) {
             return false;
         }
 
         // Cannot be registered to another project within overlapping application period
-        for (BTOProject project : allProjects) {
-            if (project == targetProject) continue;
-            for (OfficerRegistration reg : project.getOfficerRegistrations()) {
-                if (reg.getOfficer().equals(this) &&
-                    project.getAppOpenDate().isBefore(targetProject.getAppCloseDate().plusDays(1)) &&
-                    project.getAppCloseDate().isAfter(targetProject.getAppOpenDate().minusDays(1))) {
-                    return false;
-                }
-            }
+        return !registrationPeriods.overlaps(targetProject.getAppOpenDate(), targetProject.getAppCloseDate(),
+                reg -> reg.getProject() == targetProject);
+    }
+
+    /**
+     * Updates the index of the officer's registrations after one was added to its
+     * project, changed status, or had its project's dates changed. Rejected
+     * registrations are left out, as they do not block other registrations.
+     *
+     * @param reg The registration that changed.
+     */
+    void registrationChanged(OfficerRegistration reg) {
+        if (reg.getStatus() == RegistrationStatus.REJECTED) {
+            registrationPeriods.remove(reg);
+        } else {
+            BTOProject project = reg.getProject();
+            registrationPeriods.put(reg, project.getAppOpenDate(), project.getAppCloseDate());
         }
-        return true;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package model;
+
+import java.util.Locale;
+
+/**
+ * An NRIC such as {@code S1234567A}, packed into a single {@code long}.
+ *
+ * The format is fixed: a prefix letter {@code S} or {@code T}, seven digits,
+ * and a checksum letter. The prefix, the digits, and the letter take their own
+ * bits of the number, so NRICs hash and compare as plain numbers, sort in the
+ * same order as their text, and cost a fraction of the memory of a string.
+ * The packed form is also how NRICs are stored in snapshots.
+ */
+public final class Nric implements Comparable<Nric> {
+
+    /** The allowed prefix letters, in packing order. */
+    private static final String PREFIXES = "ST";
+
+    /** Number of bits holding the checksum letter. */
+    private static final int LETTER_BITS = 5;
+
+    /** Number of bits holding the seven digits. */
+    private static final int DIGIT_BITS = 24;
+
+    /** Largest number the seven digits can spell. */
+    private static final int MAX_DIGITS = 9_999_999;
+
+    /** The prefix, digits, and letter, from the high bits to the low bits. */
+    private final long packed;
+
+    /**
+     * Constructs an NRIC from its packed form, which must already be valid.
+     *
+     * @param packed The packed NRIC.
+     */
+    private Nric(long packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * Parses an NRIC given in the exact format, such as a user's own entry.
+     *
+     * @param text The NRIC, in upper case without surrounding spaces.
+     * @return The NRIC.
+     * @throws IllegalArgumentException if the text is not a valid NRIC.
+     */
+    public static Nric parse(String text) {
+        Nric nric = parseExact(text);
+        if (nric == null) {
+            throw new IllegalArgumentException(UserValidator.INVALID_NRIC);
+        }
+        return nric;
+    }
+
+    /**
+     * Parses an NRIC given in the exact format, without throwing.
+     *
+     * @param text The NRIC, in upper case without surrounding spaces.
+     * @return The NRIC, or {@code null} if the text is not a valid NRIC.
+     */
+    static Nric parseExact(String text) {
+        return text == null ? null : pack(text);
+    }
+
+    /**
+     * Parses an NRIC typed to look a user up, ignoring case and surrounding spaces.
+     *
+     * @param text The NRIC as typed.
+     * @return The NRIC, or {@code null} if the text cannot be one.
+     */
+    public static Nric tryParse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        Nric nric = pack(trimmed);
+        // Most lookups are typed in upper case already; only convert when that fails
+        return nric != null ? nric : pack(trimmed.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Packs text in the exact NRIC format.
+     *
+     * @param text The text.
+     * @return The NRIC, or {@code null} if the text is not in the format.
+     */
+    private static Nric pack(String text) {
+        if (text.length() != 9) {
+            return null;
+        }
+        int prefix = PREFIXES.indexOf(text.charAt(0));
+        char letter = text.charAt(8);
+        if (prefix < 0 || letter < 'A' || letter > 'Z') {
+            return null;
+        }
+        int digits = 0;
+        for (int i = 1; i <= 7; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            digits = digits * 10 + (c - '0');
+        }
+        return new Nric(((long) prefix << (DIGIT_BITS + LETTER_BITS)) | ((long) digits << LETTER_BITS) | (letter - 'A'));
+    }
+
+    /**
+     * Unpacks an NRIC from the number returned by {@link #toLong()}.
+     *
+     * @param packed The packed NRIC.
+     * @return The NRIC.
+     * @throws IllegalArgumentException if the number is not a packed NRIC.
+     */
+    public static Nric fromLong(long packed) {
+        long prefix = packed >>> (DIGIT_BITS + LETTER_BITS);
+        long digits = (packed >>> LETTER_BITS) & ((1L << DIGIT_BITS) - 1);
+        long letter = packed & ((1L << LETTER_BITS) - 1);
+        if (prefix >= PREFIXES.length() || digits > MAX_DIGITS || letter >= 26) {
+            throw new IllegalArgumentException("Not a packed NRIC: " + packed);
+        }
+        return new Nric(packed);
+    }
+
+    /**
+     * Returns the packed form of the NRIC.
+     *
+     * @return The packed NRIC, accepted by {@link #fromLong(long)}.
+     */
+    public long toLong() {
+        return packed;
+    }
+
+    /**
+     * Returns the NRIC as text, such as {@code S1234567A}.
+     *
+     * @return The NRIC text.
+     */
+    @Override
+    public String toString() {
+        int digits = (int) ((packed >>> LETTER_BITS) & ((1L << DIGIT_BITS) - 1));
+        char[] text = new char[9];
+        text[0] = PREFIXES.charAt((int) (packed >>> (DIGIT_BITS + LETTER_BITS)));
+        for (int i = 7; i >= 1; i--) {
+            text[i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        text[8] = (char) ('A' + (packed & ((1L << LETTER_BITS) - 1)));
+        return new String(text);
+    }
+
+    /**
+     * Checks whether another object is the same NRIC.
+     *
+     * @param other The object to compare with.
+     * @return {@code true} if it is an NRIC with the same text.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Nric && ((Nric) other).packed == packed;
+    }
+
+    /**
+     * Returns a hash code for the NRIC.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(packed);
+    }
+
+    /**
+     * Orders NRICs as their text would sort.
+     *
+     * @param other The NRIC to compare with.
+     * @return A negative number, zero, or a positive number as this NRIC sorts before, with, or after the other.
+     */
+    @Override
+    public int compareTo(Nric other) {
+        return Long.compare(packed, other.packed);
+    }
+}
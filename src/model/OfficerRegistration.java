@@ -36,6 +36,7 @@ public class OfficerRegistration {
         this.status = RegistrationStatus.PENDING;
 
         project.addRegistration(this);
+        ChangeRecorder.record("REGISTER", officer.getNric(), project.getName());
     }
 
     /**
@@ -79,6 +80,8 @@ public class OfficerRegistration {
             this.getOfficer().setAssignedProject(this.getProject());
 
         this.status = status;
+        officer.registrationChanged(this);
+        ChangeRecorder.record("REG_STATUS", officer.getNric(), project.getName(), status.name());
     }
 
     /**
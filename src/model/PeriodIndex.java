@@ -0,0 +1,328 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * An interval tree of date periods, such as the application periods of the
+ * projects a manager runs or an officer is registered for.
+ *
+ * Entries are kept in a balanced tree ordered by start date, where every node
+ * also records the latest end date below it. Finding the entries that overlap
+ * a period then costs O(log n + k) for k matches, instead of a scan of every
+ * entry. Periods include both their start and end dates, and each value is
+ * indexed under at most one period.
+ *
+ * @param <T> The type of the values whose periods are indexed.
+ */
+public class PeriodIndex<T> {
+
+    /**
+     * A node of the tree, holding one value and its period.
+     *
+     * @param <T> The type of the value.
+     */
+    private static final class Node<T> {
+
+        /** The value indexed. */
+        final T value;
+
+        /** First day of the period. */
+        final LocalDate start;
+
+        /** Last day of the period. */
+        final LocalDate end;
+
+        /** Insertion number, ordering nodes that start on the same day. */
+        final long seq;
+
+        /** Latest end date of this node and its subtrees. */
+        LocalDate maxEnd;
+
+        /** Height of the subtree rooted here. */
+        int height = 1;
+
+        /** Subtree of nodes ordered before this one. */
+        Node<T> left;
+
+        /** Subtree of nodes ordered after this one. */
+        Node<T> right;
+
+        /**
+         * Constructs a leaf node.
+         *
+         * @param value The value indexed.
+         * @param start First day of the period.
+         * @param end   Last day of the period.
+         * @param seq   Insertion number.
+         */
+        Node(T value, LocalDate start, LocalDate end, long seq) {
+            this.value = value;
+            this.start = start;
+            this.end = end;
+            this.seq = seq;
+            this.maxEnd = end;
+        }
+    }
+
+    /** Root of the tree, or {@code null} when empty. */
+    private Node<T> root;
+
+    /** The node of each value, so a value can be moved or removed without knowing its old period. */
+    private final Map<T, Node<T>> nodes = new HashMap<>();
+
+    /** Insertion number of the next node. */
+    private long nextSeq;
+
+    /**
+     * Indexes a value under a period, replacing any period it had before.
+     *
+     * @param value The value to index.
+     * @param start First day of the period.
+     * @param end   Last day of the period.
+     */
+    public synchronized void put(T value, LocalDate start, LocalDate end) {
+        remove(value);
+        Node<T> node = new Node<>(value, start, end, nextSeq++);
+        nodes.put(value, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes a value from the index. Does nothing if it is not indexed.
+     *
+     * @param value The value to remove.
+     */
+    public synchronized void remove(T value) {
+        Node<T> node = nodes.remove(value);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Checks whether a value is indexed.
+     *
+     * @param value The value to look for.
+     * @return {@code true} if the value is indexed.
+     */
+    public synchronized boolean contains(T value) {
+        return nodes.containsKey(value);
+    }
+
+    /**
+     * Returns the number of values indexed.
+     *
+     * @return The number of values.
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the values whose periods overlap a given period, ordered by start date.
+     *
+     * @param start First day of the period.
+     * @param end   Last day of the period.
+     * @return The overlapping values.
+     */
+    public synchronized List<T> overlapping(LocalDate start, LocalDate end) {
+        List<T> found = new ArrayList<>();
+        search(root, start, end, value -> {
+            found.add(value);
+            return false;
+        });
+        return found;
+    }
+
+    /**
+     * Checks whether any value other than those excluded has a period overlapping
+     * a given one, stopping at the first match.
+     *
+     * @param start   First day of the period.
+     * @param end     Last day of the period.
+     * @param exclude Values to ignore.
+     * @return {@code true} if an overlapping value was found.
+     */
+    public synchronized boolean overlaps(LocalDate start, LocalDate end, Predicate<T> exclude) {
+        return search(root, start, end, value -> !exclude.test(value));
+    }
+
+    /**
+     * Visits, in start order, the nodes of a subtree overlapping a period,
+     * skipping subtrees that end before the period or start after it.
+     *
+     * @param node  Root of the subtree.
+     * @param start First day of the period.
+     * @param end   Last day of the period.
+     * @param visit Called with each overlapping value; returns {@code true} to stop.
+     * @return {@code true} if the visit was stopped.
+     */
+    private boolean search(Node<T> node, LocalDate start, LocalDate end, Predicate<T> visit) {
+        if (node == null || node.maxEnd.isBefore(start)) {
+            return false;
+        }
+        if (search(node.left, start, end, visit)) {
+            return true;
+        }
+        if (node.start.isAfter(end)) {
+            return false; // this node and everything to its right start too late
+        }
+        if (!node.end.isBefore(start) && visit.test(node.value)) {
+            return true;
+        }
+        return search(node.right, start, end, visit);
+    }
+
+    /**
+     * Orders two nodes by start date, then by insertion.
+     *
+     * @param a The first node.
+     * @param b The second node.
+     * @return A negative number, zero, or a positive number as {@code a} is before, the same as, or after {@code b}.
+     */
+    private static int compare(Node<?> a, Node<?> b) {
+        int byStart = a.start.compareTo(b.start);
+        return byStart != 0 ? byStart : Long.compare(a.seq, b.seq);
+    }
+
+    /**
+     * Inserts a node into a subtree, rebalancing on the way up.
+     *
+     * @param node  Root of the subtree.
+     * @param added The node to insert.
+     * @return The new root of the subtree.
+     */
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Deletes a node from a subtree, rebalancing on the way up.
+     *
+     * @param node    Root of the subtree.
+     * @param removed The node to delete.
+     * @return The new root of the subtree.
+     */
+    private Node<T> delete(Node<T> node, Node<T> removed) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(removed, node);
+        if (order < 0) {
+            node.left = delete(node.left, removed);
+        } else if (order > 0) {
+            node.right = delete(node.right, removed);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace the node with the first node of its right subtree
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = delete(node.right, successor);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    /**
+     * Restores the height balance of a node whose subtrees changed, and updates
+     * its height and latest end date.
+     *
+     * @param node The node to balance.
+     * @return The new root of the subtree.
+     */
+    private Node<T> balance(Node<T> node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotates a subtree so its left child becomes its root.
+     *
+     * @param node Root of the subtree.
+     * @return The new root.
+     */
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> top = node.left;
+        node.left = top.right;
+        top.right = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    /**
+     * Rotates a subtree so its right child becomes its root.
+     *
+     * @param node Root of the subtree.
+     * @return The new root.
+     */
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> top = node.right;
+        node.right = top.left;
+        top.left = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    /**
+     * Recomputes a node's height and latest end date from its children.
+     *
+     * @param node The node to update.
+     */
+    private void update(Node<T> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDate maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    /**
+     * Returns the height of a subtree.
+     *
+     * @param node Root of the subtree, or {@code null}.
+     * @return The height, 0 for an empty subtree.
+     */
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+}
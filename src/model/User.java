@@ -7,7 +7,7 @@ package model;
 public class User {
 
     /** The NRIC (unique ID) of the user. */
-    private String nric;
+    private final Nric nric;
 
     /** The password used for user authentication. */
     private String password;
@@ -21,6 +21,9 @@ public class User {
     /** Marital status of the user. */
     private boolean isMarried;
 
+    /** Whether a field saved to the CSV files has changed since the user was last saved. */
+    private volatile boolean dirty;
+
     /**
      * Constructs a new User with the given attributes.
      *
@@ -31,20 +34,21 @@ public class User {
      * @param password The user's account password.
      */
     public User(String name, String nric, int age, boolean isMarried, String password) {
+        this(name, validate(name, nric, password), age, isMarried, password);
+    }
 
-        if (name == null || !name.matches("^[a-zA-Z ]+$")) {
-            throw new IllegalArgumentException("Invalid name. Only letters and spaces are allowed.");
-        }
-    
-        
-        if (!nric.matches("^[ST]\\d{7}[A-Z]$")) {
-            throw new IllegalArgumentException("Invalid NRIC format. Expected format like S1234567A.");
-        }
-    
-        if (password == null || !password.matches("^[a-zA-Z0-9]{8,}$")) {
-            throw new IllegalArgumentException("Invalid password. Must be at least 8 characters long and contain only letters and digits.");
-        }
-        
+    /**
+     * Constructs a new User without the format checks. Checks may only be skipped
+     * for data that was validated when the user was first created, such as a
+     * snapshot written by this application.
+     *
+     * @param name The full name of the user.
+     * @param nric The user's NRIC (unique identifier).
+     * @param age The user's age.
+     * @param isMarried Whether the user is married.
+     * @param password The user's account password.
+     */
+    protected User(String name, Nric nric, int age, boolean isMarried, String password) {
         this.name = name;
         this.nric = nric;
         this.age = age;
@@ -52,12 +56,34 @@ public class User {
         this.password = password;
     }
 
+    /**
+     * Checks the formats of the name, NRIC, and password.
+     *
+     * @param name The full name of the user.
+     * @param nric The user's NRIC.
+     * @param password The user's account password.
+     * @return The parsed NRIC.
+     * @throws IllegalArgumentException if any of them is invalid; the message lists every problem.
+     */
+    private static Nric validate(String name, String nric, String password) {
+        return UserValidator.validate(name, nric, password);
+    }
+
     /**
      * Gets the NRIC of the user.
      *
      * @return The NRIC.
      */
     public String getNric() {
+        return nric.toString();
+    }
+
+    /**
+     * Gets the NRIC of the user in packed form, as used to key user indexes.
+     *
+     * @return The NRIC.
+     */
+    public Nric getNricKey() {
         return nric;
     }
 
@@ -104,6 +130,23 @@ public class User {
      */
     public void setPassword(String newPassword) {
         this.password = newPassword;
+        this.dirty = true;
+    }
+
+    /**
+     * Checks whether a field saved to the CSV files has changed since the user was last saved.
+     *
+     * @return True if the user needs saving.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks the user as saved.
+     */
+    public void markClean() {
+        this.dirty = false;
     }
 
     /**
@@ -0,0 +1,123 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the name, NRIC, and password formats of users, for {@link User},
+ * the console prompts, and the repository loaders alike.
+ *
+ * The checks are hand-written loops over the characters, so a valid user is
+ * checked without compiling patterns or allocating anything beyond the parsed
+ * NRIC. Every problem with a user is reported at once, so a bad row or entry
+ * can be fixed in one go. Users restored from the application's own snapshots
+ * skip the checks altogether; see {@link Applicant#restore}.
+ */
+public final class UserValidator {
+
+    /** Shortest password allowed. */
+    public static final int MIN_PASSWORD_LENGTH = 8;
+
+    /** Problem reported for an invalid name. */
+    public static final String INVALID_NAME = "Invalid name. Only letters and spaces are allowed.";
+
+    /** Problem reported for an invalid NRIC. */
+    public static final String INVALID_NRIC = "Invalid NRIC format. Expected format like S1234567A.";
+
+    /** Problem reported for an invalid password. */
+    public static final String INVALID_PASSWORD =
+            "Invalid password. Must be at least 8 characters long and contain only letters and digits.";
+
+    /**
+     * Not instantiable.
+     */
+    private UserValidator() {
+    }
+
+    /**
+     * Checks that a name is made of ASCII letters and spaces only.
+     *
+     * @param name The name.
+     * @return {@code true} if the name is valid.
+     */
+    public static boolean isValidName(String name) {
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != ' ' && !isLetter(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a password is long enough and made of ASCII letters and digits only.
+     *
+     * @param password The password.
+     * @return {@code true} if the password is valid.
+     */
+    public static boolean isValidPassword(String password) {
+        if (password == null || password.length() < MIN_PASSWORD_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (!isLetter(c) && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a character is an ASCII letter.
+     *
+     * @param c The character.
+     * @return {@code true} for {@code A}-{@code Z} and {@code a}-{@code z}.
+     */
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    /**
+     * Lists every problem with a user's details.
+     *
+     * @param name     The name.
+     * @param nric     The NRIC, in the exact format.
+     * @param password The password.
+     * @return The problems, in the order name, NRIC, password; empty if the details are valid.
+     */
+    public static List<String> problems(String name, String nric, String password) {
+        List<String> problems = new ArrayList<>(0);
+        if (!isValidName(name)) {
+            problems.add(INVALID_NAME);
+        }
+        if (Nric.parseExact(nric) == null) {
+            problems.add(INVALID_NRIC);
+        }
+        if (!isValidPassword(password)) {
+            problems.add(INVALID_PASSWORD);
+        }
+        return problems;
+    }
+
+    /**
+     * Checks a user's details.
+     *
+     * @param name     The name.
+     * @param nric     The NRIC, in the exact format.
+     * @param password The password.
+     * @return The parsed NRIC.
+     * @throws IllegalArgumentException if any detail is invalid; the message lists every problem.
+     */
+    public static Nric validate(String name, String nric, String password) {
+        Nric parsed = Nric.parseExact(nric);
+        if (parsed != null && isValidName(name) && isValidPassword(password)) {
+            return parsed;
+        }
+        throw new IllegalArgumentException(String.join(" ", problems(name, nric, password)));
+    }
+}
@@ -0,0 +1,17 @@
+package enums;
+
+/**
+ * The {@code ApplicantCategory} enum groups applicants by the age and marital status
+ * rules that decide which projects and flat types they may apply for.
+ */
+public enum ApplicantCategory {
+
+    /** A single applicant aged 35 or above, eligible for 2-room flats. */
+    SINGLE,
+
+    /** A married applicant aged 21 or above, eligible for 2-room and 3-room flats. */
+    MARRIED,
+
+    /** An applicant too young to apply for any flat. */
+    INELIGIBLE
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package enums;
+
+/**
+ * The {@code BallotPolicy} enum defines how pending applications to a project
+ * are ordered when its flats are allocated in one ballot.
+ */
+public enum BallotPolicy {
+
+    /** Applications are drawn in a random order fixed by a seed. */
+    RANDOM,
+
+    /** Applications are taken in the order they were submitted. */
+    FIFO
+}
@@ -0,0 +1,17 @@
+package enums;
+
+/**
+ * The {@code UserRole} enum identifies which kind of account a user holds,
+ * and therefore which menu they are routed to after logging in.
+ */
+public enum UserRole {
+
+    /** An applicant applying for BTO flats. */
+    APPLICANT,
+
+    /** An HDB officer, who can also apply as an applicant. */
+    OFFICER,
+
+    /** An HDB manager responsible for projects. */
+    MANAGER
+}
\ No newline at end of file
@@ -1,4 +1,4 @@
 /**
- * Contains enums representing flat types, application status, and registration status.
+ * Contains enums representing flat types, application status, registration status, and user roles.
  */
 package model.enums;
\ No newline at end of file
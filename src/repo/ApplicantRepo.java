@@ -1,19 +1,101 @@
 package repo;
 
+import enums.UserRole;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import model.*;
+import util.AtomicFile;
 
 /**
  * Repository class that manages all {@link Applicant} objects.
  * Provides methods to create, retrieve, delete, list, and persist applicants.
  * Implements {@link IUserRepo} to provide generic user operations.
+ *
+ * In off-heap mode the applicants' fields are kept in an {@link ApplicantTable}
+ * instead of one object each. An {@link Applicant} is created the first time
+ * it is looked up, for example at login or when it is referenced by an
+ * application, and kept from then on; saving reads the rest straight from the table.
  */
 public class ApplicantRepo implements IUserRepo<Applicant> {
 
-    /** Internal list storing all registered applicants. */
-    private List<Applicant> applicants = new ArrayList<>();
+    /**
+     * Receives the applicants of the repository, in order.
+     */
+    @FunctionalInterface
+    interface ApplicantVisitor {
+
+        /**
+         * Visits one applicant.
+         *
+         * @param applicant The applicant object, or {@code null} if it has not been created from the table.
+         * @param nric      The NRIC.
+         * @param name      The name.
+         * @param age       The age.
+         * @param married   Whether the applicant is married.
+         * @param password  The password.
+         * @throws IOException if the visitor fails to write the applicant.
+         */
+        void visit(Applicant applicant, Nric nric, String name, int age, boolean married, String password)
+                throws IOException;
+    }
+
+    /** Internal list storing all registered applicants, in insertion order; readers get snapshots. Unused in off-heap mode. */
+    private final SnapshotList<Applicant> applicants = new SnapshotList<>();
+
+    /** Applicant objects keyed by NRIC, for constant-time lookup; in off-heap mode, only those created so far. */
+    private final Map<Nric, Applicant> applicantsByNric = new ConcurrentHashMap<>();
+
+    /** Rows of every applicant in off-heap mode, or {@code null} when all applicants are objects. */
+    private ApplicantTable table;
+
+    /** Cross-role directory this repository reports to, or {@code null} if not registered. */
+    private UserDirectory directory;
+
+    /** Whether users were added or removed since the CSV file was last read or written. */
+    private volatile boolean dirty;
+
+    /** Locks serializing additions and deletions of the same NRIC. */
+    private final LockStripes stripes = new LockStripes();
+
+    /**
+     * Creates an empty repository that keeps every applicant as an object.
+     */
+    public ApplicantRepo() {
+        this(false);
+    }
+
+    /**
+     * Creates an empty repository.
+     *
+     * @param offHeap Whether to keep applicants' fields outside the heap and
+     *                create applicant objects only when they are looked up.
+     */
+    public ApplicantRepo(boolean offHeap) {
+        this.table = offHeap ? new ApplicantTable() : null;
+    }
 
+    /**
+     * Checks whether the repository keeps applicants outside the heap.
+     *
+     * @return {@code true} in off-heap mode.
+     */
+    public boolean isOffHeap() {
+        return table != null;
+    }
+
+    /**
+     * Returns the number of applicants in the repository.
+     *
+     * @return The number of applicants.
+     */
+    public int size() {
+        return table != null ? table.size() : applicants.snapshot().size();
+    }
 
     /**
      * Creates a new applicant by prompting user input.
@@ -22,11 +104,10 @@ public class ApplicantRepo implements IUserRepo<Applicant> {
     @Override
     public void createUser() {
         Applicant newApplicant = Applicant.createUser();
-        if (getUser(newApplicant.getNric()) != null) {
+        if (!index(newApplicant)) {
             System.out.println("An applicant with this NRIC already exists");
             return;
         }
-        applicants.add(newApplicant);
         System.out.println("Applicant registered successfully");
     }
 
@@ -37,14 +118,34 @@ public class ApplicantRepo implements IUserRepo<Applicant> {
      */   
     @Override
     public void deleteUser(String nric) {
-        boolean removed = applicants.removeIf(applicant -> applicant.getNric().equalsIgnoreCase(nric));
-        if (removed) {
+        Nric key = Nric.tryParse(nric);
+        if (key != null && remove(key)) {
             System.out.println("User deleted");
         } else {
             System.out.println("User not found");
         }
     }
 
+    /**
+     * Removes an applicant from the list, the indexes, and the directory, keeping them in sync.
+     *
+     * @param key The NRIC.
+     * @return {@code true} if an applicant was removed.
+     */
+    private boolean remove(Nric key) {
+        synchronized (stripes.forKey(key)) {
+            Applicant removed = applicantsByNric.remove(key);
+            boolean found = table != null ? table.remove(key) : removed != null && applicants.remove(removed);
+            if (found) {
+                if (directory != null) {
+                    directory.remove(key);
+                }
+                dirty = true;
+            }
+            return found;
+        }
+    }
+
     /**
      * Retrieves an applicant by NRIC.
      *
@@ -53,32 +154,200 @@ public class ApplicantRepo implements IUserRepo<Applicant> {
      */ 
     @Override
     public Applicant getUser(String nric) {
-        for (Applicant applicant : applicants) {
-            if (applicant.getNric().equalsIgnoreCase(nric)) {
-                return applicant;
+        Nric key = Nric.tryParse(nric);
+        if (key == null) {
+            return null;
+        }
+        Applicant applicant = applicantsByNric.get(key);
+        return applicant != null || table == null ? applicant : load(key);
+    }
+
+    /**
+     * Creates the object of an applicant stored in the table, once; later calls return the same object.
+     * The applicant is added to the directory when created.
+     *
+     * @param key The NRIC.
+     * @return The applicant, or {@code null} if none has that NRIC.
+     */
+    private Applicant load(Nric key) {
+        synchronized (stripes.forKey(key)) {
+            Applicant applicant = applicantsByNric.get(key);
+            if (applicant == null) {
+                applicant = table.read(key);
+                if (applicant == null) {
+                    return null;
+                }
+                applicantsByNric.put(key, applicant);
+                if (directory != null) {
+                    directory.add(UserRole.APPLICANT, applicant);
+                }
             }
+            return applicant;
         }
-        //System.out.println("No applicant with such NRIC found"); Unsafe, shows up even if login fail
-        return null;
     }
 
     /**
      * Adds an existing applicant to the repository.
+     * The applicant is ignored if another user already has the same NRIC.
      *
      * @param applicant The {@link Applicant} to add.
      */
     @Override
     public void addUser(Applicant applicant) {
-        applicants.add(applicant);
+        if (!index(applicant)) {
+            System.out.println("An applicant with NRIC " + applicant.getNric() + " already exists");
+        }
+    }
+
+    /**
+     * Adds an applicant to both the list and the NRIC index, keeping them in sync.
+     *
+     * @param applicant The applicant to add.
+     * @return {@code true} if added, {@code false} if the NRIC is already taken.
+     */
+    private boolean index(Applicant applicant) {
+        Nric key = applicant.getNricKey();
+        synchronized (stripes.forKey(key)) {
+            if (applicantsByNric.containsKey(key) || (table != null && table.contains(key))) {
+                return false;
+            }
+            if (directory != null && !directory.add(UserRole.APPLICANT, applicant)) {
+                return false;
+            }
+            applicantsByNric.put(key, applicant);
+            if (table != null) {
+                table.add(key, applicant.getName(), applicant.getAge(), applicant.isMarried(), applicant.getPassword());
+            } else {
+                applicants.add(applicant);
+            }
+            dirty = true;
+            return true;
+        }
+    }
+
+    /**
+     * Adds an applicant read from a file to the table without keeping the object,
+     * unless its name or password does not fit the table.
+     *
+     * @param applicant The applicant to add.
+     * @return {@code true} if added, {@code false} if the NRIC is already taken.
+     */
+    private boolean store(Applicant applicant) {
+        if (!ApplicantTable.fits(applicant.getName(), applicant.getPassword())) {
+            return index(applicant);
+        }
+        Nric key = applicant.getNricKey();
+        synchronized (stripes.forKey(key)) {
+            if (table.contains(key) || (directory != null && directory.contains(key))) {
+                return false;
+            }
+            table.add(key, applicant.getName(), applicant.getAge(), applicant.isMarried(), applicant.getPassword());
+            dirty = true;
+            return true;
+        }
+    }
+
+    /**
+     * Takes over a table restored from a snapshot, with the applicants already
+     * created from it. The repository must be empty and in off-heap mode.
+     *
+     * @param restored The restored table.
+     * @param created  The applicants created from it.
+     */
+    void adopt(ApplicantTable restored, List<Applicant> created) {
+        table = restored;
+        for (Applicant applicant : created) {
+            applicantsByNric.put(applicant.getNricKey(), applicant);
+            if (directory != null) {
+                directory.add(UserRole.APPLICANT, applicant);
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * Visits every applicant in order, with the fields of the applicant object
+     * if it exists and those stored in the table otherwise. Must be called
+     * while no change is in progress.
+     *
+     * @param visitor Receives the applicants.
+     * @throws IOException if the visitor fails.
+     */
+    void forEachApplicant(ApplicantVisitor visitor) throws IOException {
+        if (table == null) {
+            for (Applicant applicant : applicants.snapshot()) {
+                visitor.visit(applicant, applicant.getNricKey(), applicant.getName(), applicant.getAge(),
+                        applicant.isMarried(), applicant.getPassword());
+            }
+            return;
+        }
+        table.forEach((nric, name, age, married, password) -> {
+            Applicant applicant = applicantsByNric.get(nric);
+            if (applicant != null) {
+                visitor.visit(applicant, nric, applicant.getName(), applicant.getAge(),
+                        applicant.isMarried(), applicant.getPassword());
+            } else if (name != null) {
+                visitor.visit(null, nric, name, age, married, password);
+            }
+        });
     }
 
     /**
      * Returns the list of all registered applicants.
+     * In off-heap mode this creates an object for every applicant.
      *
      * @return List of {@link Applicant} objects.
      */
     public List<Applicant> getAllApplicants() {
-        return applicants;
+        return getAllUsers();
+    }
+
+    /**
+     * Returns all applicants in the repository, in insertion order.
+     * In off-heap mode this creates an object for every applicant.
+     *
+     * @return List of {@link Applicant} objects.
+     */
+    @Override
+    public List<Applicant> getAllUsers() {
+        if (table == null) {
+            return applicants.snapshot();
+        }
+        List<Applicant> all = new ArrayList<>();
+        try {
+            table.forEach((nric, name, age, married, password) -> {
+                Applicant applicant = load(nric);
+                if (applicant != null) {
+                    all.add(applicant);
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // the visitor does no I/O
+        }
+        return all;
+    }
+
+    /**
+     * Returns the role held by users of this repository.
+     *
+     * @return {@link UserRole#APPLICANT}
+     */
+    @Override
+    public UserRole getRole() {
+        return UserRole.APPLICANT;
+    }
+
+    /**
+     * Links this repository to the cross-role user directory.
+     *
+     * @param directory The directory to report additions and deletions to.
+     */
+    @Override
+    public void setDirectory(UserDirectory directory) {
+        this.directory = directory;
+        if (table != null) {
+            directory.addSource(UserRole.APPLICANT, this::load);
+        }
     }
 
     /**
@@ -86,13 +355,14 @@ public class ApplicantRepo implements IUserRepo<Applicant> {
      * Displays a message if no applicants are available.
      */
     public void printAllApplicants() {
-    if (applicants.isEmpty()) {
+    List<Applicant> current = getAllUsers();
+    if (current.isEmpty()) {
         System.out.println("No applicants available.");
         return;
     }
 
     System.out.println("=== List of All Applicants ===");
-    for (Applicant applicant : applicants) {
+    for (Applicant applicant : current) {
         System.out.println(applicant);
         System.out.println("----------------------------------");
     }
@@ -100,55 +370,97 @@ public class ApplicantRepo implements IUserRepo<Applicant> {
 
 
     /**
-     * Saves all applicant data to a specified CSV file.
+     * Saves all applicant data to a specified CSV file, replacing it atomically.
+     * Nothing is written if no applicant was added, removed, or changed since the last load or save.
      *
      * @param fileName The file path to write the CSV to.
      */
     @Override
     public void saveToCSV(String fileName) {
-        try (java.io.PrintWriter writer = new java.io.PrintWriter(new java.io.File(fileName))) {
-            writer.println("Name,NRIC,Age,MaritalStatus,Password");
-            for (Applicant a : applicants) {
-                writer.printf("%s,%s,%d,%s,%s%n",
-                    a.getName(),
-                    a.getNric(),
-                    a.getAge(),
-                    a.isMarried() ? "Married" : "Single",
-                    a.getPassword()
-                );
+        List<Applicant> current = table != null ? new ArrayList<>(applicantsByNric.values()) : applicants.snapshot();
+        if (!dirty && !IUserRepo.anyDirty(current)) {
+            System.out.println("Applicant data unchanged, " + fileName + " not rewritten");
+            return;
+        }
+        try {
+            if (table != null) {
+                writeTableCSV(fileName, current);
+            } else {
+                IUserRepo.writeCSV(fileName, current);
             }
+            dirty = false;
             System.out.println("Applicant data saved to " + fileName);
         } catch (Exception e) {
             System.out.println("Failed to save applicants to CSV: " + e.getMessage());
         }
     }
 
+    /**
+     * Writes every applicant to a CSV file in off-heap mode without creating
+     * objects for them, and marks the existing objects as saved.
+     *
+     * @param fileName The file to write.
+     * @param created  The applicant objects created so far.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeTableCSV(String fileName, List<Applicant> created) throws IOException {
+        StringBuilder out = new StringBuilder(48 * (table.size() + 1));
+        out.append(IUserRepo.CSV_HEADER).append(System.lineSeparator());
+        forEachApplicant((applicant, nric, name, age, married, password) ->
+                IUserRepo.appendCSVRow(out, name, nric.toString(), age, married, password));
+        AtomicFile.write(Paths.get(fileName), out.toString().getBytes(StandardCharsets.UTF_8));
+        for (Applicant applicant : created) {
+            applicant.markClean();
+        }
+    }
+
     /**
      * Loads applicant data from a CSV file and populates the repository.
+     * Large files are parsed and validated on all cores, then added in file order.
+     * Skipped rows are reported together once the file has been read.
      *
      * @param fileName The file path to read the CSV from.
      */
     @Override
     public void loadFromCSV(String fileName) {
-        try (java.util.Scanner sc = new java.util.Scanner(new java.io.File(fileName))) {
-            if (sc.hasNextLine()) sc.nextLine(); // Skip header
-            while (sc.hasNextLine()) {
-                String[] tokens = sc.nextLine().split(",");
-                if (tokens.length == 5) {
-                    String name = tokens[0].trim();
-                    String nric = tokens[1].trim();
-                    int age = Integer.parseInt(tokens[2].trim());
-                    boolean isMarried = tokens[3].trim().equalsIgnoreCase("Married");
-                    String password = tokens[4].trim();
-
-                    Applicant applicant = new Applicant(name, nric, age, isMarried, password);
-                    applicants.add(applicant);
-                }
-            }
-            System.out.println("Applicants loaded from " + fileName);
+        try {
+            // In off-heap mode the object only checks the details and is not kept
+            IUserRepo.readCSV(fileName, "Applicants", Applicant::new,
+                    applicant -> table != null ? store(applicant) : index(applicant)).print(fileName);
+            dirty = false;
         } catch (Exception e) {
+            // Saving only part of the file would delete the rest of it
+            dirty = false;
             System.out.println("Failed to load applicants from CSV: " + e.getMessage());
         }
     }
 
+    /**
+     * Imports applicants from a CSV file in the same format as {@link #loadFromCSV},
+     * validating rows on all cores and rejecting NRICs already registered in any
+     * role or given twice. Accepted applicants are added in batches; each row's outcome
+     * is written to the summary file, and an import stopped part way carries on
+     * after its last batch when run again with the same summary file.
+     * See {@link BulkImport}.
+     *
+     * @param inputFile   The file to import.
+     * @param summaryFile The file to write each row's outcome to.
+     * @param dataFile    The repository's data file, to which each batch's users are appended,
+     *                    or {@code null} not to save.
+     * @return The import, with its counts; check {@link BulkImport#isComplete()} for failures.
+     */
+    public BulkImport<Applicant> importCSV(String inputFile, String summaryFile, String dataFile) {
+        BulkImport<Applicant> job = new BulkImport<>(this, directory, stripes, Applicant::new,
+                applicant -> table != null ? store(applicant) : index(applicant), this::remove);
+        try {
+            job.run(inputFile, summaryFile, dataFile);
+            System.out.println("Imported " + job.getAccepted() + " applicants from " + inputFile + " ("
+                    + job.getRejected() + " rejected); see " + summaryFile);
+        } catch (Exception e) {
+            System.out.println("Failed to import applicants from " + inputFile + " after row " + job.getLastRow()
+                    + ": " + e.getMessage() + ". Run the import again to carry on.");
+        }
+        return job;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,372 @@
+package repo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import model.Applicant;
+import model.Nric;
+
+/**
+ * Applicants stored as fixed-width rows outside the Java heap, for datasets
+ * too large to keep an {@link Applicant} object per person.
+ *
+ * Each row holds the packed NRIC, age, marital status, name, and password in
+ * {@value #ROW} bytes of direct memory, allocated in chunks so the table grows
+ * without copying. Rows are found through an open-addressing hash table of
+ * packed NRICs held in two primitive arrays, so the heap cost is a few bytes
+ * per applicant and the garbage collector sees a handful of objects instead of
+ * millions. Rows stay in the order they were added; removed rows are marked
+ * as such and skipped.
+ *
+ * Names and passwords must be ASCII and fit their columns, which every valid
+ * name and password of ordinary length does. A longer one is not stored: its
+ * row is pinned, and the caller keeps the applicant object instead.
+ */
+final class ApplicantTable {
+
+    /**
+     * Receives the rows of the table, in order.
+     */
+    @FunctionalInterface
+    interface RowVisitor {
+
+        /**
+         * Visits one row.
+         *
+         * @param nric     The applicant's NRIC.
+         * @param name     The name, or {@code null} if the row is pinned.
+         * @param age      The age.
+         * @param married  Whether the applicant is married.
+         * @param password The password, or {@code null} if the row is pinned.
+         * @throws IOException if the visitor fails to write the row.
+         */
+        void visit(Nric nric, String name, int age, boolean married, String password) throws IOException;
+    }
+
+    /** Longest name stored in a row. */
+    static final int NAME_BYTES = 48;
+
+    /** Longest password stored in a row. */
+    static final int PASSWORD_BYTES = 64;
+
+    /** Offset of the packed NRIC within a row. */
+    private static final int NRIC = 0;
+
+    /** Offset of the age. */
+    private static final int AGE = 8;
+
+    /** Offset of the flags. */
+    private static final int FLAGS = 12;
+
+    /** Offset of the name length. */
+    private static final int NAME_LENGTH = 13;
+
+    /** Offset of the password length. */
+    private static final int PASSWORD_LENGTH = 14;
+
+    /** Offset of the name characters. */
+    private static final int NAME = 16;
+
+    /** Offset of the password characters. */
+    private static final int PASSWORD = NAME + NAME_BYTES;
+
+    /** Size of a row in bytes. */
+    static final int ROW = PASSWORD + PASSWORD_BYTES;
+
+    /** Flag of a row that has not been removed. */
+    private static final byte LIVE = 1;
+
+    /** Flag of a married applicant. */
+    private static final byte MARRIED = 2;
+
+    /** Flag of a row whose name and password were not stored. */
+    private static final byte PINNED = 4;
+
+    /** Rows per chunk, as a power of two. */
+    private static final int CHUNK_SHIFT = 15;
+
+    /** Mask giving a row's position within its chunk. */
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    /** Chunks of rows, each {@code ROW << CHUNK_SHIFT} bytes of direct memory. */
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+
+    /** Number of rows written, including removed ones. */
+    private int count;
+
+    /** Number of rows not removed. */
+    private int live;
+
+    /** Packed NRICs of the hash table; a slot is empty when its row is -1. */
+    private long[] keys;
+
+    /** Row of each hash table slot, or -1 for an empty slot. */
+    private int[] slots;
+
+    /** Number of hash table slots in use. */
+    private int used;
+
+    /**
+     * Creates an empty table.
+     */
+    ApplicantTable() {
+        keys = new long[1024];
+        slots = new int[1024];
+        Arrays.fill(slots, -1);
+    }
+
+    /**
+     * Checks whether a name and password can be stored in a row.
+     *
+     * @param name     The name.
+     * @param password The password.
+     * @return {@code true} if both are ASCII and fit their columns.
+     */
+    static boolean fits(String name, String password) {
+        return fits(name, NAME_BYTES) && fits(password, PASSWORD_BYTES);
+    }
+
+    /**
+     * Checks whether a text is ASCII and no longer than a column.
+     *
+     * @param text  The text.
+     * @param width The column width in bytes.
+     * @return {@code true} if the text fits.
+     */
+    private static boolean fits(String text, int width) {
+        if (text.length() > width) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a row. The NRIC must not already be stored. If the name or password
+     * does not fit, the row is pinned and only its NRIC, age, and marital status are kept.
+     *
+     * @param nric     The NRIC.
+     * @param name     The name.
+     * @param age      The age.
+     * @param married  Whether the applicant is married.
+     * @param password The password.
+     */
+    synchronized void add(Nric nric, String name, int age, boolean married, String password) {
+        int row = count;
+        int chunk = row >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = ByteBuffer.allocateDirect(ROW << CHUNK_SHIFT);
+        }
+
+        ByteBuffer buffer = chunks[chunk];
+        int at = (row & CHUNK_MASK) * ROW;
+        boolean stored = fits(name, password);
+        buffer.putLong(at + NRIC, nric.toLong());
+        buffer.putInt(at + AGE, age);
+        buffer.put(at + FLAGS, (byte) (LIVE | (married ? MARRIED : 0) | (stored ? 0 : PINNED)));
+        if (stored) {
+            buffer.put(at + NAME_LENGTH, (byte) name.length());
+            buffer.put(at + PASSWORD_LENGTH, (byte) password.length());
+            write(buffer, at + NAME, name);
+            write(buffer, at + PASSWORD, password);
+        }
+        count++;
+        live++;
+        index(nric.toLong(), row);
+    }
+
+    /**
+     * Writes ASCII text into a buffer.
+     *
+     * @param buffer The buffer.
+     * @param at     The offset to write at.
+     * @param text   The text.
+     */
+    private static void write(ByteBuffer buffer, int at, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put(at + i, (byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Reads ASCII text from a buffer.
+     *
+     * @param buffer The buffer.
+     * @param at     The offset to read from.
+     * @param length The number of characters.
+     * @return The text.
+     */
+    private static String read(ByteBuffer buffer, int at, int length) {
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (char) buffer.get(at + i);
+        }
+        return new String(text);
+    }
+
+    /**
+     * Checks whether an NRIC is stored and not removed.
+     *
+     * @param nric The NRIC.
+     * @return {@code true} if it is stored.
+     */
+    synchronized boolean contains(Nric nric) {
+        return liveRow(nric.toLong()) >= 0;
+    }
+
+    /**
+     * Creates an applicant from a stored row.
+     *
+     * @param nric The NRIC.
+     * @return A new applicant, or {@code null} if the NRIC is not stored or its row is pinned.
+     */
+    synchronized Applicant read(Nric nric) {
+        int row = liveRow(nric.toLong());
+        if (row < 0) {
+            return null;
+        }
+        ByteBuffer buffer = chunks[row >>> CHUNK_SHIFT];
+        int at = (row & CHUNK_MASK) * ROW;
+        byte flags = buffer.get(at + FLAGS);
+        if ((flags & PINNED) != 0) {
+            return null;
+        }
+        return Applicant.restore(read(buffer, at + NAME, buffer.get(at + NAME_LENGTH)), nric,
+                buffer.getInt(at + AGE), (flags & MARRIED) != 0,
+                read(buffer, at + PASSWORD, buffer.get(at + PASSWORD_LENGTH)));
+    }
+
+    /**
+     * Marks the row of an NRIC as removed.
+     *
+     * @param nric The NRIC.
+     * @return {@code true} if a row was removed.
+     */
+    synchronized boolean remove(Nric nric) {
+        int row = liveRow(nric.toLong());
+        if (row < 0) {
+            return false;
+        }
+        ByteBuffer buffer = chunks[row >>> CHUNK_SHIFT];
+        int at = (row & CHUNK_MASK) * ROW;
+        buffer.put(at + FLAGS, (byte) (buffer.get(at + FLAGS) & ~LIVE));
+        live--;
+        return true;
+    }
+
+    /**
+     * Returns the number of rows not removed.
+     *
+     * @return The number of applicants stored.
+     */
+    synchronized int size() {
+        return live;
+    }
+
+    /**
+     * Visits every row not removed, in the order added. Each row is read under
+     * the table's lock, but the visitor runs without it.
+     *
+     * @param visitor Receives the rows.
+     * @throws IOException if the visitor fails.
+     */
+    void forEach(RowVisitor visitor) throws IOException {
+        for (int row = 0; ; row++) {
+            Nric nric;
+            String name = null;
+            String password = null;
+            int age;
+            byte flags;
+            synchronized (this) {
+                if (row >= count) {
+                    return;
+                }
+                ByteBuffer buffer = chunks[row >>> CHUNK_SHIFT];
+                int at = (row & CHUNK_MASK) * ROW;
+                flags = buffer.get(at + FLAGS);
+                if ((flags & LIVE) == 0) {
+                    continue;
+                }
+                nric = Nric.fromLong(buffer.getLong(at + NRIC));
+                age = buffer.getInt(at + AGE);
+                if ((flags & PINNED) == 0) {
+                    name = read(buffer, at + NAME, buffer.get(at + NAME_LENGTH));
+                    password = read(buffer, at + PASSWORD, buffer.get(at + PASSWORD_LENGTH));
+                }
+            }
+            visitor.visit(nric, name, age, (flags & MARRIED) != 0, password);
+        }
+    }
+
+    /**
+     * Returns the hash table slot where probing for a packed NRIC starts.
+     *
+     * @param packed The packed NRIC.
+     * @return The first slot to probe.
+     */
+    private int home(long packed) {
+        long hash = packed * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (slots.length - 1);
+    }
+
+    /**
+     * Finds the live row of a packed NRIC.
+     *
+     * @param packed The packed NRIC.
+     * @return The row, or -1 if the NRIC is not stored or its row was removed.
+     */
+    private int liveRow(long packed) {
+        for (int i = home(packed); slots[i] >= 0; i = (i + 1) & (slots.length - 1)) {
+            if (keys[i] == packed) {
+                int row = slots[i];
+                ByteBuffer buffer = chunks[row >>> CHUNK_SHIFT];
+                return (buffer.get((row & CHUNK_MASK) * ROW + FLAGS) & LIVE) != 0 ? row : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Points the hash table entry of a packed NRIC at a row, reusing the slot
+     * of a removed row with the same NRIC, and grows the table when it is three quarters full.
+     *
+     * @param packed The packed NRIC.
+     * @param row    The row.
+     */
+    private void index(long packed, int row) {
+        int i = home(packed);
+        while (slots[i] >= 0 && keys[i] != packed) {
+            i = (i + 1) & (slots.length - 1);
+        }
+        if (slots[i] < 0) {
+            used++;
+        }
+        keys[i] = packed;
+        slots[i] = row;
+
+        if (used * 4 > slots.length * 3) {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[oldKeys.length * 2];
+            slots = new int[oldSlots.length * 2];
+            Arrays.fill(slots, -1);
+            for (int j = 0; j < oldSlots.length; j++) {
+                if (oldSlots[j] >= 0) {
+                    int k = home(oldKeys[j]);
+                    while (slots[k] >= 0) {
+                        k = (k + 1) & (slots.length - 1);
+                    }
+                    keys[k] = oldKeys[j];
+                    slots[k] = oldSlots[j];
+                }
+            }
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package repo;
 
+import enums.ApplicantCategory;
+import enums.FlatType;
 import enums.RegistrationStatus;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 import model.*;
+import util.AtomicFile;
+import util.CsvReader;
+import util.LoadReport;
+import util.Session;
 
 /**
  * Repository class that manages BTO projects in the system.
@@ -19,14 +27,32 @@ import model.*;
  */
 public class BTOProjectRepo implements IRepo {
 
-    /** List of all BTO projects currently managed. */
-    private List<BTOProject> projects;
+    /** Date format used for application dates in the project CSV file. */
+    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("d/M/yy");
+
+    /** List of all BTO projects currently managed, in insertion order; readers get snapshots. */
+    private final SnapshotList<BTOProject> projects = new SnapshotList<>();
+
+    /** Index of {@link #projects} keyed by normalized (lower-case) project name. */
+    private final Map<String, BTOProject> projectsByName = new ConcurrentHashMap<>();
+
+    /** The same projects sorted and searchable by neighborhood. */
+    private final NeighborhoodIndex neighborhoods = new NeighborhoodIndex();
+
+    /** The projects open to each applicant category, rebuilt only after something changes. */
+    private final EligibilityCache eligibility = new EligibilityCache(this::getProjects);
 
     /** Repository holding all HDB managers, used for linking during load. */
     private HDBManagerRepo managerRepo;
 
     /** Repository holding all HDB officers, used for linking during load. */
     private HDBOfficerRepo officerRepo;
+
+    /** Whether projects were added or removed since the CSV file was last read or written. */
+    private volatile boolean dirty;
+
+    /** Locks serializing additions, renames, and deletions of the same project name. */
+    private final LockStripes stripes = new LockStripes();
  
     /**
      * Constructs a new BTOProjectRepo with manager and officer dependencies.
@@ -35,7 +61,6 @@ public class BTOProjectRepo implements IRepo {
      * @param officerRepo The repository of HDB officers.
      */
     public BTOProjectRepo(HDBManagerRepo managerRepo, HDBOfficerRepo officerRepo){
-        this.projects = new ArrayList<>();
         this.managerRepo = managerRepo;
         this.officerRepo = officerRepo;
     }
@@ -47,16 +72,71 @@ public class BTOProjectRepo implements IRepo {
      * @return List of {@link BTOProject} instances.
      */
     public List<BTOProject> getProjects() {
-        return projects;
+        return projects.snapshot();
+    }
+
+    /**
+     * Returns the visible projects currently open for applications to applicants
+     * of a category, with the flat types the category may apply for that still
+     * have units. The answer is cached per category until a project changes.
+     *
+     * @param category The applicant category.
+     * @return A read-only map from project to available flat types, in repository order.
+     */
+    public Map<BTOProject, List<FlatType>> getEligibleProjects(ApplicantCategory category) {
+        return eligibility.lookup(category);
+    }
+
+    /**
+     * Returns all projects sorted by neighborhood, ignoring case. The order is kept
+     * up to date as projects change, so nothing is sorted on each call.
+     *
+     * @return List of {@link BTOProject} instances in neighborhood order.
+     */
+    public List<BTOProject> getProjectsByNeighborhood() {
+        return neighborhoods.all();
     }
 
     /**
      * Adds a BTO project to the repository.
+     * The project is ignored if another project already has the same name.
      *
      * @param project The project to add.
      */
     public void addUser(BTOProject project) {
-        projects.add(project);
+        if (!index(project)) {
+            System.out.println("A project named " + project.getName() + " already exists");
+        }
+    }
+
+    /**
+     * Adds a project to both the list and the name index, keeping them in sync.
+     *
+     * @param project The project to add.
+     * @return {@code true} if added, {@code false} if the name is already taken.
+     */
+    private boolean index(BTOProject project) {
+        String key = nameKey(project.getName());
+        synchronized (stripes.forKey(key)) {
+            if (projectsByName.putIfAbsent(key, project) != null) {
+                return false;
+            }
+            projects.add(project);
+            neighborhoods.add(project);
+            eligibility.invalidate();
+            dirty = true;
+            return true;
+        }
+    }
+
+    /**
+     * Normalizes a project name into the key used by the name index.
+     *
+     * @param projectName The project name.
+     * @return The trimmed, lower-case name.
+     */
+    private static String nameKey(String projectName) {
+        return projectName.trim().toLowerCase(Locale.ROOT);
     }
 
 
@@ -69,10 +149,14 @@ public class BTOProjectRepo implements IRepo {
         String neighborhood, projectName;
         int twoRoomNo, threeRoomNo, twoRoomPrice, threeRoomPrice, noAvailableOffice;
         LocalDate appOpenDate, appCloseDate;
-        Scanner sc = new Scanner(System.in);
+        Scanner sc = Session.current().in();
 
         System.out.print("Please enter the project name: ");
         projectName = sc.nextLine().trim();
+        if (projectsByName.containsKey(nameKey(projectName))) {
+            System.out.println("A project with this name already exists.");
+            return;
+        }
 
         System.out.print("Please enter neighborhood: ");
         neighborhood = sc.nextLine().trim();
@@ -97,6 +181,11 @@ public class BTOProjectRepo implements IRepo {
         System.out.print("Enter closing date for application (yyyy-mm-dd): ");
         appCloseDate = LocalDate.parse(sc.nextLine().trim());
 
+        if (manager.hasProjectDuring(appOpenDate, appCloseDate, null)) {
+            System.out.println("You already manage a project whose application period overlaps these dates.");
+            return;
+        }
+
         System.out.print("Enter number of available HDB Officer Slots: ");
         noAvailableOffice = sc.nextInt();
 
@@ -107,7 +196,11 @@ public class BTOProjectRepo implements IRepo {
 
 
         BTOProject newProject = new BTOProject(projectName, neighborhood, twoRoomNo, threeRoomNo, twoRoomPrice, threeRoomPrice, appOpenDate, appCloseDate, noAvailableOffice, manager, officerAssignedAsString);
-        projects.add(newProject);
+        if (!index(newProject)) {
+            // Another session created a project with this name while the details were entered
+            System.out.println("A project with this name already exists.");
+            manager.removeProject(newProject);
+        }
     }
 
 
@@ -118,13 +211,41 @@ public class BTOProjectRepo implements IRepo {
      * @return The matching project or null if not found.
      */
     public BTOProject getProject(String projectName) {
-        for (BTOProject project : projects) {
-            if (project.getName().equalsIgnoreCase(projectName)) {
-                return project;
+        BTOProject project = projectName == null ? null : projectsByName.get(nameKey(projectName));
+        if (project == null) {
+            System.out.println("Project not found");
+        }
+        return project;
+    }
+
+    /**
+     * Renames a project, keeping the name index in sync.
+     *
+     * @param project The project to rename.
+     * @param newName The new name of the project.
+     * @return {@code true} if renamed, {@code false} if the name is empty or already taken by another project.
+     */
+    public boolean renameProject(BTOProject project, String newName) {
+        if (newName == null || newName.isBlank()) {
+            return false;
+        }
+        String oldKey = nameKey(project.getName());
+        String newKey = nameKey(newName);
+        // Both names' locks are needed; take them in stripe order so two renames cannot deadlock
+        boolean oldFirst = stripes.index(oldKey) <= stripes.index(newKey);
+        synchronized (stripes.forKey(oldFirst ? oldKey : newKey)) {
+            synchronized (stripes.forKey(oldFirst ? newKey : oldKey)) {
+                BTOProject existing = projectsByName.putIfAbsent(newKey, project);
+                if (existing != null && existing != project) {
+                    return false;
+                }
+                if (!oldKey.equals(newKey)) {
+                    projectsByName.remove(oldKey, project);
+                }
+                project.setName(newName.trim());
+                return true;
             }
         }
-        System.out.println("Project not found");
-        return null;
     }
 
 
@@ -132,7 +253,7 @@ public class BTOProjectRepo implements IRepo {
      * Prints all projects to the console, including their details.
      */
     public void printAllProjects() {
-        if (projects.isEmpty()) {
+        if (getProjects().isEmpty()) {
             System.out.println("No BTO projects available.");
             return;
         }
@@ -146,18 +267,12 @@ public class BTOProjectRepo implements IRepo {
 
 
     /**
-     * Edits project attributes such as flat counts, prices, dates, and officer slots.
+     * Edits project attributes such as name, flat counts, prices, dates, and officer slots.
      *
      * @param projectName The name of the project to edit.
      */
     public void editProject(String projectName) {
-        BTOProject project = null;
-        for (BTOProject p : projects) {
-            if (p.getName().equalsIgnoreCase(projectName)) {
-                project = p;
-                break;
-            }
-        }
+        BTOProject project = projectName == null ? null : projectsByName.get(nameKey(projectName));
 
         if (project == null) {
             System.out.println("Project not found");
@@ -167,7 +282,7 @@ public class BTOProjectRepo implements IRepo {
         System.out.println("Selected Project:");
         System.out.println(project);
         int choice;
-        Scanner sc = new Scanner(System.in);
+        Scanner sc = Session.current().in();
 
         do {
             System.out.print("""
@@ -179,7 +294,8 @@ public class BTOProjectRepo implements IRepo {
                     6. Opening date for applications
                     7. Closing date for applications
                     8. Number of available HDB Officer Slots
-                    9. Exit
+                    9. Project name
+                    10. Exit
                     Choose which to change:
                     """);
 
@@ -194,6 +310,7 @@ public class BTOProjectRepo implements IRepo {
                 case 1 -> {
                     System.out.print("Enter new neighborhood: ");
                     project.setNeighborhood(sc.nextLine().trim());
+                    neighborhoods.add(project);
                 }
                 case 2 -> {
                     System.out.print("Enter new number of two room flats: ");
@@ -217,11 +334,19 @@ public class BTOProjectRepo implements IRepo {
                 }
                 case 6 -> {
                     System.out.print("Enter new opening date for applications (yyyy-mm-dd): ");
-                    project.setAppOpenDate(LocalDate.parse(sc.nextLine().trim()));
+                    LocalDate openDate = LocalDate.parse(sc.nextLine().trim());
+                    if (project.getHDBManager().hasProjectDuring(openDate, project.getAppCloseDate(), project))
+                        System.out.println("Error: Another of your projects has an overlapping application period!");
+                    else
+                        project.setAppOpenDate(openDate);
                 }
                 case 7 -> {
                     System.out.print("Enter new closing date for applications (yyyy-mm-dd): ");
-                    project.setAppCloseDate(LocalDate.parse(sc.nextLine().trim()));
+                    LocalDate closeDate = LocalDate.parse(sc.nextLine().trim());
+                    if (project.getHDBManager().hasProjectDuring(project.getAppOpenDate(), closeDate, project))
+                        System.out.println("Error: Another of your projects has an overlapping application period!");
+                    else
+                        project.setAppCloseDate(closeDate);
                 }
                 case 8 -> {
                     System.out.print("Enter new number of available HDB Officer Slots: ");
@@ -232,20 +357,38 @@ public class BTOProjectRepo implements IRepo {
                     else
                         System.out.println("Error: Negative number entered!");
                 }
-                case 9 -> System.out.println("Returning to menu...");
+                case 9 -> {
+                    System.out.print("Enter new project name: ");
+                    if (!renameProject(project, sc.nextLine()))
+                        System.out.println("Error: Name is empty or already used by another project!");
+                }
+                case 10 -> System.out.println("Returning to menu...");
                 default -> System.out.println("Invalid choice. Try again.");
             }
             System.out.println("");
-        } while (choice != 9);
+        } while (choice != 10);
     }
 
     /**
-     * Deletes a project by name.
+     * Deletes a project by name (case-insensitive).
      *
      * @param projectName The name of the project to delete.
      */
     public void deleteProject(String projectName){
-        projects.removeIf(project -> project.getName().equals(projectName));
+        if (projectName == null) {
+            return;
+        }
+        String key = nameKey(projectName);
+        synchronized (stripes.forKey(key)) {
+            BTOProject project = projectsByName.remove(key);
+            if (project != null) {
+                projects.remove(project);
+                neighborhoods.remove(project);
+                eligibility.invalidate();
+                project.getHDBManager().removeProject(project);
+                dirty = true;
+            }
+        }
     }
 
     /**
@@ -254,10 +397,10 @@ public class BTOProjectRepo implements IRepo {
      * @return A filtered list of {@link BTOProject} instances, or all if none match.
      */
     public List<BTOProject> filterProject() {
-        Scanner sc = new Scanner(System.in);
+        Scanner sc = Session.current().in();
         List<BTOProject> filteredProjects = new ArrayList<>();
 
-        projects.sort((p1, p2) -> p1.getNeighborhood().compareToIgnoreCase(p2.getNeighborhood()));
+        List<BTOProject> sorted = getProjectsByNeighborhood();
 
         System.out.println("Filter by:");
         System.out.println("1. No Filter");
@@ -269,12 +412,7 @@ public class BTOProjectRepo implements IRepo {
         switch (choice) {
             case "2" -> {
                 System.out.print("Enter neighborhood name: ");
-                String input = sc.nextLine().trim().toLowerCase();
-                for (BTOProject project : projects) {
-                    if (project.getNeighborhood().toLowerCase().contains(input)) {
-                        filteredProjects.add(project);
-                    }
-                }
+                filteredProjects.addAll(neighborhoods.containing(sc.nextLine().trim()));
             }
 
             case "3" -> {
@@ -284,13 +422,13 @@ public class BTOProjectRepo implements IRepo {
                 String input = sc.nextLine().trim().toLowerCase();
 
                 if (input.equals("a")) {
-                    for (BTOProject project : projects) {
+                    for (BTOProject project : sorted) {
                         if (project.getTwoRoomNo() > 0) {
                             filteredProjects.add(project);
                         }
                     }
                 } else if (input.equals("b")) {
-                    for (BTOProject project : projects) {
+                    for (BTOProject project : sorted) {
                         if (project.getThreeRoomNo() > 0) {
                             filteredProjects.add(project);
                         }
@@ -303,13 +441,13 @@ public class BTOProjectRepo implements IRepo {
             default -> {
                 System.out.println("\nNo filter applied.");
                 System.out.println("=== List of All BTO Projects ===");
-                return projects;
+                return sorted;
             }
         }
 
         if (filteredProjects.isEmpty()) {
             System.out.println("\n=== No projects matched your criteria. Showing all ===");
-            return projects;
+            return sorted;
         }
 
         System.out.println("\n=== List of Filtered BTO Projects ===");
@@ -321,30 +459,28 @@ public class BTOProjectRepo implements IRepo {
      *
      * Supported filter types:
      * - "neighborhood": Filters projects whose neighborhood names contain the given value (case-insensitive).
+     * - "prefix": Filters projects whose neighborhood names start with the given value (case-insensitive).
      * - "flat": Filters projects based on flat availability:
      *     - "tworoom": Projects with at least one 2-room flat available.
      *     - "threeroom": Projects with at least one 3-room flat available.
      *
-     * @param type  The type of filter to apply ("neighborhood" or "flat").
+     * @param type  The type of filter to apply ("neighborhood", "prefix" or "flat").
      * @param value The value to filter by (e.g., "Yishun" for neighborhood, "tworoom" or "threeroom" for flat type).
      * @return A list of BTOProject instances that match the filter criteria.
      */
     public List<BTOProject> filterProjectByCriteria(String type, String value) {
         List<BTOProject> filteredProjects = new ArrayList<>();
+        List<BTOProject> current = getProjects();
 
         switch (type.toLowerCase()) {
-            case "neighborhood" -> {
-                for (BTOProject project : projects) {
-                    if (project.getNeighborhood().toLowerCase().contains(value.toLowerCase())) {
-                        filteredProjects.add(project);
-                    }
-                }
-            }
+            case "neighborhood" -> filteredProjects.addAll(neighborhoods.containing(value));
+
+            case "prefix" -> filteredProjects.addAll(neighborhoods.withPrefix(value));
 
             case "flat" -> {
                 switch (value.toLowerCase()) {
                     case "tworoom" -> {
-                        for (BTOProject project : projects) {
+                        for (BTOProject project : current) {
                             if (project.getTwoRoomNo() > 0) {
                                 filteredProjects.add(project);
                             }
@@ -352,7 +488,7 @@ public class BTOProjectRepo implements IRepo {
                     }
 
                     case "threeroom" -> {
-                        for (BTOProject project : projects) {
+                        for (BTOProject project : current) {
                             if (project.getThreeRoomNo() > 0) {
                                 filteredProjects.add(project);
                             }
@@ -371,33 +507,46 @@ public class BTOProjectRepo implements IRepo {
 
 
     /**
-     * Saves all projects to a CSV file.
+     * Saves all projects to a CSV file, replacing it atomically.
+     * Nothing is written if no project was added, removed, or changed since the last load or save.
      *
      * @param fileName The file to save to.
      */
     @Override
     public void saveToCSV(String fileName) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName))) {
-        writer.println("Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,Application closing date,Manager,Officer Slot,Officer");
-
-        for (BTOProject p : projects) {
-            writer.printf("%s,%s,%s,%d,%d,%s,%d,%d,%s,%s,%s,%d,\"%s\"%n",
-                p.getName(),
-                p.getNeighborhood(),
-                "2-Room",
-                p.getTwoRoomNo(),
-                p.getTwoRoomPrice(),
-                "3-Room",
-                p.getThreeRoomNo(),
-                p.getThreeRoomPrice(),
-                p.getAppOpenDate().format(DateTimeFormatter.ofPattern("d/M/yy")),
-                p.getAppCloseDate().format(DateTimeFormatter.ofPattern("d/M/yy")),
-                p.getHDBManagerName(),
-                p.getNoAvailableOffice(),
-                p.getOfficerAssignedAsString()
-            );
+        List<BTOProject> current = getProjects();
+        boolean changed = dirty;
+        for (int i = 0; i < current.size() && !changed; i++) {
+            changed = current.get(i).isDirty();
+        }
+        if (!changed) {
+            System.out.println("Projects unchanged, " + fileName + " not rewritten");
+            return;
+        }
+
+        String newline = System.lineSeparator();
+        StringBuilder out = new StringBuilder(128 * (current.size() + 1));
+        out.append("Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,Application closing date,Manager,Officer Slot,Officer")
+           .append(newline);
+        for (BTOProject p : current) {
+            out.append(p.getName()).append(',')
+               .append(p.getNeighborhood()).append(',')
+               .append("2-Room,").append(p.getTwoRoomNo()).append(',').append(p.getTwoRoomPrice()).append(',')
+               .append("3-Room,").append(p.getThreeRoomNo()).append(',').append(p.getThreeRoomPrice()).append(',');
+            CSV_DATE_FORMAT.formatTo(p.getAppOpenDate(), out);
+            out.append(',');
+            CSV_DATE_FORMAT.formatTo(p.getAppCloseDate(), out);
+            out.append(',')
+               .append(p.getHDBManagerName()).append(',')
+               .append(p.getNoAvailableOffice()).append(',')
+               .append('"').append(p.getOfficerAssignedAsString()).append('"')
+               .append(newline);
         }
 
+        try {
+            AtomicFile.write(Paths.get(fileName), out.toString().getBytes(StandardCharsets.UTF_8));
+            dirty = false;
+            current.forEach(BTOProject::markClean);
             System.out.println("Projects saved to " + fileName);
         } catch (IOException e) {
             System.out.println("Error saving projects: " + e.getMessage());
@@ -406,93 +555,117 @@ public class BTOProjectRepo implements IRepo {
 
     /**
      * Loads BTO projects from a CSV file, including manager and officer registrations.
+     * Managers are resolved by name as each row is read; officers are linked in a
+     * single pass once every project in the file has been created.
      *
      * @param fileName The CSV file to read from.
      */
     @Override
     public void loadFromCSV(String fileName) {
-        try (Scanner sc = new Scanner(new File(fileName))) {
-            if (sc.hasNextLine()) sc.nextLine(); // Skip header
+        // Projects created from this file, and the officer names listed for each
+        List<BTOProject> loaded = new ArrayList<>();
+        try (CsvReader csv = CsvReader.open(fileName)) {
+            csv.readRow(); // Skip header
+            LoadReport report = new LoadReport("Projects");
+
+            List<String[]> officerNamesByProject = new ArrayList<>();
 
-            while (sc.hasNextLine()) {
-                String[] tokens = sc.nextLine().split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)", -1);
+            String[] tokens;
+            while ((tokens = csv.readRow((problem, row) -> report.skip(row, problem))) != null) {
                 if (tokens.length < 13) {
-                    System.out.println("Invalid CSV line: " + Arrays.toString(tokens));
+                    report.skip(csv.getRow(), "expected 13 columns but found " + tokens.length);
                     continue;
                 }
 
                 String name = tokens[0].trim();
                 String neighborhood = tokens[1].trim();
-                int twoRoomNo = Integer.parseInt(tokens[3].trim());
-                int twoRoomPrice = Integer.parseInt(tokens[4].trim());
-                int threeRoomNo = Integer.parseInt(tokens[6].trim());
-                int threeRoomPrice = Integer.parseInt(tokens[7].trim());
-                LocalDate appOpenDate = LocalDate.parse(tokens[8].trim(), DateTimeFormatter.ofPattern("d/M/yy"));
-                LocalDate appCloseDate = LocalDate.parse(tokens[9].trim(), DateTimeFormatter.ofPattern("d/M/yy"));
-                String managerName = tokens[10].trim();
-                int officerSlots = Integer.parseInt(tokens[11].trim());
-                // System.err.println("TOEKN "+ tokens[12]); //COMMENT
-                String officerAssigned = tokens[12].trim().replaceAll("\"", ""); // Remove quotes
-
-                // Find manager object
-                HDBManager manager = null;
-                for (HDBManager m : managerRepo.getAllManagers()) {
-                    // System.out.println("INSIDE FIND"+ m.getName());
-                    if (m.getName().equalsIgnoreCase(managerName)) {
-                        manager = m;
-                        break;
-                    }
+                int twoRoomNo, twoRoomPrice, threeRoomNo, threeRoomPrice, officerSlots;
+                LocalDate appOpenDate, appCloseDate;
+                try {
+                    twoRoomNo = csv.getInt(tokens, 3);
+                    twoRoomPrice = csv.getInt(tokens, 4);
+                    threeRoomNo = csv.getInt(tokens, 6);
+                    threeRoomPrice = csv.getInt(tokens, 7);
+                    appOpenDate = parseDate(csv, tokens, 8);
+                    appCloseDate = parseDate(csv, tokens, 9);
+                    officerSlots = csv.getInt(tokens, 11);
+                } catch (IllegalArgumentException e) {
+                    report.skip(csv.getRow(), e.getMessage());
+                    continue;
                 }
+                String managerName = tokens[10].trim();
+                String officerAssigned = tokens[12].trim(); // Quotes already removed by the reader
 
+                HDBManager manager = managerRepo.getManagerByName(managerName);
                 if (manager == null) {
-                    System.out.println("Manager not found: " + managerName);
+                    report.skip(csv.getRow(), "manager not found: " + managerName);
                     continue;
                 }
 
                 // Create project
                 BTOProject project = new BTOProject(name, neighborhood, twoRoomNo, threeRoomNo,
                         twoRoomPrice, threeRoomPrice, appOpenDate, appCloseDate, officerSlots, manager, officerAssigned);
+                if (!index(project)) {
+                    report.skip(csv.getRow(), "duplicate project name " + name);
+                    manager.removeProject(project);
+                    continue;
+                }
+                report.loaded();
+                loaded.add(project);
+                officerNamesByProject.add(officerAssigned.split(","));
+            }
 
-                // Split and attach officer registrations
-                // Split and attach officer registrations
-                String[] officerNames = officerAssigned.split(",");
-                // System.out.println("Officers Assigned"+ officerAssigned); //comment
-                // System.out.println("Officer names array: " + java.util.Arrays.toString(officerNames)); //comment
-                for (String officerName : officerNames) {
+            // Link officers to the projects they are assigned to, matching names exactly
+            for (int i = 0; i < loaded.size(); i++) {
+                BTOProject project = loaded.get(i);
+                for (String officerName : officerNamesByProject.get(i)) {
                     officerName = officerName.trim();
-                    // System.out.println("Looking for officer name: [" + officerName + "]"); //comment
-
-                    boolean found = false;
-
-                    for (HDBOfficer o : officerRepo.getAllOfficers()) {
-                        // System.out.println("Comparing with officer object: [getName() = " + o.getName() + ", getNRIC() = " + o.getNric() + "]"); //comment
-
-                        if (o.getName().equalsIgnoreCase(officerName)) {
-                            // System.out.println("Match found for: " + officerName); //comment
-
-                            OfficerRegistration reg = new OfficerRegistration(o, project);
-                            reg.setStatus(RegistrationStatus.APPROVED); // Assume approved if already in file
-                            project.addRegistration(reg);
-                            o.setAssignedProject(project);
-                            o.setOfficerRegistrationToHDBOfficer(reg); //REMEMBER
-                            // REMEMBER 8 - HERE WE CAN DO VIEW STATUS OF HTE REGISTRATION ALSO
-
-                            found = true;
-                            break;
-                        }
+                    if (officerName.isEmpty()) {
+                        continue;
                     }
 
-                    if (!found) {
+                    HDBOfficer o = officerRepo.getOfficerByName(officerName);
+                    if (o == null) {
                         System.out.println("No match found for officer: " + officerName);
+                        continue;
                     }
+
+                    OfficerRegistration reg = new OfficerRegistration(o, project);
+                    reg.setStatus(RegistrationStatus.APPROVED); // Assume approved if already in file
+                    project.addRegistration(reg);
+                    o.setAssignedProject(project);
+                    o.setOfficerRegistrationToHDBOfficer(reg);
                 }
-                project.updateOfficerAssignedString(); 
-                projects.add(project);
+                project.updateOfficerAssignedString();
             }
-            System.out.println("Projects loaded from " + fileName);
+            loaded.forEach(BTOProject::markClean);
+            dirty = false;
+            report.print(fileName);
         } catch (Exception e) {
+            // Saving only part of the file would delete the rest of it
+            loaded.forEach(BTOProject::markClean);
+            dirty = false;
             System.out.println("Failed to load projects from CSV: " + e.getMessage());
         }
     }
 
+    /**
+     * Parses a date column of a project row in the {@code d/M/yy} format used by the CSV file.
+     *
+     * @param csv    The reader that produced the row, used for error positions.
+     * @param tokens The fields of the row.
+     * @param index  The 0-based index of the date field.
+     * @return The parsed date.
+     * @throws IllegalArgumentException if the field is not a valid date.
+     */
+    private static LocalDate parseDate(CsvReader csv, String[] tokens, int index) {
+        String value = tokens[index].trim();
+        try {
+            return LocalDate.parse(value, CSV_DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Row " + csv.getRow() + ", column " + (index + 1)
+                    + ": expected a date like 15/2/25 but found '" + value + "'");
+        }
+    }
+
 }
@@ -0,0 +1,563 @@
+package repo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import model.Nric;
+import model.User;
+import util.AtomicFile;
+import util.ParallelCsvReader;
+
+/**
+ * An import of users from a CSV file in the shared user file format into a
+ * repository, such as a list of new applicants handed over by another agency.
+ *
+ * Rows are read and validated on all cores by {@link ParallelCsvReader}, then
+ * checked in file order against the users already registered in any role and
+ * against the other rows of their batch. Every {@value #BATCH_ROWS} rows the
+ * accepted users are added to the repository at once, while every change to
+ * that repository waits: if an NRIC was claimed since the row was checked, the
+ * batch's users are taken out again and the batch is added without that row.
+ *
+ * Each row's outcome is appended to a summary file with the columns
+ * {@code Row,NRIC,Result,Reason}, and the users accepted in a batch are
+ * appended to the repository's data file, so each batch costs the same however
+ * large the data file already is. A checkpoint next to the summary records the
+ * last row done and the length of both files, so an import stopped part way,
+ * for example by a crash or a full disk, carries on from the checkpoint when
+ * started again with the same summary file. Before a batch is written, the
+ * checkpoint marks it as being committed: if the import stops while the batch
+ * is written, the next run recognises the users it finds after the recorded
+ * end of the data file as its own and counts them as accepted rather than as
+ * already registered. The checkpoint is removed once the whole file has been
+ * imported.
+ *
+ * @param <T> The type of user imported.
+ */
+public final class BulkImport<T extends User> {
+
+    /** Number of rows added to the repository at once. */
+    public static final int BATCH_ROWS = 10_000;
+
+    /** Header of the summary file. */
+    private static final String SUMMARY_HEADER = "Row,NRIC,Result,Reason\n";
+
+    /** Reason given for a row whose NRIC was claimed between its check and its batch. */
+    static final String CLAIMED = "NRIC was registered while importing";
+
+    /**
+     * The outcome of one row.
+     *
+     * @param <T> The type of user.
+     */
+    private static final class Outcome<T> {
+
+        /** The row number. */
+        final int row;
+
+        /** The NRIC as written in the row. */
+        final String nric;
+
+        /** The user, or {@code null} if the row was rejected. */
+        T user;
+
+        /** Why the row was rejected, or {@code null} if it was accepted. */
+        String reason;
+
+        /** Whether the user was already added by a run that stopped while committing the row's batch. */
+        boolean restored;
+
+        /**
+         * Constructs the outcome of a row.
+         *
+         * @param row    The row number.
+         * @param nric   The NRIC as written.
+         * @param user   The user, or {@code null}.
+         * @param reason Why the row was rejected, or {@code null}.
+         */
+        Outcome(int row, String nric, T user, String reason) {
+            this.row = row;
+            this.nric = nric;
+            this.user = user;
+            this.reason = reason;
+        }
+
+        /**
+         * Rejects a row that was accepted until now.
+         *
+         * @param why Why the row is rejected.
+         */
+        void reject(String why) {
+            user = null;
+            reason = why;
+        }
+    }
+
+    /** The repository imported into. */
+    private final IUserRepo<T> repo;
+
+    /** The cross-role directory, or {@code null} if the repository is not registered. */
+    private final UserDirectory directory;
+
+    /** The lock stripes guarding changes to the repository. */
+    private final LockStripes stripes;
+
+    /** Creates users from the details of a row. */
+    private final IUserRepo.UserFactory<T> factory;
+
+    /** Adds a user to the repository, returning {@code false} if its NRIC is taken. */
+    private final Predicate<T> add;
+
+    /** Takes a user added by this import out of the repository again. */
+    private final Consumer<Nric> remove;
+
+    /** The rows of the current batch, in file order. */
+    private final List<Outcome<T>> batch = new ArrayList<>();
+
+    /** The row of each NRIC accepted in the current batch. */
+    private final Map<Nric, Integer> batchRows = new HashMap<>();
+
+    /** The last row of the file already imported. */
+    private int done;
+
+    /** The row the import carried on after, or 0 if it started from the top. */
+    private int resumedAfter;
+
+    /** Number of users added, including by earlier runs of an import that was resumed. */
+    private int accepted;
+
+    /** Number of rows rejected, including by earlier runs of an import that was resumed. */
+    private int rejected;
+
+    /** Whether the whole file has been imported. */
+    private boolean complete;
+
+    /** Length of the summary file up to the last row done. */
+    private long summaryLength;
+
+    /** Length of the data file up to the last row done, or -1 if not known. */
+    private long dataLength = -1;
+
+    /** The last row of the batch an earlier run stopped committing, or 0 if none. */
+    private int committingThrough;
+
+    /** NRICs of the users that batch had already added to the data file. */
+    private final Set<Nric> restored = new HashSet<>();
+
+    /**
+     * Prepares an import into a repository.
+     *
+     * @param repo      The repository.
+     * @param directory The cross-role directory, or {@code null}.
+     * @param stripes   The lock stripes guarding changes to the repository.
+     * @param factory   Creates users from the details of a row.
+     * @param add       Adds a user, returning {@code false} if its NRIC is taken.
+     * @param remove    Takes a user added by the import out again.
+     */
+    BulkImport(IUserRepo<T> repo, UserDirectory directory, LockStripes stripes, IUserRepo.UserFactory<T> factory,
+               Predicate<T> add, Consumer<Nric> remove) {
+        this.repo = repo;
+        this.directory = directory;
+        this.stripes = stripes;
+        this.factory = factory;
+        this.add = add;
+        this.remove = remove;
+    }
+
+    /**
+     * Imports a file, carrying on from the checkpoint of the summary file if one exists.
+     *
+     * @param inputFile   The file to import.
+     * @param summaryFile The file to write each row's outcome to.
+     * @param dataFile    The repository's data file, to which each batch's users
+     *                    are appended, or {@code null} to leave saving to the caller.
+     * @throws IOException if a file cannot be read or written; the rows up to
+     *         the last checkpoint stay imported.
+     */
+    void run(String inputFile, String summaryFile, String dataFile) throws IOException {
+        Path summary = Path.of(summaryFile);
+        Path checkpoint = checkpointOf(summaryFile);
+        Path data = dataFile == null ? null : Path.of(dataFile);
+        if (Files.exists(checkpoint)) {
+            resume(summary, checkpoint, data);
+        } else {
+            AtomicFile.write(summary, SUMMARY_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        summaryLength = Files.size(summary);
+        if (data != null) {
+            // Batches are appended, so the file must hold the repository as it is now
+            repo.saveToCSV(dataFile);
+            if (!Files.exists(data)) {
+                AtomicFile.write(data, (IUserRepo.CSV_HEADER + System.lineSeparator())
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            dataLength = Files.size(data);
+        }
+
+        try {
+            ParallelCsvReader.read(inputFile, (tokens, csv) -> {
+                String nric = tokens.length > 1 ? tokens[1].trim() : "";
+                try {
+                    return new Outcome<>(csv.getRow(), nric, IUserRepo.parseRow(tokens, csv, factory), null);
+                } catch (IllegalArgumentException e) {
+                    return new Outcome<T>(csv.getRow(), nric, null, e.getMessage());
+                }
+            }, (outcome, row) -> take(outcome, summary, checkpoint, data),
+                    // Only rows that are not well-formed CSV get here; the mapper turns every other problem into an outcome
+                    (problem, row) -> take(new Outcome<>(row, "", null, problem), summary, checkpoint, data));
+            finishBatch(summary, checkpoint, data);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.deleteIfExists(checkpoint);
+        complete = true;
+    }
+
+    /**
+     * Checks a row not done by an earlier run and adds it to the batch,
+     * finishing the batch once it is full.
+     *
+     * @param outcome    The outcome of the row.
+     * @param summary    The summary file.
+     * @param checkpoint The checkpoint file.
+     * @param data       The data file, or {@code null}.
+     * @throws UncheckedIOException if a file cannot be written.
+     */
+    private void take(Outcome<T> outcome, Path summary, Path checkpoint, Path data) {
+        if (outcome.row <= done) {
+            return;
+        }
+        check(outcome);
+        batch.add(outcome);
+        if (batch.size() >= BATCH_ROWS) {
+            finishBatch(summary, checkpoint, data);
+        }
+    }
+
+    /**
+     * Returns the checkpoint file kept next to a summary file.
+     *
+     * @param summaryFile The summary file.
+     * @return The checkpoint file.
+     */
+    static Path checkpointOf(String summaryFile) {
+        return Path.of(summaryFile + ".checkpoint");
+    }
+
+    /**
+     * Restores the progress of an earlier run from its checkpoint and drops any
+     * summary lines written after it. If the run stopped while committing a
+     * batch, the users of that batch already in the data file are noted as
+     * added, and a user cut off part way is dropped.
+     *
+     * @param summary    The summary file.
+     * @param checkpoint The checkpoint file.
+     * @param data       The data file, or {@code null}.
+     * @throws IOException if the checkpoint cannot be read or is damaged.
+     */
+    private void resume(Path summary, Path checkpoint, Path data) throws IOException {
+        String[] fields = Files.readString(checkpoint, StandardCharsets.UTF_8).trim().split(",");
+        long length;
+        long dataBefore = -1;
+        try {
+            // Checkpoints without the data file's length come from runs that saved it whole
+            if (fields.length != 4 && fields.length != 6) {
+                throw new NumberFormatException();
+            }
+            done = Integer.parseInt(fields[0]);
+            accepted = Integer.parseInt(fields[1]);
+            rejected = Integer.parseInt(fields[2]);
+            length = Long.parseLong(fields[3]);
+            if (fields.length == 6) {
+                dataBefore = Long.parseLong(fields[4]);
+                committingThrough = Integer.parseInt(fields[5]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Damaged import checkpoint " + checkpoint);
+        }
+        try (FileChannel file = FileChannel.open(summary, StandardOpenOption.WRITE)) {
+            if (file.size() < length) {
+                throw new IOException("Summary file " + summary + " is shorter than its checkpoint");
+            }
+            file.truncate(length);
+        }
+        if (committingThrough > done && data != null && dataBefore >= 0 && Files.exists(data)) {
+            recoverBatch(data, dataBefore);
+        }
+        resumedAfter = done;
+    }
+
+    /**
+     * Notes the users a stopped run appended to the data file after its last
+     * checkpoint. A last line cut off part way is removed from the file, and
+     * its user from the repository if it was loaded, so its row is imported again.
+     *
+     * @param data       The data file.
+     * @param dataBefore The length of the data file before the batch.
+     * @throws IOException if the data file cannot be read or truncated.
+     */
+    private void recoverBatch(Path data, long dataBefore) throws IOException {
+        try (FileChannel file = FileChannel.open(data, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = file.size();
+            if (size <= dataBefore) {
+                return;
+            }
+            ByteBuffer tail = ByteBuffer.allocate(Math.toIntExact(size - dataBefore));
+            while (tail.hasRemaining() && file.read(tail, dataBefore + tail.position()) >= 0) {
+                // Keep reading until the tail is full
+            }
+            byte[] bytes = tail.array();
+            int complete = bytes.length;
+            while (complete > 0 && bytes[complete - 1] != '\n') {
+                complete--;
+            }
+            for (String line : new String(bytes, 0, complete, StandardCharsets.UTF_8).split("\n")) {
+                Nric key = nricOf(line);
+                if (key != null) {
+                    restored.add(key);
+                }
+            }
+            if (complete < bytes.length) {
+                Nric key = nricOf(new String(bytes, complete, bytes.length - complete, StandardCharsets.UTF_8));
+                if (key != null && repo.getUser(key.toString()) != null) {
+                    remove.accept(key);
+                }
+                file.truncate(dataBefore + complete);
+            }
+        }
+    }
+
+    /**
+     * Reads the NRIC of a line of the data file.
+     *
+     * @param line The line.
+     * @return The NRIC, or {@code null} if the line has none.
+     */
+    private static Nric nricOf(String line) {
+        String[] fields = line.split(",", 3);
+        return fields.length < 3 ? null : Nric.tryParse(fields[1]);
+    }
+
+    /**
+     * Rejects a valid row whose NRIC is already registered or accepted earlier in the batch.
+     *
+     * @param outcome The outcome of the row.
+     */
+    private void check(Outcome<T> outcome) {
+        if (outcome.user == null) {
+            return;
+        }
+        Nric key = outcome.user.getNricKey();
+        Integer first = batchRows.putIfAbsent(key, outcome.row);
+        if (first != null) {
+            outcome.reject("Duplicate NRIC, first given in row " + first);
+            return;
+        }
+        if (outcome.row <= committingThrough && restored.contains(key)) {
+            // Added by the run that stopped while committing this batch
+            outcome.restored = true;
+            return;
+        }
+        if (directory != null) {
+            UserDirectory.Entry entry = directory.lookup(key.toString());
+            if (entry != null) {
+                outcome.reject("NRIC already registered as " + entry.getRole());
+                return;
+            }
+        }
+        if (repo.getUser(key.toString()) != null) {
+            outcome.reject("NRIC already registered");
+        }
+    }
+
+    /**
+     * Adds the accepted users of the batch, appends them to the data file,
+     * records the batch in the summary, and writes the checkpoint.
+     *
+     * @param summary    The summary file.
+     * @param checkpoint The checkpoint file.
+     * @param data       The data file, or {@code null}.
+     * @throws UncheckedIOException if a file cannot be written.
+     */
+    private void finishBatch(Path summary, Path checkpoint, Path data) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        stripes.withAll(this::commit);
+
+        StringBuilder lines = new StringBuilder();
+        StringBuilder users = new StringBuilder();
+        int batchAccepted = 0;
+        for (Outcome<T> outcome : batch) {
+            lines.append(outcome.row).append(',').append(quote(outcome.nric)).append(',');
+            if (outcome.user != null) {
+                lines.append("ACCEPTED,\n");
+                batchAccepted++;
+                if (!outcome.restored) {
+                    T user = outcome.user;
+                    IUserRepo.appendCSVRow(users, user.getName(), user.getNric(), user.getAge(), user.isMarried(),
+                            user.getPassword());
+                }
+            } else {
+                lines.append("REJECTED,").append(quote(outcome.reason)).append('\n');
+            }
+        }
+        int last = batch.get(batch.size() - 1).row;
+        int batchRejected = batch.size() - batchAccepted;
+
+        try {
+            // Marks the batch as being committed before any of it reaches the data file
+            writeCheckpoint(checkpoint, last);
+            if (data != null && users.length() > 0) {
+                dataLength = append(data, users);
+            }
+            summaryLength = append(summary, lines);
+            done = last;
+            accepted += batchAccepted;
+            rejected += batchRejected;
+            writeCheckpoint(checkpoint, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    /**
+     * Writes the checkpoint: the last row done, the counts, and the lengths of
+     * the summary and data files up to it, followed by the last row of the
+     * batch being committed, or 0 if none.
+     *
+     * @param checkpoint The checkpoint file.
+     * @param committing The last row of the batch being committed, or 0.
+     * @throws IOException if the checkpoint cannot be written.
+     */
+    private void writeCheckpoint(Path checkpoint, int committing) throws IOException {
+        String progress = done + "," + accepted + "," + rejected + "," + summaryLength + "," + dataLength + ","
+                + committing + "\n";
+        AtomicFile.write(checkpoint, progress.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Appends text to a file and forces it to disk.
+     *
+     * @param path The file.
+     * @param text The text.
+     * @return The length of the file afterwards.
+     * @throws IOException if the file cannot be written.
+     */
+    private static long append(Path path, CharSequence text) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            file.force(false);
+            return file.size();
+        }
+    }
+
+    /**
+     * Adds every accepted user of the batch. If one is refused because its NRIC
+     * was claimed after it was checked, the users added so far are taken out,
+     * that row is rejected, and the batch is added again. Runs while holding
+     * every stripe of the repository.
+     */
+    private void commit() {
+        while (true) {
+            List<Nric> added = new ArrayList<>();
+            Outcome<T> refused = null;
+            for (Outcome<T> outcome : batch) {
+                if (outcome.user == null || outcome.restored) {
+                    continue;
+                }
+                if (!add.test(outcome.user)) {
+                    refused = outcome;
+                    break;
+                }
+                added.add(outcome.user.getNricKey());
+            }
+            if (refused == null) {
+                return;
+            }
+            added.forEach(remove);
+            refused.reject(CLAIMED);
+        }
+    }
+
+    /**
+     * Quotes a field of the summary file if it needs it.
+     *
+     * @param field The field.
+     * @return The field, quoted if it holds a comma, quote, or line break.
+     */
+    private static String quote(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + field.replace("\"", "\"\"") + '"';
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Returns the number of users added to the repository, including by earlier
+     * runs when the import was resumed.
+     *
+     * @return The number of rows accepted.
+     */
+    public int getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Returns the number of rows rejected, including by earlier runs when the
+     * import was resumed.
+     *
+     * @return The number of rows rejected.
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the row the import carried on after.
+     *
+     * @return The last row done by an earlier run, or 0 if the import started from the top.
+     */
+    public int getResumedAfter() {
+        return resumedAfter;
+    }
+
+    /**
+     * Returns the last row of the file imported so far.
+     *
+     * @return The row number, or 0 if none.
+     */
+    public int getLastRow() {
+        return done;
+    }
+
+    /**
+     * Checks whether the whole file has been imported.
+     *
+     * @return {@code true} once every row has been accepted or rejected.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,192 @@
+package repo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Takes snapshots of the repositories while the application runs, so that a
+ * crash only costs replaying the journal since the last checkpoint rather
+ * than relying on the files written at exit.
+ *
+ * A checkpoint is due after a number of changes or once an interval has passed
+ * since the last one, whichever comes first. The thread that made the change
+ * only notes the length of the journal, right after its record became durable;
+ * encoding, writing, forcing, and renaming the file happen on a background
+ * thread, so sessions never wait for a checkpoint. The state is encoded after
+ * the length was noted, so it holds at least every change up to that point,
+ * and possibly some after it, which replay tolerates. If a checkpoint is still
+ * being written when the next one is due, only the newest is written.
+ */
+public class Checkpointer implements Closeable {
+
+    /** A checkpoint waiting to be encoded and written. */
+    private static class Pending {
+
+        /** The generation of the journal when the checkpoint was taken. */
+        private final long generation;
+
+        /** The length of the journal when the checkpoint was taken. */
+        private final long length;
+
+        /** When the checkpoint was taken, from {@link System#nanoTime()}. */
+        private final long startedAt;
+
+        /**
+         * Constructs a pending checkpoint.
+         *
+         * @param generation The generation of the journal.
+         * @param length     The length of the journal.
+         * @param startedAt  When the checkpoint was taken.
+         */
+        Pending(long generation, long length, long startedAt) {
+            this.generation = generation;
+            this.length = length;
+            this.startedAt = startedAt;
+        }
+    }
+
+    /** The snapshot written at each checkpoint. */
+    private final Snapshot snapshot;
+
+    /** The journal whose records trigger checkpoints. */
+    private final Journal journal;
+
+    /** Number of changes after which a checkpoint is taken. */
+    private final int changeThreshold;
+
+    /** Time in nanoseconds after which a checkpoint is taken on the next change. */
+    private final long intervalNanos;
+
+    /** Thread writing checkpoints to disk. */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The newest checkpoint not yet picked up by the writer. */
+    private final AtomicReference<Pending> pending = new AtomicReference<>();
+
+    /** Changes made since the last checkpoint. */
+    private int changes;
+
+    /** When the last checkpoint was taken, from {@link System#nanoTime()}. */
+    private long lastCheckpointAt = System.nanoTime();
+
+    /** Number of checkpoints written. */
+    private volatile int written;
+
+    /** Size in bytes of the last checkpoint written. */
+    private volatile long lastSize;
+
+    /** Time in milliseconds the last checkpoint took, from being taken to rename. */
+    private volatile long lastDurationMillis;
+
+    /**
+     * Constructs a checkpointer.
+     *
+     * @param snapshot        The snapshot to write.
+     * @param journal         The journal whose records trigger checkpoints.
+     * @param changeThreshold Number of changes after which a checkpoint is taken.
+     * @param intervalSeconds Seconds after which a checkpoint is taken on the next change.
+     * @throws IllegalArgumentException if the threshold or interval is not positive.
+     */
+    public Checkpointer(Snapshot snapshot, Journal journal, int changeThreshold, long intervalSeconds) {
+        if (changeThreshold <= 0 || intervalSeconds <= 0) {
+            throw new IllegalArgumentException("Checkpoint threshold and interval must be positive.");
+        }
+        this.snapshot = snapshot;
+        this.journal = journal;
+        this.changeThreshold = changeThreshold;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+    }
+
+    /**
+     * Starts counting journal records towards the next checkpoint.
+     */
+    public void start() {
+        journal.setAfterAppend(this::changed);
+    }
+
+    /**
+     * Counts a change and takes a checkpoint if one is due.
+     */
+    private void changed() {
+        synchronized (this) {
+            changes++;
+            if (changes < changeThreshold && System.nanoTime() - lastCheckpointAt < intervalNanos) {
+                return;
+            }
+        }
+        checkpoint();
+    }
+
+    /**
+     * Takes a checkpoint now: notes the length of the journal and hands the
+     * checkpoint to the background thread, which encodes and writes it.
+     */
+    public void checkpoint() {
+        long startedAt = System.nanoTime();
+        // Noted before any state is read, so the snapshot holds every change the journal does up to here
+        Pending next = new Pending(journal.getGeneration(), journal.size(), startedAt);
+        synchronized (this) {
+            changes = 0;
+            lastCheckpointAt = startedAt;
+        }
+        if (pending.getAndSet(next) == null) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Encodes and writes the newest pending checkpoint, on the background thread.
+     */
+    private void writePending() {
+        Pending next = pending.getAndSet(null);
+        if (next == null) {
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = snapshot.encode(next.generation, next.length);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Failed to take checkpoint: " + e.getMessage());
+            return;
+        }
+        if (snapshot.write(bytes)) {
+            lastSize = bytes.length;
+            lastDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - next.startedAt);
+            written++;
+        }
+    }
+
+    /**
+     * Describes the checkpoints written so far.
+     *
+     * @return The number of checkpoints and the size and duration of the last one.
+     */
+    public String getReport() {
+        if (written == 0) {
+            return "No checkpoints written";
+        }
+        return written + " checkpoint(s) written, last one " + lastSize + " bytes in " + lastDurationMillis + " ms";
+    }
+
+    /**
+     * Stops taking checkpoints and waits for the one being written, if any.
+     */
+    @Override
+    public void close() {
+        journal.setAfterAppend(null);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package repo;
+
+import enums.ApplicantCategory;
+import enums.FlatType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import model.BTOProject;
+
+/**
+ * Remembers, for each applicant category, which projects are open to it and
+ * which of their flat types still have units, so listing them is a lookup
+ * instead of a pass over every project.
+ *
+ * A listing is reused until any project's visibility, dates, or flat counts
+ * change, a project is added or removed, or the day changes; the next lookup
+ * after that rebuilds it.
+ */
+final class EligibilityCache {
+
+    /**
+     * A listing built for one category.
+     */
+    private static final class Listing {
+
+        /** Project listing version the listing was built from. */
+        final long projectsVersion;
+
+        /** Repository version the listing was built from. */
+        final long repoVersion;
+
+        /** Day the listing was built on. */
+        final LocalDate day;
+
+        /** Open projects and their available flat types, in repository order. */
+        final Map<BTOProject, List<FlatType>> projects;
+
+        /**
+         * Constructs a listing.
+         *
+         * @param projectsVersion Project listing version it was built from.
+         * @param repoVersion     Repository version it was built from.
+         * @param day             Day it was built on.
+         * @param projects        Open projects and their available flat types.
+         */
+        Listing(long projectsVersion, long repoVersion, LocalDate day, Map<BTOProject, List<FlatType>> projects) {
+            this.projectsVersion = projectsVersion;
+            this.repoVersion = repoVersion;
+            this.day = day;
+            this.projects = projects;
+        }
+    }
+
+    /** Source of the repository's current projects. */
+    private final Supplier<List<BTOProject>> source;
+
+    /** Incremented when projects are added to or removed from the repository. */
+    private final AtomicLong repoVersion = new AtomicLong();
+
+    /** The latest listing of each category; replaced whole, never changed. */
+    private final Map<ApplicantCategory, Listing> listings =
+            Collections.synchronizedMap(new EnumMap<>(ApplicantCategory.class));
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param source Supplies the repository's current projects.
+     */
+    EligibilityCache(Supplier<List<BTOProject>> source) {
+        this.source = source;
+    }
+
+    /**
+     * Marks every listing as stale after a project was added or removed.
+     */
+    void invalidate() {
+        repoVersion.incrementAndGet();
+    }
+
+    /**
+     * Returns the projects open to a category, with their flat types that the
+     * category may apply for and that still have units.
+     *
+     * @param category The applicant category.
+     * @return A read-only map from project to available flat types, in repository order.
+     */
+    Map<BTOProject, List<FlatType>> lookup(ApplicantCategory category) {
+        // Versions are read before building, so a change made meanwhile still triggers a rebuild next time
+        long projectsVersion = BTOProject.getListingVersion();
+        long version = repoVersion.get();
+        LocalDate today = LocalDate.now();
+
+        Listing listing = listings.get(category);
+        if (listing == null || listing.projectsVersion != projectsVersion
+                || listing.repoVersion != version || !listing.day.equals(today)) {
+            listing = new Listing(projectsVersion, version, today, build(category));
+            listings.put(category, listing);
+        }
+        return listing.projects;
+    }
+
+    /**
+     * Evaluates every project for a category.
+     *
+     * @param category The applicant category.
+     * @return A read-only map from open project to available flat types.
+     */
+    private Map<BTOProject, List<FlatType>> build(ApplicantCategory category) {
+        Map<BTOProject, List<FlatType>> open = new LinkedHashMap<>();
+        if (category == ApplicantCategory.INELIGIBLE) {
+            return Collections.unmodifiableMap(open);
+        }
+
+        for (BTOProject project : source.get()) {
+            if (!project.isVisible() || !project.isActive()) {
+                continue;
+            }
+            List<FlatType> types = new ArrayList<>();
+            if (project.hasFlatAvailable(FlatType.TWOROOM)) {
+                types.add(FlatType.TWOROOM);
+            }
+            if (category == ApplicantCategory.MARRIED && project.hasFlatAvailable(FlatType.THREEROOM)) {
+                types.add(FlatType.THREEROOM);
+            }
+            if (!types.isEmpty()) {
+                open.put(project, Collections.unmodifiableList(types));
+            }
+        }
+        return Collections.unmodifiableMap(open);
+    }
+}
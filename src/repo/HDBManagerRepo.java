@@ -1,25 +1,69 @@
 package repo;
 
-import java.util.ArrayList;
+import enums.UserRole;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import model.HDBManager;
+import model.Nric;
 
 /**
  * Repository class for managing {@link HDBManager} users.
  * Supports operations such as create, retrieve, delete, and load/save from CSV.
  */
 public class HDBManagerRepo implements IUserRepo<HDBManager> {
-    /** Internal list storing all the HDB managers. */
-    private List<HDBManager> managers = new ArrayList<>();
+    /** Internal list storing all the HDB managers, in insertion order; readers get snapshots. */
+    private final SnapshotList<HDBManager> managers = new SnapshotList<>();
+
+    /** Index of {@link #managers} keyed by NRIC, for constant-time lookup. */
+    private final Map<Nric, HDBManager> managersByNric = new ConcurrentHashMap<>();
+
+    /** Index of {@link #managers} keyed by normalized name, used to link projects on load. */
+    private final Map<String, HDBManager> managersByName = new ConcurrentHashMap<>();
+
+    /** Cross-role directory this repository reports to, or {@code null} if not registered. */
+    private UserDirectory directory;
+
+    /** Whether users were added or removed since the CSV file was last read or written. */
+    private volatile boolean dirty;
+
+    /** Locks serializing additions and deletions of the same NRIC. */
+    private final LockStripes stripes = new LockStripes();
 
     /**
      * Adds an HDB Manager to the repository.
+     * The manager is ignored if another user already has the same NRIC.
      *
      * @param manager the {@link HDBManager} instance to add
      */
     @Override
     public void addUser(HDBManager manager) {
-        managers.add(manager);
+        if (!index(manager)) {
+            System.out.println("A manager with NRIC " + manager.getNric() + " already exists");
+        }
+    }
+
+    /**
+     * Adds a manager to both the list and the NRIC index, keeping them in sync.
+     *
+     * @param manager The manager to add.
+     * @return {@code true} if added, {@code false} if the NRIC is already taken.
+     */
+    private boolean index(HDBManager manager) {
+        Nric key = manager.getNricKey();
+        synchronized (stripes.forKey(key)) {
+            if (managersByNric.containsKey(key)) {
+                return false;
+            }
+            if (directory != null && !directory.add(UserRole.MANAGER, manager)) {
+                return false;
+            }
+            managersByNric.put(key, manager);
+            managersByName.putIfAbsent(IUserRepo.normalizeName(manager.getName()), manager);
+            managers.add(manager);
+            dirty = true;
+            return true;
+        }
     }
 
 
@@ -30,11 +74,10 @@ public class HDBManagerRepo implements IUserRepo<HDBManager> {
     @Override
     public void createUser() {
         HDBManager manager = HDBManager.createUser();
-        if (getUser(manager.getNric()) != null) {
+        if (!index(manager)) {
             System.out.println("A manager with this NRIC already exists");
             return;
         }
-        managers.add(manager);
         System.out.println("HDB Manager registered successfully");
     }
 
@@ -45,14 +88,36 @@ public class HDBManagerRepo implements IUserRepo<HDBManager> {
      */
     @Override
     public void deleteUser(String nric) {
-        boolean removed = managers.removeIf(manager -> manager.getNric().equalsIgnoreCase(nric));
-        if (removed) {
+        Nric key = Nric.tryParse(nric);
+        HDBManager removed = key == null ? null : remove(key);
+        if (removed != null) {
             System.out.println("User deleted");
         } else {
             System.out.println("User not found");
         }
     }
 
+    /**
+     * Removes a manager from the list, the indexes, and the directory, keeping them in sync.
+     *
+     * @param key The NRIC.
+     * @return The removed manager, or {@code null} if none has that NRIC.
+     */
+    private HDBManager remove(Nric key) {
+        synchronized (stripes.forKey(key)) {
+            HDBManager removed = managersByNric.remove(key);
+            if (removed != null) {
+                managers.remove(removed);
+                managersByName.remove(IUserRepo.normalizeName(removed.getName()), removed);
+                if (directory != null) {
+                    directory.remove(key);
+                }
+                dirty = true;
+            }
+            return removed;
+        }
+    }
+
     /**
      * Retrieves an HDB Manager by their NRIC.
      *
@@ -61,13 +126,22 @@ public class HDBManagerRepo implements IUserRepo<HDBManager> {
      */
     @Override
     public HDBManager getUser(String nric) {
-        for (HDBManager manager : managers) {
-            if (manager.getNric().equalsIgnoreCase(nric)) {
-                return manager;
-            }
+        Nric key = Nric.tryParse(nric);
+        return key == null ? null : managersByNric.get(key);
+    }
+
+    /**
+     * Retrieves a manager by exact (case-insensitive) name.
+     * If several managers share a name, the one added first is returned.
+     *
+     * @param name the name to search for
+     * @return the {@link HDBManager} if found, otherwise {@code null}
+     */
+    public HDBManager getManagerByName(String name) {
+        if (name == null) {
+            return null;
         }
-        //System.out.println("No manager with such NRIC found"); Unsafe, shows up even if login fail
-        return null;
+        return managersByName.get(IUserRepo.normalizeName(name));
     }
 
 
@@ -77,28 +151,56 @@ public class HDBManagerRepo implements IUserRepo<HDBManager> {
      * @return list of {@link HDBManager}
      */
     public List<HDBManager> getAllManagers() {
-        return managers;
+        return managers.snapshot();
     }
 
+    /**
+     * Returns all managers in the repository, in insertion order.
+     *
+     * @return List of {@link HDBManager} objects.
+     */
+    @Override
+    public List<HDBManager> getAllUsers() {
+        return managers.snapshot();
+    }
+
+    /**
+     * Returns the role held by users of this repository.
+     *
+     * @return {@link UserRole#MANAGER}
+     */
+    @Override
+    public UserRole getRole() {
+        return UserRole.MANAGER;
+    }
 
     /**
-     * Saves the current list of managers to a CSV file.
+     * Links this repository to the cross-role user directory.
+     *
+     * @param directory The directory to report additions and deletions to.
+     */
+    @Override
+    public void setDirectory(UserDirectory directory) {
+        this.directory = directory;
+    }
+
+
+    /**
+     * Saves the current list of managers to a CSV file, replacing it atomically.
+     * Nothing is written if no manager was added, removed, or changed since the last load or save.
      *
      * @param fileName the name of the file to write to
      */
     @Override
     public void saveToCSV(String fileName) {
-        try (java.io.PrintWriter writer = new java.io.PrintWriter(new java.io.File(fileName))) {
-            writer.println("Name,NRIC,Age,MaritalStatus,Password");  // CSV header
-            for (HDBManager manager : managers) {
-                writer.printf("%s,%s,%d,%s,%s%n",
-                    manager.getName(),
-                    manager.getNric(),
-                    manager.getAge(),
-                    manager.isMarried() ? "Married" : "Single",
-                    manager.getPassword()
-                );
-            }
+        List<HDBManager> current = managers.snapshot();
+        if (!dirty && !IUserRepo.anyDirty(current)) {
+            System.out.println("Managers unchanged, " + fileName + " not rewritten");
+            return;
+        }
+        try {
+            IUserRepo.writeCSV(fileName, current);
+            dirty = false;
             System.out.println("Managers saved to " + fileName);
         } catch (Exception e) {
             System.out.println("Error saving managers to CSV: " + e.getMessage());
@@ -112,23 +214,12 @@ public class HDBManagerRepo implements IUserRepo<HDBManager> {
      */
     @Override
     public void loadFromCSV(String fileName) {
-        try (java.util.Scanner sc = new java.util.Scanner(new java.io.File(fileName))) {
-            if (sc.hasNextLine()) sc.nextLine(); // Skip header
-            while (sc.hasNextLine()) {
-                String[] fields = sc.nextLine().split(",");
-                if (fields.length == 5) {
-                    String name = fields[0].trim();
-                    String nric = fields[1].trim();
-                    int age = Integer.parseInt(fields[2].trim());
-                    boolean isMarried = Boolean.parseBoolean(fields[3].trim());
-                    String password = fields[4].trim();
-
-                    HDBManager manager = new HDBManager(name, nric, age, isMarried, password);
-                    managers.add(manager);
-                }
-            }
-            System.out.println("Managers loaded from " + fileName);
+        try {
+            IUserRepo.readCSV(fileName, "Managers", HDBManager::new, this::index).print(fileName);
+            dirty = false;
         } catch (Exception e) {
+            // Saving only part of the file would delete the rest of it
+            dirty = false;
             System.out.println("Error loading managers from CSV: " + e.getMessage());
         }
     }
@@ -138,13 +229,14 @@ public class HDBManagerRepo implements IUserRepo<HDBManager> {
      * Prints all HDB Managers currently in the repository to the console.
      */
     public void printAllManagers() {
-        if (managers.isEmpty()) {
+        List<HDBManager> current = managers.snapshot();
+        if (current.isEmpty()) {
             System.out.println("No HDB Managers available.");
             return;
         }
 
         System.out.println("=== List of All HDB Managers ===");
-        for (HDBManager manager : managers) {
+        for (HDBManager manager : current) {
             System.out.println(manager);
             System.out.println("----------------------------------");
         }
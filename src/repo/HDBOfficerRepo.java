@@ -1,8 +1,11 @@
 package repo;
 
-import java.util.ArrayList;
+import enums.UserRole;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import model.HDBOfficer;
+import model.Nric;
 
 /**
  * Repository class that manages {@link HDBOfficer} accounts.
@@ -10,19 +13,60 @@ import model.HDBOfficer;
  */
 public class HDBOfficerRepo implements IUserRepo<HDBOfficer> {
 
-    /** Internal list storing all the HDB officers. */
-    private List<HDBOfficer> officers = new ArrayList<>();
+    /** Internal list storing all the HDB officers, in insertion order; readers get snapshots. */
+    private final SnapshotList<HDBOfficer> officers = new SnapshotList<>();
+
+    /** Index of {@link #officers} keyed by NRIC, for constant-time lookup. */
+    private final Map<Nric, HDBOfficer> officersByNric = new ConcurrentHashMap<>();
+
+    /** Index of {@link #officers} keyed by normalized name, used to link projects on load. */
+    private final Map<String, HDBOfficer> officersByName = new ConcurrentHashMap<>();
+
+    /** Cross-role directory this repository reports to, or {@code null} if not registered. */
+    private UserDirectory directory;
+
+    /** Whether users were added or removed since the CSV file was last read or written. */
+    private volatile boolean dirty;
+
+    /** Locks serializing additions and deletions of the same NRIC. */
+    private final LockStripes stripes = new LockStripes();
 
 
 
     /**
      * Adds an {@link HDBOfficer} to the repository.
+     * The officer is ignored if another user already has the same NRIC.
      *
      * @param officer the officer to add
      */
     @Override
     public void addUser(HDBOfficer officer) {
-        officers.add(officer);
+        if (!index(officer)) {
+            System.out.println("An officer with NRIC " + officer.getNric() + " already exists");
+        }
+    }
+
+    /**
+     * Adds an officer to both the list and the NRIC index, keeping them in sync.
+     *
+     * @param officer The officer to add.
+     * @return {@code true} if added, {@code false} if the NRIC is already taken.
+     */
+    private boolean index(HDBOfficer officer) {
+        Nric key = officer.getNricKey();
+        synchronized (stripes.forKey(key)) {
+            if (officersByNric.containsKey(key)) {
+                return false;
+            }
+            if (directory != null && !directory.add(UserRole.OFFICER, officer)) {
+                return false;
+            }
+            officersByNric.put(key, officer);
+            officersByName.putIfAbsent(IUserRepo.normalizeName(officer.getName()), officer);
+            officers.add(officer);
+            dirty = true;
+            return true;
+        }
     }
 
     /**
@@ -32,11 +76,10 @@ public class HDBOfficerRepo implements IUserRepo<HDBOfficer> {
     @Override
     public void createUser() {
         HDBOfficer officer = HDBOfficer.createUser();
-        if (getUser(officer.getNric()) != null) {
+        if (!index(officer)) {
             System.out.println("An officer with this NRIC already exists.");
             return;
         }
-        officers.add(officer);
         System.out.println("HDB Officer registered successfully!");
     }
 
@@ -47,14 +90,36 @@ public class HDBOfficerRepo implements IUserRepo<HDBOfficer> {
      */
     @Override
     public void deleteUser(String nric) {
-        boolean removed = officers.removeIf(officer -> officer.getNric().equalsIgnoreCase(nric));
-        if (removed) {
+        Nric key = Nric.tryParse(nric);
+        HDBOfficer removed = key == null ? null : remove(key);
+        if (removed != null) {
             System.out.println("User deleted");
         } else {
             System.out.println("User not found");
         }
     }
 
+    /**
+     * Removes an officer from the list, the indexes, and the directory, keeping them in sync.
+     *
+     * @param key The NRIC.
+     * @return The removed officer, or {@code null} if none has that NRIC.
+     */
+    private HDBOfficer remove(Nric key) {
+        synchronized (stripes.forKey(key)) {
+            HDBOfficer removed = officersByNric.remove(key);
+            if (removed != null) {
+                officers.remove(removed);
+                officersByName.remove(IUserRepo.normalizeName(removed.getName()), removed);
+                if (directory != null) {
+                    directory.remove(key);
+                }
+                dirty = true;
+            }
+            return removed;
+        }
+    }
+
 
     /**
      * Retrieves an officer using their NRIC.
@@ -64,13 +129,22 @@ public class HDBOfficerRepo implements IUserRepo<HDBOfficer> {
      */
     @Override
     public HDBOfficer getUser(String nric) {
-        for (HDBOfficer officer : officers) {
-            if (officer.getNric().equalsIgnoreCase(nric)) {
-                return officer;
-            }
+        Nric key = Nric.tryParse(nric);
+        return key == null ? null : officersByNric.get(key);
+    }
+
+    /**
+     * Retrieves an officer by exact (case-insensitive) name.
+     * If several officers share a name, the one added first is returned.
+     *
+     * @param name the name to search for
+     * @return the {@link HDBOfficer} if found, otherwise {@code null}
+     */
+    public HDBOfficer getOfficerByName(String name) {
+        if (name == null) {
+            return null;
         }
-        //System.out.println("No officer with such NRIC found"); Unsafe, shows up even if login fail
-        return null;
+        return officersByName.get(IUserRepo.normalizeName(name));
     }
 
 
@@ -80,28 +154,56 @@ public class HDBOfficerRepo implements IUserRepo<HDBOfficer> {
      * @return a list of {@link HDBOfficer} objects
      */
     public List<HDBOfficer> getAllOfficers() {
-        return officers;
+        return officers.snapshot();
     }
 
+    /**
+     * Returns all officers in the repository, in insertion order.
+     *
+     * @return List of {@link HDBOfficer} objects.
+     */
+    @Override
+    public List<HDBOfficer> getAllUsers() {
+        return officers.snapshot();
+    }
 
     /**
-     * Saves all officers to a CSV file.
+     * Returns the role held by users of this repository.
+     *
+     * @return {@link UserRole#OFFICER}
+     */
+    @Override
+    public UserRole getRole() {
+        return UserRole.OFFICER;
+    }
+
+    /**
+     * Links this repository to the cross-role user directory.
+     *
+     * @param directory The directory to report additions and deletions to.
+     */
+    @Override
+    public void setDirectory(UserDirectory directory) {
+        this.directory = directory;
+    }
+
+
+    /**
+     * Saves all officers to a CSV file, replacing it atomically.
+     * Nothing is written if no officer was added, removed, or changed since the last load or save.
      *
      * @param fileName the file path to save the CSV
      */
     @Override
     public void saveToCSV(String fileName) {
-        try (java.io.PrintWriter writer = new java.io.PrintWriter(new java.io.File(fileName))) {
-            writer.println("Name,NRIC,Age,MaritalStatus,Password");  // CSV header
-            for (HDBOfficer officer : officers) {
-                writer.printf("%s,%s,%d,%s,%s%n",
-                    officer.getName(),
-                    officer.getNric(),
-                    officer.getAge(),
-                    officer.isMarried() ? "Married" : "Single",
-                    officer.getPassword()
-                );
-            }
+        List<HDBOfficer> current = officers.snapshot();
+        if (!dirty && !IUserRepo.anyDirty(current)) {
+            System.out.println("Officers unchanged, " + fileName + " not rewritten");
+            return;
+        }
+        try {
+            IUserRepo.writeCSV(fileName, current);
+            dirty = false;
             System.out.println("Officers saved to " + fileName);
         } catch (Exception e) {
             System.out.println("Error saving officers to CSV: " + e.getMessage());
@@ -115,39 +217,57 @@ public class HDBOfficerRepo implements IUserRepo<HDBOfficer> {
      */
     @Override
     public void loadFromCSV(String fileName) {
-        try (java.util.Scanner sc = new java.util.Scanner(new java.io.File(fileName))) {
-            if (sc.hasNextLine()) sc.nextLine(); // skip header
-            while (sc.hasNextLine()) {
-                String[] fields = sc.nextLine().split(",");
-                if (fields.length == 5) {
-                    String name = fields[0].trim();
-                    String nric = fields[1].trim();
-                    int age = Integer.parseInt(fields[2].trim());
-                    boolean isMarried = Boolean.parseBoolean(fields[3].trim());
-                    String password = fields[4].trim();
-
-                    HDBOfficer officer = new HDBOfficer(name, nric, age, isMarried, password);
-                    officers.add(officer);
-                }
-            }
-            System.out.println("Officers loaded from " + fileName);
+        try {
+            IUserRepo.readCSV(fileName, "Officers", HDBOfficer::new, this::index).print(fileName);
+            dirty = false;
         } catch (Exception e) {
+            // Saving only part of the file would delete the rest of it
+            dirty = false;
             System.out.println("Error loading officers from CSV: " + e.getMessage());
         }
     }
 
+    /**
+     * Imports officers from a CSV file in the same format as {@link #loadFromCSV},
+     * validating rows on all cores and rejecting NRICs already registered in any
+     * role or given twice. Accepted officers are added in batches; each row's outcome
+     * is written to the summary file, and an import stopped part way carries on
+     * after its last batch when run again with the same summary file.
+     * See {@link BulkImport}.
+     *
+     * @param inputFile   The file to import.
+     * @param summaryFile The file to write each row's outcome to.
+     * @param dataFile    The repository's data file, to which each batch's users are appended,
+     *                    or {@code null} not to save.
+     * @return The import, with its counts; check {@link BulkImport#isComplete()} for failures.
+     */
+    public BulkImport<HDBOfficer> importCSV(String inputFile, String summaryFile, String dataFile) {
+        BulkImport<HDBOfficer> job = new BulkImport<>(this, directory, stripes, HDBOfficer::new,
+                this::index, this::remove);
+        try {
+            job.run(inputFile, summaryFile, dataFile);
+            System.out.println("Imported " + job.getAccepted() + " officers from " + inputFile + " ("
+                    + job.getRejected() + " rejected); see " + summaryFile);
+        } catch (Exception e) {
+            System.out.println("Failed to import officers from " + inputFile + " after row " + job.getLastRow()
+                    + ": " + e.getMessage() + ". Run the import again to carry on.");
+        }
+        return job;
+    }
+
 
     /**
      * Displays all officers in the repository in a readable format.
      */
     public void printAllOfficers() {
-        if (officers.isEmpty()) {
+        List<HDBOfficer> current = officers.snapshot();
+        if (current.isEmpty()) {
             System.out.println("No HDB Officers available.");
             return;
         }
 
         System.out.println("=== List of All HDB Officers ===");
-        for (HDBOfficer officer : officers) {
+        for (HDBOfficer officer : current) {
             System.out.println(officer);
             System.out.println("----------------------------------");
         }
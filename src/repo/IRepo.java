@@ -8,6 +8,7 @@ public interface IRepo {
 
     /**
      * Saves the current state of the repository to a CSV file.
+     * Implementations may skip writing when nothing changed since the last load or save.
      *
      * @param filename The name of the file to save to.
      */
@@ -1,6 +1,18 @@
 package repo;
 
+import enums.UserRole;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
 import model.*;
+import util.AtomicFile;
+import util.CsvReader;
+import util.LoadReport;
+import util.ParallelCsvReader;
 
 /**
  * An interface for user repositories that manage user objects.
@@ -10,6 +22,31 @@ import model.*;
  */
 public interface IUserRepo<T extends User> extends IRepo {
 
+    /** Header line of the shared user file format. */
+    public static final String CSV_HEADER = "Name,NRIC,Age,MaritalStatus,Password";
+
+    /**
+     * Creates a user of a repository's type, checking the details.
+     *
+     * @param <T> The type of user.
+     */
+    @FunctionalInterface
+    public interface UserFactory<T extends User> {
+
+        /**
+         * Creates a user.
+         *
+         * @param name     The name.
+         * @param nric     The NRIC.
+         * @param age      The age.
+         * @param married  Whether the user is married.
+         * @param password The password.
+         * @return The user.
+         * @throws IllegalArgumentException if any detail is invalid.
+         */
+        T create(String name, String nric, int age, boolean married, String password);
+    }
+
     /**
      * Creates a new user and adds it to the repository.
      * The implementation should handle user input and validation.
@@ -37,4 +74,151 @@ public interface IUserRepo<T extends User> extends IRepo {
      * @param user The user object to add.
      */
     public void addUser(T user);
+
+    /**
+     * Returns all users in the repository, in insertion order.
+     *
+     * @return The list of users.
+     */
+    public List<T> getAllUsers();
+
+    /**
+     * Returns the role held by every user in this repository.
+     *
+     * @return The role of the repository's users.
+     */
+    public UserRole getRole();
+
+    /**
+     * Links the repository to a cross-role user directory. From then on the
+     * repository reports every user it adds or deletes to the directory, and
+     * refuses users whose NRIC the directory already holds under another role.
+     * Called by {@link UserDirectory#register(IUserRepo)}.
+     *
+     * @param directory The directory to report to.
+     */
+    public void setDirectory(UserDirectory directory);
+
+    /**
+     * Normalizes a user's name into the key used by name indexes,
+     * so that name matching is exact but case-insensitive.
+     *
+     * @param name The name to normalize.
+     * @return The trimmed, lower-case name.
+     */
+    public static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks whether any of the given users has changed since it was last saved.
+     *
+     * @param users The users to check.
+     * @return {@code true} if at least one user needs saving.
+     */
+    public static boolean anyDirty(List<? extends User> users) {
+        for (User user : users) {
+            if (user.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends one user to CSV text in the shared user file format, ending the line.
+     *
+     * @param out      The text to append to.
+     * @param name     The user's name.
+     * @param nric     The user's NRIC.
+     * @param age      The user's age.
+     * @param married  Whether the user is married.
+     * @param password The user's password.
+     */
+    public static void appendCSVRow(StringBuilder out, String name, String nric, int age, boolean married,
+                                    String password) {
+        out.append(name).append(',')
+           .append(nric).append(',')
+           .append(age).append(',')
+           .append(married ? "Married" : "Single").append(',')
+           .append(password).append(System.lineSeparator());
+    }
+
+    /**
+     * Creates a user from a row in the shared user file format.
+     *
+     * @param tokens  The fields of the row.
+     * @param csv     The reader of the row, for error positions.
+     * @param factory Creates the user from the details.
+     * @param <T>     The type of user.
+     * @return The user.
+     * @throws IllegalArgumentException if the row has the wrong number of columns
+     *         or invalid details; the message lists every problem.
+     */
+    public static <T extends User> T parseRow(String[] tokens, CsvReader csv, UserFactory<T> factory) {
+        if (tokens.length != 5) {
+            throw new IllegalArgumentException("expected 5 columns but found " + tokens.length);
+        }
+        String name = tokens[0].trim();
+        String nric = tokens[1].trim();
+        boolean isMarried = tokens[3].trim().equalsIgnoreCase("Married");
+        String password = tokens[4].trim();
+        int age;
+        try {
+            age = csv.getInt(tokens, 2);
+        } catch (IllegalArgumentException e) {
+            // Report the other details' problems too, so the row can be fixed at once
+            List<String> problems = new ArrayList<>(UserValidator.problems(name, nric, password));
+            problems.add(0, e.getMessage());
+            throw new IllegalArgumentException(String.join(" ", problems));
+        }
+        return factory.create(name, nric, age, isMarried, password);
+    }
+
+    /**
+     * Reads users from a CSV file in the shared user file format. Rows are
+     * parsed and checked in parallel for large files and added in file order.
+     * A malformed row, or a row with a wrong number of columns, invalid details,
+     * or a duplicate NRIC, is skipped and recorded with all of its problems.
+     *
+     * @param fileName The file to read.
+     * @param subject  What the rows hold, such as {@code "Applicants"}, for the report.
+     * @param factory  Creates a user from the details of a row.
+     * @param add      Adds a user, returning {@code false} if the NRIC is already taken.
+     * @param <T>      The type of user.
+     * @return The rows loaded and skipped.
+     * @throws IOException if the file cannot be read.
+     */
+    public static <T extends User> LoadReport readCSV(String fileName, String subject, UserFactory<T> factory,
+                                                      Predicate<T> add) throws IOException {
+        LoadReport report = new LoadReport(subject);
+        ParallelCsvReader.read(fileName, (tokens, csv) -> parseRow(tokens, csv, factory), (user, row) -> {
+            if (add.test(user)) {
+                report.loaded();
+            } else {
+                report.skip(row, "duplicate NRIC " + user.getNric());
+            }
+        }, (problem, row) -> report.skip(row, problem));
+        return report;
+    }
+
+    /**
+     * Writes users to a CSV file in the shared user file format, replacing the
+     * file atomically, and marks the users as saved.
+     *
+     * @param fileName The file to write.
+     * @param users    The users to write, in order.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeCSV(String fileName, List<? extends User> users) throws IOException {
+        StringBuilder out = new StringBuilder(48 * (users.size() + 1));
+        out.append(CSV_HEADER).append(System.lineSeparator());
+        for (User user : users) {
+            appendCSVRow(out, user.getName(), user.getNric(), user.getAge(), user.isMarried(), user.getPassword());
+        }
+        AtomicFile.write(Paths.get(fileName), out.toString().getBytes(StandardCharsets.UTF_8));
+        for (User user : users) {
+            user.markClean();
+        }
+    }
 }
\ No newline at end of file
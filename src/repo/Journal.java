@@ -0,0 +1,874 @@
+package repo;
+
+import enums.*;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import model.*;
+import util.AtomicFile;
+import util.CsvReader;
+import util.Session;
+
+/**
+ * Append-only journal of the state that is not kept in the CSV files:
+ * applications, flat bookings, enquiries, officer registrations, and project
+ * inventory counts.
+ *
+ * Every change reported through {@link ChangeRecorder} is written as one CSV
+ * line. Writes are group-committed: a single writer thread takes every record
+ * queued since its last write, appends them in one write, and forces them to
+ * disk once. A caller returns only after its record is durable.
+ *
+ * At startup the journal is replayed on top of the CSV baseline. Records hold
+ * absolute values (a status, a count) rather than deltas, so replaying a record
+ * whose effect is already in the CSV files is harmless. On a clean exit the
+ * journal is compacted to the records needed to rebuild the current state.
+ *
+ * The first line of the journal names its generation, a random id that changes
+ * whenever the journal is rewritten. A snapshot records the generation and the
+ * length of the journal it includes, so that only the records appended after
+ * the snapshot need to be replayed on top of it.
+ */
+public class Journal implements Closeable {
+
+    /** Maximum number of records written and forced together. */
+    private static final int MAX_BATCH = 512;
+
+    /** Record queued for the writer thread together with the future completed once it is durable. */
+    private static class Pending {
+
+        /** The formatted line, including the line terminator. */
+        private final String line;
+
+        /** Completed when the line has been forced to disk. */
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        /**
+         * Constructs a pending record.
+         *
+         * @param line The formatted line.
+         */
+        Pending(String line) {
+            this.line = line;
+        }
+    }
+
+    /** Type of the header record naming the journal's generation. */
+    private static final String GENERATION = "GENERATION";
+
+    /** Marker telling the writer thread to stop. */
+    private static final Pending STOP = new Pending("");
+
+    /** Location of the journal file. */
+    private final Path path;
+
+    /** Projects that records refer to by name. */
+    private final BTOProjectRepo projectRepo;
+
+    /** Users that records refer to by NRIC. */
+    private final UserDirectory directory;
+
+    /** Records waiting to be written. */
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    /** Guards {@link #channel} between the writer thread and compaction. */
+    private final Object channelLock = new Object();
+
+    /** Open channel to the journal file, or {@code null} if the journal is not open. */
+    private FileChannel channel;
+
+    /** Thread performing the group commits, or {@code null} if the journal is not open. */
+    private Thread writer;
+
+    /** Generation of the journal file, or 0 if not known yet. */
+    private long generation;
+
+    /** Called after each record becomes durable, or {@code null}. */
+    private volatile Runnable afterAppend;
+
+    /**
+     * Constructs a journal backed by the given file.
+     *
+     * @param fileName    The path of the journal file.
+     * @param projectRepo The repository used to resolve project names.
+     * @param directory   The directory used to resolve NRICs.
+     */
+    public Journal(String fileName, BTOProjectRepo projectRepo, UserDirectory directory) {
+        this.path = Paths.get(fileName);
+        this.projectRepo = projectRepo;
+        this.directory = directory;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    // Writing
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * Opens the journal for appending, starts the writer thread, and installs
+     * the journal as the receiver of model changes.
+     */
+    public void open() {
+        try {
+            synchronized (channelLock) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+                if (channel.size() == 0) {
+                    generation = newGeneration();
+                    channel.write(ByteBuffer.wrap(format(GENERATION, String.valueOf(generation))
+                            .getBytes(StandardCharsets.UTF_8)));
+                    channel.force(false);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to open journal: " + e.getMessage());
+            return;
+        }
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        ChangeRecorder.setSink(this::enqueue);
+    }
+
+    /**
+     * Appends a record and waits until it has been forced to disk.
+     *
+     * @param fields The record type followed by its fields.
+     */
+    public void append(String... fields) {
+        enqueue(fields).run();
+    }
+
+    /**
+     * Queues a record for the writer thread without waiting for it.
+     *
+     * @param fields The record type followed by its fields.
+     * @return An action that waits until the record is durable, then runs the after-append action.
+     */
+    private Runnable enqueue(String[] fields) {
+        if (writer == null) {
+            return () -> {};
+        }
+        Pending pending = new Pending(format(fields));
+        queue.add(pending);
+        return () -> awaitDurable(pending);
+    }
+
+    /**
+     * Waits until a queued record has been forced to disk, then runs the after-append action.
+     *
+     * @param pending The queued record.
+     */
+    private void awaitDurable(Pending pending) {
+        try {
+            pending.done.join();
+        } catch (CompletionException e) {
+            System.out.println("Failed to write journal: " + e.getCause().getMessage());
+            return;
+        }
+        Runnable listener = afterAppend;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Sets the action run after each record becomes durable. It runs on the
+     * thread that made the change, at a point where the in-memory state reflects
+     * every durable record, as each change is recorded only once it is made,
+     * which makes it a safe moment to note the journal length for a snapshot.
+     * Other sessions may be in the middle of a change at that moment; replay
+     * tolerates records whose effect a snapshot already contains.
+     *
+     * @param listener The action, or {@code null} for none.
+     */
+    public void setAfterAppend(Runnable listener) {
+        this.afterAppend = listener;
+    }
+
+    /**
+     * Body of the writer thread: waits for a record, collects every other record
+     * queued meanwhile, and writes and forces the whole batch at once.
+     */
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            boolean stop = batch.remove(STOP);
+            text.setLength(0);
+            for (Pending pending : batch) {
+                text.append(pending.line);
+            }
+            try {
+                synchronized (channelLock) {
+                    ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    channel.force(false);
+                }
+                batch.forEach(pending -> pending.done.complete(null));
+            } catch (IOException e) {
+                batch.forEach(pending -> pending.done.completeExceptionally(e));
+            }
+            batch.clear();
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops recording changes, waits for queued records to be written, and closes the file.
+     */
+    @Override
+    public void close() {
+        ChangeRecorder.setSink(null);
+        if (writer != null) {
+            queue.add(STOP);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        synchronized (channelLock) {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                System.out.println("Failed to close journal: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Returns the generation of the journal file, reading it from the file if needed.
+     *
+     * @return The generation, or 0 if the journal does not exist or has no header.
+     */
+    public long getGeneration() {
+        if (generation == 0 && Files.exists(path)) {
+            try (CsvReader csv = CsvReader.open(path.toString())) {
+                String[] header = csv.readRow();
+                if (header != null && header.length == 2 && header[0].equals(GENERATION)) {
+                    generation = Long.parseLong(header[1]);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Failed to read journal: " + e.getMessage());
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * Returns the length of the journal, including every record made durable so far.
+     *
+     * @return The length in bytes, or 0 if the journal does not exist.
+     */
+    public long size() {
+        synchronized (channelLock) {
+            try {
+                if (channel != null) {
+                    return channel.size();
+                }
+                return Files.exists(path) ? Files.size(path) : 0;
+            } catch (IOException e) {
+                System.out.println("Failed to read journal: " + e.getMessage());
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Picks a new generation id.
+     *
+     * @return A positive random id.
+     */
+    private static long newGeneration() {
+        return ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Formats a record as one CSV line, quoting fields that contain commas,
+     * quotes, or line breaks. Also used for other CSV files written a line at a time.
+     *
+     * @param fields The fields of the record.
+     * @return The line, terminated by a newline.
+     */
+    public static String format(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(field);
+            }
+        }
+        return line.append('\n').toString();
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    // Replay
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * Replays the whole journal on top of the data loaded from the CSV files.
+     * Must be called before {@link #open()}, so that replayed changes are not
+     * recorded again. A record left incomplete by a crash is discarded.
+     */
+    public void replay() {
+        replay(0);
+    }
+
+    /**
+     * Replays the records from the given position onwards, on top of data that
+     * already includes everything before it (such as a snapshot).
+     *
+     * @param offset The position in bytes of the first record to replay.
+     */
+    public void replay(long offset) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            dropIncompleteTail();
+        } catch (IOException e) {
+            System.out.println("Failed to read journal: " + e.getMessage());
+            return;
+        }
+
+        List<String[]> records = new ArrayList<>();
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+             CsvReader csv = new CsvReader(Channels.newReader(file.position(offset), StandardCharsets.UTF_8))) {
+            String[] fields;
+            while ((fields = csv.readRow()) != null) {
+                if (fields[0].equals(GENERATION)) {
+                    generation = Long.parseLong(fields[1]);
+                    continue;
+                }
+                records.add(fields);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Journal is damaged, replaying the records before it: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Failed to read journal: " + e.getMessage());
+            return;
+        }
+
+        if (records.isEmpty()) {
+            return;
+        }
+        Replay replay = new Replay(records);
+        // Replayed changes print the same messages as the originals; nobody needs to see them again
+        Session.quietly(() -> {
+            for (String[] fields : records) {
+                replay.apply(fields);
+            }
+        });
+        System.out.println("Journal replayed: " + replay.applied + " records applied"
+                + (replay.skipped > 0 ? ", " + replay.skipped + " skipped" : ""));
+    }
+
+    /**
+     * Truncates a partially written last line left behind by a crash.
+     *
+     * @throws IOException if the file cannot be read or truncated.
+     */
+    private void dropIncompleteTail() throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = file.size();
+            long end = size;
+            ByteBuffer one = ByteBuffer.allocate(1);
+            while (end > 0) {
+                one.clear();
+                file.read(one, end - 1);
+                if (one.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < size) {
+                file.truncate(end);
+            }
+        }
+    }
+
+    /**
+     * State kept while replaying: the objects created so far, looked up by the
+     * identifiers used in the records.
+     */
+    private class Replay {
+
+        /** Applications by project, then by applicant NRIC. */
+        private final Map<BTOProject, Map<Nric, BTOApplication>> applications = new IdentityHashMap<>();
+
+        /** Enquiries by id. */
+        private final Map<Integer, Enquiry> enquiries = new HashMap<>();
+
+        /** Later names of renamed projects, keyed by lower-case old name. */
+        private final Map<String, String> renamedTo = new HashMap<>();
+
+        /** Number of records applied. */
+        private int applied;
+
+        /** Number of records that could not be applied. */
+        private int skipped;
+
+        /**
+         * Prepares to replay the given records. Applications and enquiries already
+         * loaded are indexed so that records can refer to them. Renames are
+         * collected up front so that records naming a project by its old name still
+         * resolve when the baseline already has the new name.
+         *
+         * @param records The records to replay.
+         */
+        Replay(List<String[]> records) {
+            for (BTOProject project : projectRepo.getProjects()) {
+                Map<Nric, BTOApplication> byNric = new HashMap<>();
+                for (BTOApplication application : project.getApplications()) {
+                    Applicant applicant = application.getApplicant();
+                    Nric nric = applicant.getNricKey();
+                    if (applicant.getApplication() == application || !byNric.containsKey(nric)) {
+                        byNric.put(nric, application);
+                    }
+                }
+                applications.put(project, byNric);
+                for (Enquiry enquiry : project.getEnquiries()) {
+                    enquiries.put(enquiry.getId(), enquiry);
+                }
+            }
+            for (String[] fields : records) {
+                if (fields[0].equals("RENAME") && fields.length == 3) {
+                    renamedTo.put(fields[1].trim().toLowerCase(Locale.ROOT), fields[2]);
+                }
+            }
+        }
+
+        /**
+         * Applies one record, counting it as skipped if it is malformed or refers
+         * to a user or project that no longer exists.
+         *
+         * @param fields The record.
+         */
+        void apply(String[] fields) {
+            try {
+                if (applyRecord(fields)) {
+                    applied++;
+                } else {
+                    skipped++;
+                }
+            } catch (RuntimeException e) {
+                skipped++;
+            }
+        }
+
+        /**
+         * Applies one record.
+         *
+         * @param f The record.
+         * @return {@code true} if applied, {@code false} if it could not be resolved.
+         */
+        private boolean applyRecord(String[] f) {
+            switch (f[0]) {
+                case "APPLY" -> {
+                    Applicant applicant = applicant(f[1]);
+                    BTOProject project = project(f[2]);
+                    if (applicant == null || project == null) {
+                        return false;
+                    }
+                    FlatType flatType = FlatType.valueOf(f[3]);
+                    BTOApplication current = applicant.getApplication();
+                    if (current != null && current.getProject() == project && current.getFlatType() == flatType
+                            && isActive(current.getApplicationStatus())) {
+                        // Captured by a checkpoint taken while this record was being written;
+                        // an applicant cannot apply again while an application is still active
+                        applications.computeIfAbsent(project, p -> new HashMap<>())
+                                .put(applicant.getNricKey(), current);
+                        return true;
+                    }
+                    BTOApplication application = new BTOApplication(applicant, project, flatType);
+                    project.addApplication(application);
+                    applications.computeIfAbsent(project, p -> new HashMap<>())
+                            .put(applicant.getNricKey(), application);
+                }
+                case "STATUS" -> application(f).setStatus(ApplicationStatus.valueOf(f[3]));
+                case "WITHDRAW" -> application(f).withdraw();
+                case "APPROVE_WITHDRAW" -> application(f).restoreWithdrawApproval();
+                case "REJECT_WITHDRAW" -> application(f).rejectWithdraw();
+                case "BOOK" -> {
+                    BTOApplication application = application(f);
+                    if (application.getFlatBooking() == null) {
+                        application.createFlatBooking(FlatType.valueOf(f[3]), LocalDateTime.parse(f[4]));
+                    }
+                }
+                case "ENQUIRY" -> {
+                    int id = Integer.parseInt(f[1]);
+                    Applicant applicant = applicant(f[2]);
+                    BTOProject project = project(f[3]);
+                    if (applicant == null || project == null || enquiries.containsKey(id)) {
+                        return false;
+                    }
+                    Enquiry enquiry = new Enquiry(id, applicant, project, f[5], LocalDateTime.parse(f[4]));
+                    applicant.addEnquiry(enquiry);
+                    project.addEnquiry(enquiry);
+                    enquiries.put(id, enquiry);
+                }
+                case "EDIT_ENQUIRY" -> enquiry(f[1]).setMessage(f[2]);
+                case "REPLY" -> enquiry(f[1]).setReply(f[2]);
+                case "DELETE_ENQUIRY" -> {
+                    Enquiry enquiry = enquiries.remove(Integer.parseInt(f[1]));
+                    if (enquiry == null) {
+                        return false;
+                    }
+                    enquiry.getApplicant().getEnquiries().remove(enquiry);
+                    enquiry.getProject().removeEnquiry(enquiry);
+                }
+                case "REGISTER" -> {
+                    HDBOfficer officer = officer(f[1]);
+                    BTOProject project = project(f[2]);
+                    if (officer == null || project == null) {
+                        return false;
+                    }
+                    OfficerRegistration registration = registration(officer, project);
+                    if (registration == null) {
+                        registration = new OfficerRegistration(officer, project);
+                    }
+                    officer.setOfficerRegistrationToHDBOfficer(registration);
+                }
+                case "REG_STATUS" -> {
+                    HDBOfficer officer = officer(f[1]);
+                    BTOProject project = project(f[2]);
+                    OfficerRegistration registration = officer == null || project == null
+                            ? null : registration(officer, project);
+                    if (registration == null) {
+                        return false;
+                    }
+                    registration.setStatus(RegistrationStatus.valueOf(f[3]));
+                    project.updateOfficerAssignedString();
+                }
+                case "INVENTORY" -> {
+                    BTOProject project = project(f[1]);
+                    if (project == null) {
+                        return false;
+                    }
+                    project.setTwoRoomNo(Integer.parseInt(f[2]));
+                    project.setThreeRoomNo(Integer.parseInt(f[3]));
+                    project.setNoAvailableOffice(Integer.parseInt(f[4]));
+                }
+                case "BALLOT" -> {
+                    BTOProject project = project(f[1]);
+                    if (project == null) {
+                        return false;
+                    }
+                    // Applications decided elsewhere before the ballot was recorded keep that decision
+                    Map<Nric, BTOApplication> byNric = applications.getOrDefault(project, Map.of());
+                    for (int i = 5; i + 2 < f.length; i += 3) {
+                        Applicant applicant = applicant(f[i]);
+                        BTOApplication application = applicant == null ? null : byNric.get(applicant.getNricKey());
+                        if (application != null && application.getApplicationStatus() == ApplicationStatus.PENDING) {
+                            application.restoreRank(Integer.parseInt(f[i + 2]));
+                            application.restoreStatus(ApplicationStatus.valueOf(f[i + 1]));
+                        }
+                    }
+                    project.setTwoRoomNo(Integer.parseInt(f[2]));
+                    project.setThreeRoomNo(Integer.parseInt(f[3]));
+                    project.setNoAvailableOffice(Integer.parseInt(f[4]));
+                }
+                case "BOOKINGS" -> {
+                    BTOProject project = project(f[1]);
+                    if (project == null) {
+                        return false;
+                    }
+                    // Applications booked or changed elsewhere before the batch was recorded keep that change
+                    Map<Nric, BTOApplication> byNric = applications.getOrDefault(project, Map.of());
+                    for (int i = 5; i + 2 < f.length; i += 3) {
+                        Applicant applicant = applicant(f[i]);
+                        BTOApplication application = applicant == null ? null : byNric.get(applicant.getNricKey());
+                        if (application != null && application.getFlatBooking() == null
+                                && application.getApplicationStatus() == ApplicationStatus.SUCCESSFUL) {
+                            application.restoreFlatBooking(FlatType.valueOf(f[i + 1]), LocalDateTime.parse(f[i + 2]));
+                            application.restoreStatus(ApplicationStatus.BOOKED);
+                        }
+                    }
+                    project.setTwoRoomNo(Integer.parseInt(f[2]));
+                    project.setThreeRoomNo(Integer.parseInt(f[3]));
+                    project.setNoAvailableOffice(Integer.parseInt(f[4]));
+                }
+                case "PROMOTE" -> {
+                    BTOApplication application = application(f);
+                    ApplicationStatus status = application.getApplicationStatus();
+                    if (status == ApplicationStatus.PENDING || status == ApplicationStatus.UNSUCCESSSFUL) {
+                        application.restoreStatus(ApplicationStatus.SUCCESSFUL);
+                    }
+                    if (!application.getHistory().contains(f[3])) {
+                        application.addHistory(f[3]);
+                    }
+                    BTOProject project = application.getProject();
+                    project.setTwoRoomNo(Integer.parseInt(f[4]));
+                    project.setThreeRoomNo(Integer.parseInt(f[5]));
+                    project.setNoAvailableOffice(Integer.parseInt(f[6]));
+                }
+                case "RANK" -> application(f).restoreRank(Integer.parseInt(f[3]));
+                case "HISTORY" -> {
+                    BTOApplication application = application(f);
+                    if (!application.getHistory().contains(f[3])) {
+                        application.addHistory(f[3]);
+                    }
+                }
+                case "RENAME" -> {
+                    BTOProject project = projectRepo.getProject(f[1]);
+                    if (project != null && projectRepo.getProject(f[2]) == null) {
+                        projectRepo.renameProject(project, f[2]);
+                    }
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Resolves a project by name, following later renames if the name is no longer in use.
+         *
+         * @param name The project name as written in the record.
+         * @return The project, or {@code null} if it does not exist.
+         */
+        private BTOProject project(String name) {
+            BTOProject project = projectRepo.getProject(name);
+            for (int hops = 0; project == null && hops < renamedTo.size(); hops++) {
+                name = renamedTo.get(name.trim().toLowerCase(Locale.ROOT));
+                if (name == null) {
+                    break;
+                }
+                project = projectRepo.getProject(name);
+            }
+            return project;
+        }
+
+        /**
+         * Resolves an applicant (including an officer applying for a flat) by NRIC.
+         *
+         * @param nric The NRIC.
+         * @return The applicant, or {@code null} if no applicant has this NRIC.
+         */
+        private Applicant applicant(String nric) {
+            UserDirectory.Entry entry = directory.lookup(nric);
+            return entry != null && entry.getUser() instanceof Applicant a ? a : null;
+        }
+
+        /**
+         * Resolves an officer by NRIC.
+         *
+         * @param nric The NRIC.
+         * @return The officer, or {@code null} if no officer has this NRIC.
+         */
+        private HDBOfficer officer(String nric) {
+            UserDirectory.Entry entry = directory.lookup(nric);
+            return entry != null && entry.getUser() instanceof HDBOfficer o ? o : null;
+        }
+
+        /**
+         * Checks whether an application still blocks its applicant from applying again.
+         *
+         * @param status The application's status.
+         * @return {@code true} if pending, successful, or booked.
+         */
+        private boolean isActive(ApplicationStatus status) {
+            return status == ApplicationStatus.PENDING || status == ApplicationStatus.SUCCESSFUL
+                    || status == ApplicationStatus.BOOKED;
+        }
+
+        /**
+         * Resolves the application named by a record's NRIC and project fields.
+         *
+         * @param f The record.
+         * @return The application.
+         * @throws IllegalStateException if no such application was replayed.
+         */
+        private BTOApplication application(String[] f) {
+            Applicant applicant = applicant(f[1]);
+            BTOProject project = project(f[2]);
+            Map<Nric, BTOApplication> byNric = project == null ? null : applications.get(project);
+            BTOApplication application = applicant == null || byNric == null
+                    ? null : byNric.get(applicant.getNricKey());
+            if (application == null) {
+                throw new IllegalStateException("Unknown application");
+            }
+            return application;
+        }
+
+        /**
+         * Resolves an enquiry by id.
+         *
+         * @param id The enquiry id as written in the record.
+         * @return The enquiry.
+         * @throws IllegalStateException if no such enquiry was replayed.
+         */
+        private Enquiry enquiry(String id) {
+            Enquiry enquiry = enquiries.get(Integer.parseInt(id));
+            if (enquiry == null) {
+                throw new IllegalStateException("Unknown enquiry");
+            }
+            return enquiry;
+        }
+    }
+
+    /**
+     * Finds an officer's registration for a project.
+     *
+     * @param officer The officer.
+     * @param project The project.
+     * @return The registration, or {@code null} if the officer has not registered for it.
+     */
+    private static OfficerRegistration registration(HDBOfficer officer, BTOProject project) {
+        for (OfficerRegistration registration : project.getOfficerRegistrations()) {
+            if (registration.getOfficer() == officer) {
+                return registration;
+            }
+        }
+        return null;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    // Compaction
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * Rewrites the journal as the shortest sequence of records that rebuilds the
+     * current state on top of freshly saved CSV files. The new journal is written
+     * to a temporary file and moved over the old one, so a crash part-way leaves
+     * the old journal intact. If the new journal cannot be written, the old one
+     * stays in place and changes keep being appended to it. Call after the CSV
+     * files have been saved.
+     */
+    public void compact() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long newGeneration = newGeneration();
+        out.writeBytes(format(GENERATION, String.valueOf(newGeneration)).getBytes(StandardCharsets.UTF_8));
+        for (String[] fields : snapshotRecords()) {
+            out.writeBytes(format(fields).getBytes(StandardCharsets.UTF_8));
+        }
+
+        synchronized (channelLock) {
+            boolean wasOpen = channel != null;
+            try {
+                // Some platforms cannot replace a file that is still open
+                if (wasOpen) {
+                    channel.close();
+                }
+                AtomicFile.write(path, out.toByteArray());
+                generation = newGeneration;
+            } catch (IOException e) {
+                System.out.println("Failed to compact journal: " + e.getMessage());
+            } finally {
+                // Reopen whichever journal is now in place, so later changes are still recorded
+                if (wasOpen) {
+                    try {
+                        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                    } catch (IOException e) {
+                        System.out.println("Failed to reopen journal: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Describes the current applications, bookings, enquiries, and officer
+     * registrations as records. Applications that are no longer an applicant's
+     * current one come first, so that replaying leaves the current one attached.
+     *
+     * @return The records, in replay order.
+     */
+    private List<String[]> snapshotRecords() {
+        List<String[]> past = new ArrayList<>();
+        List<String[]> current = new ArrayList<>();
+        List<String[]> rest = new ArrayList<>();
+
+        for (BTOProject project : projectRepo.getProjects()) {
+            String name = project.getName();
+            for (BTOApplication application : project.getApplications()) {
+                Applicant applicant = application.getApplicant();
+                List<String[]> target = applicant.getApplication() == application ? current : past;
+                target.add(new String[] {"APPLY", applicant.getNric(), name, application.getFlatType().name()});
+                if (application.getBallotRank() > 0) {
+                    target.add(new String[] {"RANK", applicant.getNric(), name,
+                            String.valueOf(application.getBallotRank())});
+                }
+                for (String entry : application.getHistory()) {
+                    target.add(new String[] {"HISTORY", applicant.getNric(), name, entry});
+                }
+                // A pending withdrawal is replayed from the status it was requested in,
+                // so that approving it later still returns the right flat
+                ApplicationStatus withdrawnFrom = application.getWithdrawnFrom();
+                boolean fromStatus = application.hasRequestedWithdraw() && withdrawnFrom != null;
+                if (application.hasRequestedWithdraw() && !fromStatus) {
+                    target.add(new String[] {"WITHDRAW", applicant.getNric(), name});
+                }
+                target.add(new String[] {"STATUS", applicant.getNric(), name,
+                        (fromStatus ? withdrawnFrom : application.getApplicationStatus()).name()});
+                FlatBooking booking = application.getFlatBooking();
+                if (booking != null) {
+                    target.add(new String[] {"BOOK", applicant.getNric(), name, booking.getFlatType().name(),
+                            booking.getBookingDate().toString()});
+                }
+                if (fromStatus) {
+                    target.add(new String[] {"WITHDRAW", applicant.getNric(), name});
+                }
+            }
+            for (Enquiry enquiry : project.getEnquiries()) {
+                String id = String.valueOf(enquiry.getId());
+                rest.add(new String[] {"ENQUIRY", id, enquiry.getApplicant().getNric(), name,
+                        enquiry.getTimestamp().toString(), enquiry.getMessage()});
+                if (enquiry.isReplied()) {
+                    rest.add(new String[] {"REPLY", id, enquiry.getReply()});
+                }
+            }
+            for (OfficerRegistration registration : project.getOfficerRegistrations()) {
+                String nric = registration.getOfficer().getNric();
+                rest.add(new String[] {"REGISTER", nric, name});
+                rest.add(new String[] {"REG_STATUS", nric, name, registration.getStatus().name()});
+            }
+        }
+
+        List<String[]> records = new ArrayList<>(past);
+        records.addAll(current);
+        records.addAll(rest);
+        return records;
+    }
+}
@@ -0,0 +1,73 @@
+package repo;
+
+/**
+ * A fixed set of locks shared out by key, so that changes to different users
+ * or projects rarely wait for each other while changes to the same one are
+ * serialized, without keeping a lock object per key.
+ */
+final class LockStripes {
+
+    /** Number of stripes; a power of two so a key's stripe is a mask of its hash. */
+    private static final int STRIPES = 64;
+
+    /** The locks. */
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * Creates the stripes.
+     */
+    LockStripes() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the lock guarding a key.
+     *
+     * @param key The key, such as an NRIC or a project name key.
+     * @return The lock to synchronize on.
+     */
+    Object forKey(Object key) {
+        return locks[index(key)];
+    }
+
+    /**
+     * Runs an action while holding every stripe, so that no change guarded by
+     * these stripes runs at the same time. The stripes are taken in order, as
+     * when two keys are held at once.
+     *
+     * @param action The action to run.
+     */
+    void withAll(Runnable action) {
+        withAll(0, action);
+    }
+
+    /**
+     * Takes the stripes from a given one up, then runs an action.
+     *
+     * @param from   The first stripe still to take.
+     * @param action The action to run.
+     */
+    private void withAll(int from, Runnable action) {
+        if (from == STRIPES) {
+            action.run();
+            return;
+        }
+        synchronized (locks[from]) {
+            withAll(from + 1, action);
+        }
+    }
+
+    /**
+     * Returns the stripe number of a key, used to order the locks when two
+     * keys must be held at once.
+     *
+     * @param key The key.
+     * @return The stripe number.
+     */
+    int index(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
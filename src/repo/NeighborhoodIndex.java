@@ -0,0 +1,211 @@
+package repo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import model.BTOProject;
+
+/**
+ * Finds projects by neighborhood without lower-casing and scanning every
+ * project on each search.
+ *
+ * Projects are kept sorted by neighborhood, ignoring case, which answers
+ * prefix searches and lists all projects in neighborhood order without
+ * re-sorting. Substring searches use an n-gram index: every piece of one to
+ * {@value #GRAM} characters of a neighborhood points to the projects having
+ * it, so a search only checks the projects sharing its rarest piece.
+ *
+ * Changes are serialized; searches run without locking and only return
+ * projects still indexed under a matching neighborhood.
+ */
+final class NeighborhoodIndex {
+
+    /** Length of the longest indexed pieces. */
+    private static final int GRAM = 3;
+
+    /**
+     * A project as indexed, with the neighborhood it was indexed under.
+     */
+    private static final class Entry {
+
+        /** Lower-case neighborhood. */
+        final String key;
+
+        /** Indexing order, keeping projects in the same neighborhood in the order they were added. */
+        final long seq;
+
+        /** The project, or {@code null} for search bounds. */
+        final BTOProject project;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param key     Lower-case neighborhood.
+         * @param seq     Indexing order.
+         * @param project The project.
+         */
+        Entry(String key, long seq, BTOProject project) {
+            this.key = key;
+            this.seq = seq;
+            this.project = project;
+        }
+    }
+
+    /** Orders entries by neighborhood, then by when they were indexed. */
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparing((Entry e) -> e.key).thenComparingLong(e -> e.seq);
+
+    /** Every entry in neighborhood order. */
+    private final ConcurrentSkipListSet<Entry> sorted = new ConcurrentSkipListSet<>(ORDER);
+
+    /** The current entry of each project. */
+    private final Map<BTOProject, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Entries having each piece of one to {@value #GRAM} characters in their neighborhood. */
+    private final Map<String, Set<Entry>> grams = new ConcurrentHashMap<>();
+
+    /** Indexing order of the next entry. */
+    private long nextSeq;
+
+    /**
+     * Normalizes a neighborhood or search text into the form that is indexed.
+     *
+     * @param text The text.
+     * @return The lower-case text.
+     */
+    private static String key(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Indexes a project under its current neighborhood, replacing any earlier entry.
+     * Call it again whenever the neighborhood changes.
+     *
+     * @param project The project.
+     */
+    synchronized void add(BTOProject project) {
+        remove(project);
+        Entry entry = new Entry(key(project.getNeighborhood()), nextSeq++, project);
+        for (String gram : grams(entry.key)) {
+            grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+        entries.put(project, entry);
+        sorted.add(entry);
+    }
+
+    /**
+     * Removes a project from the index. Does nothing if it is not indexed.
+     *
+     * @param project The project.
+     */
+    synchronized void remove(BTOProject project) {
+        Entry entry = entries.remove(project);
+        if (entry == null) {
+            return;
+        }
+        sorted.remove(entry);
+        for (String gram : grams(entry.key)) {
+            grams.computeIfPresent(gram, (g, set) -> {
+                set.remove(entry);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    /**
+     * Returns every distinct piece of one to {@value #GRAM} characters of a text.
+     *
+     * @param key The lower-case text.
+     * @return The pieces.
+     */
+    private static Set<String> grams(String key) {
+        Set<String> pieces = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= key.length(); i++) {
+                pieces.add(key.substring(i, i + length));
+            }
+        }
+        return pieces;
+    }
+
+    /**
+     * Returns all indexed projects, sorted by neighborhood.
+     *
+     * @return The projects.
+     */
+    List<BTOProject> all() {
+        return projects(sorted);
+    }
+
+    /**
+     * Returns the projects whose neighborhood starts with some text, ignoring case,
+     * sorted by neighborhood.
+     *
+     * @param prefix The text to look for.
+     * @return The matching projects.
+     */
+    List<BTOProject> withPrefix(String prefix) {
+        String from = key(prefix);
+        return projects(sorted.subSet(new Entry(from, Long.MIN_VALUE, null), true,
+                new Entry(from + Character.MAX_VALUE, Long.MIN_VALUE, null), false));
+    }
+
+    /**
+     * Returns the projects whose neighborhood contains some text, ignoring case,
+     * sorted by neighborhood.
+     *
+     * @param text The text to look for.
+     * @return The matching projects.
+     */
+    List<BTOProject> containing(String text) {
+        String key = key(text);
+        if (key.isEmpty()) {
+            return all();
+        }
+
+        // Start from the rarest piece of the text; every match must have all of them
+        int length = Math.min(GRAM, key.length());
+        Set<Entry> candidates = null;
+        for (int i = 0; i + length <= key.length(); i++) {
+            Set<Entry> posting = grams.get(key.substring(i, i + length));
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (entry.key.contains(key)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(ORDER);
+        return projects(matches);
+    }
+
+    /**
+     * Returns the projects of the entries that are still current, in order.
+     *
+     * @param found Entries found by a search.
+     * @return Their projects.
+     */
+    private List<BTOProject> projects(Collection<Entry> found) {
+        List<BTOProject> result = new ArrayList<>();
+        for (Entry entry : found) {
+            if (entries.get(entry.project) == entry) {
+                result.add(entry.project);
+            }
+        }
+        return result;
+    }
+}
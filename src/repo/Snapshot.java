@@ -0,0 +1,636 @@
+package repo;
+
+import enums.*;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import model.*;
+import util.AtomicFile;
+
+/**
+ * Binary snapshot of the whole object graph: users, projects, officer
+ * registrations, applications, bookings, and enquiries.
+ *
+ * Objects refer to each other by integer ids given by their position in the
+ * snapshot, so the graph is rebuilt in one pass without any name lookups.
+ * The file is read with a single sequential read and users are recreated
+ * without repeating the format checks, which were done when they were created.
+ * The CSV files remain the format for exchanging data with other tools.
+ *
+ * Layout (all integers big-endian, strings as a length followed by UTF-8 bytes):
+ * <pre>
+ * header        magic, version, journal generation, journal length
+ * users         count, then role, name, packed NRIC (see {@link Nric#toLong()}), age, married, password
+ * projects      count, then fields and manager id
+ * registrations count, then officer id, project id, status
+ * applications  count, then applicant id, project id, flat type, status, withdraw flag, booking,
+ *               ballot rank, status before withdrawal (or -1), history count and entries
+ * enquiries     count, then id, applicant id, project id, message, timestamp, reply
+ * links         per officer: assigned project id and current registration id;
+ *               per applicant and officer: current application id
+ * trailer       CRC32 of everything before it
+ * </pre>
+ * Enum values are stored by ordinal; reordering an enum requires a new {@link #VERSION}.
+ */
+public class Snapshot {
+
+    /** Marks a file as a snapshot ("BTOS"). */
+    private static final int MAGIC = 0x42544F53;
+
+    /** Version of the layout written by this class. */
+    private static final int VERSION = 3;
+
+    /** Id written in place of a missing reference. */
+    private static final int NONE = -1;
+
+    /** Location of the snapshot file. */
+    private final Path path;
+
+    /** Repository of applicants. */
+    private final ApplicantRepo applicantRepo;
+
+    /** Repository of officers. */
+    private final HDBOfficerRepo officerRepo;
+
+    /** Repository of managers. */
+    private final HDBManagerRepo managerRepo;
+
+    /** Repository of projects. */
+    private final BTOProjectRepo projectRepo;
+
+    /**
+     * Constructs a snapshot of the given repositories backed by a file.
+     *
+     * @param fileName      The path of the snapshot file.
+     * @param applicantRepo The repository of applicants.
+     * @param officerRepo   The repository of officers.
+     * @param managerRepo   The repository of managers.
+     * @param projectRepo   The repository of projects.
+     */
+    public Snapshot(String fileName, ApplicantRepo applicantRepo, HDBOfficerRepo officerRepo,
+                    HDBManagerRepo managerRepo, BTOProjectRepo projectRepo) {
+        this.path = Paths.get(fileName);
+        this.applicantRepo = applicantRepo;
+        this.officerRepo = officerRepo;
+        this.managerRepo = managerRepo;
+        this.projectRepo = projectRepo;
+    }
+
+    /**
+     * Checks whether the snapshot exists and was written after all of the given files.
+     *
+     * @param fileNames The files to compare against, typically the CSV files.
+     * @return {@code true} if the snapshot is newer than every existing file.
+     */
+    public boolean isNewerThan(String... fileNames) {
+        try {
+            if (!Files.exists(path)) {
+                return false;
+            }
+            long snapshotTime = Files.getLastModifiedTime(path).toMillis();
+            for (String fileName : fileNames) {
+                Path file = Paths.get(fileName);
+                if (Files.exists(file) && Files.getLastModifiedTime(file).toMillis() > snapshotTime) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    // Writing
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * Writes the current state of the repositories to the snapshot file.
+     * The snapshot is written to a temporary file and moved into place, so a
+     * crash part-way leaves the previous snapshot intact.
+     *
+     * @param journalGeneration The generation of the journal the state includes.
+     * @param journalLength     The length of the journal the state includes.
+     */
+    public void save(long journalGeneration, long journalLength) {
+        try {
+            write(encode(journalGeneration, journalLength));
+        } catch (IOException e) {
+            System.out.println("Failed to write snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes an encoded snapshot to a temporary file, forces it to disk, and
+     * moves it over the snapshot file.
+     *
+     * @param bytes The snapshot produced by {@link #encode}.
+     * @return {@code true} if the snapshot was replaced.
+     */
+    boolean write(byte[] bytes) {
+        try {
+            AtomicFile.write(path, bytes);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Failed to write snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Encodes the current state of the repositories. May run while sessions
+     * change the state; every collection is read once, so the counts and the
+     * entries written always agree.
+     *
+     * @param journalGeneration The generation of the journal the state includes.
+     * @param journalLength     The length of the journal the state includes.
+     * @return The encoded snapshot, including the trailing checksum.
+     * @throws IOException never in practice, as the data is written to memory.
+     */
+    byte[] encode(long journalGeneration, long journalLength) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(journalGeneration);
+        out.writeLong(journalLength);
+
+        // Users, with ids in the order applicants, officers, managers, counted as they are written
+        Map<Object, Integer> ids = new IdentityHashMap<>();
+        List<Applicant> applicants = new ArrayList<>();
+        List<HDBOfficer> officers = officerRepo.getAllUsers();
+        ByteArrayOutputStream userBytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream users = new DataOutputStream(userBytes);
+        applicantRepo.forEachApplicant((applicant, nric, name, age, married, password) -> {
+            // An applicant still only in the off-heap table is never referenced; its NRIC holds its id
+            ids.put(applicant != null ? applicant : nric, ids.size());
+            applicants.add(applicant);
+            writeUser(users, UserRole.APPLICANT, name, nric, age, married, password);
+        });
+        for (HDBOfficer officer : officers) {
+            writeUser(users, UserRole.OFFICER, officer, ids);
+        }
+        for (HDBManager manager : managerRepo.getAllUsers()) {
+            writeUser(users, UserRole.MANAGER, manager, ids);
+        }
+        users.flush();
+        out.writeInt(ids.size());
+        userBytes.writeTo(out);
+
+        List<BTOProject> projects = projectRepo.getProjects();
+        out.writeInt(projects.size());
+        for (BTOProject project : projects) {
+            ids.put(project, ids.size());
+            writeString(out, project.getName());
+            writeString(out, project.getNeighborhood());
+            out.writeInt(project.getTwoRoomNo());
+            out.writeInt(project.getThreeRoomNo());
+            out.writeInt(project.getTwoRoomPrice());
+            out.writeInt(project.getThreeRoomPrice());
+            out.writeLong(project.getAppOpenDate().toEpochDay());
+            out.writeLong(project.getAppCloseDate().toEpochDay());
+            out.writeInt(project.getNoAvailableOffice());
+            out.writeBoolean(project.isVisible());
+            out.writeInt(id(ids, project.getHDBManager()));
+        }
+
+        List<OfficerRegistration> registrations = new ArrayList<>();
+        List<BTOApplication> applications = new ArrayList<>();
+        List<Enquiry> enquiries = new ArrayList<>();
+        for (BTOProject project : projects) {
+            registrations.addAll(project.getOfficerRegistrations());
+            applications.addAll(project.getApplications());
+            enquiries.addAll(project.getEnquiries());
+        }
+
+        out.writeInt(registrations.size());
+        for (OfficerRegistration registration : registrations) {
+            ids.put(registration, ids.size());
+            out.writeInt(id(ids, registration.getOfficer()));
+            out.writeInt(id(ids, registration.getProject()));
+            out.writeByte(registration.getStatus().ordinal());
+        }
+
+        out.writeInt(applications.size());
+        for (BTOApplication application : applications) {
+            ids.put(application, ids.size());
+            out.writeInt(id(ids, application.getApplicant()));
+            out.writeInt(id(ids, application.getProject()));
+            out.writeByte(application.getFlatType().ordinal());
+            out.writeByte(application.getApplicationStatus().ordinal());
+            out.writeBoolean(application.hasRequestedWithdraw());
+            FlatBooking booking = application.getFlatBooking();
+            out.writeBoolean(booking != null);
+            if (booking != null) {
+                out.writeByte(booking.getFlatType().ordinal());
+                writeDateTime(out, booking.getBookingDate());
+                out.writeBoolean(booking.isResolved());
+            }
+            out.writeInt(application.getBallotRank());
+            ApplicationStatus withdrawnFrom = application.getWithdrawnFrom();
+            out.writeByte(withdrawnFrom == null ? NONE : withdrawnFrom.ordinal());
+            List<String> history = application.getHistory();
+            out.writeInt(history.size());
+            for (String entry : history) {
+                writeString(out, entry);
+            }
+        }
+
+        // Sorted by id, which is creation order, so both the applicant's and the project's lists keep their order
+        enquiries.sort(Comparator.comparingInt(Enquiry::getId));
+        out.writeInt(enquiries.size());
+        for (Enquiry enquiry : enquiries) {
+            out.writeInt(enquiry.getId());
+            out.writeInt(id(ids, enquiry.getApplicant()));
+            out.writeInt(id(ids, enquiry.getProject()));
+            writeString(out, enquiry.getMessage());
+            writeDateTime(out, enquiry.getTimestamp());
+            writeString(out, enquiry.isReplied() ? enquiry.getReply() : null);
+        }
+
+        for (HDBOfficer officer : officers) {
+            out.writeInt(id(ids, officer.getProject()));
+            out.writeInt(id(ids, officer.getRegistration()));
+        }
+        for (Applicant applicant : applicants) {
+            out.writeInt(applicant == null ? NONE : id(ids, applicant.getApplication()));
+        }
+        for (HDBOfficer officer : officers) {
+            out.writeInt(id(ids, officer.getApplication()));
+        }
+
+        out.flush();
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a user and assigns it the next id.
+     *
+     * @param out  The output.
+     * @param role The role of the user.
+     * @param user The user.
+     * @param ids  The ids assigned so far.
+     * @throws IOException never in practice.
+     */
+    private static void writeUser(DataOutputStream out, UserRole role, User user, Map<Object, Integer> ids)
+            throws IOException {
+        ids.put(user, ids.size());
+        writeUser(out, role, user.getName(), user.getNricKey(), user.getAge(), user.isMarried(), user.getPassword());
+    }
+
+    /**
+     * Writes the fields of a user.
+     *
+     * @param out      The output.
+     * @param role     The role of the user.
+     * @param name     The name.
+     * @param nric     The NRIC.
+     * @param age      The age.
+     * @param married  Whether the user is married.
+     * @param password The password.
+     * @throws IOException never in practice.
+     */
+    private static void writeUser(DataOutputStream out, UserRole role, String name, Nric nric, int age,
+                                  boolean married, String password) throws IOException {
+        out.writeByte(role.ordinal());
+        writeString(out, name);
+        out.writeLong(nric.toLong());
+        out.writeInt(age);
+        out.writeBoolean(married);
+        writeString(out, password);
+    }
+
+    /**
+     * Returns the id assigned to an object.
+     *
+     * @param ids    The ids assigned so far.
+     * @param object The object, possibly {@code null}.
+     * @return The id, or {@link #NONE} if the object is {@code null} or not part of the snapshot.
+     */
+    private static int id(Map<Object, Integer> ids, Object object) {
+        Integer id = object == null ? null : ids.get(object);
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its bytes; {@code null} is written as length -1.
+     *
+     * @param out   The output.
+     * @param value The string, possibly {@code null}.
+     * @throws IOException never in practice.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Writes a date and time as seconds and nanoseconds.
+     *
+     * @param out   The output.
+     * @param value The date and time.
+     * @throws IOException never in practice.
+     */
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    // Reading
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * Loads the snapshot into the (empty) repositories if it is usable with the
+     * journal as it is now. The snapshot is not used if it is missing, damaged,
+     * of another version, or if the journal has been rewritten since it was taken.
+     *
+     * @param journalGeneration The generation of the current journal, or 0 if there is none.
+     * @return The journal position to replay from, or -1 if the snapshot was not loaded.
+     */
+    public long load(long journalGeneration) {
+        ByteBuffer in;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = file.size();
+            if (size < 28 || size > Integer.MAX_VALUE) {
+                System.out.println("Snapshot is damaged, loading CSV files instead");
+                return -1;
+            }
+            in = ByteBuffer.allocate((int) size);
+            while (in.hasRemaining() && file.read(in) >= 0) {
+                // a single read in practice; loop in case the channel returns less
+            }
+            in.flip();
+        } catch (IOException e) {
+            System.out.println("Failed to read snapshot: " + e.getMessage());
+            return -1;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(in.array(), 0, in.limit() - 4);
+        if (in.getInt() != MAGIC || in.getInt(in.limit() - 4) != (int) crc.getValue()) {
+            System.out.println("Snapshot is damaged, loading CSV files instead");
+            return -1;
+        }
+        if (in.getInt() != VERSION) {
+            System.out.println("Snapshot was written by another version, loading CSV files instead");
+            return -1;
+        }
+        long generation = in.getLong();
+        long journalLength = in.getLong();
+        if (journalGeneration != 0 && generation != journalGeneration) {
+            System.out.println("Journal was rewritten after the snapshot, loading CSV files instead");
+            return -1;
+        }
+
+        try {
+            decode(in);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException | IllegalArgumentException e) {
+            System.out.println("Snapshot is damaged, loading CSV files instead");
+            return -1;
+        }
+        System.out.println("Snapshot loaded from " + path);
+        return journalGeneration == 0 ? 0 : journalLength;
+    }
+
+    /**
+     * Rebuilds the object graph from the body of a snapshot and adds it to the
+     * repositories. Nothing is added unless the whole body can be read.
+     *
+     * @param in The snapshot, positioned after the header.
+     */
+    private void decode(ByteBuffer in) {
+        ApplicationStatus[] applicationStatuses = ApplicationStatus.values();
+        RegistrationStatus[] registrationStatuses = RegistrationStatus.values();
+        FlatType[] flatTypes = FlatType.values();
+
+        List<Object> objects = new ArrayList<>();
+        List<Applicant> applicants = new ArrayList<>();
+        List<HDBOfficer> officers = new ArrayList<>();
+        List<HDBManager> managers = new ArrayList<>();
+
+        // In off-heap mode applicants go into a new table, standing in as their NRIC
+        // until something refers to them; only those become objects
+        ApplicantTable table = applicantRepo.isOffHeap() ? new ApplicantTable() : null;
+        int userCount = in.getInt();
+        for (int i = 0; i < userCount; i++) {
+            UserRole role = UserRole.values()[in.get()];
+            String name = readString(in);
+            Nric nric = Nric.fromLong(in.getLong());
+            int age = in.getInt();
+            boolean married = in.get() != 0;
+            String password = readString(in);
+            if (role == UserRole.APPLICANT && table != null) {
+                table.add(nric, name, age, married, password);
+                objects.add(ApplicantTable.fits(name, password)
+                        ? nric : add(applicants, Applicant.restore(name, nric, age, married, password)));
+                continue;
+            }
+            User user = switch (role) {
+                case APPLICANT -> add(applicants, Applicant.restore(name, nric, age, married, password));
+                case OFFICER -> add(officers, HDBOfficer.restore(name, nric, age, married, password));
+                case MANAGER -> add(managers, HDBManager.restore(name, nric, age, married, password));
+            };
+            objects.add(user);
+        }
+
+        List<BTOProject> projects = new ArrayList<>();
+        int projectCount = in.getInt();
+        for (int i = 0; i < projectCount; i++) {
+            String name = readString(in);
+            String neighborhood = readString(in);
+            int twoRoomNo = in.getInt();
+            int threeRoomNo = in.getInt();
+            int twoRoomPrice = in.getInt();
+            int threeRoomPrice = in.getInt();
+            LocalDate open = LocalDate.ofEpochDay(in.getLong());
+            LocalDate close = LocalDate.ofEpochDay(in.getLong());
+            int slots = in.getInt();
+            boolean visible = in.get() != 0;
+            HDBManager manager = (HDBManager) objects.get(in.getInt());
+            BTOProject project = new BTOProject(name, neighborhood, twoRoomNo, threeRoomNo, twoRoomPrice,
+                    threeRoomPrice, open, close, slots, manager, "");
+            project.setVisible(visible);
+            projects.add(project);
+            objects.add(project);
+        }
+
+        int registrationCount = in.getInt();
+        for (int i = 0; i < registrationCount; i++) {
+            HDBOfficer officer = (HDBOfficer) objects.get(in.getInt());
+            BTOProject project = (BTOProject) objects.get(in.getInt());
+            OfficerRegistration registration = new OfficerRegistration(officer, project);
+            registration.setStatus(registrationStatuses[in.get()]);
+            objects.add(registration);
+        }
+
+        int applicationCount = in.getInt();
+        for (int i = 0; i < applicationCount; i++) {
+            Applicant applicant = applicant(objects, in.getInt(), table, applicants);
+            BTOProject project = (BTOProject) objects.get(in.getInt());
+            FlatType flatType = flatTypes[in.get()];
+            ApplicationStatus status = applicationStatuses[in.get()];
+            boolean wantWithdraw = in.get() != 0;
+            BTOApplication application = BTOApplication.restore(applicant, project, flatType, status, wantWithdraw);
+            if (in.get() != 0) {
+                FlatType bookedType = flatTypes[in.get()];
+                application.createFlatBooking(bookedType, readDateTime(in));
+                application.getFlatBooking().setResolved(in.get() != 0);
+            }
+            int rank = in.getInt();
+            if (rank > 0) {
+                application.restoreRank(rank);
+            }
+            byte withdrawnFrom = in.get();
+            application.restoreWithdrawnFrom(withdrawnFrom == NONE ? null : applicationStatuses[withdrawnFrom]);
+            for (int entries = in.getInt(); entries > 0; entries--) {
+                application.addHistory(readString(in));
+            }
+            // Filed once its rank is known, which decides whether it is on its waitlist
+            project.addApplications(application);
+            objects.add(application);
+        }
+
+        int enquiryCount = in.getInt();
+        for (int i = 0; i < enquiryCount; i++) {
+            int id = in.getInt();
+            Applicant applicant = applicant(objects, in.getInt(), table, applicants);
+            BTOProject project = (BTOProject) objects.get(in.getInt());
+            String message = readString(in);
+            LocalDateTime timestamp = readDateTime(in);
+            String reply = readString(in);
+            Enquiry enquiry = new Enquiry(id, applicant, project, message, timestamp);
+            if (reply != null) {
+                enquiry.setReply(reply);
+            }
+            applicant.getEnquiries().add(enquiry);
+            project.restoreEnquiry(enquiry);
+        }
+
+        for (HDBOfficer officer : officers) {
+            officer.setAssignedProject((BTOProject) reference(objects, in.getInt()));
+            officer.setOfficerRegistrationToHDBOfficer((OfficerRegistration) reference(objects, in.getInt()));
+        }
+        for (int id = 0; id < userCount; id++) {
+            Object user = objects.get(id);
+            if (user instanceof Nric || (user instanceof Applicant && !(user instanceof HDBOfficer))) {
+                int application = in.getInt();
+                if (application != NONE) {
+                    applicant(objects, id, table, applicants).setApplication((BTOApplication) objects.get(application));
+                }
+            }
+        }
+        for (HDBOfficer officer : officers) {
+            officer.setApplication((BTOApplication) reference(objects, in.getInt()));
+        }
+        for (BTOProject project : projects) {
+            project.updateOfficerAssignedString();
+        }
+
+        if (table != null) {
+            applicantRepo.adopt(table, applicants);
+        } else {
+            applicants.forEach(applicantRepo::addUser);
+        }
+        officers.forEach(officerRepo::addUser);
+        managers.forEach(managerRepo::addUser);
+        projects.forEach(projectRepo::addUser);
+    }
+
+    /**
+     * Adds a value to a list and returns it.
+     *
+     * @param list  The list.
+     * @param value The value to add.
+     * @param <T>   The type of the value.
+     * @return The value.
+     */
+    private static <T> T add(List<? super T> list, T value) {
+        list.add(value);
+        return value;
+    }
+
+    /**
+     * Resolves the id of an applicant, creating the applicant from the table
+     * the first time an applicant standing in as its NRIC is referred to.
+     *
+     * @param objects The objects read so far, by id.
+     * @param id      The id.
+     * @param table   The table of applicants in off-heap mode, or {@code null}.
+     * @param created The applicants created so far, which the new one is added to.
+     * @return The applicant.
+     */
+    private static Applicant applicant(List<Object> objects, int id, ApplicantTable table, List<Applicant> created) {
+        Object user = objects.get(id);
+        if (user instanceof Nric nric) {
+            Applicant applicant = add(created, table.read(nric));
+            objects.set(id, applicant);
+            return applicant;
+        }
+        return (Applicant) user;
+    }
+
+    /**
+     * Resolves an id that may be {@link #NONE}.
+     *
+     * @param objects The objects read so far, by id.
+     * @param id      The id.
+     * @return The object, or {@code null} for {@link #NONE}.
+     */
+    private static Object reference(List<Object> objects, int id) {
+        return id == NONE ? null : objects.get(id);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString}.
+     *
+     * @param in The input.
+     * @return The string, or {@code null}.
+     */
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /**
+     * Reads a date and time written by {@link #writeDateTime}.
+     *
+     * @param in The input.
+     * @return The date and time.
+     */
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
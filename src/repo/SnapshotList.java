@@ -0,0 +1,67 @@
+package repo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An insertion-ordered list that several sessions can read and change at once.
+ *
+ * Changes take a short lock on the list. Readers get an immutable copy that
+ * later changes never affect, so they can iterate it for as long as they like
+ * without locking and without {@code ConcurrentModificationException}. The
+ * copy is made on the first read after a change, so a burst of additions, such
+ * as loading a file, costs one copy rather than one per element.
+ *
+ * @param <T> The element type.
+ */
+final class SnapshotList<T> {
+
+    /** The elements, in insertion order. Guarded by {@code this}. */
+    private final List<T> items = new ArrayList<>();
+
+    /** Immutable copy of {@link #items}, or {@code null} if it changed since the last copy. */
+    private volatile List<T> snapshot = List.of();
+
+    /**
+     * Appends an element.
+     *
+     * @param item The element to add.
+     */
+    synchronized void add(T item) {
+        items.add(item);
+        snapshot = null;
+    }
+
+    /**
+     * Removes the first occurrence of an element.
+     *
+     * @param item The element to remove.
+     * @return {@code true} if the element was present.
+     */
+    synchronized boolean remove(T item) {
+        boolean removed = items.remove(item);
+        if (removed) {
+            snapshot = null;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the elements as they are now.
+     *
+     * @return An immutable list of the elements, in insertion order.
+     */
+    List<T> snapshot() {
+        List<T> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = List.copyOf(items);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+}
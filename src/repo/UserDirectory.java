@@ -0,0 +1,173 @@
+package repo;
+
+import enums.UserRole;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import model.Nric;
+import model.User;
+
+/**
+ * A single directory of every user in the system, across all roles.
+ * Maps each NRIC to the user's role and account so that login can resolve
+ * any user with one lookup, and guarantees that an NRIC belongs to at most
+ * one account regardless of role.
+ *
+ * The directory is fed by the user repositories registered with it; they
+ * report every user they add or delete. Adding is a single atomic
+ * put-if-absent, so two sessions cannot claim the same NRIC at once.
+ *
+ * A repository that keeps its users outside the heap registers a source
+ * instead of reporting them all; such a user joins the directory the first
+ * time their NRIC is looked up or claimed by another role.
+ */
+public class UserDirectory {
+
+    /**
+     * A directory entry pairing a user with the role they hold.
+     */
+    public static class Entry {
+
+        /** The role of the user. */
+        private final UserRole role;
+
+        /** The user account. */
+        private final User user;
+
+        /**
+         * Constructs a new directory entry.
+         *
+         * @param role The role of the user.
+         * @param user The user account.
+         */
+        Entry(UserRole role, User user) {
+            this.role = role;
+            this.user = user;
+        }
+
+        /**
+         * Returns the role of the user.
+         *
+         * @return The user's role.
+         */
+        public UserRole getRole() {
+            return role;
+        }
+
+        /**
+         * Returns the user account.
+         *
+         * @return The user.
+         */
+        public User getUser() {
+            return user;
+        }
+    }
+
+    /** Entries keyed by NRIC. */
+    private final Map<Nric, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Sources of users not yet in {@link #entries}, by the role they hold. */
+    private final Map<UserRole, Function<Nric, ? extends User>> sources = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a user repository with the directory. Users already in the
+     * repository are added immediately, and the repository reports every
+     * later addition and deletion.
+     *
+     * @param userRepo The repository to register.
+     * @param <T>      The type of user held by the repository.
+     */
+    public <T extends User> void register(IUserRepo<T> userRepo) {
+        for (T user : userRepo.getAllUsers()) {
+            if (!add(userRepo.getRole(), user)) {
+                System.out.println("NRIC " + user.getNric() + " is already registered as "
+                        + lookup(user.getNric()).getRole() + ", ignoring " + userRepo.getRole() + " account");
+            }
+        }
+        userRepo.setDirectory(this);
+    }
+
+    /**
+     * Looks up a user of any role by NRIC.
+     *
+     * @param nric The NRIC to look up.
+     * @return The matching entry, or {@code null} if no user has this NRIC.
+     */
+    public Entry lookup(String nric) {
+        Nric key = Nric.tryParse(nric);
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            for (Function<Nric, ? extends User> source : sources.values()) {
+                // A source adds the user it loads, so the entry is there once it returns
+                if (source.apply(key) != null) {
+                    return entries.get(key);
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Registers a source of users that a repository keeps outside the heap.
+     * The source must add every user it returns to this directory.
+     *
+     * @param role   The role of the source's users.
+     * @param source Loads the user with an NRIC, or returns {@code null} if there is none.
+     */
+    void addSource(UserRole role, Function<Nric, ? extends User> source) {
+        sources.put(role, source);
+    }
+
+    /**
+     * Checks whether an NRIC is already in the directory, without consulting sources.
+     *
+     * @param nric The NRIC.
+     * @return {@code true} if a user with this NRIC has been added.
+     */
+    boolean contains(Nric nric) {
+        return entries.containsKey(nric);
+    }
+
+    /**
+     * Adds a user to the directory unless their NRIC is already taken by
+     * another account of any role.
+     *
+     * @param role The role of the user.
+     * @param user The user to add.
+     * @return {@code true} if added, {@code false} if the NRIC is already taken.
+     */
+    boolean add(UserRole role, User user) {
+        Nric key = user.getNricKey();
+        for (Map.Entry<UserRole, Function<Nric, ? extends User>> source : sources.entrySet()) {
+            if (source.getKey() != role && !entries.containsKey(key)) {
+                // Loads a stored user of another role with this NRIC, so it counts as taken
+                source.getValue().apply(key);
+            }
+        }
+        Entry existing = entries.putIfAbsent(key, new Entry(role, user));
+        return existing == null || existing.getUser() == user;
+    }
+
+    /**
+     * Removes the user with the given NRIC from the directory.
+     *
+     * @param nric The NRIC of the user to remove.
+     */
+    void remove(Nric nric) {
+        entries.remove(nric);
+    }
+
+    /**
+     * Returns the number of users in the directory. Users of a source count
+     * only once they have been looked up.
+     *
+     * @return The number of registered users.
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,41 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces the contents of a file so that readers, and the file after a crash,
+ * see either the old contents or the new ones, never a mix of both.
+ * The new contents are written to a sibling temporary file, forced to disk,
+ * and then moved over the target in one atomic rename.
+ */
+public final class AtomicFile {
+
+    /** Not instantiable. */
+    private AtomicFile() {}
+
+    /**
+     * Atomically replaces the contents of a file.
+     *
+     * @param path  The file to replace.
+     * @param bytes The new contents.
+     * @throws IOException if the temporary file cannot be written or moved.
+     */
+    public static void write(Path path, byte[] bytes) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            file.force(false);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,317 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A single-pass, quote-aware CSV reader used by the repository loaders.
+ * Fields are separated by commas and may be wrapped in double quotes, in which
+ * case they can contain commas, line breaks, and escaped quotes ({@code ""}).
+ * Every character is examined exactly once, so the cost of reading a file is
+ * linear in its size regardless of how many quoted fields it contains.
+ *
+ * A malformed row does not end the file: the reader carries on with the line
+ * after the one the row started on, so a stray quote costs only its own row.
+ */
+public class CsvReader implements Closeable {
+
+    /** Size of the character buffer refilled from the underlying reader. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** The source of characters. */
+    private final Reader in;
+
+    /** Buffer holding characters read from {@link #in}. */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /** Index of the next unread character in {@link #buffer}. */
+    private int position;
+
+    /** Number of valid characters in {@link #buffer}. */
+    private int limit;
+
+    /** Builder reused for the field currently being read. */
+    private final StringBuilder field = new StringBuilder(64);
+
+    /** Row number (1-based) of the most recently returned row. */
+    private int row;
+
+    /** Physical line number (1-based) of the next character. */
+    private int line = 1;
+
+    /** Column (1-based) of the next character on its physical line. */
+    private int column = 1;
+
+    /** The characters of the row being read, kept so a malformed row can be read again from its second line. */
+    private final StringBuilder raw = new StringBuilder(128);
+
+    /** Physical line number of the first character of the row being read. */
+    private int rowLine;
+
+    /** Characters to read again before the buffer after a malformed row, or {@code null}. */
+    private String pushback;
+
+    /** Index of the next unread character in {@link #pushback}. */
+    private int pushbackPosition;
+
+    /**
+     * Constructs a CSV reader over the given character stream.
+     *
+     * @param in The reader to consume; it is closed when this reader is closed.
+     */
+    public CsvReader(Reader in) {
+        this(in, 0);
+    }
+
+    /**
+     * Constructs a CSV reader over part of a file, numbering rows after those before it.
+     *
+     * @param in         The reader to consume; it is closed when this reader is closed.
+     * @param rowsBefore The number of rows in the file before this part.
+     */
+    public CsvReader(Reader in, int rowsBefore) {
+        this.in = in;
+        this.row = rowsBefore;
+    }
+
+    /**
+     * Opens a UTF-8 CSV file for reading.
+     *
+     * @param fileName The path of the file to read.
+     * @return A reader positioned at the first row of the file.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static CsvReader open(String fileName) throws IOException {
+        return new CsvReader(Files.newBufferedReader(Path.of(fileName), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the row number of the most recently read row.
+     * The first row of the file (usually the header) is row 1.
+     *
+     * @return The 1-based row number, or 0 if no row has been read yet.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Reads the next non-blank row and splits it into fields.
+     * Quoted fields are returned without their surrounding quotes and with
+     * escaped quotes collapsed.
+     *
+     * @return The fields of the row, or {@code null} at the end of the input.
+     * @throws IOException if the underlying reader fails.
+     * @throws IllegalArgumentException if a quoted field is malformed; the
+     *         message includes the row, line and column of the problem. The
+     *         next call reads on from the line after the one the row started on.
+     */
+    public String[] readRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        int c = read();
+
+        // Skip blank lines between rows
+        while (c == '\n' || c == '\r') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        row++;
+        rowLine = line;
+        raw.setLength(0);
+        raw.append((char) c);
+
+        while (true) {
+            field.setLength(0);
+
+            if (c == '"') {
+                int startLine = line;
+                int startColumn = column - 1;
+                while (true) {
+                    c = read();
+                    if (c == -1) {
+                        throw error("unterminated quoted field starting", startLine, startColumn);
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break; // closing quote
+                        }
+                    }
+                    field.append((char) c);
+                }
+                if (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    throw error("unexpected character '" + (char) c + "' after closing quote", line, column - 1);
+                }
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+
+            fields.add(field.toString());
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r' && peek() == '\n') {
+                read();
+            }
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Reads the next well-formed row, skipping malformed rows.
+     *
+     * @param malformed Receives the problem and row number of each malformed row skipped.
+     * @return The fields of the row, or {@code null} at the end of the input.
+     * @throws IOException if the underlying reader fails.
+     */
+    public String[] readRow(ObjIntConsumer<String> malformed) throws IOException {
+        while (true) {
+            try {
+                return readRow();
+            } catch (IllegalArgumentException e) {
+                malformed.accept(e.getMessage(), row);
+            }
+        }
+    }
+
+    /**
+     * Parses an integer field of the most recently read row.
+     *
+     * @param fields The fields returned by {@link #readRow()}.
+     * @param index  The 0-based index of the field to parse.
+     * @return The parsed value.
+     * @throws IllegalArgumentException if the field is missing or not a number;
+     *         the message includes the row and column of the field.
+     */
+    public int getInt(String[] fields, int index) {
+        if (index >= fields.length) {
+            throw new IllegalArgumentException("Row " + row + ", column " + (index + 1) + ": missing value");
+        }
+        String value = fields[index].trim();
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Row " + row + ", column " + (index + 1)
+                    + ": expected a number but found '" + value + "'");
+        }
+    }
+
+    /**
+     * Closes the underlying reader.
+     *
+     * @throws IOException if the reader cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads one character, refilling the buffer when needed and tracking the
+     * line and column of the next character.
+     *
+     * @return The character read, or -1 at the end of the input.
+     * @throws IOException if the underlying reader fails.
+     */
+    private int read() throws IOException {
+        char c;
+        if (pushback != null) {
+            c = pushback.charAt(pushbackPosition++);
+            if (pushbackPosition == pushback.length()) {
+                pushback = null;
+            }
+        } else if (position == limit && !fill()) {
+            return -1;
+        } else {
+            c = buffer[position++];
+        }
+        raw.append(c);
+        if (c == '\n') {
+            line++;
+            column = 1;
+        } else {
+            column++;
+        }
+        return c;
+    }
+
+    /**
+     * Returns the next character without consuming it.
+     *
+     * @return The next character, or -1 at the end of the input.
+     * @throws IOException if the underlying reader fails.
+     */
+    private int peek() throws IOException {
+        if (pushback != null) {
+            return pushback.charAt(pushbackPosition);
+        }
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Refills the buffer from the underlying reader.
+     *
+     * @return {@code true} if at least one character is available.
+     * @throws IOException if the underlying reader fails.
+     */
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    /**
+     * Builds an exception describing a malformed row, and moves back to the
+     * line after the one the row started on, so the next row can be read.
+     *
+     * @param problem     A description of the problem.
+     * @param errorLine   The physical line where the problem was found.
+     * @param errorColumn The column where the problem was found.
+     * @return An exception carrying the position of the problem.
+     * @throws IOException if the underlying reader fails.
+     */
+    private IllegalArgumentException error(String problem, int errorLine, int errorColumn) throws IOException {
+        IllegalArgumentException error = new IllegalArgumentException("Malformed CSV at row " + row + " (line " + errorLine
+                + ", column " + errorColumn + "): " + problem);
+        int newline = raw.indexOf("\n");
+        if (newline < 0) {
+            // The row went wrong on its first line; drop the rest of that line
+            int c;
+            do {
+                c = read();
+            } while (c != '\n' && c != -1);
+            return error;
+        }
+        String unread = pushback != null ? pushback.substring(pushbackPosition) : "";
+        String again = raw.substring(newline + 1) + unread;
+        pushback = again.isEmpty() ? null : again;
+        pushbackPosition = 0;
+        line = rowLine + 1;
+        column = 1;
+        return error;
+    }
+}
@@ -0,0 +1,98 @@
+package util;
+
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.IntSupplier;
+import model.Enquiry;
+
+/**
+ * A utility class that lets officers and managers page through the enquiries
+ * awaiting a reply, oldest first, and pick one to answer.
+ */
+public class EnquiryPager {
+
+    /** Number of enquiries shown on each page. */
+    public static final int PAGE_SIZE = 10;
+
+    /**
+     * Supplies pages of unreplied enquiries.
+     */
+    @FunctionalInterface
+    public interface Source {
+
+        /**
+         * Returns the unreplied enquiries made after a given one, oldest first.
+         *
+         * @param after The last enquiry of the previous page, or {@code null} for the first page.
+         * @param limit The maximum number of enquiries to return.
+         * @return Up to {@code limit} enquiries.
+         */
+        List<Enquiry> page(Enquiry after, int limit);
+    }
+
+    /**
+     * Shows one page of enquiries at a time until the user picks one, cancels,
+     * or runs out of pages.
+     *
+     * @param source The enquiries to page through.
+     * @param count  The number of enquiries awaiting a reply, shown in each page header.
+     * @return The chosen enquiry, or {@code null} if none was chosen.
+     */
+    public static Enquiry choose(Source source, IntSupplier count) {
+        Scanner sc = Session.current().in();
+        Enquiry after = null;
+        int shown = 0;
+
+        while (true) {
+            // Ask for one extra enquiry to learn whether another page follows
+            List<Enquiry> page = source.page(after, PAGE_SIZE + 1);
+            boolean more = page.size() > PAGE_SIZE;
+            if (more) {
+                page = page.subList(0, PAGE_SIZE);
+            }
+            if (page.isEmpty()) {
+                System.out.println("📭 No enquiries are awaiting a reply.");
+                return null;
+            }
+
+            System.out.println("=== Pending Enquiries (" + (shown + 1) + "-" + (shown + page.size())
+                    + " of " + count.getAsInt() + ") ===");
+            for (int i = 0; i < page.size(); i++) {
+                System.out.println("\n[" + (i + 1) + "]\n" + page.get(i));
+            }
+
+            if (more) {
+                System.out.print("\nEnter the enquiry number to reply to, N for the next page, or 0 to cancel: ");
+            } else {
+                System.out.print("\nEnter the enquiry number to reply to (0 to cancel): ");
+            }
+            String input = sc.nextLine().trim();
+
+            if (more && input.equalsIgnoreCase("N")) {
+                after = page.get(page.size() - 1);
+                shown += page.size();
+                continue;
+            }
+
+            int choice;
+            try {
+                choice = Integer.parseInt(input);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input.");
+                return null;
+            }
+
+            if (choice == 0) {
+                System.out.println("Operation cancelled.");
+                return null;
+            }
+
+            if (choice < 1 || choice > page.size()) {
+                System.out.println("Invalid enquiry number.");
+                return null;
+            }
+
+            return page.get(choice - 1);
+        }
+    }
+}
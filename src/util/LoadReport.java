@@ -0,0 +1,96 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A utility class that collects the rows skipped while a repository loads a
+ * file, and reports them together with the number of rows loaded once the
+ * whole file has been read. A bad row, even one that is not well-formed CSV,
+ * never stops the load; a file with many bad rows lists the first
+ * {@value #MAX_LISTED} and counts the rest.
+ */
+public class LoadReport {
+
+    /** Most skipped rows listed one by one. */
+    public static final int MAX_LISTED = 20;
+
+    /** What the rows hold, such as {@code "Applicants"}. */
+    private final String subject;
+
+    /** The skipped rows listed so far, with their problems. */
+    private final List<String> listed = new ArrayList<>();
+
+    /** Number of rows loaded. */
+    private int loaded;
+
+    /** Number of rows skipped. */
+    private int skipped;
+
+    /**
+     * Starts a report.
+     *
+     * @param subject What the rows hold, such as {@code "Applicants"}.
+     */
+    public LoadReport(String subject) {
+        this.subject = subject;
+    }
+
+    /**
+     * Counts a row that was loaded.
+     */
+    public void loaded() {
+        loaded++;
+    }
+
+    /**
+     * Records a row that was skipped.
+     *
+     * @param row     The row number.
+     * @param problem Why the row was skipped.
+     */
+    public void skip(int row, String problem) {
+        skipped++;
+        if (listed.size() < MAX_LISTED) {
+            listed.add("Row " + row + ": " + problem);
+        }
+    }
+
+    /**
+     * Returns the number of rows loaded.
+     *
+     * @return The number of rows loaded.
+     */
+    public int getLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns the number of rows skipped.
+     *
+     * @return The number of rows skipped.
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Prints the number of rows loaded and skipped, followed by the skipped rows.
+     *
+     * @param fileName The file that was loaded.
+     */
+    public void print(String fileName) {
+        String rows = loaded + (loaded == 1 ? " row" : " rows");
+        if (skipped == 0) {
+            System.out.println(subject + " loaded from " + fileName + " (" + rows + ")");
+            return;
+        }
+        System.out.println(subject + " loaded from " + fileName + " (" + rows + ", " + skipped + " skipped)");
+        for (String row : listed) {
+            System.out.println("  " + row);
+        }
+        if (skipped > listed.size()) {
+            System.out.println("  ... and " + (skipped - listed.size()) + " more");
+        }
+    }
+}
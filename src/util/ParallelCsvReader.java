@@ -0,0 +1,273 @@
+package util;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A utility class that reads large CSV files on all cores.
+ *
+ * The file is memory-mapped and split into chunks that end at line breaks.
+ * Every chunk is counted and then parsed on the common fork/join pool, where
+ * each row is also turned into a value, such as a validated user. The values
+ * are then handed back on the calling thread in file order, with the same row
+ * numbers {@link CsvReader} gives, so callers can merge them into their indexes
+ * without locking and report problems by row.
+ *
+ * Splitting at line breaks is only safe when no field is quoted, as a quoted
+ * field may contain one. A file containing a quote anywhere, or too small to be
+ * worth splitting, is read by a single {@link CsvReader} instead, with the same results.
+ */
+public class ParallelCsvReader {
+
+    /** Size of the chunk each task parses; smaller files are read on the calling thread. */
+    private static final int CHUNK_SIZE = 4 << 20;
+
+    /**
+     * Turns the fields of a row into a value.
+     *
+     * @param <T> The type of the value.
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+
+        /**
+         * Turns a row into a value. Called on pool threads, so it must not
+         * change shared state.
+         *
+         * @param fields The fields of the row.
+         * @param csv    The reader of the row, for its row number and {@link CsvReader#getInt}.
+         * @return The value.
+         * @throws IllegalArgumentException if the row is invalid; the message explains why.
+         */
+        T map(String[] fields, CsvReader csv);
+    }
+
+    /**
+     * The outcome of one row.
+     *
+     * @param <T> The type of the value.
+     */
+    private static final class Parsed<T> {
+
+        /** The row number. */
+        final int row;
+
+        /** The value, or {@code null} if the row was rejected. */
+        final T value;
+
+        /** Why the row was rejected, or {@code null} if it was not. */
+        final String problem;
+
+        /**
+         * Constructs the outcome of a row.
+         *
+         * @param row     The row number.
+         * @param value   The value, or {@code null}.
+         * @param problem Why the row was rejected, or {@code null}.
+         */
+        Parsed(int row, T value, String problem) {
+            this.row = row;
+            this.value = value;
+            this.problem = problem;
+        }
+    }
+
+    /**
+     * Reads every row of a UTF-8 CSV file after its header.
+     *
+     * @param fileName The path of the file.
+     * @param mapper   Turns each row into a value, possibly on another thread.
+     * @param accepted Receives each value with its row number, on the calling thread in file order.
+     * @param rejected Receives the problem of each malformed row or row the mapper rejected, with its row
+     *                 number, in file order.
+     * @param <T>      The type of the values.
+     * @throws IOException if the file cannot be read.
+     */
+    public static <T> void read(String fileName, RowMapper<T> mapper, ObjIntConsumer<T> accepted,
+                                ObjIntConsumer<String> rejected) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel file = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            long size = file.size();
+            if (size < 2L * CHUNK_SIZE || size > Integer.MAX_VALUE) {
+                readSequentially(fileName, mapper, accepted, rejected);
+                return;
+            }
+            data = file.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        int[] bounds = split(data);
+        int chunks = bounds.length - 1;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        // First count the rows of each chunk, so every chunk knows the number of its first row
+        List<ForkJoinTask<Integer>> counts = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            int start = bounds[i];
+            int end = bounds[i + 1];
+            counts.add(pool.submit(() -> countRows(data, start, end)));
+        }
+        int[] rowsBefore = new int[chunks];
+        int total = 0;
+        for (int i = 0; i < chunks; i++) {
+            int rows = counts.get(i).join();
+            if (rows < 0) {
+                readSequentially(fileName, mapper, accepted, rejected);
+                return;
+            }
+            rowsBefore[i] = total;
+            total += rows;
+        }
+
+        List<ForkJoinTask<List<Parsed<T>>>> parsed = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            ByteBuffer chunk = data.slice(bounds[i], bounds[i + 1] - bounds[i]);
+            int first = rowsBefore[i];
+            boolean header = i == 0;
+            parsed.add(pool.submit(() -> parse(chunk, first, header, mapper)));
+        }
+        for (ForkJoinTask<List<Parsed<T>>> task : parsed) {
+            for (Parsed<T> row : task.join()) {
+                if (row.problem != null) {
+                    rejected.accept(row.problem, row.row);
+                } else {
+                    accepted.accept(row.value, row.row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a file with a single {@link CsvReader} on the calling thread.
+     *
+     * @param fileName The path of the file.
+     * @param mapper   Turns each row into a value.
+     * @param accepted Receives each value with its row number.
+     * @param rejected Receives the problem of each rejected row with its row number.
+     * @param <T>      The type of the values.
+     * @throws IOException if the file cannot be read.
+     */
+    private static <T> void readSequentially(String fileName, RowMapper<T> mapper, ObjIntConsumer<T> accepted,
+                                             ObjIntConsumer<String> rejected) throws IOException {
+        try (CsvReader csv = CsvReader.open(fileName)) {
+            csv.readRow(rejected); // Skip header
+            String[] fields;
+            while ((fields = csv.readRow(rejected)) != null) {
+                Parsed<T> row = apply(mapper, fields, csv);
+                if (row.problem != null) {
+                    rejected.accept(row.problem, row.row);
+                } else {
+                    accepted.accept(row.value, row.row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits a file into chunks of about {@link #CHUNK_SIZE} bytes, each ending just after a line feed.
+     *
+     * @param data The file.
+     * @return The offsets where the chunks start, followed by the file size.
+     */
+    private static int[] split(ByteBuffer data) {
+        int size = data.limit();
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int at = CHUNK_SIZE;
+        while (at < size) {
+            while (at < size && data.get(at - 1) != '\n') {
+                at++;
+            }
+            if (at < size) {
+                bounds.add(at);
+            }
+            at += CHUNK_SIZE;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Counts the rows in part of a file the way {@link CsvReader} does, where a
+     * row is a run of characters between line breaks.
+     *
+     * @param data  The file.
+     * @param start Offset of the first byte.
+     * @param end   Offset after the last byte.
+     * @return The number of rows, or -1 if the part contains a quote.
+     */
+    private static int countRows(ByteBuffer data, int start, int end) {
+        int rows = 0;
+        boolean inRow = false;
+        for (int i = start; i < end; i++) {
+            byte b = data.get(i);
+            if (b == '"') {
+                return -1;
+            }
+            if (b == '\n' || b == '\r') {
+                inRow = false;
+            } else if (!inRow) {
+                inRow = true;
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Parses a chunk of a file and turns its rows into values.
+     *
+     * @param chunk      The bytes of the chunk.
+     * @param rowsBefore The number of rows before the chunk.
+     * @param header     Whether the chunk starts with the header, which is skipped.
+     * @param mapper     Turns each row into a value.
+     * @param <T>        The type of the values.
+     * @return The outcome of each row, in order.
+     * @throws IOException if the chunk is not valid UTF-8.
+     */
+    private static <T> List<Parsed<T>> parse(ByteBuffer chunk, int rowsBefore, boolean header, RowMapper<T> mapper)
+            throws IOException {
+        CharBuffer text = StandardCharsets.UTF_8.newDecoder().decode(chunk);
+        List<Parsed<T>> rows = new ArrayList<>();
+        try (CsvReader csv = new CsvReader(new CharArrayReader(text.array(),
+                text.arrayOffset() + text.position(), text.remaining()), rowsBefore)) {
+            ObjIntConsumer<String> malformed = (problem, row) -> rows.add(new Parsed<>(row, null, problem));
+            if (header) {
+                csv.readRow(malformed);
+            }
+            String[] fields;
+            while ((fields = csv.readRow(malformed)) != null) {
+                rows.add(apply(mapper, fields, csv));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Turns one row into a value, catching its rejection.
+     *
+     * @param mapper Turns the row into a value.
+     * @param fields The fields of the row.
+     * @param csv    The reader of the row.
+     * @param <T>    The type of the value.
+     * @return The outcome of the row.
+     */
+    private static <T> Parsed<T> apply(RowMapper<T> mapper, String[] fields, CsvReader csv) {
+        try {
+            return new Parsed<>(csv.getRow(), mapper.map(fields, csv), null);
+        } catch (IllegalArgumentException e) {
+            return new Parsed<>(csv.getRow(), null, e.getMessage());
+        }
+    }
+}
@@ -8,9 +8,6 @@ import model.User;
  */
 public class PasswordChanger {
 
-    /** Scanner object for user input. */
-    private static final Scanner sc = new Scanner(System.in);
-
     /**
      * Prompts the user to update their password.
      * Verifies the current password, and ensures the new password is confirmed correctly
@@ -19,6 +16,8 @@ public class PasswordChanger {
      * @param user The {@code User} whose password is to be updated.
      */
     public static void updatePassword(User user) {
+        Scanner sc = Session.current().in();
+
         System.out.print("Enter current password: ");
         String currentPassword = sc.nextLine();
 
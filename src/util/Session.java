@@ -0,0 +1,336 @@
+package util;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Scanner;
+
+/**
+ * The input and output of one user's conversation with the system: the console,
+ * or one network connection in server mode.
+ *
+ * Each thread serves at most one session at a time. Code that reads input asks
+ * for {@link #current()} instead of opening its own scanner on {@code System.in},
+ * so every prompt in a session reads from the same stream. Once
+ * {@link #routeSystemOut()} has been called, anything printed to
+ * {@code System.out} goes to the session of the printing thread, and threads
+ * without a session, such as background writers, print to the console.
+ */
+public class Session implements Closeable {
+
+    /** The console session, created on first use. */
+    private static Session console;
+
+    /** The session served by each thread, if it is not the console. */
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+
+    /** A session that discards its output, for work whose messages are not meant for anyone. */
+    private static final Session QUIET = new Session(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+
+    /** Scanner reading the user's input. */
+    private final Scanner in;
+
+    /** Stream printing to the user. */
+    private final PrintStream out;
+
+    /**
+     * Constructs a session over a pair of streams, such as those of a socket.
+     *
+     * @param input  The stream the user's input arrives on.
+     * @param output The stream printed to the user.
+     */
+    public Session(InputStream input, OutputStream output) {
+        this(new Scanner(input, StandardCharsets.UTF_8), new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Constructs a session from a scanner and a print stream.
+     *
+     * @param in  Scanner reading the user's input.
+     * @param out Stream printing to the user.
+     */
+    private Session(Scanner in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Returns the console session, reading {@code System.in} and printing to
+     * the console as it was before output was routed.
+     *
+     * @return The console session.
+     */
+    public static synchronized Session console() {
+        if (console == null) {
+            console = new Session(new Scanner(System.in), System.out);
+        }
+        return console;
+    }
+
+    /**
+     * Returns the session served by the calling thread.
+     *
+     * @return The thread's session, or the console session if it has none.
+     */
+    public static Session current() {
+        Session session = CURRENT.get();
+        return session != null ? session : console();
+    }
+
+    /**
+     * Makes this the session of the calling thread until {@link #unbind()} is called.
+     */
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Detaches the calling thread from its session.
+     */
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs an action with everything it prints to {@code System.out} discarded.
+     * Output is routed per thread first, so other sessions print as before.
+     *
+     * @param action The action, run on the calling thread.
+     */
+    public static void quietly(Runnable action) {
+        routeSystemOut();
+        Session previous = CURRENT.get();
+        QUIET.bind();
+        try {
+            action.run();
+        } finally {
+            if (previous != null) {
+                previous.bind();
+            } else {
+                unbind();
+            }
+        }
+    }
+
+    /**
+     * Returns the scanner reading the user's input.
+     *
+     * @return The session's scanner.
+     */
+    public Scanner in() {
+        return in;
+    }
+
+    /**
+     * Returns the stream printing to the user.
+     *
+     * @return The session's output stream.
+     */
+    public PrintStream out() {
+        return out;
+    }
+
+    /**
+     * Replaces {@code System.out} with a stream that prints to the session of
+     * the calling thread. Calling it again has no effect.
+     */
+    public static synchronized void routeSystemOut() {
+        if (!(System.out instanceof RoutedOutput)) {
+            console();
+            System.setOut(new RoutedOutput());
+        }
+    }
+
+    /**
+     * Closes the session's streams. The console session is never closed.
+     */
+    @Override
+    public void close() {
+        if (this != console) {
+            in.close();
+            out.close();
+        }
+    }
+
+    /**
+     * {@code System.out} replacement that forwards every call to the current
+     * session's stream. Each session's stream does its own locking, so a slow
+     * connection does not hold up what other sessions print.
+     */
+    private static class RoutedOutput extends PrintStream {
+
+        /**
+         * Constructs the routed stream. The underlying stream is never written to.
+         */
+        RoutedOutput() {
+            super(OutputStream.nullOutputStream());
+        }
+
+        /**
+         * Returns the stream of the calling thread's session.
+         *
+         * @return The stream to print to.
+         */
+        private static PrintStream target() {
+            return current().out;
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+
+        @Override
+        public void close() {
+            target().flush();
+        }
+
+        @Override
+        public boolean checkError() {
+            return target().checkError();
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] buf, int off, int len) {
+            target().write(buf, off, len);
+        }
+
+        @Override
+        public void print(boolean b) {
+            target().print(b);
+        }
+
+        @Override
+        public void print(char c) {
+            target().print(c);
+        }
+
+        @Override
+        public void print(int i) {
+            target().print(i);
+        }
+
+        @Override
+        public void print(long l) {
+            target().print(l);
+        }
+
+        @Override
+        public void print(float f) {
+            target().print(f);
+        }
+
+        @Override
+        public void print(double d) {
+            target().print(d);
+        }
+
+        @Override
+        public void print(char[] s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(String s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(Object obj) {
+            target().print(obj);
+        }
+
+        @Override
+        public void println() {
+            target().println();
+        }
+
+        @Override
+        public void println(boolean x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(int x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(long x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(float x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(double x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char[] x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(String x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(Object x) {
+            target().println(x);
+        }
+
+        @Override
+        public PrintStream printf(String format, Object... args) {
+            return target().printf(format, args);
+        }
+
+        @Override
+        public PrintStream printf(Locale l, String format, Object... args) {
+            return target().printf(l, format, args);
+        }
+
+        @Override
+        public PrintStream format(String format, Object... args) {
+            return target().format(format, args);
+        }
+
+        @Override
+        public PrintStream format(Locale l, String format, Object... args) {
+            return target().format(l, format, args);
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq) {
+            return target().append(csq);
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq, int start, int end) {
+            return target().append(csq, start, end);
+        }
+
+        @Override
+        public PrintStream append(char c) {
+            return target().append(c);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package util;
 
 import java.util.Scanner;
+import java.util.function.Predicate;
+import model.Nric;
 import model.User;
+import model.UserValidator;
 
 /**
  * A utility class to create {@code User} objects based on console input.
+ * Each detail is checked with {@link UserValidator} as it is entered and asked
+ * for again until it is valid.
  */
 public class UserMaker {
 
@@ -14,24 +19,49 @@ public class UserMaker {
      * @return A new {@code User} instance populated with input values.
      */
     public static User createUserFromInput() {
-        Scanner sc = new Scanner(System.in);
+        Scanner sc = Session.current().in();
 
-        System.out.print("Enter name: ");
-        String name = sc.nextLine();
+        String name = prompt(sc, "Enter name: ", UserValidator::isValidName, UserValidator.INVALID_NAME);
+        String nric = Nric.tryParse(prompt(sc, "Enter NRIC: ", text -> Nric.tryParse(text) != null,
+                UserValidator.INVALID_NRIC)).toString();
+        String password = prompt(sc, "Enter password: ", UserValidator::isValidPassword,
+                UserValidator.INVALID_PASSWORD);
 
-        System.out.print("Enter NRIC: ");
-        String nric = sc.nextLine();
-
-        System.out.print("Enter password: ");
-        String password = sc.nextLine();
-
-        System.out.print("Enter age: ");
-        int age = Integer.parseInt(sc.nextLine());
+        int age;
+        while (true) {
+            System.out.print("Enter age: ");
+            try {
+                age = Integer.parseInt(sc.nextLine().trim());
+                break;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid age. Please enter a number.");
+            }
+        }
 
         System.out.print("Are you married? (yes/no): ");
         String maritalInput = sc.nextLine().trim().toLowerCase();
         boolean isMarried = maritalInput.equals("yes") || maritalInput.equals("y");
 
-        return new User(nric, name, age, isMarried, password);
+        return new User(name, nric, age, isMarried, password);
+    }
+
+    /**
+     * Asks for a value until the entry passes a check.
+     *
+     * @param sc      The input to read from.
+     * @param label   The prompt shown before each attempt.
+     * @param valid   The check the entry must pass.
+     * @param problem The message shown when it does not.
+     * @return The first valid entry.
+     */
+    private static String prompt(Scanner sc, String label, Predicate<String> valid, String problem) {
+        while (true) {
+            System.out.print(label);
+            String value = sc.nextLine();
+            if (valid.test(value)) {
+                return value;
+            }
+            System.out.println(problem);
+        }
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ import model.*;
 import enums.*;
 import org.junit.jupiter.api.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -76,4 +77,140 @@ public class ApplicationTest {
         assertEquals(ApplicationStatus.BOOKED, app.getApplicationStatus());
         assertNotNull(app.getFlatBooking());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testApplicationsAreGroupedByStatus() {
+        BTOApplication first = new BTOApplication(marriedApplicant, visibleProject, FlatType.THREEROOM);
+        BTOApplication second = new BTOApplication(singleOldApplicant, visibleProject, FlatType.TWOROOM);
+        visibleProject.addApplication(first);
+        visibleProject.addApplication(second);
+        // Made for the project but never added to it, so not listed
+        new BTOApplication(singleYoungApplicant, visibleProject, FlatType.TWOROOM).setStatus(ApplicationStatus.SUCCESSFUL);
+
+        assertEquals(List.of(first, second), visibleProject.getApplications(ApplicationStatus.PENDING));
+
+        first.setStatus(ApplicationStatus.SUCCESSFUL);
+        second.withdraw();
+        assertEquals(List.of(first), visibleProject.getApplications(ApplicationStatus.SUCCESSFUL));
+        assertEquals(List.of(second), visibleProject.getApplications(ApplicationStatus.WITHDRAWN));
+        assertEquals(List.of(second), visibleProject.getWithdrawalRequests());
+        assertTrue(visibleProject.getApplications(ApplicationStatus.PENDING).isEmpty());
+
+        second.rejectWithdraw();
+        assertTrue(visibleProject.getWithdrawalRequests().isEmpty());
+        assertEquals(2, visibleProject.getApplications().size());
+    }
+
+    private BTOProject oversubscribed(List<BTOApplication> applications) {
+        BTOProject project = new BTOProject("LaunchDay", "Punggol", 2, 1, 300000, 400000,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(5),
+                2, new HDBManager("Mark Three", "S1234567C", 45, true, "adminpass3"), "");
+        for (int i = 0; i < 6; i++) {
+            Applicant applicant = new Applicant("Applicant", "S900000" + i + "Z", 35, true, "password123");
+            BTOApplication app = new BTOApplication(applicant, project, i < 5 ? FlatType.TWOROOM : FlatType.THREEROOM);
+            project.addApplication(app);
+            applications.add(app);
+        }
+        return project;
+    }
+
+    @Test
+    void testFifoBallotApprovesUpToSupply() {
+        List<BTOApplication> apps = new ArrayList<>();
+        BTOProject project = oversubscribed(apps);
+        apps.get(0).setStatus(ApplicationStatus.UNSUCCESSSFUL); // decided by hand before the ballot
+
+        Ballot ballot = Ballot.run(project, BallotPolicy.FIFO, 0);
+
+        assertEquals(5, ballot.getEntries().size());
+        assertEquals(ApplicationStatus.UNSUCCESSSFUL, apps.get(0).getApplicationStatus());
+        assertEquals(ApplicationStatus.SUCCESSFUL, apps.get(1).getApplicationStatus());
+        assertEquals(ApplicationStatus.SUCCESSFUL, apps.get(2).getApplicationStatus());
+        assertEquals(ApplicationStatus.UNSUCCESSSFUL, apps.get(3).getApplicationStatus());
+        assertEquals(ApplicationStatus.UNSUCCESSSFUL, apps.get(4).getApplicationStatus());
+        assertEquals(ApplicationStatus.SUCCESSFUL, apps.get(5).getApplicationStatus());
+        assertEquals(3, ballot.count(ApplicationStatus.SUCCESSFUL));
+        assertEquals(0, project.getTwoRoomNo());
+        assertEquals(0, project.getThreeRoomNo());
+        assertTrue(project.getApplications(ApplicationStatus.PENDING).isEmpty());
+    }
+
+    @Test
+    void testRandomBallotRepeatsWithTheSameSeed() {
+        List<List<String>> draws = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            BTOProject project = oversubscribed(new ArrayList<>());
+            List<String> draw = new ArrayList<>();
+            for (Ballot.Entry entry : Ballot.run(project, BallotPolicy.RANDOM, 42).getEntries()) {
+                draw.add(entry.getApplication().getApplicant().getNric() + "=" + entry.getResult());
+            }
+            draws.add(draw);
+        }
+        assertEquals(draws.get(0), draws.get(1));
+        assertEquals(6, draws.get(0).size());
+    }
+
+    @Test
+    void testReturnedFlatPromotesNextOnWaitlist() {
+        List<BTOApplication> apps = new ArrayList<>();
+        BTOProject project = oversubscribed(apps);
+        Ballot.run(project, BallotPolicy.FIFO, 0);
+        assertEquals(List.of(apps.get(2), apps.get(3), apps.get(4)), project.getWaitlist(FlatType.TWOROOM));
+
+        // The first unsuccessful applicant has applied elsewhere since, so is passed over
+        new BTOApplication(apps.get(2).getApplicant(), visibleProject, FlatType.TWOROOM);
+        BTOApplication approved = apps.get(0);
+        approved.withdraw();
+        approved.approveWithdraw();
+
+        assertEquals(ApplicationStatus.SUCCESSFUL, apps.get(3).getApplicationStatus());
+        assertEquals(1, apps.get(3).getHistory().size());
+        assertTrue(apps.get(3).getHistory().get(0).contains("Promoted from the waitlist at ballot rank 4"));
+        assertEquals(ApplicationStatus.UNSUCCESSSFUL, apps.get(2).getApplicationStatus());
+        assertEquals(List.of(apps.get(4)), project.getWaitlist(FlatType.TWOROOM));
+        assertEquals(0, project.getTwoRoomNo());
+    }
+
+    @Test
+    void testBallotThenBookingTakesOneFlatPerApplicant() {
+        List<BTOApplication> apps = new ArrayList<>();
+        BTOProject project = oversubscribed(apps);
+        HDBOfficer officer = new HDBOfficer("Olive Officer", "S1234567D", 35, true, "password123");
+        officer.setAssignedProject(project);
+
+        Ballot.run(project, BallotPolicy.FIFO, 0);
+        for (BTOApplication app : apps) {
+            if (app.getApplicationStatus() == ApplicationStatus.SUCCESSFUL) {
+                officer.bookFlat(app.getApplicant());
+            }
+        }
+
+        assertEquals(ApplicationStatus.BOOKED, apps.get(0).getApplicationStatus());
+        assertEquals(ApplicationStatus.BOOKED, apps.get(1).getApplicationStatus());
+        assertEquals(ApplicationStatus.BOOKED, apps.get(5).getApplicationStatus());
+        assertEquals(0, project.getTwoRoomNo());
+        assertEquals(0, project.getThreeRoomNo());
+
+        // A booked flat given back goes to the next on the waitlist, who books it in turn
+        apps.get(0).withdraw();
+        apps.get(0).approveWithdraw();
+        officer.bookFlat(apps.get(2).getApplicant());
+
+        assertEquals(ApplicationStatus.BOOKED, apps.get(2).getApplicationStatus());
+        assertEquals(0, project.getTwoRoomNo());
+    }
+
+    @Test
+    void testReturnedFlatStaysFreeWithoutWaitlist() {
+        BTOApplication app = new BTOApplication(marriedApplicant, visibleProject, FlatType.THREEROOM);
+        visibleProject.addApplication(app);
+        assertTrue(visibleProject.tryReserveFlat(FlatType.THREEROOM));
+        app.setStatus(ApplicationStatus.SUCCESSFUL);
+
+        app.withdraw();
+        app.approveWithdraw();
+
+        assertEquals(5, visibleProject.getThreeRoomNo());
+        assertTrue(app.getHistory().isEmpty());
+    }
+}
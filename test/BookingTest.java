@@ -5,46 +5,105 @@ import static org.junit.jupiter.api.Assertions.*;
 import model.*;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 public class BookingTest {
 
     private HDBOfficer officer;
     private Applicant applicant;
     private BTOProject project;
+    private HDBManager manager;
 
     @BeforeEach
     void setUp() {
         officer = new HDBOfficer("Alice Officer", "S1234567A", 35, true, "Password123");
         applicant = new Applicant("Bob Applicant", "S7654321B", 36, false, "SecurePass1");
 
+        manager = new HDBManager("Manager Name", "S4567890C", 45, true, "ManagerPass1");
         project = new BTOProject(
             "Maple Grove", "Punggol",
             1, 1,
             300000, 400000,
             LocalDate.now().minusDays(1), LocalDate.now().plusDays(5),
-            1, new HDBManager("Manager Name", "S4567890C", 45, true, "ManagerPass1"),
+            1, manager,
             "Alice Officer"
         );
 
         officer.setAssignedProject(project);
         BTOApplication application = new BTOApplication(applicant, project, FlatType.TWOROOM);
-        application.setStatus(ApplicationStatus.SUCCESSFUL);
         applicant.setApplication(application);
         project.addApplication(application);
+        assertTrue(manager.approveApplication(application));
     }
 
     @Test
-    void testFlatBookingUpdatesAvailabilityAndStatus() {
-        assertEquals(1, project.getTwoRoomNo());
+    void testFlatBookingUsesTheFlatHeldSinceApproval() {
+        Applicant dee = new Applicant("Dee Applicant", "S3456789E", 38, true, "SecurePass3");
+        BTOApplication app = new BTOApplication(dee, project, FlatType.THREEROOM);
+        project.addApplication(app);
+
+        assertTrue(manager.approveApplication(app));
+        assertEquals(0, project.getThreeRoomNo());
+        officer.bookFlat(dee);
+
+        assertEquals(0, project.getThreeRoomNo());
+        assertEquals(ApplicationStatus.BOOKED, app.getApplicationStatus());
+        assertNotNull(app.getFlatBooking());
+        assertThrows(IllegalStateException.class, () -> manager.approveApplication(app));
+    }
+
+    @Test
+    void testGenerateBookingReceipt() {
         officer.bookFlat(applicant);
+        assertDoesNotThrow(() -> officer.generateBookingReceipt(applicant));
+    }
+
+    @Test
+    void testBatchBookingReportsEachNric() {
+        Applicant carol = new Applicant("Carol Applicant", "S2345678D", 40, true, "SecurePass2");
+        BTOApplication married = new BTOApplication(carol, project, FlatType.THREEROOM);
+        project.addApplication(married);
+        assertTrue(manager.approveApplication(married));
+        Applicant eve = new Applicant("Eve Applicant", "S8888888E", 37, false, "SecurePass4");
+        BTOApplication late = new BTOApplication(eve, project, FlatType.TWOROOM);
+        project.addApplication(late);
+        assertFalse(manager.approveApplication(late));
+        Map<String, Applicant> users = Map.of(applicant.getNric(), applicant, carol.getNric(), carol,
+                eve.getNric(), eve);
+
+        BatchBooking batch = officer.bookFlats(
+                List.of("s7654321b", "S7654321B", "S2345678D", "S8888888E", "S9999999Z", "X1"),
+                nric -> users.get(nric.toString()));
+
+        List<BatchBooking.Entry> entries = batch.getEntries();
+        assertEquals(6, entries.size());
+        assertTrue(entries.get(0).isBooked());
+        assertEquals("Already listed at position 1.", entries.get(1).getOutcome());
+        assertTrue(entries.get(2).isBooked());
+        assertEquals("The application is not marked as SUCCESSFUL.", entries.get(3).getOutcome());
+        assertEquals("Applicant not found.", entries.get(4).getOutcome());
+        assertEquals(UserValidator.INVALID_NRIC, entries.get(5).getOutcome());
+        assertEquals(2, batch.getBookedCount());
+        // The booked flats were taken when the applications were approved
         assertEquals(0, project.getTwoRoomNo());
+        assertEquals(0, project.getThreeRoomNo());
         assertEquals(ApplicationStatus.BOOKED, applicant.getApplication().getApplicationStatus());
-        assertNotNull(applicant.getApplication().getFlatBooking());
+        assertEquals(ApplicationStatus.BOOKED, married.getApplicationStatus());
+        assertEquals(ApplicationStatus.PENDING, late.getApplicationStatus());
+        assertTrue(batch.receipts().contains("NRIC: S7654321B"));
+        assertFalse(batch.receipts().contains("S8888888E"));
     }
 
     @Test
-    void testGenerateBookingReceipt() {
+    void testBatchBookingSkipsApplicantsAlreadyBooked() {
         officer.bookFlat(applicant);
-        assertDoesNotThrow(() -> officer.generateBookingReceipt(applicant));
+        project.setTwoRoomNo(1);
+
+        BatchBooking batch = officer.bookFlats(List.of(applicant.getNric()), nric -> applicant);
+
+        assertEquals("Applicant has already booked a flat.", batch.getEntries().get(0).getOutcome());
+        assertEquals(1, project.getTwoRoomNo());
+        assertEquals("", batch.receipts());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+import model.*;
+import enums.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repo.ApplicantRepo;
+import repo.BTOProjectRepo;
+import repo.Checkpointer;
+import repo.HDBManagerRepo;
+import repo.HDBOfficerRepo;
+import repo.Journal;
+import repo.Snapshot;
+import repo.UserDirectory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointTest {
+
+    @TempDir
+    Path dir;
+
+    /** Empty repositories linked through a user directory, as at startup. */
+    private static class Repos {
+        final ApplicantRepo applicantRepo = new ApplicantRepo();
+        final HDBOfficerRepo officerRepo = new HDBOfficerRepo();
+        final HDBManagerRepo managerRepo = new HDBManagerRepo();
+        final BTOProjectRepo projectRepo = new BTOProjectRepo(managerRepo, officerRepo);
+        final UserDirectory directory = new UserDirectory();
+
+        Repos() {
+            directory.register(applicantRepo);
+            directory.register(officerRepo);
+            directory.register(managerRepo);
+        }
+    }
+
+    private Snapshot snapshot(Repos repos) {
+        return new Snapshot(dir.resolve("Snapshot.bin").toString(), repos.applicantRepo, repos.officerRepo,
+                repos.managerRepo, repos.projectRepo);
+    }
+
+    private Journal journal(Repos repos) {
+        return new Journal(dir.resolve("Journal.csv").toString(), repos.projectRepo, repos.directory);
+    }
+
+    @Test
+    void testCheckpointPlusJournalTailRestoresState() {
+        Repos before = new Repos();
+        Applicant alice = new Applicant("Alice Tan", "S1234567A", 36, false, "Password1");
+        HDBManager michael = new HDBManager("Michael", "T8765432F", 36, false, "Password3");
+        before.applicantRepo.addUser(alice);
+        before.managerRepo.addUser(michael);
+        BTOProject project = new BTOProject("SkyVille", "Bishan", 10, 5, 200000, 300000,
+                LocalDate.now(), LocalDate.now().plusDays(7), 2, michael, "");
+        before.projectRepo.addUser(project);
+
+        Journal journal = journal(before);
+        journal.open();
+        Checkpointer checkpointer = new Checkpointer(snapshot(before), journal, 2, 3600);
+        checkpointer.start();
+
+        BTOApplication application = new BTOApplication(alice, project, FlatType.TWOROOM);
+        project.addApplication(application);
+        application.setStatus(ApplicationStatus.SUCCESSFUL); // second change: checkpoint
+        checkpointer.close();                                // waits for it to be written
+        application.withdraw();                              // only in the journal
+        journal.close();
+        assertTrue(Files.exists(dir.resolve("Snapshot.bin")));
+        assertTrue(checkpointer.getReport().startsWith("1 checkpoint(s) written"), checkpointer.getReport());
+
+        Repos after = new Repos();
+        Journal reopened = journal(after);
+        long offset = snapshot(after).load(reopened.getGeneration());
+        assertTrue(offset > 0);
+        assertEquals(ApplicationStatus.SUCCESSFUL,
+                after.applicantRepo.getUser("S1234567A").getApplication().getApplicationStatus());
+
+        reopened.replay(offset);
+        BTOApplication restored = after.applicantRepo.getUser("S1234567A").getApplication();
+        assertTrue(restored.hasRequestedWithdraw());
+        assertEquals(1, after.projectRepo.getProject("SkyVille").getApplications().size());
+    }
+
+    @Test
+    void testCheckpointOnEveryChangeKeepsNewApplicationsAndEnquiries() {
+        Repos before = new Repos();
+        Applicant alice = new Applicant("Alice Tan", "S1234567A", 36, false, "Password1");
+        HDBManager michael = new HDBManager("Michael", "T8765432F", 36, false, "Password3");
+        before.applicantRepo.addUser(alice);
+        before.managerRepo.addUser(michael);
+        BTOProject project = new BTOProject("SkyVille", "Bishan", 10, 5, 200000, 300000,
+                LocalDate.now(), LocalDate.now().plusDays(7), 2, michael, "");
+        before.projectRepo.addUser(project);
+
+        Journal journal = journal(before);
+        journal.open();
+        Checkpointer checkpointer = new Checkpointer(snapshot(before), journal, 1, 3600);
+        checkpointer.start();
+
+        BTOApplication application = new BTOApplication(alice, project, FlatType.TWOROOM);
+        alice.setApplication(application);
+        project.addApplication(application);
+        Enquiry enquiry = new Enquiry(alice, project, "When are the keys collected?");
+        alice.addEnquiry(enquiry);
+        project.addEnquiry(enquiry);
+        checkpointer.close();
+        journal.close();
+
+        Repos after = new Repos();
+        Journal reopened = journal(after);
+        long offset = snapshot(after).load(reopened.getGeneration());
+        assertTrue(offset > 0);
+        reopened.replay(offset);
+        Applicant restored = after.applicantRepo.getUser("S1234567A");
+        assertNotNull(restored.getApplication());
+        assertEquals(1, after.projectRepo.getProject("SkyVille").getApplications().size());
+        assertEquals(1, after.projectRepo.getProject("SkyVille").getEnquiries().size());
+        assertEquals("When are the keys collected?", restored.getEnquiries().get(0).getMessage());
+    }
+
+    @Test
+    void testNewApplicationsAndEnquiriesAreLinkedBeforeTheyAreRecorded() {
+        Repos repos = new Repos();
+        Applicant alice = new Applicant("Alice Tan", "S1234567A", 36, false, "Password1");
+        HDBManager michael = new HDBManager("Michael", "T8765432F", 36, false, "Password3");
+        repos.applicantRepo.addUser(alice);
+        repos.managerRepo.addUser(michael);
+        BTOProject project = new BTOProject("SkyVille", "Bishan", 10, 5, 200000, 300000,
+                LocalDate.now(), LocalDate.now().plusDays(7), 2, michael, "");
+        repos.projectRepo.addUser(project);
+
+        // What a checkpoint taken on each record would see
+        Journal journal = journal(repos);
+        journal.open();
+        List<String> seen = new ArrayList<>();
+        journal.setAfterAppend(() -> seen.add(project.getApplications().size() + " applications, "
+                + project.getEnquiries().size() + " enquiries"));
+        project.addApplication(new BTOApplication(alice, project, FlatType.TWOROOM));
+        Enquiry enquiry = new Enquiry(alice, project, "When are the keys collected?");
+        alice.addEnquiry(enquiry);
+        project.addEnquiry(enquiry);
+        journal.close();
+
+        assertEquals(List.of("1 applications, 0 enquiries", "1 applications, 1 enquiries"), seen);
+    }
+
+    @Test
+    void testThresholdMustBePositive() {
+        Repos repos = new Repos();
+        assertThrows(IllegalArgumentException.class,
+                () -> new Checkpointer(snapshot(repos), journal(repos), 0, 60));
+    }
+}
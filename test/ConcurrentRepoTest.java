@@ -0,0 +1,139 @@
+import enums.*;
+import model.*;
+import org.junit.jupiter.api.Test;
+import repo.ApplicantRepo;
+import repo.BTOProjectRepo;
+import repo.HDBManagerRepo;
+import repo.HDBOfficerRepo;
+import repo.UserDirectory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentRepoTest {
+
+    /** Runs a task on several threads at once and waits for all of them. */
+    private static void race(int threads, Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                task.run();
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testConcurrentAddsKeepNricUniqueAcrossRoles() throws InterruptedException {
+        ApplicantRepo applicantRepo = new ApplicantRepo();
+        HDBOfficerRepo officerRepo = new HDBOfficerRepo();
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        UserDirectory directory = new UserDirectory();
+        directory.register(applicantRepo);
+        directory.register(officerRepo);
+        directory.register(managerRepo);
+
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (applicantRepo.getAllUsers().size() < 200 && !failed.get()) {
+                try {
+                    for (Applicant applicant : applicantRepo.getAllUsers()) {
+                        applicant.getNric();
+                    }
+                } catch (ConcurrentModificationException e) {
+                    failed.set(true);
+                }
+            }
+        });
+        reader.start();
+
+        // Every thread tries to add the same 200 NRICs as applicants, and the first 50 as officers too
+        race(8, () -> {
+            for (int i = 0; i < 200; i++) {
+                String nric = String.format("S%07dA", i);
+                applicantRepo.addUser(new Applicant("Applicant", nric, 36, false, "Password1"));
+                if (i < 50) {
+                    officerRepo.addUser(new HDBOfficer("Officer", nric, 36, false, "Password1"));
+                }
+            }
+        });
+        reader.join();
+
+        assertFalse(failed.get());
+        // Each NRIC ends up with exactly one account, under whichever role claimed it first
+        assertEquals(200, directory.size());
+        assertEquals(200, applicantRepo.getAllUsers().size() + officerRepo.getAllUsers().size());
+        for (HDBOfficer officer : officerRepo.getAllUsers()) {
+            assertNull(applicantRepo.getUser(officer.getNric()));
+        }
+    }
+
+    @Test
+    void testConcurrentBookingsRecordInventoryInOrder() throws InterruptedException {
+        HDBManager manager = new HDBManager("Manager Name", "S4567890C", 45, true, "ManagerPass1");
+        BTOProject project = new BTOProject("Maple Grove", "Punggol", 100, 0, 300000, 400000,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(5), 1, manager, "");
+        List<String[]> records = new ArrayList<>();
+        ChangeRecorder.setSink(fields -> {
+            synchronized (records) {
+                records.add(fields);
+            }
+            return () -> {};
+        });
+        try {
+            race(8, () -> {
+                while (project.tryReserveFlat(FlatType.TWOROOM)) {
+                    Thread.yield();
+                }
+            });
+        } finally {
+            ChangeRecorder.setSink(null);
+        }
+
+        assertEquals(0, project.getTwoRoomNo());
+        assertEquals(100, records.size());
+        // Records are queued in the order the count was read, so replaying them never goes back up
+        int previous = 100;
+        for (String[] record : records) {
+            assertEquals("INVENTORY", record[0]);
+            int count = Integer.parseInt(record[2]);
+            assertTrue(count <= previous);
+            previous = count;
+        }
+        assertEquals(0, previous);
+    }
+
+    @Test
+    void testProjectRepoReadersGetSnapshots() {
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        BTOProjectRepo projectRepo = new BTOProjectRepo(managerRepo, new HDBOfficerRepo());
+        HDBManager manager = new HDBManager("Manager Name", "S4567890C", 45, true, "ManagerPass1");
+        projectRepo.addUser(new BTOProject("Alpha", "Punggol", 1, 1, 1, 1,
+                LocalDate.now(), LocalDate.now().plusDays(1), 1, manager, ""));
+
+        List<BTOProject> before = projectRepo.getProjects();
+        projectRepo.addUser(new BTOProject("Beta", "Bishan", 1, 1, 1, 1,
+                LocalDate.now(), LocalDate.now().plusDays(1), 1, manager, ""));
+
+        assertEquals(1, before.size());
+        assertEquals(2, projectRepo.getProjects().size());
+        assertThrows(UnsupportedOperationException.class, () -> before.add(null));
+    }
+}
@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+import util.CsvReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+
+    @Test
+    void testQuotedOfficerListStaysInOneField() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("Name,Officer\nAcacia Breeze,\"Daniel,Emily\"\n"));
+        assertArrayEquals(new String[] {"Name", "Officer"}, csv.readRow());
+        assertArrayEquals(new String[] {"Acacia Breeze", "Daniel,Emily"}, csv.readRow());
+        assertNull(csv.readRow());
+    }
+
+    @Test
+    void testEscapedQuotesAndEmptyFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"say \"\"hi\"\"\",,last\r\n"));
+        assertArrayEquals(new String[] {"say \"hi\"", "", "last"}, csv.readRow());
+        assertEquals(1, csv.getRow());
+        assertNull(csv.readRow());
+    }
+
+    @Test
+    void testBlankLinesAreSkipped() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\n\n\nc,d"));
+        assertArrayEquals(new String[] {"a", "b"}, csv.readRow());
+        assertArrayEquals(new String[] {"c", "d"}, csv.readRow());
+        assertEquals(2, csv.getRow());
+    }
+
+    @Test
+    void testUnterminatedQuoteReportsPosition() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\nx,\"unterminated\n"));
+        csv.readRow();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, csv::readRow);
+        assertTrue(e.getMessage().contains("row 2 (line 2, column 3)"), e.getMessage());
+    }
+
+    @Test
+    void testBadNumberReportsRowAndColumn() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("John,S1234567A,abc\n"));
+        String[] row = csv.readRow();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> csv.getInt(row, 2));
+        assertEquals("Row 1, column 3: expected a number but found 'abc'", e.getMessage());
+    }
+
+    @Test
+    void testMalformedRowIsSkippedFromItsNextLine() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\nx,\"open\ny,z\n\"bad\"!,q\nlast,row\n"));
+        List<String> problems = new ArrayList<>();
+        ObjIntConsumer<String> skipped = (problem, row) -> problems.add(row + ": " + problem);
+        assertArrayEquals(new String[] {"a", "b"}, csv.readRow(skipped));
+        assertArrayEquals(new String[] {"y", "z"}, csv.readRow(skipped));
+        assertArrayEquals(new String[] {"last", "row"}, csv.readRow(skipped));
+        assertNull(csv.readRow(skipped));
+        assertEquals(2, problems.size());
+        assertTrue(problems.get(0).startsWith("2: Malformed CSV at row 2 "), problems.get(0));
+        assertTrue(problems.get(1).startsWith("4: Malformed CSV at row 4 (line 4, column 6)"), problems.get(1));
+    }
+}
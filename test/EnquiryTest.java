@@ -3,6 +3,7 @@ import enums.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -74,4 +75,48 @@ public class EnquiryTest {
         officer.replyToEnquiry(enquiry, "Yes, parking is available.");
         assertFalse(enquiry.isReplied(), "Officer should not be able to reply if not assigned to project");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUnrepliedEnquiriesArePagedOldestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        Enquiry late = new Enquiry(9003, applicant, project, "Late", now.plusMinutes(2));
+        Enquiry early = new Enquiry(9001, applicant, project, "Early", now);
+        Enquiry middle = new Enquiry(9002, applicant, project, "Middle", now.plusMinutes(1));
+        project.addEnquiry(late);
+        project.addEnquiry(early);
+        project.addEnquiry(middle);
+
+        assertEquals(List.of(early, middle), project.getUnrepliedEnquiries(null, 2));
+        assertEquals(List.of(late), project.getUnrepliedEnquiries(middle, 2));
+
+        middle.setReply("Answered.");
+        applicant.addEnquiry(early);
+        applicant.deleteEnquiry(0);
+        assertEquals(List.of(late), project.getUnrepliedEnquiries(null, 10));
+        assertEquals(1, project.getUnrepliedEnquiryCount());
+        assertEquals(2, project.getEnquiries().size());
+    }
+
+    @Test
+    void testManagerSeesUnrepliedEnquiriesOfAllProjects() {
+        HDBManager manager = project.getHDBManager();
+        BTOProject other = new BTOProject("Harbour View", "Punggol",
+                10, 5, 300000, 400000,
+                java.time.LocalDate.now(), java.time.LocalDate.now().plusDays(30),
+                2, manager, "");
+        LocalDateTime now = LocalDateTime.now();
+        Enquiry first = new Enquiry(9101, applicant, other, "First", now);
+        Enquiry second = new Enquiry(9102, applicant, project, "Second", now.plusMinutes(1));
+        Enquiry third = new Enquiry(9103, applicant, other, "Third", now.plusMinutes(2));
+        project.addEnquiry(second);
+        other.addEnquiry(third);
+        other.addEnquiry(first);
+
+        assertEquals(List.of(first, second), manager.getUnrepliedEnquiries(null, 2));
+        assertEquals(List.of(third), manager.getUnrepliedEnquiries(second, 2));
+
+        manager.replyToEnquiry(second, "Answered.");
+        assertEquals(List.of(first, third), manager.getUnrepliedEnquiries(null, 10));
+        assertEquals(2, manager.getUnrepliedEnquiryCount());
+    }
+}
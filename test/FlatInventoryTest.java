@@ -0,0 +1,131 @@
+import enums.*;
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlatInventoryTest {
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws InterruptedException {
+        FlatInventory inventory = new FlatInventory();
+        inventory.set(FlatType.TWOROOM, 100);
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 50; i++) {
+                    if (inventory.tryReserve(FlatType.TWOROOM)) {
+                        reserved.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, reserved.get());
+        assertEquals(0, inventory.available(FlatType.TWOROOM));
+        assertFalse(inventory.tryReserve(FlatType.TWOROOM));
+    }
+
+    @Test
+    void testApprovedWithdrawalReturnsBookedFlatOnce() {
+        HDBManager manager = new HDBManager("Manager Name", "S4567890C", 45, true, "ManagerPass1");
+        BTOProject project = new BTOProject("Maple Grove", "Punggol", 1, 1, 300000, 400000,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(5), 1, manager, "");
+        HDBOfficer officer = new HDBOfficer("Alice Officer", "S1234567A", 35, true, "Password123");
+        officer.setAssignedProject(project);
+        Applicant applicant = new Applicant("Bob Applicant", "S7654321B", 36, false, "SecurePass1");
+        BTOApplication application = new BTOApplication(applicant, project, FlatType.THREEROOM);
+        assertTrue(manager.approveApplication(application));
+
+        officer.bookFlat(applicant);
+        assertEquals(0, project.getThreeRoomNo());
+        Applicant late = new Applicant("Carol Late", "S2222222C", 36, false, "SecurePass2");
+        assertFalse(manager.approveApplication(new BTOApplication(late, project, FlatType.THREEROOM)));
+        assertThrows(IllegalStateException.class, () -> officer.bookFlat(late));
+
+        application.withdraw();
+        application.approveWithdraw();
+        application.approveWithdraw();
+        assertEquals(1, project.getThreeRoomNo());
+        assertFalse(application.hasRequestedWithdraw());
+    }
+
+    @Test
+    void testWithdrawalsReturnEveryFlatTaken() {
+        HDBManager manager = new HDBManager("Manager Name", "S4567890C", 45, true, "ManagerPass1");
+        BTOProject project = new BTOProject("Maple Grove", "Punggol", 2, 2, 300000, 400000,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(5), 1, manager, "");
+        HDBOfficer officer = new HDBOfficer("Alice Officer", "S1234567A", 35, true, "Password123");
+        officer.setAssignedProject(project);
+        Applicant booked = new Applicant("Bob Applicant", "S7654321B", 36, false, "SecurePass1");
+        Applicant batched = new Applicant("Carol Applicant", "S2345678D", 40, true, "SecurePass2");
+        Applicant approved = new Applicant("Dee Applicant", "S3456789E", 38, true, "SecurePass3");
+        Applicant pending = new Applicant("Eve Applicant", "S8888888E", 37, false, "SecurePass4");
+        List<BTOApplication> applications = List.of(
+                new BTOApplication(booked, project, FlatType.TWOROOM),
+                new BTOApplication(batched, project, FlatType.THREEROOM),
+                new BTOApplication(approved, project, FlatType.THREEROOM),
+                new BTOApplication(pending, project, FlatType.TWOROOM));
+        applications.forEach(project::addApplication);
+
+        assertTrue(manager.approveApplication(applications.get(0)));
+        assertTrue(manager.approveApplication(applications.get(1)));
+        assertTrue(manager.approveApplication(applications.get(2)));
+        officer.bookFlat(booked);
+        assertEquals(1, officer.bookFlats(List.of(batched.getNric()), nric -> batched).getBookedCount());
+        assertEquals(1, project.getTwoRoomNo());
+        assertEquals(0, project.getThreeRoomNo());
+
+        for (BTOApplication application : applications) {
+            application.withdraw();
+            application.approveWithdraw();
+        }
+        assertEquals(2, project.getTwoRoomNo());
+        assertEquals(2, project.getThreeRoomNo());
+    }
+
+    @Test
+    void testRejectedWithdrawalKeepsTheFlatForBooking() {
+        HDBManager manager = new HDBManager("Manager Name", "S4567890C", 45, true, "ManagerPass1");
+        BTOProject project = new BTOProject("Maple Grove", "Punggol", 1, 1, 300000, 400000,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(5), 1, manager, "");
+        HDBOfficer officer = new HDBOfficer("Alice Officer", "S1234567A", 35, true, "Password123");
+        officer.setAssignedProject(project);
+        Applicant applicant = new Applicant("Bob Applicant", "S7654321B", 36, false, "SecurePass1");
+        BTOApplication application = new BTOApplication(applicant, project, FlatType.TWOROOM);
+        project.addApplication(application);
+        assertTrue(manager.approveApplication(application));
+
+        application.withdraw();
+        application.rejectWithdraw();
+        assertEquals(ApplicationStatus.SUCCESSFUL, application.getApplicationStatus());
+        assertTrue(project.getApplications(ApplicationStatus.WITHDRAWN).isEmpty());
+
+        officer.bookFlat(applicant);
+        assertEquals(ApplicationStatus.BOOKED, application.getApplicationStatus());
+        assertEquals(0, project.getTwoRoomNo());
+
+        application.withdraw();
+        application.approveWithdraw();
+        assertEquals(1, project.getTwoRoomNo());
+    }
+}
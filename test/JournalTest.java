@@ -0,0 +1,285 @@
+import model.*;
+import enums.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repo.ApplicantRepo;
+import repo.BTOProjectRepo;
+import repo.HDBManagerRepo;
+import repo.HDBOfficerRepo;
+import repo.Journal;
+import repo.UserDirectory;
+import util.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalTest {
+
+    @TempDir
+    Path dir;
+
+    private Journal journal;
+
+    /** A fresh copy of the CSV baseline, as if the application had just started. */
+    private static class World {
+        final ApplicantRepo applicantRepo = new ApplicantRepo();
+        final HDBOfficerRepo officerRepo = new HDBOfficerRepo();
+        final BTOProjectRepo projectRepo;
+        final UserDirectory directory = new UserDirectory();
+        final Applicant alice = new Applicant("Alice Tan", "S1234567A", 36, false, "Password1");
+        final HDBOfficer olivia = new HDBOfficer("Olivia", "T1111111A", 30, true, "Password2");
+        final BTOProject project;
+
+        World() {
+            HDBManagerRepo managerRepo = new HDBManagerRepo();
+            HDBManager manager = new HDBManager("Michael", "T8765432F", 36, false, "Password3");
+            managerRepo.addUser(manager);
+            applicantRepo.addUser(alice);
+            officerRepo.addUser(olivia);
+            directory.register(applicantRepo);
+            directory.register(officerRepo);
+            directory.register(managerRepo);
+            projectRepo = new BTOProjectRepo(managerRepo, officerRepo);
+            project = new BTOProject("SkyVille", "Bishan", 10, 5, 200000, 300000,
+                    LocalDate.now(), LocalDate.now().plusDays(7), 2, manager, "");
+            projectRepo.addUser(project);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private Journal start(World world) {
+        journal = new Journal(dir.resolve("Journal.csv").toString(), world.projectRepo, world.directory);
+        journal.replay();
+        journal.open();
+        return journal;
+    }
+
+    @Test
+    void testChangesSurviveRestart() {
+        World before = new World();
+        start(before);
+        BTOApplication application = new BTOApplication(before.alice, before.project, FlatType.TWOROOM);
+        before.project.addApplication(application);
+        application.setStatus(ApplicationStatus.SUCCESSFUL);
+        before.project.tryReserveFlat(FlatType.TWOROOM);
+        application.createFlatBooking(FlatType.TWOROOM);
+        Enquiry enquiry = new Enquiry(before.alice, before.project, "Is parking included, or extra?");
+        before.alice.addEnquiry(enquiry);
+        before.project.addEnquiry(enquiry);
+        enquiry.setReply("Extra, at \"standard\" rates");
+        OfficerRegistration registration = new OfficerRegistration(before.olivia, before.project);
+        registration.setStatus(RegistrationStatus.APPROVED);
+        journal.close();
+
+        World after = new World();
+        start(after);
+
+        BTOApplication restored = after.alice.getApplication();
+        assertNotNull(restored);
+        assertSame(after.project, restored.getProject());
+        assertEquals(ApplicationStatus.SUCCESSFUL, restored.getApplicationStatus());
+        assertEquals(application.getFlatBooking().getBookingDate(), restored.getFlatBooking().getBookingDate());
+        assertEquals(9, after.project.getTwoRoomNo());
+        assertEquals(1, after.project.getEnquiries().size());
+        assertEquals("Is parking included, or extra?", after.project.getEnquiries().get(0).getMessage());
+        assertEquals("Extra, at \"standard\" rates", after.alice.getEnquiries().get(0).getReply());
+        assertSame(after.project, after.olivia.getProject());
+    }
+
+    @Test
+    void testIncompleteLastRecordIsIgnored() throws IOException {
+        Files.writeString(dir.resolve("Journal.csv"),
+                "APPLY,S1234567A,SkyVille,THREEROOM\nSTATUS,S1234567A,SkyVille,SUCC");
+
+        World world = new World();
+        start(world);
+
+        assertEquals(ApplicationStatus.PENDING, world.alice.getApplication().getApplicationStatus());
+        assertEquals("APPLY,S1234567A,SkyVille,THREEROOM\n", Files.readString(dir.resolve("Journal.csv")));
+    }
+
+    @Test
+    void testCompactionKeepsCurrentState() throws IOException {
+        World before = new World();
+        start(before);
+        BTOApplication first = new BTOApplication(before.alice, before.project, FlatType.TWOROOM);
+        before.project.addApplication(first);
+        first.withdraw();
+        first.approveWithdraw();
+        BTOApplication second = new BTOApplication(before.alice, before.project, FlatType.THREEROOM);
+        before.project.addApplication(second);
+        second.setStatus(ApplicationStatus.SUCCESSFUL);
+        journal.compact();
+        journal.close();
+
+        // Header, APPLY and STATUS for each application; the approved withdrawal is closed.
+        assertEquals(5, Files.readAllLines(dir.resolve("Journal.csv")).size());
+
+        World after = new World();
+        start(after);
+        assertEquals(2, after.project.getApplications().size());
+        assertEquals(FlatType.THREEROOM, after.alice.getApplication().getFlatType());
+        assertEquals(ApplicationStatus.SUCCESSFUL, after.alice.getApplication().getApplicationStatus());
+    }
+
+    @Test
+    void testBallotIsRecordedAsOneChange() throws IOException {
+        World before = new World();
+        start(before);
+        before.project.addApplication(new BTOApplication(before.alice, before.project, FlatType.TWOROOM));
+        before.project.addApplication(new BTOApplication(before.olivia, before.project, FlatType.THREEROOM));
+        Ballot.run(before.project, BallotPolicy.FIFO, 0);
+        journal.close();
+
+        long ballots = Files.readAllLines(dir.resolve("Journal.csv")).stream()
+                .filter(line -> line.startsWith("BALLOT,")).count();
+        long statuses = Files.readAllLines(dir.resolve("Journal.csv")).stream()
+                .filter(line -> line.startsWith("STATUS,") || line.startsWith("INVENTORY,")).count();
+        assertEquals(1, ballots);
+        assertEquals(0, statuses);
+
+        World after = new World();
+        start(after);
+        assertEquals(ApplicationStatus.SUCCESSFUL, after.alice.getApplication().getApplicationStatus());
+        assertEquals(ApplicationStatus.SUCCESSFUL, after.olivia.getApplication().getApplicationStatus());
+        assertEquals(9, after.project.getTwoRoomNo());
+        assertEquals(4, after.project.getThreeRoomNo());
+    }
+
+    @Test
+    void testFailedCompactionKeepsRecording() throws IOException {
+        World before = new World();
+        start(before);
+        BTOApplication application = new BTOApplication(before.alice, before.project, FlatType.TWOROOM);
+        before.project.addApplication(application);
+        // The temporary file cannot be created where a directory stands
+        Files.createDirectory(dir.resolve("Journal.csv.tmp"));
+        journal.compact();
+        application.setStatus(ApplicationStatus.SUCCESSFUL);
+        journal.close();
+
+        World after = new World();
+        start(after);
+        assertEquals(ApplicationStatus.SUCCESSFUL, after.alice.getApplication().getApplicationStatus());
+    }
+
+    @Test
+    void testReplayIsQuietOnlyForItsOwnThread() throws Exception {
+        World before = new World();
+        start(before);
+        BTOApplication application = new BTOApplication(before.alice, before.project, FlatType.TWOROOM);
+        before.project.addApplication(application);
+        application.setStatus(ApplicationStatus.SUCCESSFUL);
+        journal.close();
+
+        ByteArrayOutputStream mine = new ByteArrayOutputStream();
+        ByteArrayOutputStream other = new ByteArrayOutputStream();
+        Session session = new Session(InputStream.nullInputStream(), mine);
+        Session otherSession = new Session(InputStream.nullInputStream(), other);
+        CountDownLatch replaying = new CountDownLatch(1);
+        Thread printer = new Thread(() -> {
+            otherSession.bind();
+            try {
+                replaying.await();
+                System.out.println("still printing");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        printer.start();
+        session.bind();
+        try {
+            // The other session prints while this thread's output is discarded
+            Session.quietly(() -> {
+                replaying.countDown();
+                try {
+                    printer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            start(new World());
+        } finally {
+            Session.unbind();
+        }
+
+        assertEquals("still printing", other.toString(StandardCharsets.UTF_8).trim());
+        String printed = mine.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.contains("Journal replayed: 2 records applied"), printed);
+        assertFalse(printed.contains("Status changed successfully"), printed);
+    }
+
+    @Test
+    void testBatchBookingIsRecordedAsOneChange() throws IOException {
+        World before = new World();
+        start(before);
+        before.project.addApplication(new BTOApplication(before.alice, before.project, FlatType.TWOROOM));
+        before.project.addApplication(new BTOApplication(before.olivia, before.project, FlatType.THREEROOM));
+        Ballot.run(before.project, BallotPolicy.FIFO, 0);
+        HDBOfficer counter = new HDBOfficer("Oscar", "T2222222B", 40, true, "Password4");
+        counter.setAssignedProject(before.project);
+        BatchBooking batch = counter.bookFlats(List.of("S1234567A", "T1111111A"),
+                nric -> nric.toString().equals("S1234567A") ? before.alice : before.olivia);
+        assertEquals(2, batch.getBookedCount());
+        journal.close();
+
+        List<String> lines = Files.readAllLines(dir.resolve("Journal.csv"));
+        assertEquals(1, lines.stream().filter(line -> line.startsWith("BOOKINGS,")).count());
+        assertEquals(0, lines.stream().filter(line -> line.startsWith("BOOK,")).count());
+
+        World after = new World();
+        start(after);
+        assertEquals(ApplicationStatus.BOOKED, after.alice.getApplication().getApplicationStatus());
+        assertEquals(ApplicationStatus.BOOKED, after.olivia.getApplication().getApplicationStatus());
+        assertEquals(before.alice.getApplication().getFlatBooking().getBookingDate(),
+                after.alice.getApplication().getFlatBooking().getBookingDate());
+        assertEquals(9, after.project.getTwoRoomNo());
+        assertEquals(4, after.project.getThreeRoomNo());
+    }
+
+    @Test
+    void testPromotionSurvivesRestartAndCompaction() {
+        World before = new World();
+        start(before);
+        before.project.setTwoRoomNo(1);
+        before.project.addApplication(new BTOApplication(before.alice, before.project, FlatType.TWOROOM));
+        before.project.addApplication(new BTOApplication(before.olivia, before.project, FlatType.TWOROOM));
+        Ballot.run(before.project, BallotPolicy.FIFO, 0);
+        before.alice.getApplication().withdraw();
+        before.alice.getApplication().approveWithdraw();
+        assertEquals(ApplicationStatus.SUCCESSFUL, before.olivia.getApplication().getApplicationStatus());
+        journal.close();
+
+        World after = new World();
+        start(after);
+        BTOApplication promoted = after.olivia.getApplication();
+        assertEquals(ApplicationStatus.SUCCESSFUL, promoted.getApplicationStatus());
+        assertEquals(before.olivia.getApplication().getHistory(), promoted.getHistory());
+        assertEquals(ApplicationStatus.WITHDRAWN, after.alice.getApplication().getApplicationStatus());
+        assertEquals(0, after.project.getTwoRoomNo());
+        journal.compact();
+        journal.close();
+
+        World compacted = new World();
+        start(compacted);
+        assertEquals(2, compacted.olivia.getApplication().getBallotRank());
+        assertEquals(promoted.getHistory(), compacted.olivia.getApplication().getHistory());
+        assertEquals(ApplicationStatus.SUCCESSFUL, compacted.olivia.getApplication().getApplicationStatus());
+    }
+}
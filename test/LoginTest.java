@@ -1,4 +1,5 @@
 import model.User;
+import model.UserValidator;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,6 +30,20 @@ public class LoginTest {
     }
 
 
+    @Test
+    void testEveryInvalidDetailIsReported() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            new User("R2 D2", "s1234567a", 30, false, "short");
+        });
+        assertEquals(UserValidator.INVALID_NAME + " " + UserValidator.INVALID_NRIC + " "
+                + UserValidator.INVALID_PASSWORD, exception.getMessage());
+
+        assertTrue(UserValidator.problems("Alice Tan", "S1234567A", "password123").isEmpty());
+        assertFalse(UserValidator.isValidName(""));
+        assertFalse(UserValidator.isValidPassword("pass word1"));
+    }
+
+
     @Test
     void testPasswordChangeFunctionality() {
         User user = new User("Eve", "S1234567Z", 30, false, "initialPass1");
@@ -52,15 +52,18 @@ public class ManagerControlTest {
     void testApproveBTOApplication() {
         assertEquals(ApplicationStatus.PENDING, application.getApplicationStatus());
 
-        manager.updateApplication(true, application);
+        assertTrue(manager.approveApplication(application));
         assertEquals(ApplicationStatus.SUCCESSFUL, application.getApplicationStatus());
+        assertEquals(4, project.getTwoRoomNo());
+        assertThrows(IllegalStateException.class, () -> manager.rejectApplication(application));
     }
 
     @Test
     void testRejectBTOApplication() {
         assertEquals(ApplicationStatus.PENDING, application.getApplicationStatus());
 
-        manager.updateApplication(false, application);
+        manager.rejectApplication(application);
         assertEquals(ApplicationStatus.UNSUCCESSSFUL, application.getApplicationStatus());
+        assertEquals(5, project.getTwoRoomNo());
     }
 }
\ No newline at end of file
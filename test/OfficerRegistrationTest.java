@@ -3,8 +3,6 @@ import enums.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -12,7 +10,6 @@ public class OfficerRegistrationTest {
 
     private HDBOfficer officer;
     private BTOProject project1, project2;
-    private List<BTOProject> allProjects;
 
     @BeforeEach
     void setUp() {
@@ -23,10 +20,6 @@ public class OfficerRegistrationTest {
                 LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 30), 2, manager, "");
         project2 = new BTOProject("Moonlight Grove", "Yishun", 10, 10, 260000, 360000,
                 LocalDate.of(2025, 1, 15), LocalDate.of(2025, 2, 15), 2, manager, "");
-
-        allProjects = new ArrayList<>();
-        allProjects.add(project1);
-        allProjects.add(project2);
     }
 
     @Test
@@ -34,10 +27,34 @@ public class OfficerRegistrationTest {
         BTOApplication application = new BTOApplication(officer, project1, FlatType.TWOROOM);
         officer.setApplication(application);
 
-        assertFalse(officer.isEligibleForRegistration(project1, allProjects),
+        assertFalse(officer.isEligibleForRegistration(project1),
                 "Officer who applied for project should not be eligible to register for same project");
     }
 
+    @Test
+    void testOverlappingRegistrationBlocksUntilRejected() {
+        OfficerRegistration reg = new OfficerRegistration(officer, project1);
+        officer.setOfficerRegistrationToHDBOfficer(reg);
+
+        assertFalse(officer.isEligibleForRegistration(project2),
+                "Pending registration overlapping the project's period should block registering");
+
+        reg.setStatus(RegistrationStatus.REJECTED);
+        assertTrue(officer.isEligibleForRegistration(project2),
+                "Rejected registration should not block registering");
+    }
+
+    @Test
+    void testRegistrationIndexFollowsProjectDates() {
+        OfficerRegistration reg = new OfficerRegistration(officer, project1);
+        reg.setStatus(RegistrationStatus.APPROVED);
+        assertFalse(officer.isEligibleForRegistration(project2));
+
+        project1.setAppCloseDate(LocalDate.of(2025, 1, 14));
+        assertTrue(officer.isEligibleForRegistration(project2),
+                "Project periods no longer overlap once the first closes earlier");
+    }
+
     @Test
     void testRegistrationStatusUpdateAndView() {
         OfficerRegistration reg = new OfficerRegistration(officer, project1);
@@ -0,0 +1,63 @@
+import model.PeriodIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeriodIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void testOverlapsIncludeBothEnds() {
+        PeriodIndex<String> index = new PeriodIndex<>();
+        index.put("January", BASE, BASE.plusDays(30));
+        index.put("March", BASE.plusDays(59), BASE.plusDays(89));
+
+        assertEquals(List.of("January"), index.overlapping(BASE.plusDays(30), BASE.plusDays(40)));
+        assertEquals(List.of(), index.overlapping(BASE.plusDays(31), BASE.plusDays(58)));
+        assertEquals(List.of("January", "March"), index.overlapping(BASE.minusDays(5), BASE.plusDays(59)));
+        assertFalse(index.overlaps(BASE, BASE.plusDays(5), "January"::equals));
+    }
+
+    @Test
+    void testMatchesBruteForceAfterRandomChanges() {
+        PeriodIndex<Integer> index = new PeriodIndex<>();
+        Map<Integer, LocalDate[]> periods = new HashMap<>();
+        Random random = new Random(15);
+
+        for (int step = 0; step < 5000; step++) {
+            int value = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                index.remove(value);
+                periods.remove(value);
+            } else {
+                LocalDate start = BASE.plusDays(random.nextInt(365));
+                LocalDate end = start.plusDays(random.nextInt(60));
+                index.put(value, start, end);
+                periods.put(value, new LocalDate[] {start, end});
+            }
+
+            LocalDate from = BASE.plusDays(random.nextInt(400));
+            LocalDate to = from.plusDays(random.nextInt(30));
+            List<Integer> expected = new ArrayList<>();
+            for (Map.Entry<Integer, LocalDate[]> entry : periods.entrySet()) {
+                LocalDate[] period = entry.getValue();
+                if (!period[0].isAfter(to) && !period[1].isBefore(from)) {
+                    expected.add(entry.getKey());
+                }
+            }
+            List<Integer> found = index.overlapping(from, to);
+            assertEquals(expected.size(), found.size());
+            assertTrue(found.containsAll(expected));
+            assertEquals(!expected.isEmpty(), index.overlaps(from, to, v -> false));
+        }
+        assertEquals(periods.size(), index.size());
+    }
+}
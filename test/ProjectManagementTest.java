@@ -2,12 +2,17 @@ import model.*;
 import enums.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import repo.BTOProjectRepo;
 import repo.HDBManagerRepo;
 import repo.HDBOfficerRepo;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,6 +63,12 @@ public class ProjectManagementTest {
                            p2.getAppOpenDate().isBefore(p1.getAppCloseDate());
 
         assertTrue(overlaps, "Overlapping dates should be detected.");
+        assertTrue(manager.hasProjectDuring(p2.getAppOpenDate(), p2.getAppCloseDate(), p2));
+        assertFalse(manager.hasProjectDuring(LocalDate.of(2025, 5, 16), LocalDate.of(2025, 5, 31), null));
+
+        // Moving the first project away clears the overlap
+        p1.setAppCloseDate(LocalDate.of(2025, 5, 4));
+        assertFalse(manager.hasProjectDuring(p2.getAppOpenDate(), p2.getAppCloseDate(), p2));
     }
 
     @Test
@@ -83,4 +94,127 @@ public class ProjectManagementTest {
         List<BTOProject> results = projectRepo.filterProjectByCriteria("flat", "tworoom");
         assertTrue(results.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLoadLinksOfficersByExactName(@TempDir Path dir) throws IOException {
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        HDBOfficerRepo officerRepo = new HDBOfficerRepo();
+        HDBManager jessica = new HDBManager("Jessica", "S5678901G", 26, false, "password1");
+        HDBOfficer dan = new HDBOfficer("Dan", "T1111111A", 30, true, "password2");
+        HDBOfficer daniel = new HDBOfficer("Daniel", "T2222222B", 36, false, "password3");
+        managerRepo.addUser(jessica);
+        officerRepo.addUser(dan);
+        officerRepo.addUser(daniel);
+
+        Path csv = dir.resolve("ProjectList.csv");
+        Files.writeString(csv, "header\n"
+                + "Acacia Breeze,Yishun,2-Room,3,350000,3-Room,3,450000,15/2/25,21/4/25,Jessica,3,\"Daniel\"\n");
+
+        BTOProjectRepo repo = new BTOProjectRepo(managerRepo, officerRepo);
+        repo.loadFromCSV(csv.toString());
+
+        BTOProject project = repo.getProject("Acacia Breeze");
+        assertNotNull(project);
+        assertSame(jessica.getprojects().get(0), project);
+        assertSame(project, daniel.getProject());
+        assertNull(dan.getProject(), "A name that is only a prefix must not be linked.");
+        assertEquals("Daniel", project.getOfficerAssignedAsString());
+    }
+
+    @Test
+    void testProjectNameIndexFollowsRenameAndDelete() {
+        BTOProject project = new BTOProject("SkyVille", "Bishan", 10, 5, 200000, 300000,
+                LocalDate.now(), LocalDate.now().plusDays(7), 1, manager, "");
+        projectRepo.addUser(project);
+
+        assertSame(project, projectRepo.getProject("skyville"));
+
+        assertTrue(projectRepo.renameProject(project, "SkyVille Residences"));
+        assertNull(projectRepo.getProject("SkyVille"));
+        assertSame(project, projectRepo.getProject("SKYVILLE RESIDENCES"));
+
+        projectRepo.deleteProject("skyville residences");
+        assertTrue(projectRepo.getProjects().isEmpty());
+        assertNull(projectRepo.getProject("SkyVille Residences"));
+    }
+
+    @Test
+    void testNeighborhoodIndexFindsSubstringsAndPrefixes() {
+        String[][] rows = {{"Yew", "Yishun"}, {"Ash", "Ang Mo Kio"}, {"Elm", "Sengkang"}, {"Oak", "Bishan"}};
+        for (String[] row : rows) {
+            projectRepo.addUser(new BTOProject(row[0], row[1], 1, 1, 1, 1,
+                    LocalDate.now(), LocalDate.now().plusDays(7), 1, manager, ""));
+        }
+
+        assertEquals(List.of("Ash", "Oak", "Elm", "Yew"), names(projectRepo.getProjectsByNeighborhood()));
+        assertEquals(List.of("Ash", "Elm"), names(projectRepo.filterProjectByCriteria("neighborhood", "NG")));
+        assertEquals(List.of("Oak", "Yew"), names(projectRepo.filterProjectByCriteria("neighborhood", "sh")));
+        assertEquals(List.of("Ash"), names(projectRepo.filterProjectByCriteria("prefix", "ang m")));
+        assertTrue(projectRepo.filterProjectByCriteria("prefix", "mo").isEmpty());
+
+        projectRepo.deleteProject("Ash");
+        assertEquals(List.of("Elm"), names(projectRepo.filterProjectByCriteria("neighborhood", "ng")));
+        assertEquals(List.of("Oak", "Elm", "Yew"), names(projectRepo.getProjectsByNeighborhood()));
+    }
+
+    @Test
+    void testEligibleProjectsAreCachedUntilProjectsChange() {
+        BTOProject open = new BTOProject("Open", "Bishan", 1, 1, 1, 1,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(7), 1, manager, "");
+        BTOProject closed = new BTOProject("Closed", "Bishan", 1, 1, 1, 1,
+                LocalDate.now().minusDays(9), LocalDate.now().minusDays(2), 1, manager, "");
+        projectRepo.addUser(open);
+        projectRepo.addUser(closed);
+
+        assertEquals(ApplicantCategory.SINGLE, new Applicant("Single Applicant", "S0000001A", 35, false, "Password1").getCategory());
+        assertEquals(ApplicantCategory.INELIGIBLE, new Applicant("Young Applicant", "S0000002A", 34, false, "Password1").getCategory());
+        assertEquals(ApplicantCategory.MARRIED, new Applicant("Married Applicant", "S0000003A", 21, true, "Password1").getCategory());
+
+        Map<BTOProject, List<FlatType>> singles = projectRepo.getEligibleProjects(ApplicantCategory.SINGLE);
+        assertEquals(Map.of(open, List.of(FlatType.TWOROOM)), singles);
+        assertSame(singles, projectRepo.getEligibleProjects(ApplicantCategory.SINGLE));
+        assertEquals(Map.of(open, List.of(FlatType.TWOROOM, FlatType.THREEROOM)),
+                projectRepo.getEligibleProjects(ApplicantCategory.MARRIED));
+        assertTrue(projectRepo.getEligibleProjects(ApplicantCategory.INELIGIBLE).isEmpty());
+
+        open.toggleVisibility();
+        assertTrue(projectRepo.getEligibleProjects(ApplicantCategory.SINGLE).isEmpty());
+        open.toggleVisibility();
+
+        assertTrue(open.tryReserveFlat(FlatType.TWOROOM));
+        assertTrue(projectRepo.getEligibleProjects(ApplicantCategory.SINGLE).isEmpty());
+        assertEquals(Map.of(open, List.of(FlatType.THREEROOM)), projectRepo.getEligibleProjects(ApplicantCategory.MARRIED));
+
+        projectRepo.deleteProject("Open");
+        assertTrue(projectRepo.getEligibleProjects(ApplicantCategory.MARRIED).isEmpty());
+    }
+
+    /** Names of projects, in order. */
+    private static List<String> names(List<BTOProject> projects) {
+        return projects.stream().map(BTOProject::getName).toList();
+    }
+
+    @Test
+    void testSaveRewritesOnlyAfterChange(@TempDir Path dir) throws IOException {
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        managerRepo.addUser(new HDBManager("Jessica", "S5678901G", 26, false, "password1"));
+        String header = "Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,Application closing date,Manager,Officer Slot,Officer";
+        Path csv = dir.resolve("ProjectList.csv");
+        Files.writeString(csv, header + "\n"
+                + "Acacia Breeze,Yishun,2-Room,2,350000,3-Room,3,450000,15/2/25,20/3/25,Jessica,3,\"\"\n");
+
+        BTOProjectRepo repo = new BTOProjectRepo(managerRepo, new HDBOfficerRepo());
+        repo.loadFromCSV(csv.toString());
+        Files.delete(csv);
+
+        repo.saveToCSV(csv.toString());
+        assertFalse(Files.exists(csv), "An unchanged repository must not be rewritten.");
+
+        repo.getProject("Acacia Breeze").setNeighborhood("Sembawang");
+        repo.saveToCSV(csv.toString());
+        assertEquals(List.of(header,
+                "Acacia Breeze,Sembawang,2-Room,2,350000,3-Room,3,450000,15/2/25,20/3/25,Jessica,3,\"\""),
+                Files.readAllLines(csv));
+        assertFalse(repo.getProject("Acacia Breeze").isDirty());
+    }
+}
@@ -0,0 +1,82 @@
+import boundary.SessionServer;
+import model.*;
+import org.junit.jupiter.api.Test;
+import repo.ApplicantRepo;
+import repo.BTOProjectRepo;
+import repo.HDBManagerRepo;
+import repo.HDBOfficerRepo;
+import repo.UserDirectory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionServerTest {
+
+    /** Name of the i-th test applicant. */
+    private static String name(int i) {
+        return "Applicant " + (char) ('A' + i);
+    }
+
+    /**
+     * Logs in over a connection, views the application, logs out and exits.
+     *
+     * @return Everything the server printed to this connection.
+     */
+    private static String converse(int port, String nric, String password) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(String.join("\n", "1", nric, password, "3", "8", "2", "").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            return new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testConcurrentSessionsShareRepositoriesButNotStreams() throws Exception {
+        ApplicantRepo applicantRepo = new ApplicantRepo();
+        HDBOfficerRepo officerRepo = new HDBOfficerRepo();
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        BTOProjectRepo projectRepo = new BTOProjectRepo(managerRepo, officerRepo);
+        UserDirectory directory = new UserDirectory();
+        directory.register(applicantRepo);
+        directory.register(officerRepo);
+        directory.register(managerRepo);
+        for (int i = 0; i < 8; i++) {
+            applicantRepo.addUser(new Applicant(name(i), "S000000" + i + "A", 36, false, "Password" + i));
+        }
+
+        try (SessionServer server = new SessionServer(0, directory, applicantRepo, projectRepo, officerRepo)) {
+            server.start();
+            ExecutorService clients = Executors.newFixedThreadPool(8);
+            List<Future<String>> transcripts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int n = i;
+                Callable<String> client = () -> converse(server.getPort(), "S000000" + n + "A", "Password" + n);
+                transcripts.add(clients.submit(client));
+            }
+            for (int i = 0; i < 8; i++) {
+                String transcript = transcripts.get(i).get();
+                assertTrue(transcript.contains("Welcome, " + name(i) + "!"), transcript);
+                assertTrue(transcript.contains("You have not applied for any project yet."), transcript);
+                assertTrue(transcript.trim().endsWith("Goodbye!"), transcript);
+                for (int other = 0; other < 8; other++) {
+                    if (other != i) {
+                        assertFalse(transcript.contains(name(other) + "!"), transcript);
+                    }
+                }
+            }
+            clients.shutdown();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+import model.*;
+import enums.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repo.ApplicantRepo;
+import repo.BTOProjectRepo;
+import repo.HDBManagerRepo;
+import repo.HDBOfficerRepo;
+import repo.Snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private ApplicantRepo applicantRepo;
+    private HDBOfficerRepo officerRepo;
+    private HDBManagerRepo managerRepo;
+    private BTOProjectRepo projectRepo;
+
+    @BeforeEach
+    void setUp() {
+        applicantRepo = new ApplicantRepo();
+        officerRepo = new HDBOfficerRepo();
+        managerRepo = new HDBManagerRepo();
+        projectRepo = new BTOProjectRepo(managerRepo, officerRepo);
+
+        Applicant alice = new Applicant("Alice Tan", "S1234567A", 36, false, "Password1");
+        HDBOfficer olivia = new HDBOfficer("Olivia", "T1111111A", 30, true, "Password2");
+        HDBManager michael = new HDBManager("Michael", "T8765432F", 36, false, "Password3");
+        applicantRepo.addUser(alice);
+        officerRepo.addUser(olivia);
+        managerRepo.addUser(michael);
+
+        BTOProject project = new BTOProject("SkyVille", "Bishan", 10, 5, 200000, 300000,
+                LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 30), 2, michael, "");
+        project.setVisible(false);
+        projectRepo.addUser(project);
+
+        OfficerRegistration registration = new OfficerRegistration(olivia, project);
+        olivia.setOfficerRegistrationToHDBOfficer(registration);
+        registration.setStatus(RegistrationStatus.APPROVED);
+
+        BTOApplication application = new BTOApplication(alice, project, FlatType.TWOROOM);
+        project.addApplication(application);
+        application.setStatus(ApplicationStatus.SUCCESSFUL);
+        application.createFlatBooking(FlatType.TWOROOM, LocalDateTime.of(2025, 5, 20, 10, 30, 15, 123456789));
+        application.restoreRank(3);
+        application.addHistory("2025-05-19T09:00 Promoted from the waitlist at ballot rank 3");
+
+        Enquiry enquiry = new Enquiry(alice, project, "Is parking included?");
+        alice.addEnquiry(enquiry);
+        project.addEnquiry(enquiry);
+        enquiry.setReply("Yes");
+    }
+
+    private Snapshot snapshot(ApplicantRepo a, HDBOfficerRepo o, HDBManagerRepo m, BTOProjectRepo p) {
+        return new Snapshot(dir.resolve("Snapshot.bin").toString(), a, o, m, p);
+    }
+
+    @Test
+    void testGraphSurvivesRoundTrip() {
+        Applicant bob = new Applicant("Bob Lim", "T7654321B", 30, true, "Password4");
+        applicantRepo.addUser(bob);
+        BTOApplication unlucky = new BTOApplication(bob, projectRepo.getProject("SkyVille"), FlatType.TWOROOM);
+        projectRepo.getProject("SkyVille").addApplication(unlucky);
+        unlucky.restoreRank(2);
+        unlucky.restoreStatus(ApplicationStatus.UNSUCCESSSFUL);
+        snapshot(applicantRepo, officerRepo, managerRepo, projectRepo).save(42, 1000);
+
+        ApplicantRepo applicants = new ApplicantRepo();
+        HDBOfficerRepo officers = new HDBOfficerRepo();
+        HDBManagerRepo managers = new HDBManagerRepo();
+        BTOProjectRepo projects = new BTOProjectRepo(managers, officers);
+        assertEquals(1000, snapshot(applicants, officers, managers, projects).load(42));
+
+        Applicant alice = applicants.getUser("S1234567A");
+        HDBOfficer olivia = officers.getUser("T1111111A");
+        HDBManager michael = managers.getUser("T8765432F");
+        BTOProject project = projects.getProject("SkyVille");
+
+        assertFalse(project.isVisible());
+        assertEquals(LocalDate.of(2025, 5, 30), project.getAppCloseDate());
+        assertSame(project, michael.getprojects().get(0));
+        assertSame(project, olivia.getProject());
+        assertSame(olivia.getRegistration(), project.getOfficerRegistrations().get(0));
+        assertEquals(RegistrationStatus.APPROVED, olivia.getRegistration().getStatus());
+        assertEquals("Olivia", project.getOfficerAssignedAsString());
+
+        BTOApplication application = alice.getApplication();
+        assertSame(application, project.getApplications().get(0));
+        assertEquals(ApplicationStatus.SUCCESSFUL, application.getApplicationStatus());
+        assertEquals(LocalDateTime.of(2025, 5, 20, 10, 30, 15, 123456789),
+                application.getFlatBooking().getBookingDate());
+        assertSame(application.getFlatBooking(), project.getBookings().get(0));
+        assertEquals(3, application.getBallotRank());
+        assertEquals(List.of("2025-05-19T09:00 Promoted from the waitlist at ballot rank 3"), application.getHistory());
+        BTOApplication waiting = applicants.getUser("T7654321B").getApplication();
+        assertEquals(2, waiting.getBallotRank());
+        assertEquals(List.of(waiting), project.getWaitlist(FlatType.TWOROOM));
+
+        Enquiry enquiry = alice.getEnquiries().get(0);
+        assertSame(enquiry, project.getEnquiries().get(0));
+        assertEquals("Yes", enquiry.getReply());
+    }
+
+    @Test
+    void testOffHeapRepositoryRestoresOnlyReferencedApplicants() {
+        applicantRepo.addUser(new Applicant("Bob Lim", "T7654321B", 30, true, "Password4"));
+        snapshot(applicantRepo, officerRepo, managerRepo, projectRepo).save(42, 1000);
+
+        ApplicantRepo applicants = new ApplicantRepo(true);
+        HDBOfficerRepo officers = new HDBOfficerRepo();
+        HDBManagerRepo managers = new HDBManagerRepo();
+        BTOProjectRepo projects = new BTOProjectRepo(managers, officers);
+        assertEquals(1000, snapshot(applicants, officers, managers, projects).load(42));
+        assertEquals(2, applicants.size());
+
+        BTOProject project = projects.getProject("SkyVille");
+        Applicant alice = project.getApplications().get(0).getApplicant();
+        assertSame(alice, applicants.getUser("S1234567A"));
+        assertSame(alice.getApplication(), project.getApplications().get(0));
+        assertEquals(1, alice.getEnquiries().size());
+        assertEquals("Bob Lim", applicants.getUser("T7654321B").getName());
+
+        // Saving again from the table gives the same snapshot
+        snapshot(applicants, officers, managers, projects).save(42, 1000);
+        ApplicantRepo reloaded = new ApplicantRepo();
+        HDBOfficerRepo officers2 = new HDBOfficerRepo();
+        HDBManagerRepo managers2 = new HDBManagerRepo();
+        assertEquals(1000, snapshot(reloaded, officers2, managers2, new BTOProjectRepo(managers2, officers2)).load(42));
+        assertEquals(2, reloaded.size());
+        assertNotNull(reloaded.getUser("S1234567A").getApplication());
+    }
+
+    @Test
+    void testDamagedSnapshotIsNotLoaded() throws IOException {
+        snapshot(applicantRepo, officerRepo, managerRepo, projectRepo).save(42, 1000);
+        Path file = dir.resolve("Snapshot.bin");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        ApplicantRepo applicants = new ApplicantRepo();
+        HDBManagerRepo managers = new HDBManagerRepo();
+        assertEquals(-1, snapshot(applicants, new HDBOfficerRepo(), managers,
+                new BTOProjectRepo(managers, new HDBOfficerRepo())).load(42));
+        assertTrue(applicants.getAllUsers().isEmpty());
+    }
+
+    @Test
+    void testSnapshotOfOlderJournalIsNotLoaded() {
+        snapshot(applicantRepo, officerRepo, managerRepo, projectRepo).save(42, 1000);
+
+        HDBManagerRepo managers = new HDBManagerRepo();
+        assertEquals(-1, snapshot(new ApplicantRepo(), new HDBOfficerRepo(), managers,
+                new BTOProjectRepo(managers, new HDBOfficerRepo())).load(43));
+        assertTrue(managers.getAllUsers().isEmpty());
+    }
+}
@@ -0,0 +1,359 @@
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import enums.UserRole;
+import repo.ApplicantRepo;
+import repo.BulkImport;
+import repo.HDBManagerRepo;
+import repo.UserDirectory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserRepoTest {
+
+    private ApplicantRepo applicantRepo;
+    private Applicant alice;
+    private Applicant bob;
+
+    @BeforeEach
+    void setUp() {
+        applicantRepo = new ApplicantRepo();
+        alice = new Applicant("Alice Tan", "S1234567A", 36, false, "Password1");
+        bob = new Applicant("Bob Lim", "T7654321B", 30, true, "Password2");
+        applicantRepo.addUser(alice);
+        applicantRepo.addUser(bob);
+    }
+
+    @Test
+    void testLookupIsCaseInsensitive() {
+        assertSame(alice, applicantRepo.getUser("s1234567a"));
+        assertSame(bob, applicantRepo.getUser(" T7654321B "));
+        assertNull(applicantRepo.getUser("S0000000Z"));
+        assertNull(applicantRepo.getUser("not an nric"));
+    }
+
+    @Test
+    void testNricPacksIntoLongAndKeepsTextOrder() {
+        Nric first = Nric.parse("S0000001Z");
+        Nric second = Nric.parse("S1234567A");
+        Nric third = Nric.parse("T0000000A");
+
+        assertEquals("S1234567A", Nric.fromLong(second.toLong()).toString());
+        assertEquals("S0000001Z", first.toString());
+        assertEquals(second, Nric.tryParse(" s1234567a "));
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(third) < 0);
+
+        assertThrows(IllegalArgumentException.class, () -> Nric.parse("s1234567a"));
+        assertThrows(IllegalArgumentException.class, () -> Nric.parse("X1234567A"));
+        assertNull(Nric.tryParse("S123456A"));
+        assertThrows(IllegalArgumentException.class, () -> Nric.fromLong(-1L));
+        assertEquals("S1234567A", alice.getNric());
+        assertEquals(second, alice.getNricKey());
+    }
+
+    @Test
+    void testDuplicateNricIsRejected() {
+        applicantRepo.addUser(new Applicant("Alice Clone", "S1234567A", 40, true, "Password3"));
+        assertEquals(2, applicantRepo.getAllApplicants().size());
+        assertSame(alice, applicantRepo.getUser("S1234567A"));
+    }
+
+    @Test
+    void testDeleteKeepsListAndIndexInSync() {
+        Applicant carol = new Applicant("Carol Ng", "S2222222C", 25, true, "Password4");
+        applicantRepo.addUser(carol);
+
+        applicantRepo.deleteUser("t7654321b");
+
+        assertNull(applicantRepo.getUser("T7654321B"));
+        assertEquals(List.of(alice, carol), applicantRepo.getAllApplicants());
+    }
+
+    @Test
+    void testDirectoryResolvesRoleInOneLookup() {
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        UserDirectory directory = new UserDirectory();
+        directory.register(applicantRepo);
+        directory.register(managerRepo);
+
+        HDBManager manager = new HDBManager("Michael", "T8765432F", 36, false, "Password5");
+        managerRepo.addUser(manager);
+
+        assertEquals(UserRole.MANAGER, directory.lookup("t8765432f").getRole());
+        assertSame(manager, directory.lookup("T8765432F").getUser());
+        assertEquals(UserRole.APPLICANT, directory.lookup("S1234567A").getRole());
+    }
+
+    @Test
+    void testDirectoryRejectsNricUsedByAnotherRole() {
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        UserDirectory directory = new UserDirectory();
+        directory.register(applicantRepo);
+        directory.register(managerRepo);
+
+        managerRepo.addUser(new HDBManager("Shadow", "S1234567A", 50, true, "Password6"));
+
+        assertNull(managerRepo.getUser("S1234567A"));
+        assertSame(alice, directory.lookup("S1234567A").getUser());
+
+        applicantRepo.deleteUser("S1234567A");
+        assertNull(directory.lookup("S1234567A"));
+    }
+
+    @Test
+    void testPasswordChangeMarksRepositoryForSaving(@TempDir Path dir) throws IOException {
+        Path csv = dir.resolve("ApplicantList.csv");
+        applicantRepo.saveToCSV(csv.toString());
+        Files.delete(csv);
+
+        applicantRepo.saveToCSV(csv.toString());
+        assertFalse(Files.exists(csv), "An unchanged repository must not be rewritten.");
+
+        bob.setPassword("NewPassword9");
+        applicantRepo.saveToCSV(csv.toString());
+        assertEquals(List.of("Name,NRIC,Age,MaritalStatus,Password",
+                "Alice Tan,S1234567A,36,Single,Password1",
+                "Bob Lim,T7654321B,30,Married,NewPassword9"), Files.readAllLines(csv));
+        assertFalse(bob.isDirty());
+    }
+
+    @Test
+    void testMalformedRowIsSkippedAndFileKept(@TempDir Path dir) throws IOException {
+        Path csv = dir.resolve("ApplicantList.csv");
+        List<String> lines = List.of("Name,NRIC,Age,MaritalStatus,Password",
+                "John,S1234567A,35,Single,password",
+                "\"Mary\" Lee,T2345678B,40,Married,password",
+                "Grace,S4567890D,37,Married,password");
+        Files.write(csv, lines);
+
+        ApplicantRepo loaded = new ApplicantRepo();
+        PrintStream console = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true));
+        try {
+            loaded.loadFromCSV(csv.toString());
+            loaded.saveToCSV(csv.toString());
+        } finally {
+            System.setOut(console);
+        }
+
+        assertNotNull(loaded.getUser("S1234567A"));
+        assertNotNull(loaded.getUser("S4567890D"));
+        assertNull(loaded.getUser("T2345678B"));
+        assertTrue(printed.toString().contains("(2 rows, 1 skipped)"), printed.toString());
+        assertTrue(printed.toString().contains("Row 3: Malformed CSV at row 3"), printed.toString());
+        assertEquals(lines, Files.readAllLines(csv), "A load with skipped rows must not rewrite the file.");
+    }
+
+    @Test
+    void testLargeApplicantFileLoadsInFileOrder(@TempDir Path dir) throws IOException {
+        // Large enough to be split into chunks parsed in parallel
+        Path csv = dir.resolve("ApplicantList.csv");
+        List<String> lines = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        lines.add("Name,NRIC,Age,MaritalStatus,Password");
+        for (int i = 0; i < 200_000; i++) {
+            String nric = String.format("S%07dA", i);
+            lines.add("Applicant Number," + nric + "," + (21 + i % 40) + "," + (i % 2 == 0 ? "Married" : "Single")
+                    + ",Password" + i);
+            expected.add(nric);
+        }
+        lines.set(150_001, "Broken Row,S0150000A,not a number,Single,Password1");
+        expected.remove(150_000);
+        lines.add(2, "Again,S0000000A,30,Single,Password1");
+        Files.write(csv, lines);
+
+        ApplicantRepo large = new ApplicantRepo();
+        PrintStream console = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true));
+        try {
+            large.loadFromCSV(csv.toString());
+        } finally {
+            System.setOut(console);
+        }
+
+        List<String> loaded = new ArrayList<>();
+        for (Applicant applicant : large.getAllApplicants()) {
+            loaded.add(applicant.getNric());
+        }
+        assertEquals(expected, loaded);
+        assertEquals("Password149999", large.getUser("S0149999A").getPassword());
+        assertEquals(List.of("Applicants loaded from " + csv + " (199999 rows, 2 skipped)",
+                "  Row 3: duplicate NRIC S0000000A",
+                "  Row 150003: Row 150003, column 3: expected a number but found 'not a number'"),
+                printed.toString().lines().toList());
+    }
+
+    @Test
+    void testOffHeapRepositoryCreatesApplicantsOnLookup(@TempDir Path dir) throws IOException {
+        Path csv = dir.resolve("ApplicantList.csv");
+        List<String> lines = List.of("Name,NRIC,Age,MaritalStatus,Password",
+                "Alice Tan,S1234567A,36,Single,Password1",
+                "Bob Lim,T7654321B,30,Married,Password2",
+                "Carol Ng,S2222222C,25,Married," + "Long".repeat(20));
+        Files.write(csv, lines);
+
+        ApplicantRepo offHeap = new ApplicantRepo(true);
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        UserDirectory directory = new UserDirectory();
+        directory.register(offHeap);
+        directory.register(managerRepo);
+        offHeap.loadFromCSV(csv.toString());
+        assertEquals(3, offHeap.size());
+
+        // Created on the first lookup, through the repository or the directory, and kept after
+        Applicant stored = offHeap.getUser("t7654321b");
+        assertEquals("Bob Lim", stored.getName());
+        assertTrue(stored.isMarried());
+        assertSame(stored, directory.lookup("T7654321B").getUser());
+        assertEquals(UserRole.APPLICANT, directory.lookup("S1234567A").getRole());
+        assertEquals("Long".repeat(20), offHeap.getUser("S2222222C").getPassword());
+        assertNull(offHeap.getUser("S0000000Z"));
+
+        managerRepo.addUser(new HDBManager("Shadow", "S2222222C", 50, true, "Password6"));
+        assertNull(managerRepo.getUser("S2222222C"));
+
+        offHeap.addUser(new Applicant("Alice Clone", "S1234567A", 40, true, "Password3"));
+        offHeap.deleteUser("S1234567A");
+        assertNull(offHeap.getUser("S1234567A"));
+        assertNull(directory.lookup("S1234567A"));
+        assertEquals(2, offHeap.size());
+
+        stored.setPassword("NewPassword9");
+        offHeap.saveToCSV(csv.toString());
+        assertEquals(List.of(lines.get(0),
+                "Bob Lim,T7654321B,30,Married,NewPassword9",
+                lines.get(3)), Files.readAllLines(csv));
+    }
+
+    @Test
+    void testBulkImportRejectsDuplicatesAndWritesSummary(@TempDir Path dir) throws IOException {
+        HDBManagerRepo managerRepo = new HDBManagerRepo();
+        UserDirectory directory = new UserDirectory();
+        directory.register(applicantRepo);
+        directory.register(managerRepo);
+        managerRepo.addUser(new HDBManager("Boss Ng", "S7777777M", 50, true, "Password7"));
+
+        Path input = dir.resolve("NewApplicants.csv");
+        Files.write(input, List.of("Name,NRIC,Age,MaritalStatus,Password",
+                "Carol Lee,S2222222C,28,Single,Password3",
+                "Bob Again,T7654321B,31,Married,Password4",
+                "Boss Ng,S7777777M,50,Married,Password7",
+                "Carol Twin,S2222222C,28,Single,Password5",
+                "Bad Row,X123,28,Single,short",
+                "Dan Ho,S3333333D,40,Married,Password6"));
+        Path summary = dir.resolve("summary.csv");
+        Path data = dir.resolve("ApplicantList.csv");
+
+        BulkImport<Applicant> job = applicantRepo.importCSV(input.toString(), summary.toString(), data.toString());
+
+        assertTrue(job.isComplete());
+        assertEquals(2, job.getAccepted());
+        assertEquals(4, job.getRejected());
+        assertEquals("Carol Lee", applicantRepo.getUser("S2222222C").getName());
+        assertEquals("Bob Lim", applicantRepo.getUser("T7654321B").getName());
+        assertSame(applicantRepo.getUser("S3333333D"), directory.lookup("S3333333D").getUser());
+        assertEquals(List.of("Row,NRIC,Result,Reason",
+                "2,S2222222C,ACCEPTED,",
+                "3,T7654321B,REJECTED,NRIC already registered as APPLICANT",
+                "4,S7777777M,REJECTED,NRIC already registered as MANAGER",
+                "5,S2222222C,REJECTED,\"Duplicate NRIC, first given in row 2\"",
+                "6,X123,REJECTED," + UserValidator.INVALID_NRIC + " " + UserValidator.INVALID_PASSWORD,
+                "7,S3333333D,ACCEPTED,"), Files.readAllLines(summary));
+        assertEquals(5, Files.readAllLines(data).size());
+        assertFalse(Files.exists(dir.resolve("summary.csv.checkpoint")));
+    }
+
+    @Test
+    void testBulkImportCarriesOnFromCheckpoint(@TempDir Path dir) throws IOException {
+        Path input = dir.resolve("NewApplicants.csv");
+        Files.write(input, List.of("Name,NRIC,Age,MaritalStatus,Password",
+                "Carol Lee,S2222222C,28,Single,Password3",
+                "Dan Ho,S3333333D,40,Married,Password6"));
+        // An earlier run finished row 2 and stopped
+        Path summary = dir.resolve("summary.csv");
+        String done = "Row,NRIC,Result,Reason\n2,S2222222C,ACCEPTED,\n";
+        Files.writeString(summary, done + "3,S3333333D,ACC");
+        Files.writeString(dir.resolve("summary.csv.checkpoint"), "2,1,0," + done.length());
+
+        BulkImport<Applicant> job = applicantRepo.importCSV(input.toString(), summary.toString(), null);
+
+        assertTrue(job.isComplete());
+        assertEquals(2, job.getResumedAfter());
+        assertEquals(2, job.getAccepted());
+        assertNull(applicantRepo.getUser("S2222222C"));
+        assertEquals("Dan Ho", applicantRepo.getUser("S3333333D").getName());
+        assertEquals(List.of("Row,NRIC,Result,Reason", "2,S2222222C,ACCEPTED,", "3,S3333333D,ACCEPTED,"),
+                Files.readAllLines(summary));
+    }
+
+    @Test
+    void testBulkImportKeepsUsersSavedBeforeItsCheckpoint(@TempDir Path dir) throws IOException {
+        Path input = dir.resolve("NewApplicants.csv");
+        Files.write(input, List.of("Name,NRIC,Age,MaritalStatus,Password",
+                "Carol Lee,S2222222C,28,Single,Password3",
+                "Dan Ho,S3333333D,40,Married,Password6",
+                "Alice Again,S1234567A,36,Single,Password1"));
+        // An earlier run stopped while appending the batch of rows 2 to 4 to the data file
+        Path data = dir.resolve("ApplicantList.csv");
+        String before = "Name,NRIC,Age,MaritalStatus,Password\nAlice Tan,S1234567A,36,Single,Password1\n";
+        Files.writeString(data, before + "Carol Lee,S2222222C,28,Single,Password3\nDan Ho,S3333333D,4");
+        Path summary = dir.resolve("summary.csv");
+        String header = "Row,NRIC,Result,Reason\n";
+        Files.writeString(summary, header);
+        Files.writeString(dir.resolve("summary.csv.checkpoint"),
+                "1,0,0," + header.length() + "," + before.length() + ",4");
+
+        ApplicantRepo restarted = new ApplicantRepo();
+        UserDirectory directory = new UserDirectory();
+        directory.register(restarted);
+        restarted.loadFromCSV(data.toString());
+        BulkImport<Applicant> job = restarted.importCSV(input.toString(), summary.toString(), data.toString());
+
+        assertTrue(job.isComplete());
+        assertEquals(2, job.getAccepted());
+        assertEquals(1, job.getRejected());
+        assertEquals("Dan Ho", restarted.getUser("S3333333D").getName());
+        assertEquals(List.of("Row,NRIC,Result,Reason",
+                "2,S2222222C,ACCEPTED,",
+                "3,S3333333D,ACCEPTED,",
+                "4,S1234567A,REJECTED,NRIC already registered as APPLICANT"), Files.readAllLines(summary));
+        assertEquals(List.of("Name,NRIC,Age,MaritalStatus,Password",
+                "Alice Tan,S1234567A,36,Single,Password1",
+                "Carol Lee,S2222222C,28,Single,Password3",
+                "Dan Ho,S3333333D,40,Married,Password6"), Files.readAllLines(data));
+    }
+
+    @Test
+    void testBulkImportRejectsMalformedRows(@TempDir Path dir) throws IOException {
+        Path input = dir.resolve("NewApplicants.csv");
+        Files.write(input, List.of("Name,NRIC,Age,MaritalStatus,Password",
+                "Carol Lee,S2222222C,28,Single,Password3",
+                "\"Mary\" Lee,S4444444D,31,Married,Password5",
+                "Dan Ho,S3333333D,40,Married,Password6"));
+        Path summary = dir.resolve("summary.csv");
+
+        BulkImport<Applicant> job = applicantRepo.importCSV(input.toString(), summary.toString(), null);
+
+        assertTrue(job.isComplete());
+        assertEquals(2, job.getAccepted());
+        assertEquals(1, job.getRejected());
+        assertNull(applicantRepo.getUser("S4444444D"));
+        List<String> lines = Files.readAllLines(summary);
+        assertEquals(4, lines.size());
+        assertEquals("2,S2222222C,ACCEPTED,", lines.get(1));
+        assertTrue(lines.get(2).startsWith("3,,REJECTED,\"Malformed CSV at row 3 "), lines.get(2));
+        assertEquals("4,S3333333D,ACCEPTED,", lines.get(3));
+    }
+}